@@ -17,8 +17,15 @@
 package org.springframework.cloud.netflix.eureka;
 
 import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Consumer;
+
+import javax.net.ssl.SSLContext;
 
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.InstanceInfo;
@@ -26,6 +33,8 @@ import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.AbstractDiscoveryClientOptionalArgs;
 import com.netflix.discovery.DiscoveryClient;
 import com.netflix.discovery.EurekaClientConfig;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
 import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
@@ -33,6 +42,9 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
 import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.netflix.eureka.http.EurekaDeltaLongPoll;
+import org.springframework.cloud.netflix.eureka.http.EurekaRegistryStream;
+import org.springframework.cloud.netflix.eureka.http.RegistryInterest;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.util.ReflectionUtils;
@@ -57,6 +69,18 @@ public class CloudEurekaClient extends DiscoveryClient {
 
 	private final AtomicReference<EurekaHttpClient> eurekaHttpClient = new AtomicReference<>();
 
+	private final AtomicReference<EurekaHttpClient> queryClient = new AtomicReference<>();
+
+	private final EurekaRegistryStream registryStream;
+
+	private final EurekaDeltaLongPoll deltaLongPoll;
+
+	private final RegistryInterest registryInterest;
+
+	private volatile Lock fetchRegistryUpdateLock;
+
+	private volatile AtomicLong fetchRegistryGeneration;
+
 	public CloudEurekaClient(ApplicationInfoManager applicationInfoManager, EurekaClientConfig config,
 			TransportClientFactories transportClientFactories, ApplicationEventPublisher publisher) {
 		this(applicationInfoManager, config, transportClientFactories, null, publisher);
@@ -65,11 +89,82 @@ public class CloudEurekaClient extends DiscoveryClient {
 	public CloudEurekaClient(ApplicationInfoManager applicationInfoManager, EurekaClientConfig config,
 			TransportClientFactories transportClientFactories, AbstractDiscoveryClientOptionalArgs<?> args,
 			ApplicationEventPublisher publisher) {
-		super(applicationInfoManager, config, transportClientFactories, args);
+		this(applicationInfoManager, config, transportClientFactories, args, publisher, null);
+	}
+
+	public CloudEurekaClient(ApplicationInfoManager applicationInfoManager, EurekaClientConfig config,
+			TransportClientFactories transportClientFactories, AbstractDiscoveryClientOptionalArgs<?> args,
+			ApplicationEventPublisher publisher, EurekaRegistryStream registryStream) {
+		this(applicationInfoManager, config, transportClientFactories, args, publisher, registryStream, null);
+	}
+
+	/**
+	 * Create a client that applies registry changes received from the given stream, or
+	 * registry deltas received by long polling, to its local registry, and only fetches
+	 * deltas on its regular schedule while neither keeps the local registry up to date.
+	 * @param applicationInfoManager the manager of the local instance
+	 * @param config the client configuration
+	 * @param transportClientFactories the transport to talk to the Eureka server with
+	 * @param args optional arguments, may be {@code null}
+	 * @param publisher the publisher of {@link HeartbeatEvent HeartbeatEvents}
+	 * @param registryStream the stream of registry changes, may be {@code null}
+	 * @param deltaLongPoll the long polling for registry deltas, may be {@code null}
+	 */
+	public CloudEurekaClient(ApplicationInfoManager applicationInfoManager, EurekaClientConfig config,
+			TransportClientFactories transportClientFactories, AbstractDiscoveryClientOptionalArgs<?> args,
+			ApplicationEventPublisher publisher, EurekaRegistryStream registryStream,
+			EurekaDeltaLongPoll deltaLongPoll) {
+		this(applicationInfoManager, config, transportClientFactories, args, publisher, registryStream, deltaLongPoll,
+				registryInterest(config));
+	}
+
+	private CloudEurekaClient(ApplicationInfoManager applicationInfoManager, EurekaClientConfig config,
+			TransportClientFactories transportClientFactories, AbstractDiscoveryClientOptionalArgs<?> args,
+			ApplicationEventPublisher publisher, EurekaRegistryStream registryStream,
+			EurekaDeltaLongPoll deltaLongPoll, RegistryInterest registryInterest) {
+		super(applicationInfoManager, config,
+				decorate(transportClientFactories, registryStream, deltaLongPoll, registryInterest), args);
 		this.applicationInfoManager = applicationInfoManager;
 		this.publisher = publisher;
+		this.registryStream = registryStream;
+		this.deltaLongPoll = deltaLongPoll;
+		this.registryInterest = registryInterest;
 		this.eurekaTransportField = ReflectionUtils.findField(DiscoveryClient.class, "eurekaTransport");
 		ReflectionUtils.makeAccessible(this.eurekaTransportField);
+		if (registryStream != null && config.shouldFetchRegistry()) {
+			Optional<SSLContext> sslContext = (args != null) ? args.getSSLContext() : Optional.empty();
+			registryStream.start(config, applicationInfoManager.getInfo(), sslContext, new RegistryStreamListener());
+		}
+		if (deltaLongPoll != null && config.shouldFetchRegistry() && !config.shouldDisableDelta()) {
+			deltaLongPoll.start(new DeltaLongPollListener());
+		}
+	}
+
+	private static RegistryInterest registryInterest(EurekaClientConfig config) {
+		if (config instanceof EurekaClientConfigBean configBean && (!configBean.getInterestedApplications().isEmpty()
+				|| configBean.isLearnInterestedApplications())) {
+			return new RegistryInterest(configBean.getInterestedApplications(),
+					configBean.isLearnInterestedApplications());
+		}
+		return null;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static TransportClientFactories decorate(TransportClientFactories transportClientFactories,
+			EurekaRegistryStream registryStream, EurekaDeltaLongPoll deltaLongPoll, RegistryInterest registryInterest) {
+		TransportClientFactories decorated = transportClientFactories;
+		// every fetch is restricted to the interest, including those made by long polling
+		if (registryInterest != null) {
+			decorated = registryInterest.decorate(decorated);
+		}
+		// long polling needs the clients that talk to the server, the stream answers before it
+		if (deltaLongPoll != null) {
+			decorated = deltaLongPoll.decorate(decorated);
+		}
+		if (registryStream != null) {
+			decorated = registryStream.decorate(decorated);
+		}
+		return decorated;
 	}
 
 	public ApplicationInfoManager getApplicationInfoManager() {
@@ -106,10 +201,134 @@ public class CloudEurekaClient extends DiscoveryClient {
 		return this.eurekaHttpClient.get();
 	}
 
+	private EurekaHttpClient getQueryClient() throws IllegalAccessException {
+		if (this.queryClient.get() == null) {
+			Object eurekaTransport = this.eurekaTransportField.get(this);
+			Field queryClientField = ReflectionUtils.findField(eurekaTransport.getClass(), "queryClient");
+			ReflectionUtils.makeAccessible(queryClientField);
+			this.queryClient.compareAndSet(null, (EurekaHttpClient) queryClientField.get(eurekaTransport));
+		}
+		return this.queryClient.get();
+	}
+
+	/**
+	 * Add an application that was looked up to the applications the client is interested
+	 * in, and fetch it right away, if the client learns its interest. Fetches from then on
+	 * include the application.
+	 * @param appName the name of the application
+	 */
+	public void learnInterest(String appName) {
+		if (this.registryInterest == null || !this.registryInterest.register(appName)) {
+			return;
+		}
+		Application application = null;
+		try {
+			EurekaHttpClient queryClient = getQueryClient();
+			if (queryClient != null) {
+				EurekaHttpResponse<Application> response = queryClient
+					.getApplication(appName.toUpperCase(Locale.ROOT));
+				application = (response.getStatusCode() == HttpStatus.OK.value()) ? response.getEntity() : null;
+			}
+		}
+		catch (IllegalAccessException | RuntimeException ex) {
+			// the next fetch includes the application
+			log.debug("Could not fetch newly interesting application " + appName, ex);
+		}
+		if (application != null) {
+			List<InstanceInfo> instances = application.getInstancesAsIsFromEureka();
+			updateLocalRegistry(applications -> instances.forEach(instance -> addInstance(applications, instance)));
+		}
+	}
+
 	public void setStatus(InstanceStatus newStatus, InstanceInfo info) {
 		getEurekaHttpClient().statusUpdate(info.getAppName(), info.getId(), newStatus, info);
 	}
 
+	@Override
+	public synchronized void shutdown() {
+		if (this.registryStream != null) {
+			this.registryStream.stop();
+		}
+		if (this.deltaLongPoll != null) {
+			this.deltaLongPoll.stop();
+		}
+		super.shutdown();
+	}
+
+	private void updateLocalRegistry(Consumer<Applications> update) {
+		Lock lock = fetchRegistryUpdateLock();
+		AtomicLong generation = fetchRegistryGeneration();
+		lock.lock();
+		try {
+			Applications applications = getApplications();
+			update.accept(applications);
+			applications.shuffleInstances(getEurekaClientConfig().shouldFilterOnlyUpInstances());
+			// fetches still in flight carry older data
+			generation.incrementAndGet();
+		}
+		finally {
+			lock.unlock();
+		}
+		onCacheRefreshed();
+	}
+
+	/**
+	 * The lock {@link DiscoveryClient} holds while it updates the local registry, which
+	 * only the registry stream, delta long polling and learnt interest need.
+	 */
+	private Lock fetchRegistryUpdateLock() {
+		Lock lock = this.fetchRegistryUpdateLock;
+		if (lock == null) {
+			lock = (Lock) getDiscoveryClientField("fetchRegistryUpdateLock");
+			this.fetchRegistryUpdateLock = lock;
+		}
+		return lock;
+	}
+
+	/**
+	 * The generation {@link DiscoveryClient} compares to discard fetches that started
+	 * before the local registry was updated.
+	 */
+	private AtomicLong fetchRegistryGeneration() {
+		AtomicLong generation = this.fetchRegistryGeneration;
+		if (generation == null) {
+			generation = (AtomicLong) getDiscoveryClientField("fetchRegistryGeneration");
+			this.fetchRegistryGeneration = generation;
+		}
+		return generation;
+	}
+
+	private Object getDiscoveryClientField(String name) {
+		Field field = ReflectionUtils.findField(DiscoveryClient.class, name);
+		if (field == null) {
+			throw new IllegalStateException("DiscoveryClient has no " + name
+					+ " field, the registry stream, delta long polling and learning interested applications "
+					+ "are not supported by this version of eureka-client");
+		}
+		ReflectionUtils.makeAccessible(field);
+		return ReflectionUtils.getField(field, this);
+	}
+
+	private static void addInstance(Applications applications, InstanceInfo instanceInfo) {
+		Application application = applications.getRegisteredApplications(instanceInfo.getAppName());
+		if (application == null) {
+			application = new Application(instanceInfo.getAppName());
+			applications.addApplication(application);
+		}
+		application.addInstance(instanceInfo);
+	}
+
+	private static void removeInstance(Applications applications, String appName, String id) {
+		Application application = applications.getRegisteredApplications(appName);
+		InstanceInfo instanceInfo = (application != null) ? application.getByInstanceId(id) : null;
+		if (instanceInfo != null) {
+			application.removeInstance(instanceInfo);
+			if (application.getInstancesAsIsFromEureka().isEmpty()) {
+				applications.removeApplication(application);
+			}
+		}
+	}
+
 	@Override
 	protected void onCacheRefreshed() {
 		super.onCacheRefreshed();
@@ -122,4 +341,61 @@ public class CloudEurekaClient extends DiscoveryClient {
 		}
 	}
 
+	/**
+	 * Applies registry changes in the same way as delta fetches.
+	 */
+	private final class RegistryStreamListener implements EurekaRegistryStream.Listener {
+
+		@Override
+		public void onChanged(InstanceInfo instanceInfo) {
+			// the stream carries changes of all applications
+			RegistryInterest interest = CloudEurekaClient.this.registryInterest;
+			if (interest != null && !interest.contains(instanceInfo.getAppName())) {
+				return;
+			}
+			updateLocalRegistry(applications -> addInstance(applications, instanceInfo));
+		}
+
+		@Override
+		public void onCancelled(String appName, String id) {
+			updateLocalRegistry(applications -> removeInstance(applications, appName, id));
+		}
+
+		@Override
+		public Applications getApplications() {
+			return CloudEurekaClient.this.getApplications();
+		}
+
+	}
+
+	/**
+	 * Applies registry deltas in the same way as delta fetches of the local region.
+	 */
+	private final class DeltaLongPollListener implements EurekaDeltaLongPoll.Listener {
+
+		@Override
+		public boolean onDelta(Applications delta) {
+			updateLocalRegistry(applications -> {
+				for (Application application : delta.getRegisteredApplications()) {
+					for (InstanceInfo instanceInfo : application.getInstances()) {
+						if (instanceInfo.getActionType() == InstanceInfo.ActionType.DELETED) {
+							removeInstance(applications, instanceInfo.getAppName(), instanceInfo.getId());
+						}
+						else {
+							addInstance(applications, instanceInfo);
+						}
+					}
+				}
+			});
+			String reconcileHashCode = getApplications().getReconcileHashCode();
+			return reconcileHashCode.equals(delta.getAppsHashCode());
+		}
+
+		@Override
+		public Applications getApplications() {
+			return CloudEurekaClient.this.getApplications();
+		}
+
+	}
+
 }
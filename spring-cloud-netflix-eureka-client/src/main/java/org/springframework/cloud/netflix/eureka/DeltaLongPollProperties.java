@@ -0,0 +1,73 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for fetching registry deltas with requests that the Eureka server holds
+ * until the registry changes, instead of every
+ * {@code eureka.client.registry-fetch-interval-seconds}.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties("eureka.client.delta-long-poll")
+public class DeltaLongPollProperties {
+
+	/**
+	 * Whether to long poll for registry deltas. The server must have
+	 * {@code eureka.server.delta-long-poll.enabled} set; the regular delta fetches are
+	 * answered locally while the local registry is known to be up to date.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Time in milliseconds the server may hold a delta fetch. The socket timeout of the
+	 * transport must be longer.
+	 */
+	private long maxWaitMs = 25000;
+
+	/**
+	 * Time in milliseconds to wait before polling again after a poll failed.
+	 */
+	private long retryIntervalMs = 5000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getMaxWaitMs() {
+		return maxWaitMs;
+	}
+
+	public void setMaxWaitMs(long maxWaitMs) {
+		this.maxWaitMs = maxWaitMs;
+	}
+
+	public long getRetryIntervalMs() {
+		return retryIntervalMs;
+	}
+
+	public void setRetryIntervalMs(long retryIntervalMs) {
+		this.retryIntervalMs = retryIntervalMs;
+	}
+
+}
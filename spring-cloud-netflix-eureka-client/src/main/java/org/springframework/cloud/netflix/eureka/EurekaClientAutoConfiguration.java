@@ -76,6 +76,8 @@ import org.springframework.cloud.client.serviceregistry.AutoServiceRegistrationP
 import org.springframework.cloud.client.serviceregistry.ServiceRegistryAutoConfiguration;
 import org.springframework.cloud.commons.util.InetUtils;
 import org.springframework.cloud.context.scope.refresh.RefreshScope;
+import org.springframework.cloud.netflix.eureka.http.EurekaDeltaLongPoll;
+import org.springframework.cloud.netflix.eureka.http.EurekaRegistryStream;
 import org.springframework.cloud.netflix.eureka.metadata.DefaultManagementMetadataProvider;
 import org.springframework.cloud.netflix.eureka.metadata.ManagementMetadata;
 import org.springframework.cloud.netflix.eureka.metadata.ManagementMetadataProvider;
@@ -106,7 +108,7 @@ import static org.springframework.cloud.commons.util.IdUtils.getDefaultInstanceI
  * @author Robert Bleyl
  */
 @Configuration(proxyBeanMethods = false)
-@EnableConfigurationProperties
+@EnableConfigurationProperties({ RegistryStreamProperties.class, DeltaLongPollProperties.class })
 @ConditionalOnClass(EurekaClientConfig.class)
 @ConditionalOnProperty(value = "eureka.client.enabled", matchIfMissing = true)
 @ConditionalOnDiscoveryEnabled
@@ -128,6 +130,20 @@ public class EurekaClientAutoConfiguration {
 		return HasFeatures.namedFeature("Eureka Client", EurekaClient.class);
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "eureka.client.registry-stream.enabled", havingValue = "true")
+	public EurekaRegistryStream eurekaRegistryStream(RegistryStreamProperties registryStreamProperties) {
+		return new EurekaRegistryStream(registryStreamProperties);
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(value = "eureka.client.delta-long-poll.enabled", havingValue = "true")
+	public EurekaDeltaLongPoll eurekaDeltaLongPoll(DeltaLongPollProperties deltaLongPollProperties) {
+		return new EurekaDeltaLongPoll(deltaLongPollProperties);
+	}
+
 	@Bean
 	@ConditionalOnMissingBean(value = EurekaClientConfig.class, search = SearchStrategy.CURRENT)
 	public EurekaClientConfigBean eurekaClientConfigBean(ConfigurableEnvironment env) {
@@ -264,8 +280,11 @@ public class EurekaClientAutoConfiguration {
 		@Bean(destroyMethod = "shutdown")
 		@ConditionalOnMissingBean(value = EurekaClient.class, search = SearchStrategy.CURRENT)
 		public EurekaClient eurekaClient(ApplicationInfoManager manager, EurekaClientConfig config,
-				TransportClientFactories<?> transportClientFactories) {
-			return new CloudEurekaClient(manager, config, transportClientFactories, this.optionalArgs, this.context);
+				TransportClientFactories<?> transportClientFactories,
+				ObjectProvider<EurekaRegistryStream> registryStream,
+				ObjectProvider<EurekaDeltaLongPoll> deltaLongPoll) {
+			return new CloudEurekaClient(manager, config, transportClientFactories, this.optionalArgs, this.context,
+					registryStream.getIfAvailable(), deltaLongPoll.getIfAvailable());
 		}
 
 		@Bean
@@ -306,7 +325,9 @@ public class EurekaClientAutoConfiguration {
 		@Lazy
 		public EurekaClient eurekaClient(ApplicationInfoManager manager, EurekaClientConfig config,
 				EurekaInstanceConfig instance, TransportClientFactories<?> transportClientFactories,
-				@Autowired(required = false) HealthCheckHandler healthCheckHandler) {
+				@Autowired(required = false) HealthCheckHandler healthCheckHandler,
+				ObjectProvider<EurekaRegistryStream> registryStream,
+				ObjectProvider<EurekaDeltaLongPoll> deltaLongPoll) {
 			// If we use the proxy of the ApplicationInfoManager we could run into a
 			// problem
 			// when shutdown is called on the CloudEurekaClient where the
@@ -322,7 +343,7 @@ public class EurekaClientAutoConfiguration {
 				appManager = manager;
 			}
 			CloudEurekaClient cloudEurekaClient = new CloudEurekaClient(appManager, config, transportClientFactories,
-					this.optionalArgs, this.context);
+					this.optionalArgs, this.context, registryStream.getIfAvailable(), deltaLongPoll.getIfAvailable());
 			cloudEurekaClient.registerHealthCheck(healthCheckHandler);
 			return cloudEurekaClient;
 		}
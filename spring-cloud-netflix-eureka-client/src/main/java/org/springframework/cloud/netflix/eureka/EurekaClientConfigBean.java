@@ -18,9 +18,11 @@ package org.springframework.cloud.netflix.eureka;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.netflix.appinfo.EurekaAccept;
 import com.netflix.discovery.EurekaClientConfig;
@@ -211,6 +213,27 @@ public class EurekaClientConfigBean implements EurekaClientConfig, Ordered {
 	 */
 	private String registryRefreshSingleVipAddress;
 
+	/**
+	 * Names of the applications the client is interested in. If set, or if
+	 * learnInterestedApplications is enabled, the client only fetches and keeps the
+	 * registry information of these applications in the local region.
+	 */
+	private Set<String> interestedApplications = new LinkedHashSet<>();
+
+	/**
+	 * Indicates whether applications that are looked up through the discovery client are
+	 * added to the interestedApplications and fetched from then on.
+	 */
+	private boolean learnInterestedApplications;
+
+	/**
+	 * Indicates whether registry fetches should ask the Eureka server for payloads
+	 * encoded with the Jackson Smile binary format. Only takes effect when
+	 * jackson-dataformat-smile is on the classpath; servers that don't produce Smile
+	 * answer with JSON.
+	 */
+	private boolean smileEnabled;
+
 	/**
 	 * The thread pool size for the heartbeatExecutor to initialise with.
 	 */
@@ -719,6 +742,30 @@ public class EurekaClientConfigBean implements EurekaClientConfig, Ordered {
 		this.registryRefreshSingleVipAddress = registryRefreshSingleVipAddress;
 	}
 
+	public Set<String> getInterestedApplications() {
+		return interestedApplications;
+	}
+
+	public void setInterestedApplications(Set<String> interestedApplications) {
+		this.interestedApplications = interestedApplications;
+	}
+
+	public boolean isLearnInterestedApplications() {
+		return learnInterestedApplications;
+	}
+
+	public void setLearnInterestedApplications(boolean learnInterestedApplications) {
+		this.learnInterestedApplications = learnInterestedApplications;
+	}
+
+	public boolean isSmileEnabled() {
+		return smileEnabled;
+	}
+
+	public void setSmileEnabled(boolean smileEnabled) {
+		this.smileEnabled = smileEnabled;
+	}
+
 	@Override
 	public int getHeartbeatExecutorThreadPoolSize() {
 		return heartbeatExecutorThreadPoolSize;
@@ -969,6 +1016,8 @@ public class EurekaClientConfigBean implements EurekaClientConfig, Ordered {
 				&& Objects.equals(eurekaServerPort, that.eurekaServerPort)
 				&& Objects.equals(eurekaServerDNSName, that.eurekaServerDNSName) && Objects.equals(region, that.region)
 				&& Objects.equals(registryRefreshSingleVipAddress, that.registryRefreshSingleVipAddress)
+				&& Objects.equals(interestedApplications, that.interestedApplications)
+				&& learnInterestedApplications == that.learnInterestedApplications && smileEnabled == that.smileEnabled
 				&& Objects.equals(serviceUrl, that.serviceUrl)
 				&& Objects.equals(fetchRemoteRegionsRegistry, that.fetchRemoteRegionsRegistry)
 				&& Objects.equals(availabilityZones, that.availabilityZones)
@@ -986,7 +1035,8 @@ public class EurekaClientConfigBean implements EurekaClientConfig, Ordered {
 				eurekaServerReadTimeoutSeconds, eurekaServerConnectTimeoutSeconds, backupRegistryImpl,
 				eurekaServerTotalConnections, eurekaServerTotalConnectionsPerHost, eurekaServerURLContext,
 				eurekaServerPort, eurekaServerDNSName, region, eurekaConnectionIdleTimeoutSeconds,
-				registryRefreshSingleVipAddress, heartbeatExecutorThreadPoolSize,
+				registryRefreshSingleVipAddress, interestedApplications, learnInterestedApplications,
+				smileEnabled, heartbeatExecutorThreadPoolSize,
 				heartbeatExecutorExponentialBackOffBound, cacheRefreshExecutorThreadPoolSize,
 				cacheRefreshExecutorExponentialBackOffBound, serviceUrl, gZipContent, useDnsForFetchingServiceUrls,
 				registerWithEureka, preferSameZoneEureka, logDeltaDiff, disableDelta, fetchRemoteRegionsRegistry,
@@ -1063,6 +1113,15 @@ public class EurekaClientConfigBean implements EurekaClientConfig, Ordered {
 			.append("registryRefreshSingleVipAddress='")
 			.append(registryRefreshSingleVipAddress)
 			.append("', ")
+			.append("interestedApplications=")
+			.append(interestedApplications)
+			.append(", ")
+			.append("learnInterestedApplications=")
+			.append(learnInterestedApplications)
+			.append(", ")
+			.append("smileEnabled=")
+			.append(smileEnabled)
+			.append(", ")
 			.append("heartbeatExecutorThreadPoolSize=")
 			.append(heartbeatExecutorThreadPoolSize)
 			.append(", ")
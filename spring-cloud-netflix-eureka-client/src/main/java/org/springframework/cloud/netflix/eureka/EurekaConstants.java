@@ -28,6 +28,28 @@ public final class EurekaConstants {
 	 */
 	public static final String DEFAULT_PREFIX = "/eureka";
 
+	/**
+	 * Response header carrying the registry version a delta was computed for.
+	 */
+	public static final String REGISTRY_VERSION_HEADER = "X-Eureka-Registry-Version";
+
+	/**
+	 * Delta query parameter with the registry version the client has already seen.
+	 */
+	public static final String DELTA_SINCE_PARAMETER = "since";
+
+	/**
+	 * Delta query parameter with the time in milliseconds the server may hold the
+	 * request until the registry version moves past the one the client has seen.
+	 */
+	public static final String DELTA_MAX_WAIT_PARAMETER = "maxWaitMs";
+
+	/**
+	 * Registry and delta query parameter with the comma separated names of the
+	 * applications the client is interested in.
+	 */
+	public static final String APPS_PARAMETER = "apps";
+
 	private EurekaConstants() {
 		throw new AssertionError("Must not instantiate constant utility class");
 	}
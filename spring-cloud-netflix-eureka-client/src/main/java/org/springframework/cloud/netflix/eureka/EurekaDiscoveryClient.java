@@ -61,6 +61,9 @@ public class EurekaDiscoveryClient implements DiscoveryClient {
 
 	@Override
 	public List<ServiceInstance> getInstances(String serviceId) {
+		if (this.eurekaClient instanceof CloudEurekaClient cloudEurekaClient) {
+			cloudEurekaClient.learnInterest(serviceId);
+		}
 		List<InstanceInfo> infos = this.eurekaClient.getInstancesByVipAddress(serviceId, false);
 		List<ServiceInstance> instances = new ArrayList<>();
 		for (InstanceInfo info : infos) {
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Properties for receiving registry changes from the Eureka server as they happen,
+ * instead of polling for them every {@code eureka.client.registry-fetch-interval-seconds}.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties("eureka.client.registry-stream")
+public class RegistryStreamProperties {
+
+	/**
+	 * Whether to subscribe to registry changes. The server must have
+	 * {@code eureka.server.registry-stream.enabled} set; delta fetches are only made while
+	 * the subscription is down.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Time in milliseconds to wait before subscribing again after the subscription
+	 * dropped.
+	 */
+	private long reconnectIntervalMs = 5000;
+
+	/**
+	 * Time in milliseconds without data, including keep-alives, after which the
+	 * subscription is considered dropped.
+	 */
+	private long idleTimeoutMs = 45000;
+
+	/**
+	 * Time in milliseconds after which a delta fetch goes to the server even though the
+	 * subscription is up, so that the hash code of the delta verifies the local registry.
+	 */
+	private long verifyIntervalMs = 300000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getReconnectIntervalMs() {
+		return reconnectIntervalMs;
+	}
+
+	public void setReconnectIntervalMs(long reconnectIntervalMs) {
+		this.reconnectIntervalMs = reconnectIntervalMs;
+	}
+
+	public long getIdleTimeoutMs() {
+		return idleTimeoutMs;
+	}
+
+	public void setIdleTimeoutMs(long idleTimeoutMs) {
+		this.idleTimeoutMs = idleTimeoutMs;
+	}
+
+	public long getVerifyIntervalMs() {
+		return verifyIntervalMs;
+	}
+
+	public void setVerifyIntervalMs(long verifyIntervalMs) {
+		this.verifyIntervalMs = verifyIntervalMs;
+	}
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClientConfig;
+import com.netflix.discovery.shared.resolver.EurekaEndpoint;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.TransportClientFactory;
+import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
+
+/**
+ * {@link TransportClientFactories} that wraps every {@link EurekaHttpClient} created by
+ * another one.
+ *
+ * @param <F> the type of the transport's filters
+ * @since 5.0.3
+ */
+class DecoratingTransportClientFactories<F> implements TransportClientFactories<F> {
+
+	private final TransportClientFactories<F> delegate;
+
+	private final UnaryOperator<EurekaHttpClient> decorator;
+
+	DecoratingTransportClientFactories(TransportClientFactories<F> delegate,
+			UnaryOperator<EurekaHttpClient> decorator) {
+		this.delegate = delegate;
+		this.decorator = decorator;
+	}
+
+	@Override
+	public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
+			Collection<F> additionalFilters, InstanceInfo myInstanceInfo) {
+		return decorate(this.delegate.newTransportClientFactory(clientConfig, additionalFilters, myInstanceInfo));
+	}
+
+	@Override
+	public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
+			Collection<F> additionalFilters, InstanceInfo myInstanceInfo, Optional<SSLContext> sslContext,
+			Optional<HostnameVerifier> hostnameVerifier) {
+		return decorate(this.delegate.newTransportClientFactory(clientConfig, additionalFilters, myInstanceInfo,
+				sslContext, hostnameVerifier));
+	}
+
+	private TransportClientFactory decorate(TransportClientFactory factory) {
+		return new TransportClientFactory() {
+			@Override
+			public EurekaHttpClient newClient(EurekaEndpoint serviceUrl) {
+				return DecoratingTransportClientFactories.this.decorator.apply(factory.newClient(serviceUrl));
+			}
+
+			@Override
+			public void shutdown() {
+				factory.shutdown();
+			}
+		};
+	}
+
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.netflix.eureka.DeltaLongPollProperties;
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpStatus;
+
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.header;
+
+/**
+ * Long polls the Eureka server for registry deltas and hands them to a {@link Listener}
+ * as soon as the server answers, which it does when the registry changes. While the
+ * local registry matches the server after the last delta, delta fetches made through
+ * {@link #decorate the decorated transport} are answered locally; otherwise they go to
+ * the server, which reconciles the local registry if needed.
+ * <p>
+ * Polls go to the server the client last fetched the registry from, with the transport
+ * it used for that. Transports that don't implement {@link LongPollingEurekaHttpClient},
+ * and servers that don't support long polling, are left to the regular delta fetches.
+ *
+ * @since 5.0.3
+ */
+public class EurekaDeltaLongPoll {
+
+	private static final Log log = LogFactory.getLog(EurekaDeltaLongPoll.class);
+
+	private final DeltaLongPollProperties properties;
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "eureka-delta-long-poll");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile LongPollingEurekaHttpClient client;
+
+	private volatile Listener listener;
+
+	private volatile String version;
+
+	private volatile boolean synced;
+
+	private volatile boolean unsupported;
+
+	private ScheduledFuture<?> polling;
+
+	public EurekaDeltaLongPoll(DeltaLongPollProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Decorate the transport of a Eureka client so that delta fetches are answered
+	 * locally while the local registry is up to date.
+	 * @param transportClientFactories the transport to decorate
+	 * @param <F> the type of the transport's filters
+	 * @return the decorated transport
+	 */
+	public <F> TransportClientFactories<F> decorate(TransportClientFactories<F> transportClientFactories) {
+		return new DecoratingTransportClientFactories<>(transportClientFactories,
+				client -> new DeltaLongPollEurekaHttpClient(client, this));
+	}
+
+	/**
+	 * Start polling for registry deltas, replacing any previous polling.
+	 * @param listener receives the registry deltas
+	 */
+	public synchronized void start(Listener listener) {
+		stop();
+		this.listener = listener;
+		this.polling = this.executor.scheduleWithFixedDelay(this::pollWhileSucceeding, 0,
+				this.properties.getRetryIntervalMs(), TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop polling for registry deltas.
+	 */
+	public synchronized void stop() {
+		if (this.polling != null) {
+			this.polling.cancel(true);
+			this.polling = null;
+		}
+		this.synced = false;
+	}
+
+	/**
+	 * Whether the local registry matched the server after the last delta.
+	 * @return {@code true} if delta fetches can be answered locally
+	 */
+	public boolean isSynced() {
+		return this.synced;
+	}
+
+	/**
+	 * An empty delta to answer a delta fetch with, if the local registry is up to date.
+	 * Its hash code matches the local registry, so the client keeps it as it is.
+	 * @return the delta or {@code null} if the server has to be asked
+	 */
+	Applications unchangedDelta() {
+		Listener listener = this.listener;
+		if (!this.synced || listener == null) {
+			return null;
+		}
+		Applications local = listener.getApplications();
+		Applications delta = new Applications();
+		delta.setVersion(local.getVersion());
+		delta.setAppsHashCode(local.getReconcileHashCode());
+		return delta;
+	}
+
+	/**
+	 * Record the client that the local registry was fetched with, so that the following
+	 * polls go to the same server.
+	 * @param client the client
+	 */
+	void fetchedWith(EurekaHttpClient client) {
+		if (client instanceof LongPollingEurekaHttpClient longPolling && longPolling != this.client) {
+			this.client = longPolling;
+			this.unsupported = false;
+		}
+	}
+
+	/**
+	 * Poll once for a registry delta.
+	 * @return whether polling can go on right away
+	 */
+	boolean poll() {
+		LongPollingEurekaHttpClient client = this.client;
+		Listener listener = this.listener;
+		if (client == null || listener == null || this.unsupported) {
+			return false;
+		}
+		EurekaHttpResponse<Applications> response;
+		try {
+			response = client.getDelta(this.version, this.properties.getMaxWaitMs());
+		}
+		catch (RuntimeException ex) {
+			log.debug("Long polling for registry deltas failed", ex);
+			this.synced = false;
+			return false;
+		}
+		Applications delta = response.getEntity();
+		if (response.getStatusCode() != HttpStatus.OK.value() || delta == null) {
+			this.synced = false;
+			return false;
+		}
+		String version = header(response, EurekaConstants.REGISTRY_VERSION_HEADER);
+		if (version == null) {
+			log.info("Eureka server does not support long polling for registry deltas, "
+					+ "fetching them every registry fetch interval instead");
+			this.unsupported = true;
+			this.synced = false;
+			return false;
+		}
+		if (!this.synced || !version.equals(this.version)) {
+			this.synced = listener.onDelta(delta);
+		}
+		this.version = version;
+		return true;
+	}
+
+	private void pollWhileSucceeding() {
+		while (!Thread.currentThread().isInterrupted() && poll()) {
+			// the server answers when the registry changed or the wait is over
+		}
+	}
+
+	/**
+	 * Receives the registry deltas.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called with a registry delta of the local region.
+		 * @param delta the changes, with the hash code of the server's registry
+		 * @return whether the local registry matches the server's after applying them
+		 */
+		boolean onDelta(Applications delta);
+
+		/**
+		 * The local registry the deltas are applied to.
+		 * @return the local registry
+		 */
+		Applications getApplications();
+
+	}
+
+}
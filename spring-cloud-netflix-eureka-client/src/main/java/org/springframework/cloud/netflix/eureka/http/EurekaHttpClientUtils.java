@@ -18,10 +18,13 @@ package org.springframework.cloud.netflix.eureka.http;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.net.ssl.SSLContext;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.BeanDescription;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonSerializer;
@@ -32,17 +35,24 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.BeanSerializerModifier;
 import com.fasterxml.jackson.databind.ser.std.BeanSerializerBase;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClientConfig;
 import com.netflix.discovery.converters.jackson.mixin.ApplicationsJsonMixIn;
 import com.netflix.discovery.converters.jackson.mixin.InstanceInfoJsonMixIn;
 import com.netflix.discovery.converters.jackson.serializer.InstanceInfoJsonBeanSerializer;
 import com.netflix.discovery.shared.Applications;
 import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
 
 import org.springframework.cloud.configuration.SSLContextFactory;
 import org.springframework.cloud.configuration.TlsProperties;
+import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
+import org.springframework.http.MediaType;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
 
 /**
  * Utility class for dealing with {@link EurekaHttpClient}.
@@ -54,6 +64,14 @@ import org.springframework.lang.Nullable;
  */
 final class EurekaHttpClientUtils {
 
+	/**
+	 * Media type of registry payloads encoded with the Jackson Smile binary format.
+	 */
+	static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+	private static final boolean SMILE_PRESENT = ClassUtils
+		.isPresent("com.fasterxml.jackson.dataformat.smile.SmileFactory", EurekaHttpClientUtils.class.getClassLoader());
+
 	private EurekaHttpClientUtils() {
 		throw new AssertionError("Must not instantiate constant utility class");
 	}
@@ -85,7 +103,89 @@ final class EurekaHttpClientUtils {
 	 * @return a {@link ObjectMapper} object
 	 */
 	static ObjectMapper objectMapper() {
-		final ObjectMapper objectMapper = new ObjectMapper();
+		return objectMapper(null);
+	}
+
+	/**
+	 * Whether registry payloads can be requested in the Smile binary format, which is the
+	 * case when {@code jackson-dataformat-smile} is on the classpath.
+	 * @return {@code true} if Smile is supported
+	 */
+	static boolean isSmileSupported() {
+		return SMILE_PRESENT;
+	}
+
+	/**
+	 * Whether registry payloads should be requested in the Smile binary format, which
+	 * requires Smile to be {@link #isSmileSupported() supported} and
+	 * {@link EurekaClientConfigBean#isSmileEnabled() enabled}.
+	 * @param clientConfig the configuration of the client
+	 * @return {@code true} if Smile should be requested
+	 */
+	static boolean isSmileEnabled(EurekaClientConfig clientConfig) {
+		return SMILE_PRESENT && clientConfig instanceof EurekaClientConfigBean config && config.isSmileEnabled();
+	}
+
+	/**
+	 * Provides a converter for registry payloads encoded with Smile, configured like
+	 * {@link #mappingJacksonHttpMessageConverter()}.
+	 * @return a {@link MappingJackson2SmileHttpMessageConverter} object
+	 */
+	static MappingJackson2SmileHttpMessageConverter mappingJacksonSmileHttpMessageConverter() {
+		return new MappingJackson2SmileHttpMessageConverter(smileObjectMapper());
+	}
+
+	/**
+	 * Provides an {@link ObjectMapper} for Smile with the same configuration as
+	 * {@link #objectMapper()}.
+	 * @return a {@link ObjectMapper} object
+	 */
+	static ObjectMapper smileObjectMapper() {
+		return objectMapper(new SmileFactory());
+	}
+
+	/**
+	 * The media types accepted for registry fetches. Smile is preferred when it is
+	 * requested and supported; servers that don't produce Smile answer with JSON.
+	 * @param smile whether Smile should be requested
+	 * @return the media types in order of preference
+	 */
+	static MediaType[] applicationsMediaTypes(boolean smile) {
+		return smile && SMILE_PRESENT ? new MediaType[] { APPLICATION_SMILE, MediaType.APPLICATION_JSON }
+				: new MediaType[] { MediaType.APPLICATION_JSON };
+	}
+
+	/**
+	 * Look up a response header regardless of the case of its name.
+	 * @param response the response
+	 * @param name the name of the header
+	 * @return the value of the header or {@code null}
+	 */
+	@Nullable
+	static String header(EurekaHttpResponse<?> response, String name) {
+		Map<String, String> headers = response.getHeaders();
+		if (headers != null) {
+			for (Map.Entry<String, String> header : headers.entrySet()) {
+				if (name.equalsIgnoreCase(header.getKey())) {
+					return header.getValue();
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * The value of the {@code apps} query parameter that restricts a registry fetch to
+	 * the given applications.
+	 * @param appNames the names of the applications, or {@code null} for all of them
+	 * @return the comma separated names, empty if all applications are fetched
+	 */
+	static Optional<String> appsParam(@Nullable Set<String> appNames) {
+		return Optional.ofNullable(appNames).map(names -> String.join(",", names));
+	}
+
+	private static ObjectMapper objectMapper(@Nullable JsonFactory factory) {
+		final ObjectMapper objectMapper = new ObjectMapper(factory);
 		objectMapper.setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
 
 		final SimpleModule jsonModule = new SimpleModule();
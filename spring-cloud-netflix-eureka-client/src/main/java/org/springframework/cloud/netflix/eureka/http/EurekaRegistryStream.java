@@ -0,0 +1,390 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.net.ssl.SSLContext;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClientConfig;
+import com.netflix.discovery.endpoint.EndpointUtils;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.netflix.eureka.RegistryStreamProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.extractUserInfo;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.objectMapper;
+
+/**
+ * Subscribes to the registry changes streamed by the Eureka server and hands them to a
+ * {@link Listener} as they arrive. While the subscription is up and the local registry
+ * is known to be complete, delta fetches made through {@link #decorate the decorated
+ * transport} are answered locally; when the subscription drops, or the server can't
+ * replay the changes missed while it was down, delta fetches go to the server again until
+ * one that started after the subscription was acknowledged succeeds. Every
+ * {@link RegistryStreamProperties#getVerifyIntervalMs() verify interval} a delta fetch
+ * still goes to the server, so that its hash code catches anything the stream missed.
+ *
+ * @since 5.0.3
+ */
+public class EurekaRegistryStream {
+
+	private static final Log log = LogFactory.getLog(EurekaRegistryStream.class);
+
+	private static final String REGISTER = "register";
+
+	private static final String STATUS = "status";
+
+	private static final String CANCEL = "cancel";
+
+	private static final String RESET = "reset";
+
+	private final RegistryStreamProperties properties;
+
+	private final ObjectMapper objectMapper = objectMapper();
+
+	private final ObjectMapper treeMapper = new ObjectMapper();
+
+	private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(2, r -> {
+		Thread thread = new Thread(r, "eureka-registry-stream");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile Listener listener;
+
+	private volatile boolean connected;
+
+	private final AtomicLong generations = new AtomicLong();
+
+	/**
+	 * Generation of the subscription, from when the server first sent data on it or the
+	 * last reset, or {@code 0} while not subscribed.
+	 */
+	private volatile long generation;
+
+	/**
+	 * Generation of the subscription the local registry was last fetched in.
+	 */
+	private volatile long syncedGeneration;
+
+	private volatile long lastVerified;
+
+	private volatile String cursor;
+
+	private volatile long lastReceived;
+
+	private volatile InputStream body;
+
+	private ScheduledFuture<?> subscription;
+
+	private ScheduledFuture<?> watchdog;
+
+	public EurekaRegistryStream(RegistryStreamProperties properties) {
+		this.properties = properties;
+	}
+
+	/**
+	 * Decorate the transport of a Eureka client so that delta fetches are answered
+	 * locally while the subscription is up.
+	 * @param transportClientFactories the transport to decorate
+	 * @param <F> the type of the transport's filters
+	 * @return the decorated transport
+	 */
+	public <F> TransportClientFactories<F> decorate(TransportClientFactories<F> transportClientFactories) {
+		return new DecoratingTransportClientFactories<>(transportClientFactories,
+				client -> new RegistryStreamEurekaHttpClient(client, this));
+	}
+
+	/**
+	 * Start subscribing to registry changes, replacing any previous subscription.
+	 * @param clientConfig the configuration to resolve the Eureka service URLs from
+	 * @param instanceInfo the local instance, used to prefer servers in the same zone
+	 * @param sslContext the SSL context to use for {@code https} service URLs
+	 * @param listener receives the registry changes
+	 */
+	public synchronized void start(EurekaClientConfig clientConfig, InstanceInfo instanceInfo,
+			Optional<SSLContext> sslContext, Listener listener) {
+		stop();
+		this.listener = listener;
+		HttpClient.Builder builder = HttpClient.newBuilder()
+			.connectTimeout(Duration.ofMillis(this.properties.getIdleTimeoutMs()));
+		sslContext.ifPresent(builder::sslContext);
+		HttpClient httpClient = builder.build();
+		this.subscription = this.executor.scheduleWithFixedDelay(
+				() -> subscribe(httpClient, serviceUrls(clientConfig, instanceInfo)), 0,
+				this.properties.getReconnectIntervalMs(), TimeUnit.MILLISECONDS);
+		long idleTimeout = this.properties.getIdleTimeoutMs();
+		this.watchdog = this.executor.scheduleWithFixedDelay(this::closeIfIdle, idleTimeout, idleTimeout / 2,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop subscribing to registry changes.
+	 */
+	public synchronized void stop() {
+		if (this.subscription != null) {
+			this.subscription.cancel(true);
+			this.watchdog.cancel(false);
+			this.subscription = null;
+			this.watchdog = null;
+		}
+		closeBody();
+		this.connected = false;
+		this.generation = 0;
+	}
+
+	public boolean isConnected() {
+		return this.connected;
+	}
+
+	/**
+	 * Whether the local registry is up to date, because the subscription is up and no
+	 * changes were missed since the last fetch from the server.
+	 * @return {@code true} if delta fetches can be answered locally
+	 */
+	public boolean isSynced() {
+		long generation = this.generation;
+		return generation != 0 && generation == this.syncedGeneration;
+	}
+
+	/**
+	 * An empty delta to answer a delta fetch with, if the local registry is up to date
+	 * and was verified against the server recently enough. Its hash code matches the
+	 * local registry, so the client keeps it as it is.
+	 * @return the delta or {@code null} if the server has to be asked
+	 */
+	Applications unchangedDelta() {
+		Listener listener = this.listener;
+		if (!isSynced() || listener == null || System.nanoTime() - this.lastVerified > TimeUnit.MILLISECONDS
+			.toNanos(this.properties.getVerifyIntervalMs())) {
+			return null;
+		}
+		Applications local = listener.getApplications();
+		Applications delta = new Applications();
+		delta.setVersion(local.getVersion());
+		delta.setAppsHashCode(local.getReconcileHashCode());
+		return delta;
+	}
+
+	/**
+	 * Called before fetching from the server.
+	 * @return the generation of the subscription to pass to {@link #fetched(long)}
+	 */
+	long fetching() {
+		return this.generation;
+	}
+
+	/**
+	 * Record a successful fetch from the server. If it started while the subscription was
+	 * up, and no changes were missed since, the changes received from now on are complete
+	 * as long as the subscription stays up. A fetch that started earlier may have missed
+	 * changes that were made before the server started streaming them.
+	 * @param generation the generation of the subscription when the fetch started
+	 */
+	void fetched(long generation) {
+		if (generation != 0 && generation == this.generation) {
+			this.syncedGeneration = generation;
+			this.lastVerified = System.nanoTime();
+		}
+	}
+
+	void subscribe(HttpClient httpClient, List<String> serviceUrls) {
+		for (String serviceUrl : serviceUrls) {
+			HttpRequest.Builder request = HttpRequest.newBuilder(streamUri(serviceUrl))
+				.header(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE)
+				.GET();
+			String lastEventId = this.cursor;
+			if (lastEventId != null) {
+				request.header("Last-Event-ID", lastEventId);
+			}
+			EurekaHttpClientUtils.UserInfo userInfo = extractUserInfo(serviceUrl);
+			if (userInfo != null) {
+				String credentials = userInfo.username() + ":" + userInfo.password();
+				request.header(HttpHeaders.AUTHORIZATION,
+						"Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+			}
+			try {
+				HttpResponse<InputStream> response = httpClient.send(request.build(),
+						HttpResponse.BodyHandlers.ofInputStream());
+				if (response.statusCode() != 200) {
+					response.body().close();
+					log.debug("Registry stream of " + serviceUrl + " answered with " + response.statusCode());
+					continue;
+				}
+				this.body = response.body();
+				this.lastReceived = System.nanoTime();
+				this.connected = true;
+				read(new BufferedReader(new InputStreamReader(response.body(), StandardCharsets.UTF_8)), this.listener);
+				return;
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (IOException | RuntimeException ex) {
+				log.debug("Registry stream of " + serviceUrl + " dropped", ex);
+				if (this.connected) {
+					// reconnect after the interval, starting with the first server again
+					return;
+				}
+			}
+			finally {
+				this.connected = false;
+				this.generation = 0;
+				closeBody();
+			}
+		}
+	}
+
+	void read(BufferedReader reader, Listener listener) throws IOException {
+		String id = null;
+		String event = null;
+		StringBuilder data = new StringBuilder();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			this.lastReceived = System.nanoTime();
+			if (this.generation == 0) {
+				// the server sends data only once the subscription is in place
+				this.generation = this.generations.incrementAndGet();
+			}
+			if (line.isEmpty()) {
+				if (event != null) {
+					apply(event, data.toString(), listener);
+				}
+				if (id != null) {
+					this.cursor = id;
+				}
+				id = null;
+				event = null;
+				data.setLength(0);
+			}
+			else if (line.startsWith("id:")) {
+				id = value(line);
+			}
+			else if (line.startsWith("event:")) {
+				event = value(line);
+			}
+			else if (line.startsWith("data:")) {
+				if (!data.isEmpty()) {
+					data.append('\n');
+				}
+				data.append(value(line));
+			}
+		}
+	}
+
+	private void apply(String event, String data, Listener listener) throws IOException {
+		switch (event) {
+			case REGISTER, STATUS -> listener.onChanged(this.objectMapper.readValue(data, InstanceInfo.class));
+			case CANCEL -> {
+				JsonNode cancellation = this.treeMapper.readTree(data);
+				listener.onCancelled(cancellation.path("app").asText(), cancellation.path("id").asText());
+			}
+			case RESET -> this.generation = this.generations.incrementAndGet();
+			default -> log.debug("Ignoring registry stream event " + event);
+		}
+	}
+
+	private void closeIfIdle() {
+		if (this.connected && System.nanoTime() - this.lastReceived > TimeUnit.MILLISECONDS
+			.toNanos(this.properties.getIdleTimeoutMs())) {
+			log.debug("Registry stream is idle, reconnecting");
+			closeBody();
+		}
+	}
+
+	private void closeBody() {
+		InputStream body = this.body;
+		if (body != null) {
+			try {
+				body.close();
+			}
+			catch (IOException ex) {
+				// ignore
+			}
+		}
+	}
+
+	private static String value(String line) {
+		String value = line.substring(line.indexOf(':') + 1);
+		return value.startsWith(" ") ? value.substring(1) : value;
+	}
+
+	private static URI streamUri(String serviceUrl) {
+		return UriComponentsBuilder.fromUriString(serviceUrl).userInfo(null).path("/stream").build().toUri();
+	}
+
+	private static List<String> serviceUrls(EurekaClientConfig clientConfig, InstanceInfo instanceInfo) {
+		String[] zones = clientConfig.getAvailabilityZones(clientConfig.getRegion());
+		String zone = InstanceInfo.getZone(zones, instanceInfo);
+		return EndpointUtils.getServiceUrlsFromConfig(clientConfig, zone, clientConfig.shouldPreferSameZoneEureka());
+	}
+
+	/**
+	 * Receives the registry changes.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called when an instance was registered or its status changed.
+		 * @param instanceInfo the registered or changed instance
+		 */
+		void onChanged(InstanceInfo instanceInfo);
+
+		/**
+		 * Called when an instance was cancelled.
+		 * @param appName the application name of the instance
+		 * @param id the id of the instance
+		 */
+		void onCancelled(String appName, String id);
+
+		/**
+		 * The local registry the changes are applied to.
+		 * @return the local registry
+		 */
+		Applications getApplications();
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Set;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link EurekaHttpClient} that restricts registry and delta fetches of the local region
+ * to the applications of a {@link RegistryInterest}.
+ *
+ * @since 5.0.3
+ */
+class InterestEurekaHttpClient implements LongPollingEurekaHttpClient, PartialRegistryEurekaHttpClient {
+
+	private final PartialRegistryEurekaHttpClient delegate;
+
+	private final RegistryInterest interest;
+
+	InterestEurekaHttpClient(PartialRegistryEurekaHttpClient delegate, RegistryInterest interest) {
+		this.delegate = delegate;
+		this.interest = interest;
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> register(InstanceInfo info) {
+		return this.delegate.register(info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> cancel(String appName, String id) {
+		return this.delegate.cancel(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info,
+			InstanceStatus overriddenStatus) {
+		return this.delegate.sendHeartBeat(appName, id, info, overriddenStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus,
+			InstanceInfo info) {
+		return this.delegate.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		return this.delegate.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(String... regions) {
+		// the interest only covers the local region
+		if (regions == null || regions.length == 0) {
+			return this.delegate.getApplications(this.interest.sortedAppNames());
+		}
+		return this.delegate.getApplications(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(Set<String> appNames) {
+		return this.delegate.getApplications(appNames);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(String... regions) {
+		if (regions == null || regions.length == 0) {
+			return this.delegate.getDelta(this.interest.sortedAppNames());
+		}
+		return this.delegate.getDelta(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(Set<String> appNames) {
+		return this.delegate.getDelta(appNames);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs) {
+		return getDelta(since, maxWaitMs, this.interest.sortedAppNames());
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs,
+			@Nullable Set<String> appNames) {
+		if (this.delegate instanceof LongPollingEurekaHttpClient longPolling) {
+			return longPolling.getDelta(since, maxWaitMs, appNames);
+		}
+		// answered right away and without a registry version
+		return (appNames != null) ? this.delegate.getDelta(appNames) : this.delegate.getDelta();
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+		return this.delegate.getVip(vipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+		return this.delegate.getSecureVip(secureVipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Application> getApplication(String appName) {
+		return this.delegate.getApplication(appName);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+		return this.delegate.getInstance(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+		return this.delegate.getInstance(id);
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Set;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.lang.Nullable;
+
+/**
+ * {@link EurekaHttpClient} that can ask the Eureka server to hold a delta fetch until the
+ * registry changes.
+ *
+ * @since 5.0.3
+ */
+public interface LongPollingEurekaHttpClient extends EurekaHttpClient {
+
+	/**
+	 * Fetch the delta of the local region once the registry version moved past the given
+	 * one. The version of the returned delta is in the
+	 * {@value EurekaConstants#REGISTRY_VERSION_HEADER} header; servers that don't support
+	 * long polling answer right away and without that header.
+	 * @param since the registry version the client has already seen, or {@code null} if
+	 * it hasn't seen any
+	 * @param maxWaitMs the time in milliseconds the server may hold the request
+	 * @return the delta
+	 */
+	default EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs) {
+		return getDelta(since, maxWaitMs, null);
+	}
+
+	/**
+	 * Fetch the delta of the given applications of the local region once the registry
+	 * version moved past the given one. Servers that don't support restricting the delta
+	 * to some applications answer with the delta of all of them.
+	 * @param since the registry version the client has already seen, or {@code null} if
+	 * it hasn't seen any
+	 * @param maxWaitMs the time in milliseconds the server may hold the request
+	 * @param appNames the names of the applications, or {@code null} for all of them
+	 * @return the delta
+	 * @see PartialRegistryEurekaHttpClient
+	 */
+	EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs, @Nullable Set<String> appNames);
+
+}
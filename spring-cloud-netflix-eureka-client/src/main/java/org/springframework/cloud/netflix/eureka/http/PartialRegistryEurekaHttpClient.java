@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Set;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+
+/**
+ * {@link EurekaHttpClient} that can fetch the registry, and its deltas, of only some
+ * applications of the local region. The names are sent in the
+ * {@value EurekaConstants#APPS_PARAMETER} query parameter; servers that don't support it
+ * answer with all applications.
+ *
+ * @since 5.0.3
+ */
+public interface PartialRegistryEurekaHttpClient extends EurekaHttpClient {
+
+	/**
+	 * Fetch the given applications of the local region.
+	 * @param appNames the names of the applications
+	 * @return the applications, with the hash code of just these applications
+	 */
+	EurekaHttpResponse<Applications> getApplications(Set<String> appNames);
+
+	/**
+	 * Fetch the delta of the given applications of the local region.
+	 * @param appNames the names of the applications
+	 * @return the delta, with the hash code of just these applications
+	 */
+	EurekaHttpResponse<Applications> getDelta(Set<String> appNames);
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
+
+/**
+ * The applications a Eureka client is interested in. Registry and delta fetches of the
+ * local region made through {@link #decorate the decorated transport} only ask for these
+ * applications, so the client neither downloads nor keeps the rest of the registry.
+ * Applications can be declared up front or, if learning is enabled, registered when they
+ * are first looked up.
+ * <p>
+ * Transports that don't implement {@link PartialRegistryEurekaHttpClient} keep fetching
+ * the whole registry.
+ *
+ * @since 5.0.3
+ */
+public class RegistryInterest {
+
+	private final Set<String> appNames = ConcurrentHashMap.newKeySet();
+
+	private final boolean learning;
+
+	/**
+	 * Create an interest in the given applications.
+	 * @param appNames the names of the applications
+	 * @param learning whether applications that are looked up are added to the interest
+	 */
+	public RegistryInterest(Collection<String> appNames, boolean learning) {
+		for (String appName : appNames) {
+			this.appNames.add(normalize(appName));
+		}
+		this.learning = learning;
+	}
+
+	/**
+	 * Decorate the transport of a Eureka client so that registry and delta fetches of the
+	 * local region only ask for the applications of interest.
+	 * @param transportClientFactories the transport to decorate
+	 * @param <F> the type of the transport's filters
+	 * @return the decorated transport
+	 */
+	public <F> TransportClientFactories<F> decorate(TransportClientFactories<F> transportClientFactories) {
+		return new DecoratingTransportClientFactories<>(transportClientFactories,
+				client -> (client instanceof PartialRegistryEurekaHttpClient partial)
+						? new InterestEurekaHttpClient(partial, this) : client);
+	}
+
+	public Set<String> getAppNames() {
+		return Collections.unmodifiableSet(this.appNames);
+	}
+
+	public boolean isLearning() {
+		return this.learning;
+	}
+
+	/**
+	 * Whether the given application is of interest.
+	 * @param appName the name of the application
+	 * @return {@code true} if the application is of interest
+	 */
+	public boolean contains(String appName) {
+		return this.appNames.contains(normalize(appName));
+	}
+
+	/**
+	 * Add an application that was looked up to the interest, if learning is enabled.
+	 * @param appName the name of the application
+	 * @return {@code true} if the application was not of interest before and has to be
+	 * fetched
+	 */
+	public boolean register(String appName) {
+		return this.learning && this.appNames.add(normalize(appName));
+	}
+
+	/**
+	 * The applications of interest, in a stable order so that fetches for the same
+	 * applications have the same URL.
+	 * @return the names of the applications
+	 */
+	SortedSet<String> sortedAppNames() {
+		return new TreeSet<>(this.appNames);
+	}
+
+	private static String normalize(String appName) {
+		return appName.toUpperCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+
+import org.springframework.http.HttpStatus;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+
+/**
+ * {@link EurekaHttpClient} that answers delta fetches locally while the
+ * {@link EurekaRegistryStream} keeps the local registry up to date.
+ *
+ * @since 5.0.3
+ */
+class RegistryStreamEurekaHttpClient implements EurekaHttpClient {
+
+	private final EurekaHttpClient delegate;
+
+	private final EurekaRegistryStream stream;
+
+	RegistryStreamEurekaHttpClient(EurekaHttpClient delegate, EurekaRegistryStream stream) {
+		this.delegate = delegate;
+		this.stream = stream;
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> register(InstanceInfo info) {
+		return this.delegate.register(info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> cancel(String appName, String id) {
+		return this.delegate.cancel(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info,
+			InstanceStatus overriddenStatus) {
+		return this.delegate.sendHeartBeat(appName, id, info, overriddenStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus,
+			InstanceInfo info) {
+		return this.delegate.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		return this.delegate.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(String... regions) {
+		long generation = this.stream.fetching();
+		return fetched(this.delegate.getApplications(regions), regions, generation);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(String... regions) {
+		// the stream only carries the local region
+		if (regions == null || regions.length == 0) {
+			Applications unchanged = this.stream.unchangedDelta();
+			if (unchanged != null) {
+				return anEurekaHttpResponse(HttpStatus.OK.value(), unchanged).build();
+			}
+		}
+		long generation = this.stream.fetching();
+		return fetched(this.delegate.getDelta(regions), regions, generation);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+		return this.delegate.getVip(vipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+		return this.delegate.getSecureVip(secureVipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Application> getApplication(String appName) {
+		return this.delegate.getApplication(appName);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+		return this.delegate.getInstance(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+		return this.delegate.getInstance(id);
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+	}
+
+	private EurekaHttpResponse<Applications> fetched(EurekaHttpResponse<Applications> response, String[] regions,
+			long generation) {
+		if (response.getStatusCode() == HttpStatus.OK.value() && (regions == null || regions.length == 0)) {
+			this.stream.fetched(generation);
+		}
+		return response;
+	}
+
+}
@@ -19,6 +19,7 @@ package org.springframework.cloud.netflix.eureka.http;
 import java.net.URI;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
 
 import com.netflix.appinfo.InstanceInfo;
@@ -30,27 +31,45 @@ import com.netflix.discovery.shared.transport.EurekaHttpResponse;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse.EurekaHttpResponseBuilder;
 import com.netflix.discovery.util.StringUtil;
 
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.util.UriBuilder;
 
 import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.applicationsMediaTypes;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.appsParam;
 
 /**
- * {@link RestClient} implementation of {@link EurekaHttpClient}.
+ * {@link RestClient} implementation of {@link EurekaHttpClient},
+ * {@link LongPollingEurekaHttpClient} and {@link PartialRegistryEurekaHttpClient}.
  *
  * @author Wonchul Heo
  * @since 4.2.0
  */
-public class RestClientEurekaHttpClient implements EurekaHttpClient {
+public class RestClientEurekaHttpClient implements LongPollingEurekaHttpClient, PartialRegistryEurekaHttpClient {
 
 	private final RestClient restClient;
 
+	private final boolean smile;
+
 	public RestClientEurekaHttpClient(RestClient restClient) {
+		this(restClient, false);
+	}
+
+	/**
+	 * Create a client for the given {@link RestClient}.
+	 * @param restClient the client to send requests with
+	 * @param smile whether registry fetches should ask for Smile encoded payloads
+	 * @since 5.0.3
+	 */
+	public RestClientEurekaHttpClient(RestClient restClient, boolean smile) {
 		this.restClient = restClient;
+		this.smile = smile;
 	}
 
 	@Override
@@ -142,6 +161,28 @@ public class RestClientEurekaHttpClient implements EurekaHttpClient {
 		return getApplicationsInternal("/apps/delta", regions);
 	}
 
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs,
+			@Nullable Set<String> appNames) {
+		return getApplicationsInternal("/apps/delta",
+				builder -> builder.queryParam(EurekaConstants.DELTA_SINCE_PARAMETER, (since != null) ? since : "")
+					.queryParam(EurekaConstants.DELTA_MAX_WAIT_PARAMETER, maxWaitMs)
+					.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames))
+					.build());
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(Set<String> appNames) {
+		return getApplicationsInternal("/apps/",
+				builder -> builder.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames)).build());
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(Set<String> appNames) {
+		return getApplicationsInternal("/apps/delta",
+				builder -> builder.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames)).build());
+	}
+
 	@Override
 	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
 		return getApplicationsInternal("/vips/" + vipAddress, regions);
@@ -192,11 +233,15 @@ public class RestClientEurekaHttpClient implements EurekaHttpClient {
 			.queryParamIfPresent("regions",
 					Optional.ofNullable(regions).filter(it -> it.length > 0).map(StringUtil::join))
 			.build();
+		return getApplicationsInternal(urlPath, uriFunction);
+	}
 
+	private EurekaHttpResponse<Applications> getApplicationsInternal(String urlPath,
+			Function<UriBuilder, URI> uriFunction) {
 		final ResponseEntity<Applications> response = restClient.get()
 			.uri(urlPath, uriFunction)
 			.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-			.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+			.accept(applicationsMediaTypes(this.smile))
 			.retrieve()
 			.toEntity(Applications.class);
 
@@ -27,6 +27,8 @@ import com.netflix.discovery.EurekaClientConfig;
 import com.netflix.discovery.shared.transport.TransportClientFactory;
 import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
 
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.isSmileEnabled;
+
 /**
  * @author Wonchul Heo
  * @author Olga Maciaszek-Sharma
@@ -44,7 +46,8 @@ public class RestClientTransportClientFactories implements TransportClientFactor
 	public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
 			Collection<Void> additionalFilters, InstanceInfo myInstanceInfo) {
 		return new RestClientTransportClientFactory(args.getSSLContext(), args.getHostnameVerifier(),
-				args.getEurekaClientHttpRequestFactorySupplier(), args.getRestClientBuilderSupplier());
+				args.getEurekaClientHttpRequestFactorySupplier(), args.getRestClientBuilderSupplier(),
+				isSmileEnabled(clientConfig));
 	}
 
 	@Override
@@ -52,7 +55,8 @@ public class RestClientTransportClientFactories implements TransportClientFactor
 			final Collection<Void> additionalFilters, final InstanceInfo myInstanceInfo,
 			final Optional<SSLContext> sslContext, final Optional<HostnameVerifier> hostnameVerifier) {
 		return new RestClientTransportClientFactory(args.getSSLContext(), args.getHostnameVerifier(),
-				args.getEurekaClientHttpRequestFactorySupplier(), args.getRestClientBuilderSupplier());
+				args.getEurekaClientHttpRequestFactorySupplier(), args.getRestClientBuilderSupplier(),
+				isSmileEnabled(clientConfig));
 	}
 
 }
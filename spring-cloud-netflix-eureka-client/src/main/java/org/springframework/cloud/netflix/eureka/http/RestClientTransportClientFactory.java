@@ -37,7 +37,9 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.context;
 import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.extractUserInfo;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.isSmileSupported;
 import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.mappingJacksonHttpMessageConverter;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.mappingJacksonSmileHttpMessageConverter;
 
 /**
  * Provides the custom {@link RestClient} required by the
@@ -58,14 +60,34 @@ public class RestClientTransportClientFactory implements TransportClientFactory
 
 	private final Supplier<RestClient.Builder> builderSupplier;
 
+	private final boolean smile;
+
 	public RestClientTransportClientFactory(Optional<SSLContext> sslContext,
 			Optional<HostnameVerifier> hostnameVerifier,
 			EurekaClientHttpRequestFactorySupplier eurekaClientHttpRequestFactorySupplier,
 			Supplier<RestClient.Builder> builderSupplier) {
+		this(sslContext, hostnameVerifier, eurekaClientHttpRequestFactorySupplier, builderSupplier, false);
+	}
+
+	/**
+	 * Create a factory whose clients ask for Smile encoded registry payloads if
+	 * {@code smile} is set and Smile is supported.
+	 * @param sslContext the SSL context to use
+	 * @param hostnameVerifier the hostname verifier to use
+	 * @param eurekaClientHttpRequestFactorySupplier the request factory supplier
+	 * @param builderSupplier the supplier of the {@link RestClient.Builder}
+	 * @param smile whether registry fetches should ask for Smile encoded payloads
+	 * @since 5.0.3
+	 */
+	public RestClientTransportClientFactory(Optional<SSLContext> sslContext,
+			Optional<HostnameVerifier> hostnameVerifier,
+			EurekaClientHttpRequestFactorySupplier eurekaClientHttpRequestFactorySupplier,
+			Supplier<RestClient.Builder> builderSupplier, boolean smile) {
 		this.sslContext = sslContext;
 		this.hostnameVerifier = hostnameVerifier;
 		this.eurekaClientHttpRequestFactorySupplier = eurekaClientHttpRequestFactorySupplier;
 		this.builderSupplier = builderSupplier;
+		this.smile = smile && isSmileSupported();
 	}
 
 	public RestClientTransportClientFactory(TlsProperties tlsProperties,
@@ -89,7 +111,12 @@ public class RestClientTransportClientFactory implements TransportClientFactory
 
 		builder.requestFactory(requestFactory);
 		setUrl(builder, endpoint.getServiceUrl());
-		builder.messageConverters(converters -> converters.add(0, mappingJacksonHttpMessageConverter()));
+		builder.messageConverters(converters -> {
+			converters.add(0, mappingJacksonHttpMessageConverter());
+			if (this.smile) {
+				converters.add(0, mappingJacksonSmileHttpMessageConverter());
+			}
+		});
 
 		builder.defaultStatusHandler(HttpStatusCode::isError, (req, res) -> {
 		});
@@ -102,7 +129,7 @@ public class RestClientTransportClientFactory implements TransportClientFactory
 			return new NotFoundHttpResponse(response);
 		});
 
-		return new RestClientEurekaHttpClient(builder.build());
+		return new RestClientEurekaHttpClient(builder.build(), this.smile);
 	}
 
 	@Override
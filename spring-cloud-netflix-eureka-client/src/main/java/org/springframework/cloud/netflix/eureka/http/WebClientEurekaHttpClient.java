@@ -16,41 +16,61 @@
 
 package org.springframework.cloud.netflix.eureka.http;
 
+import java.net.URI;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.appinfo.InstanceInfo.InstanceStatus;
 import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Applications;
-import com.netflix.discovery.shared.transport.EurekaHttpClient;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse;
 import com.netflix.discovery.shared.transport.EurekaHttpResponse.EurekaHttpResponseBuilder;
 import com.netflix.discovery.util.StringUtil;
 import reactor.core.publisher.Mono;
 
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
 
 import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.applicationsMediaTypes;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.appsParam;
 
 /**
  * @author Daniel Lavoie
  * @author Haytham Mohamed
  * @author Václav Plic
  */
-public class WebClientEurekaHttpClient implements EurekaHttpClient {
+public class WebClientEurekaHttpClient implements LongPollingEurekaHttpClient, PartialRegistryEurekaHttpClient {
 
 	private WebClient webClient;
 
+	private final boolean smile;
+
 	public WebClientEurekaHttpClient(WebClient webClient) {
+		this(webClient, false);
+	}
+
+	/**
+	 * Create a client for the given {@link WebClient}.
+	 * @param webClient the client to send requests with
+	 * @param smile whether registry fetches should ask for Smile encoded payloads
+	 * @since 5.0.3
+	 */
+	public WebClientEurekaHttpClient(WebClient webClient, boolean smile) {
 		this.webClient = webClient;
+		this.smile = smile;
 	}
 
 	@Override
@@ -146,11 +166,16 @@ public class WebClientEurekaHttpClient implements EurekaHttpClient {
 	private EurekaHttpResponse<Applications> getApplicationsInternal(String urlPath, String[] regions) {
 		Optional<String> regionsParam = (regions != null && regions.length > 0) ? Optional.of(StringUtil.join(regions))
 				: Optional.empty();
+		return getApplicationsInternal(uriBuilder -> uriBuilder.path(urlPath)
+			.queryParamIfPresent("regions", regionsParam)
+			.build());
+	}
 
+	private EurekaHttpResponse<Applications> getApplicationsInternal(Function<UriBuilder, URI> uriFunction) {
 		ResponseEntity<Applications> response = webClient.get()
-			.uri(uriBuilder -> uriBuilder.path(urlPath).queryParamIfPresent("regions", regionsParam).build())
+			.uri(uriFunction)
 			.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-			.header(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE)
+			.accept(applicationsMediaTypes(this.smile))
 			.retrieve()
 			.onStatus(HttpStatusCode::isError, this::ignoreError)
 			.toEntity(Applications.class)
@@ -170,6 +195,30 @@ public class WebClientEurekaHttpClient implements EurekaHttpClient {
 		return getApplicationsInternal("apps/delta", regions);
 	}
 
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(@Nullable String since, long maxWaitMs,
+			@Nullable Set<String> appNames) {
+		return getApplicationsInternal(uriBuilder -> uriBuilder.path("apps/delta")
+			.queryParam(EurekaConstants.DELTA_SINCE_PARAMETER, (since != null) ? since : "")
+			.queryParam(EurekaConstants.DELTA_MAX_WAIT_PARAMETER, maxWaitMs)
+			.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames))
+			.build());
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(Set<String> appNames) {
+		return getApplicationsInternal(uriBuilder -> uriBuilder.path("apps/")
+			.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames))
+			.build());
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(Set<String> appNames) {
+		return getApplicationsInternal(uriBuilder -> uriBuilder.path("apps/delta")
+			.queryParamIfPresent(EurekaConstants.APPS_PARAMETER, appsParam(appNames))
+			.build());
+	}
+
 	@Override
 	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
 		return getApplicationsInternal("vips/" + vipAddress, regions);
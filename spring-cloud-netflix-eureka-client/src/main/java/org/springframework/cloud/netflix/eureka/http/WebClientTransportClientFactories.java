@@ -30,6 +30,8 @@ import com.netflix.discovery.shared.transport.jersey.TransportClientFactories;
 
 import org.springframework.web.reactive.function.client.WebClient;
 
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.isSmileEnabled;
+
 /**
  * @author Daniel Lavoie
  * @author Haytham Mohamed
@@ -45,14 +47,14 @@ public class WebClientTransportClientFactories implements TransportClientFactori
 	@Override
 	public TransportClientFactory newTransportClientFactory(EurekaClientConfig clientConfig,
 			Collection<Void> additionalFilters, InstanceInfo myInstanceInfo) {
-		return new WebClientTransportClientFactory(builder);
+		return new WebClientTransportClientFactory(builder, isSmileEnabled(clientConfig));
 	}
 
 	@Override
 	public TransportClientFactory newTransportClientFactory(final EurekaClientConfig clientConfig,
 			final Collection<Void> additionalFilters, final InstanceInfo myInstanceInfo,
 			final Optional<SSLContext> sslContext, final Optional<HostnameVerifier> hostnameVerifier) {
-		return new WebClientTransportClientFactory(builder);
+		return new WebClientTransportClientFactory(builder, isSmileEnabled(clientConfig));
 	}
 
 }
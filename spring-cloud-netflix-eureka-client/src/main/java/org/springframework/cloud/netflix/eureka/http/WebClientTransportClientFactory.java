@@ -34,6 +34,7 @@ import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.http.codec.ClientCodecConfigurer;
 import org.springframework.http.codec.json.Jackson2JsonDecoder;
 import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
 import org.springframework.web.reactive.function.client.ClientResponse;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
@@ -41,7 +42,9 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.extractUserInfo;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.isSmileSupported;
 import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.objectMapper;
+import static org.springframework.cloud.netflix.eureka.http.EurekaHttpClientUtils.smileObjectMapper;
 
 /**
  * Provides the custom {@link WebClient.Builder} required by the
@@ -62,8 +65,22 @@ public class WebClientTransportClientFactory implements TransportClientFactory {
 
 	private final LoopResources loopResources;
 
+	private final boolean smile;
+
 	public WebClientTransportClientFactory(Supplier<WebClient.Builder> builderSupplier) {
+		this(builderSupplier, false);
+	}
+
+	/**
+	 * Create a factory whose clients ask for Smile encoded registry payloads if
+	 * {@code smile} is set and Smile is supported.
+	 * @param builderSupplier the supplier of the {@link WebClient.Builder}
+	 * @param smile whether registry fetches should ask for Smile encoded payloads
+	 * @since 5.0.3
+	 */
+	public WebClientTransportClientFactory(Supplier<WebClient.Builder> builderSupplier, boolean smile) {
 		this.builderSupplier = builderSupplier;
+		this.smile = smile && isSmileSupported();
 		this.connectionProvider = ConnectionProvider.create("eureka-webclient");
 		this.loopResources = LoopResources.create("eureka-webclient");
 	}
@@ -80,7 +97,7 @@ public class WebClientTransportClientFactory implements TransportClientFactory {
 		// server's event loop terminates before DiscoveryClient deregisters.
 		builder.clientConnector(
 				new ReactorClientHttpConnector(HttpClient.create(this.connectionProvider).runOn(this.loopResources)));
-		return new WebClientEurekaHttpClient(builder.build());
+		return new WebClientEurekaHttpClient(builder.build(), this.smile);
 	}
 
 	private WebClient.Builder setUrl(WebClient.Builder builder, String serviceUrl) {
@@ -101,7 +118,9 @@ public class WebClientTransportClientFactory implements TransportClientFactory {
 			defaults.jacksonJsonEncoder(new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON));
 			defaults.jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper, MediaType.APPLICATION_JSON));
 			defaults.jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper, MediaType.APPLICATION_JSON));
-
+			if (this.smile) {
+				defaults.jackson2SmileDecoder(new Jackson2SmileDecoder(smileObjectMapper()));
+			}
 		});
 	}
 
@@ -24,6 +24,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.http.HttpStatus;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -97,6 +98,14 @@ abstract class AbstractEurekaHttpClientTests {
 		eurekaHttpClient.getDelta("us", "eu").getEntity();
 	}
 
+	@Test
+	void testGetDeltaSince() {
+		EurekaHttpResponse<Applications> response = ((LongPollingEurekaHttpClient) eurekaHttpClient).getDelta("1:",
+				1000);
+		assertThat(response.getEntity()).isNotNull();
+		assertThat(EurekaHttpClientUtils.header(response, EurekaConstants.REGISTRY_VERSION_HEADER)).isEqualTo("1:1");
+	}
+
 	@Test
 	void testGetVips() {
 		eurekaHttpClient.getVip("test");
@@ -0,0 +1,138 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.DeltaLongPollProperties;
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link EurekaDeltaLongPoll}.
+ */
+class EurekaDeltaLongPollTests {
+
+	private final EurekaDeltaLongPoll longPoll = new EurekaDeltaLongPoll(new DeltaLongPollProperties());
+
+	private final RecordingListener listener = new RecordingListener();
+
+	private final LongPollingEurekaHttpClient client = mock(LongPollingEurekaHttpClient.class);
+
+	@BeforeEach
+	void setup() {
+		this.longPoll.start(this.listener);
+		this.longPoll.stop();
+		this.longPoll.fetchedWith(this.client);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.longPoll.stop();
+	}
+
+	@Test
+	void answersDeltaFetchesLocallyOnceSynced() {
+		Applications delta = new Applications();
+		when(this.client.getDelta(null, 25000)).thenReturn(response(delta, "1:1"));
+		when(this.client.getDelta("1:1", 25000)).thenReturn(response(new Applications(), "1:1"));
+
+		assertThat(this.longPoll.poll()).isTrue();
+		assertThat(this.listener.deltas).containsExactly(delta);
+		assertThat(this.longPoll.isSynced()).isTrue();
+
+		DeltaLongPollEurekaHttpClient decorated = new DeltaLongPollEurekaHttpClient(this.client, this.longPoll);
+		Applications unchanged = decorated.getDelta().getEntity();
+		assertThat(unchanged.getRegisteredApplications()).isEmpty();
+		assertThat(unchanged.getAppsHashCode()).isEqualTo(this.listener.getApplications().getReconcileHashCode());
+		verify(this.client, never()).getDelta();
+
+		// the wait is over without a change
+		assertThat(this.longPoll.poll()).isTrue();
+		assertThat(this.listener.deltas).hasSize(1);
+	}
+
+	@Test
+	void deltaFetchesGoToServerWhileNotSynced() {
+		when(this.client.getDelta(null, 25000)).thenReturn(response(new Applications(), "1:1"));
+		this.listener.matches = false;
+		EurekaHttpResponse<Applications> fetched = anEurekaHttpResponse(200, new Applications()).build();
+		when(this.client.getDelta()).thenReturn(fetched);
+
+		assertThat(this.longPoll.poll()).isTrue();
+		assertThat(this.longPoll.isSynced()).isFalse();
+
+		DeltaLongPollEurekaHttpClient decorated = new DeltaLongPollEurekaHttpClient(this.client, this.longPoll);
+		assertThat(decorated.getDelta()).isSameAs(fetched);
+	}
+
+	@Test
+	void stopsPollingServersWithoutSupport() {
+		when(this.client.getDelta(any(), anyLong())).thenReturn(anEurekaHttpResponse(200, new Applications()).build());
+
+		assertThat(this.longPoll.poll()).isFalse();
+		assertThat(this.longPoll.poll()).isFalse();
+
+		assertThat(this.longPoll.isSynced()).isFalse();
+		assertThat(this.listener.deltas).isEmpty();
+		verify(this.client, times(1)).getDelta(any(), anyLong());
+	}
+
+	private static EurekaHttpResponse<Applications> response(Applications delta, String version) {
+		return anEurekaHttpResponse(200, delta).headers(Map.of(EurekaConstants.REGISTRY_VERSION_HEADER, version))
+			.build();
+	}
+
+	static class RecordingListener implements EurekaDeltaLongPoll.Listener {
+
+		final List<Applications> deltas = new ArrayList<>();
+
+		final Applications applications = new Applications();
+
+		boolean matches = true;
+
+		@Override
+		public boolean onDelta(Applications delta) {
+			this.deltas.add(delta);
+			return this.matches;
+		}
+
+		@Override
+		public Applications getApplications() {
+			return this.applications;
+		}
+
+	}
+
+}
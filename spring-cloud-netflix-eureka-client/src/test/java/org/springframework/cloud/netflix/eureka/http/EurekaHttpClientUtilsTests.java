@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.Collections;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
+import org.springframework.http.MediaType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link EurekaHttpClientUtils}.
+ */
+class EurekaHttpClientUtilsTests {
+
+	@Test
+	void prefersSmileWhenEnabled() {
+		assertThat(EurekaHttpClientUtils.isSmileSupported()).isTrue();
+		assertThat(EurekaHttpClientUtils.applicationsMediaTypes(true)).containsExactly(
+				EurekaHttpClientUtils.APPLICATION_SMILE, MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void acceptsOnlyJsonUnlessSmileIsEnabled() {
+		assertThat(EurekaHttpClientUtils.applicationsMediaTypes(false)).containsExactly(MediaType.APPLICATION_JSON);
+	}
+
+	@Test
+	void smileIsEnabledThroughTheClientConfig() {
+		EurekaClientConfigBean config = new EurekaClientConfigBean();
+		assertThat(EurekaHttpClientUtils.isSmileEnabled(config)).isFalse();
+
+		config.setSmileEnabled(true);
+
+		assertThat(EurekaHttpClientUtils.isSmileEnabled(config)).isTrue();
+	}
+
+	@Test
+	void smileObjectMapperReadsWhatItWrites() throws Exception {
+		ObjectMapper mapper = EurekaHttpClientUtils.smileObjectMapper();
+		InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+			.setInstanceId("app1instance1")
+			.setAppName("APP1")
+			.setHostName("app1host1")
+			.setPort(8080)
+			.build();
+		Applications applications = new Applications();
+		applications.addApplication(new Application("APP1", Collections.singletonList(instance)));
+
+		Applications decoded = mapper.readValue(mapper.writeValueAsBytes(applications), Applications.class);
+
+		assertThat(decoded.getRegisteredApplications("APP1").getByInstanceId("app1instance1").getHostName())
+			.isEqualTo("app1host1");
+	}
+
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpClient;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.RegistryStreamProperties;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link EurekaRegistryStream}.
+ */
+class EurekaRegistryStreamTests {
+
+	private final EurekaRegistryStream stream = new EurekaRegistryStream(new RegistryStreamProperties());
+
+	private final RecordingListener listener = new RecordingListener();
+
+	@Test
+	void appliesStreamedChanges() throws Exception {
+		String events = """
+				:
+
+				id:1:1
+				event:register
+				data:{"instance":{"instanceId":"foo:8080","app":"FOO","hostName":"foo","status":"UP",\
+				"port":{"$":8080,"@enabled":"true"},"securePort":{"$":443,"@enabled":"false"},\
+				"dataCenterInfo":{"@class":"com.netflix.appinfo.InstanceInfo$DefaultDataCenterInfo","name":"MyOwn"}}}
+
+				id:1:2
+				event:cancel
+				data:{"app":"FOO","id":"foo:8080"}
+
+				""";
+
+		this.stream.read(new BufferedReader(new StringReader(events)), this.listener);
+
+		assertThat(this.listener.changed).extracting(InstanceInfo::getId).containsExactly("foo:8080");
+		assertThat(this.listener.cancelled).containsExactly("FOO/foo:8080");
+	}
+
+	@Test
+	void deltaFetchesGoToServerWhileNotSubscribed() {
+		EurekaHttpClient delegate = mock(EurekaHttpClient.class);
+		Applications delta = new Applications();
+		EurekaHttpResponse<Applications> response = anEurekaHttpResponse(200, delta).build();
+		when(delegate.getDelta()).thenReturn(response);
+		RegistryStreamEurekaHttpClient client = new RegistryStreamEurekaHttpClient(delegate, this.stream);
+
+		assertThat(client.getDelta().getEntity()).isSameAs(delta);
+		assertThat(this.stream.isSynced()).isFalse();
+		verify(delegate).getDelta();
+	}
+
+	@Test
+	void onlyFetchesStartedAfterTheSubscriptionIsAcknowledgedSync() throws Exception {
+		long beforeSubscription = this.stream.fetching();
+		this.stream.read(new BufferedReader(new StringReader(":\n\n")), this.listener);
+		this.stream.fetched(beforeSubscription);
+		assertThat(this.stream.isSynced()).isFalse();
+
+		long beforeReset = this.stream.fetching();
+		this.stream.read(new BufferedReader(new StringReader("event:reset\ndata:\n\n")), this.listener);
+		this.stream.fetched(beforeReset);
+		assertThat(this.stream.isSynced()).isFalse();
+
+		this.stream.fetched(this.stream.fetching());
+		assertThat(this.stream.isSynced()).isTrue();
+	}
+
+	static class RecordingListener implements EurekaRegistryStream.Listener {
+
+		final List<InstanceInfo> changed = new ArrayList<>();
+
+		final List<String> cancelled = new ArrayList<>();
+
+		@Override
+		public void onChanged(InstanceInfo instanceInfo) {
+			this.changed.add(instanceInfo);
+		}
+
+		@Override
+		public void onCancelled(String appName, String id) {
+			this.cancelled.add(appName + "/" + id);
+		}
+
+		@Override
+		public Applications getApplications() {
+			return new Applications();
+		}
+
+	}
+
+}
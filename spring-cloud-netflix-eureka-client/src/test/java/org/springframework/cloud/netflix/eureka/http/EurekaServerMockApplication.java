@@ -28,12 +28,14 @@ import com.netflix.discovery.shared.Applications;
 
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.http.converter.autoconfigure.ServerHttpMessageConvertersCustomizer;
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.Ordered;
 import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -158,7 +160,8 @@ public class EurekaServerMockApplication {
 
 	}
 
-	@GetMapping({ "/apps/", "/apps/delta", "/vips/{address}", "/svips/{address}" })
+	@GetMapping(value = { "/apps/", "/apps/delta", "/vips/{address}", "/svips/{address}" },
+			produces = MediaType.APPLICATION_JSON_VALUE)
 	public Applications getApplications(@PathVariable(required = false) String address,
 			@RequestParam(required = false) String regions) {
 		Applications applications = new Applications();
@@ -166,6 +169,15 @@ public class EurekaServerMockApplication {
 		return applications;
 	}
 
+	@GetMapping(value = "/apps/delta", params = EurekaConstants.DELTA_SINCE_PARAMETER,
+			produces = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Applications> getDeltaSince(@RequestParam String since, @RequestParam long maxWaitMs) {
+		isTrue(maxWaitMs > 0, "maxWaitMs must be positive");
+		return ResponseEntity.ok()
+			.header(EurekaConstants.REGISTRY_VERSION_HEADER, since + "1")
+			.body(getApplications(null, null));
+	}
+
 	@GetMapping("/apps/{appName}")
 	public Application getApplication(@PathVariable String appName, @RequestHeader HttpHeaders headers) {
 		// Used to verify that RequestConfig customizer has taken effect
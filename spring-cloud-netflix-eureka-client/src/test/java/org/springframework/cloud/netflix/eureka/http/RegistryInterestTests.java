@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.http;
+
+import java.util.List;
+import java.util.Set;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import org.junit.jupiter.api.Test;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests for {@link RegistryInterest}.
+ */
+class RegistryInterestTests {
+
+	private final PartialRegistryEurekaHttpClient client = mock(PartialRegistryEurekaHttpClient.class,
+			withSettings().extraInterfaces(LongPollingEurekaHttpClient.class));
+
+	@Test
+	void restrictsFetchesOfLocalRegionToInterest() {
+		RegistryInterest interest = new RegistryInterest(List.of("foo", "Bar"), false);
+		InterestEurekaHttpClient decorated = new InterestEurekaHttpClient(this.client, interest);
+		when(this.client.getApplications(any(Set.class))).thenReturn(ok());
+		when(this.client.getDelta(any(Set.class))).thenReturn(ok());
+
+		decorated.getApplications();
+		decorated.getDelta();
+		decorated.getDelta("us-west");
+
+		verify(this.client).getApplications(Set.of("BAR", "FOO"));
+		verify(this.client).getDelta(Set.of("BAR", "FOO"));
+		verify(this.client).getDelta("us-west");
+		verify(this.client, never()).getDelta();
+	}
+
+	@Test
+	void longPollsForInterestOnly() {
+		RegistryInterest interest = new RegistryInterest(List.of("foo"), false);
+		InterestEurekaHttpClient decorated = new InterestEurekaHttpClient(this.client, interest);
+		LongPollingEurekaHttpClient longPolling = (LongPollingEurekaHttpClient) this.client;
+		when(longPolling.getDelta(any(), anyLong(), any())).thenReturn(ok());
+
+		decorated.getDelta("1:1", 25000);
+
+		verify(longPolling).getDelta("1:1", 25000, Set.of("FOO"));
+	}
+
+	@Test
+	void learnsApplicationsOnlyIfEnabled() {
+		RegistryInterest declared = new RegistryInterest(List.of("foo"), false);
+		assertThat(declared.register("bar")).isFalse();
+		assertThat(declared.contains("BAR")).isFalse();
+
+		RegistryInterest learning = new RegistryInterest(List.of("foo"), true);
+		assertThat(learning.register("bar")).isTrue();
+		assertThat(learning.register("BAR")).isFalse();
+		assertThat(learning.contains("bar")).isTrue();
+		assertThat(learning.getAppNames()).containsExactlyInAnyOrder("FOO", "BAR");
+	}
+
+	private static EurekaHttpResponse<Applications> ok() {
+		return anEurekaHttpResponse(200, new Applications()).build();
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares {@link CloudJacksonJson} with the Jackson codec of Eureka it extends, for
+ * decoding the payload of a registration and a registry of the given size, and for
+ * encoding the registry as full fetches do. With {@code cloud-fragments}, instances are
+ * encoded from an {@link InstanceFragmentCache} large enough to hold all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CloudJacksonJsonBenchmark {
+
+	@Param({ "eureka", "cloud", "cloud-fragments" })
+	public String codec;
+
+	@Param({ "100", "1000" })
+	public int instances;
+
+	private CodecWrappers.LegacyJacksonJson json;
+
+	private String encodedInstance;
+
+	private Applications applications;
+
+	private String encodedApplications;
+
+	@Setup
+	public void setup() throws IOException {
+		if (this.codec.startsWith("cloud")) {
+			CloudJacksonJson json = new CloudJacksonJson();
+			if (this.codec.endsWith("fragments")) {
+				json.getCodec().setInstanceFragmentCache(new InstanceFragmentCache(this.instances, 64L * 1024 * 1024));
+			}
+			this.json = json;
+		}
+		else {
+			this.json = new CodecWrappers.LegacyJacksonJson();
+		}
+		this.applications = applications(this.instances);
+		this.encodedInstance = this.json
+			.encode(this.applications.getRegisteredApplications().get(0).getInstances().get(0));
+		this.encodedApplications = this.json.encode(this.applications);
+	}
+
+	@Benchmark
+	public InstanceInfo decodeInstance() throws IOException {
+		return this.json.decode(this.encodedInstance, InstanceInfo.class);
+	}
+
+	@Benchmark
+	public Applications decodeApplications() throws IOException {
+		return this.json.decode(this.encodedApplications, Applications.class);
+	}
+
+	@Benchmark
+	public String encodeApplications() throws IOException {
+		return this.json.encode(this.applications);
+	}
+
+	/**
+	 * A registry of ten applications sharing the given number of instances.
+	 * @param instances the number of instances
+	 * @return the registry
+	 */
+	static Applications applications(int instances) {
+		Applications applications = new Applications();
+		for (int app = 0; app < 10; app++) {
+			applications.addApplication(new Application("APP-" + app));
+		}
+		for (int i = 0; i < instances; i++) {
+			String appName = "APP-" + (i % 10);
+			InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+				.setAppName(appName)
+				.setHostName("host-" + i)
+				.setInstanceId("host-" + i + ":8080")
+				.setPort(8080)
+				.setLeaseInfo(LeaseInfo.Builder.newBuilder().setRenewalIntervalInSecs(30).setDurationInSecs(90).build())
+				.build();
+			applications.getRegisteredApplications(appName).addInstance(instance);
+		}
+		return applications;
+	}
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.eureka.resources.DefaultServerCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.netflix.eureka.EurekaClientConfigBean;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Benchmarks {@link InstanceRegistry} with a registry of the given size, with and
+ * without the lease expiry index ({@code evictionIndexTickMs} of {@code 0}).
+ * <p>
+ * Eviction is measured with no expired lease, which is the common case: without the
+ * index every lease is checked, with it only the ticks elapsed since the previous
+ * eviction are visited.
+ * <p>
+ * Renewals are made as replicated from a peer, as the registry has no peers to
+ * replicate them to, and are meant to be measured with several threads, for example
+ * with {@code -t 8}, {@code -t 32} and {@code -t 64}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InstanceRegistryBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int instances;
+
+	@Param({ "0", "1000" })
+	public long evictionIndexTickMs;
+
+	private GenericApplicationContext context;
+
+	private InstanceRegistry registry;
+
+	@Setup
+	public void setup() {
+		EurekaServerConfigBean serverConfig = new EurekaServerConfigBean();
+		serverConfig.setEnableSelfPreservation(false);
+		this.context = new GenericApplicationContext();
+		this.context.refresh();
+		this.registry = new InstanceRegistry(serverConfig, new EurekaClientConfigBean(),
+				new DefaultServerCodecs(serverConfig), null, null, 1, 1);
+		this.registry.setApplicationContext(this.context);
+		this.registry.setEvictionIndexTickMs(this.evictionIndexTickMs);
+		this.registry.initializedResponseCache();
+		for (int i = 0; i < this.instances; i++) {
+			this.registry.register(instance(i), true);
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public void evict() {
+		this.registry.evict(0);
+	}
+
+	@Benchmark
+	public boolean renew(Renewals renewals) {
+		int instance = renewals.next(this.instances);
+		return this.registry.renew(appName(instance), instanceId(instance), true);
+	}
+
+	static String appName(int instance) {
+		return "APP-" + (instance % 10);
+	}
+
+	static String instanceId(int instance) {
+		return "host-" + instance + ":8080";
+	}
+
+	private static InstanceInfo instance(int instance) {
+		return InstanceInfo.Builder.newBuilder()
+			.setAppName(appName(instance))
+			.setHostName("host-" + instance)
+			.setInstanceId(instanceId(instance))
+			.setPort(8080)
+			// outlives the benchmark, so that no lease expires
+			.setLeaseInfo(LeaseInfo.Builder.newBuilder().setRenewalIntervalInSecs(30).setDurationInSecs(3600).build())
+			.build();
+	}
+
+	/**
+	 * The instances a benchmark thread renews, in turn, starting at a random one.
+	 */
+	@State(Scope.Thread)
+	public static class Renewals {
+
+		private int next = ThreadLocalRandom.current().nextInt(Integer.MAX_VALUE);
+
+		int next(int instances) {
+			this.next = (this.next + 1) % instances;
+			return this.next;
+		}
+
+	}
+
+}
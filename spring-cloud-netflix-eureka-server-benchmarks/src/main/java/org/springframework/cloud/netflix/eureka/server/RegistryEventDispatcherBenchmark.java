@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.context.support.GenericApplicationContext;
+
+/**
+ * Compares publishing a renewal event on the renewing thread, as the registry does
+ * without an event dispatcher, with handing it to {@link RegistryEventDispatcher}, which
+ * coalesces the renewals of an instance within its window.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegistryEventDispatcherBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int instances;
+
+	@Param({ "0", "30000" })
+	public long coalescingWindowMs;
+
+	private GenericApplicationContext context;
+
+	private RegistryEventDispatcher dispatcher;
+
+	private String[] ids;
+
+	@Setup
+	public void setup() {
+		this.context = new GenericApplicationContext();
+		this.context.addApplicationListener(event -> {
+		});
+		this.context.refresh();
+		this.dispatcher = new RegistryEventDispatcher(10_000, this.coalescingWindowMs);
+		this.dispatcher.setApplicationContext(this.context);
+		this.ids = new String[this.instances];
+		for (int i = 0; i < this.instances; i++) {
+			this.ids[i] = "host-" + i + ":8080";
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		this.dispatcher.destroy();
+		this.context.close();
+	}
+
+	@Benchmark
+	public void publishSynchronously(Renewals renewals) {
+		String id = renewals.next(this.ids);
+		this.context.publishEvent(new EurekaInstanceRenewedEvent(this, "APP", id, null, false));
+	}
+
+	@Benchmark
+	public void dispatchRenewal(Renewals renewals) {
+		String id = renewals.next(this.ids);
+		this.dispatcher.dispatchRenewal("APP", id, EurekaInstanceRenewedEvent.class,
+				() -> new EurekaInstanceRenewedEvent(this, "APP", id, null, false));
+	}
+
+	/**
+	 * The instances a benchmark thread renews, in turn.
+	 */
+	@State(Scope.Thread)
+	public static class Renewals {
+
+		private int next;
+
+		String next(String[] ids) {
+			this.next = (this.next + 1) % ids.length;
+			return ids[this.next];
+		}
+
+	}
+
+}
@@ -0,0 +1,372 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse.EurekaHttpResponseBuilder;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.resources.ASGResource.ASGStatus;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.netflix.eureka.server.EurekaReplicationClientProperties.Batching;
+import org.springframework.http.HttpStatus;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+
+/**
+ * {@link HttpReplicationClient} that merges the batches of changes submitted by the
+ * replication threads of a peer into fewer, larger requests. A request is sent when the
+ * pending changes reach the current size limit, when their estimated encoded size
+ * reaches {@link Batching#getMaxBytes()}, or when the oldest of them has waited
+ * {@link Batching#getMaxDelayMs()}, whichever comes first. The size limit doubles, up to
+ * {@link Batching#getMaxItems()}, every time it is reached while the peer answers in
+ * time, and halves, down to {@link Batching#getMinItems()}, when the peer is slow. Each
+ * submitting thread receives the responses to its own changes.
+ *
+ * @since 5.0.3
+ */
+class AdaptiveBatchingReplicationClient implements HttpReplicationClient {
+
+	private static final Log log = LogFactory.getLog(AdaptiveBatchingReplicationClient.class);
+
+	private static final double INITIAL_BYTES_PER_ITEM = 1024;
+
+	private final RestClientReplicationClient delegate;
+
+	private final Batching batching;
+
+	private final ReplicationBatchMetrics metrics;
+
+	private final String peer;
+
+	private final Object monitor = new Object();
+
+	private final List<PendingBatch> pending = new ArrayList<>();
+
+	private final Thread flusher;
+
+	private int pendingItems;
+
+	private volatile int maxItems;
+
+	private volatile double bytesPerItem = INITIAL_BYTES_PER_ITEM;
+
+	private volatile boolean running = true;
+
+	AdaptiveBatchingReplicationClient(RestClientReplicationClient delegate, Batching batching,
+			ReplicationBatchMetrics metrics, String peer) {
+		this.delegate = delegate;
+		this.batching = batching;
+		this.metrics = metrics;
+		this.peer = peer;
+		this.maxItems = batching.getMinItems();
+		this.flusher = new Thread(this::run, "eureka-replication-batcher-" + peer);
+		this.flusher.setDaemon(true);
+		this.flusher.start();
+	}
+
+	/**
+	 * The client batches are sent with.
+	 * @return the client
+	 */
+	RestClientReplicationClient getDelegate() {
+		return this.delegate;
+	}
+
+	@Override
+	public EurekaHttpResponse<ReplicationListResponse> submitBatchUpdates(ReplicationList replicationList) {
+		PendingBatch batch = new PendingBatch(replicationList.getReplicationList(), System.nanoTime());
+		if (batch.size() == 0) {
+			return anEurekaHttpResponse(HttpStatus.OK.value(), new ReplicationListResponse()).build();
+		}
+		synchronized (this.monitor) {
+			if (!this.running) {
+				throw new IllegalStateException("Replication client to " + this.peer + " has been shut down");
+			}
+			this.pending.add(batch);
+			this.pendingItems += batch.size();
+			this.monitor.notifyAll();
+		}
+		try {
+			return batch.response().get();
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while replicating to " + this.peer, ex);
+		}
+		catch (ExecutionException ex) {
+			if (ex.getCause() instanceof RuntimeException runtimeException) {
+				// rethrown as is, so that network errors are still retried
+				throw runtimeException;
+			}
+			throw new IllegalStateException("Failed to replicate to " + this.peer, ex.getCause());
+		}
+	}
+
+	int getMaxItems() {
+		return this.maxItems;
+	}
+
+	private void run() {
+		while (this.running) {
+			List<PendingBatch> batches;
+			FlushReason reason;
+			synchronized (this.monitor) {
+				try {
+					reason = awaitFlush();
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				if (reason == null) {
+					return;
+				}
+				batches = take();
+			}
+			flush(batches, reason);
+		}
+	}
+
+	private FlushReason awaitFlush() throws InterruptedException {
+		while (this.running && this.pending.isEmpty()) {
+			this.monitor.wait();
+		}
+		if (!this.running) {
+			return null;
+		}
+		long deadline = this.pending.get(0).submitted() + TimeUnit.MILLISECONDS.toNanos(this.batching.getMaxDelayMs());
+		while (this.running) {
+			if (this.pendingItems >= this.maxItems) {
+				return FlushReason.SIZE;
+			}
+			if (this.pendingItems * this.bytesPerItem >= this.batching.getMaxBytes()) {
+				return FlushReason.BYTES;
+			}
+			long remaining = deadline - System.nanoTime();
+			if (remaining <= 0) {
+				return FlushReason.DEADLINE;
+			}
+			TimeUnit.NANOSECONDS.timedWait(this.monitor, remaining);
+		}
+		return null;
+	}
+
+	private List<PendingBatch> take() {
+		List<PendingBatch> batches = new ArrayList<>();
+		int items = 0;
+		while (!this.pending.isEmpty()) {
+			PendingBatch next = this.pending.get(0);
+			// the changes of a thread are sent together, even beyond the size limit
+			if (!batches.isEmpty() && items + next.size() > this.maxItems) {
+				break;
+			}
+			batches.add(this.pending.remove(0));
+			items += next.size();
+		}
+		this.pendingItems -= items;
+		return batches;
+	}
+
+	private void flush(List<PendingBatch> batches, FlushReason reason) {
+		List<ReplicationInstance> instances = new ArrayList<>();
+		for (PendingBatch batch : batches) {
+			instances.addAll(batch.instances());
+		}
+		EurekaHttpResponse<ReplicationListResponse> response;
+		long start = System.nanoTime();
+		try {
+			byte[] body = this.delegate.encode(new ReplicationList(instances));
+			this.bytesPerItem = (double) body.length / instances.size();
+			this.metrics.recordFlush(this.peer, reason, instances.size(), body.length);
+			response = this.delegate.submitBatchUpdates(body, this.batching.isCompressed());
+		}
+		catch (RuntimeException ex) {
+			batches.forEach(batch -> batch.response().completeExceptionally(ex));
+			adapt(reason, System.nanoTime() - start);
+			return;
+		}
+		adapt(reason, System.nanoTime() - start);
+		complete(batches, response);
+	}
+
+	private void adapt(FlushReason reason, long elapsedNanos) {
+		int current = this.maxItems;
+		if (TimeUnit.NANOSECONDS.toMillis(elapsedNanos) > this.batching.getSlowPeerThresholdMs()) {
+			this.maxItems = Math.max(this.batching.getMinItems(), current / 2);
+		}
+		else if (reason != FlushReason.DEADLINE) {
+			this.maxItems = Math.min(this.batching.getMaxItems(), current * 2);
+		}
+		if (log.isDebugEnabled() && this.maxItems != current) {
+			log.debug("Replicating up to " + this.maxItems + " changes per request to " + this.peer);
+		}
+	}
+
+	private static void complete(List<PendingBatch> batches, EurekaHttpResponse<ReplicationListResponse> response) {
+		ReplicationListResponse entity = response.getEntity();
+		List<ReplicationInstanceResponse> responses = (entity != null) ? entity.getResponseList() : null;
+		int expected = batches.stream().mapToInt(PendingBatch::size).sum();
+		int offset = 0;
+		for (PendingBatch batch : batches) {
+			EurekaHttpResponseBuilder<ReplicationListResponse> builder = anEurekaHttpResponse(
+					response.getStatusCode(), ReplicationListResponse.class);
+			if (response.getStatusCode() == HttpStatus.OK.value() && responses != null
+					&& responses.size() == expected) {
+				ReplicationListResponse own = new ReplicationListResponse();
+				responses.subList(offset, offset + batch.size()).forEach(own::addResponse);
+				builder.entity(own);
+			}
+			offset += batch.size();
+			batch.response().complete(builder.build());
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		List<PendingBatch> abandoned;
+		synchronized (this.monitor) {
+			this.running = false;
+			abandoned = new ArrayList<>(this.pending);
+			this.pending.clear();
+			this.pendingItems = 0;
+			this.monitor.notifyAll();
+		}
+		IllegalStateException shutDown = new IllegalStateException(
+				"Replication client to " + this.peer + " has been shut down");
+		abandoned.forEach(batch -> batch.response().completeExceptionally(shutDown));
+		this.delegate.shutdown();
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String asgName, ASGStatus newStatus) {
+		return this.delegate.statusUpdate(asgName, newStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> register(InstanceInfo info) {
+		return this.delegate.register(info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> cancel(String appName, String id) {
+		return this.delegate.cancel(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info,
+			InstanceStatus overriddenStatus) {
+		return this.delegate.sendHeartBeat(appName, id, info, overriddenStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus,
+			InstanceInfo info) {
+		return this.delegate.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		return this.delegate.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(String... regions) {
+		return this.delegate.getApplications(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(String... regions) {
+		return this.delegate.getDelta(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+		return this.delegate.getVip(vipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+		return this.delegate.getSecureVip(secureVipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Application> getApplication(String appName) {
+		return this.delegate.getApplication(appName);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+		return this.delegate.getInstance(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+		return this.delegate.getInstance(id);
+	}
+
+	/**
+	 * Why a request was sent.
+	 */
+	enum FlushReason {
+
+		/**
+		 * The pending changes reached the size limit.
+		 */
+		SIZE,
+
+		/**
+		 * The estimated size of the encoded changes reached the byte limit.
+		 */
+		BYTES,
+
+		/**
+		 * The oldest change waited as long as it may.
+		 */
+		DEADLINE
+
+	}
+
+	private record PendingBatch(List<ReplicationInstance> instances, long submitted,
+			CompletableFuture<EurekaHttpResponse<ReplicationListResponse>> response) {
+
+		PendingBatch(List<ReplicationInstance> instances, long submitted) {
+			this(instances, submitted, new CompletableFuture<>());
+		}
+
+		int size() {
+			return this.instances.size();
+		}
+
+	}
+
+}
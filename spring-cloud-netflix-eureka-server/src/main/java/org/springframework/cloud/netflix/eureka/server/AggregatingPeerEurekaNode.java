@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * {@link MonitoredPeerEurekaNode} that collects the renewals accepted from clients and sends them
+ * to the peer as a summary at a fixed interval, instead of replicating each of them on
+ * its own. An instance renewed several times within an interval is sent once. Renewals
+ * the peer does not accept, because it does not know the instance or knows another
+ * version of it, and all renewals of a summary that fails are replicated one by one, so
+ * that the peer and this server reconcile the instance as they usually do. Renewals of
+ * instances with an overridden status are replicated one by one as well, since the peer
+ * stores the overridden status that comes with them. Every other change is replicated as
+ * usual.
+ *
+ * @since 5.0.3
+ */
+class AggregatingPeerEurekaNode extends MonitoredPeerEurekaNode {
+
+	private static final Log log = LogFactory.getLog(AggregatingPeerEurekaNode.class);
+
+	private final RestClientReplicationClient renewalClient;
+
+	private final ScheduledExecutorService scheduler;
+
+	private final Object monitor = new Object();
+
+	private Map<String, Map<String, InstanceInfo>> pending = new HashMap<>();
+
+	AggregatingPeerEurekaNode(PeerAwareInstanceRegistry registry, String targetHost, String serviceUrl,
+			HttpReplicationClient replicationClient, RestClientReplicationClient renewalClient,
+			EurekaServerConfig config, PeerReplicationMetrics metrics, PeerReplicationMonitor monitor,
+			long intervalMs) {
+		super(registry, targetHost, serviceUrl, replicationClient, config, metrics, monitor);
+		this.renewalClient = renewalClient;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "eureka-renewal-summary-" + targetHost);
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.scheduler.scheduleWithFixedDelay(this::sendRenewals, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void heartbeat(String appName, String id, InstanceInfo info, InstanceStatus overriddenStatus,
+			boolean primeConnection) throws Throwable {
+		if (primeConnection || info == null
+				|| (overriddenStatus != null && overriddenStatus != InstanceStatus.UNKNOWN)) {
+			super.heartbeat(appName, id, info, overriddenStatus, primeConnection);
+			return;
+		}
+		synchronized (this.monitor) {
+			this.pending.computeIfAbsent(appName, name -> new HashMap<>()).put(id, info);
+		}
+	}
+
+	/**
+	 * Send the renewals collected since the previous summary.
+	 */
+	void sendRenewals() {
+		Map<String, Map<String, InstanceInfo>> renewed;
+		synchronized (this.monitor) {
+			if (this.pending.isEmpty()) {
+				return;
+			}
+			renewed = this.pending;
+			this.pending = new HashMap<>();
+		}
+		Map<String, Map<String, Long>> summary = new LinkedHashMap<>();
+		renewed.forEach((appName, instances) -> {
+			Map<String, Long> timestamps = new LinkedHashMap<>();
+			instances.forEach((id, info) -> timestamps.put(id, info.getLastDirtyTimestamp()));
+			summary.put(appName, timestamps);
+		});
+		Map<String, List<String>> rejected;
+		try {
+			rejected = this.renewalClient.sendRenewals(summary);
+		}
+		catch (RuntimeException ex) {
+			if (log.isDebugEnabled()) {
+				log.debug("Failed to send a summary of renewals to " + getServiceUrl()
+						+ ", replicating them one by one", ex);
+			}
+			renewed.forEach((appName, instances) -> instances.forEach((id, info) -> heartbeat(appName, id, info)));
+			return;
+		}
+		rejected.forEach((appName, ids) -> {
+			Map<String, InstanceInfo> instances = renewed.getOrDefault(appName, Map.of());
+			for (String id : ids) {
+				InstanceInfo info = instances.get(id);
+				if (info != null) {
+					heartbeat(appName, id, info);
+				}
+			}
+		});
+	}
+
+	private void heartbeat(String appName, String id, InstanceInfo info) {
+		try {
+			super.heartbeat(appName, id, info, info.getOverriddenStatus(), false);
+		}
+		catch (Throwable ex) {
+			log.warn("Failed to replicate the renewal of " + appName + "/" + id + " to " + getServiceUrl(), ex);
+		}
+	}
+
+	@Override
+	public void shutDown() {
+		this.scheduler.shutdownNow();
+		super.shutDown();
+	}
+
+}
@@ -0,0 +1,490 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.ws.rs.RuntimeType;
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import jakarta.ws.rs.client.ClientRequestContext;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.Configuration;
+import jakarta.ws.rs.core.Cookie;
+import jakarta.ws.rs.core.Feature;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.Response;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+
+/**
+ * Applies the Jersey {@link ClientRequestFilter}s of
+ * {@link ReplicationClientAdditionalFilters} to the requests of the {@code RestClient}
+ * replication client. Filters can read and change the method, URI, headers, properties
+ * and entity of a request, and abort it with a response of their own, which the remaining
+ * filters and the request are then skipped for. The entity of a request is its encoded
+ * body, so only {@code byte[]} and {@link String} entities can be set; filters that wrap
+ * the entity stream see the encoded body written through their stream.
+ *
+ * @since 5.0.3
+ */
+class ClientRequestFilterInterceptor implements ClientHttpRequestInterceptor {
+
+	private final Collection<ClientRequestFilter> filters;
+
+	ClientRequestFilterInterceptor(Collection<ClientRequestFilter> filters) {
+		this.filters = filters;
+	}
+
+	@Override
+	public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+			throws IOException {
+		FilterRequestContext context = new FilterRequestContext(request, body, this.filters);
+		try {
+			for (ClientRequestFilter filter : this.filters) {
+				filter.filter(context);
+				if (context.aborted != null) {
+					return new AbortedResponse(context.aborted);
+				}
+			}
+		}
+		finally {
+			context.close();
+		}
+		byte[] filteredBody = context.body();
+		HttpHeaders headers = request.getHeaders();
+		headers.clear();
+		context.headers.forEach((name, values) -> {
+			for (Object value : values) {
+				headers.add(name, String.valueOf(value));
+			}
+		});
+		HttpRequest filtered = new HttpRequestWrapper(request) {
+			@Override
+			public HttpMethod getMethod() {
+				return HttpMethod.valueOf(context.method);
+			}
+
+			@Override
+			public URI getURI() {
+				return context.uri;
+			}
+		};
+		return execution.execute(filtered, filteredBody);
+	}
+
+	private static final class FilterRequestContext implements ClientRequestContext {
+
+		private final Map<String, Object> properties = new HashMap<>();
+
+		private final MultivaluedMap<String, Object> headers = new MultivaluedHashMap<>();
+
+		private final ByteArrayOutputStream entitySink = new ByteArrayOutputStream();
+
+		private final FilterConfiguration configuration;
+
+		private byte[] body;
+
+		private OutputStream entityStream = this.entitySink;
+
+		private URI uri;
+
+		private String method;
+
+		private Client client;
+
+		private Response aborted;
+
+		private FilterRequestContext(HttpRequest request, byte[] body, Collection<ClientRequestFilter> filters) {
+			this.uri = request.getURI();
+			this.method = request.getMethod().name();
+			this.body = body;
+			this.configuration = new FilterConfiguration(this.properties, filters);
+			request.getHeaders().forEach((name, values) -> this.headers.addAll(name, new ArrayList<>(values)));
+		}
+
+		/**
+		 * The body to send, written through the entity stream if a filter replaced it.
+		 */
+		private byte[] body() throws IOException {
+			if (this.entityStream == this.entitySink) {
+				return this.body;
+			}
+			try (OutputStream out = this.entityStream) {
+				out.write(this.body);
+			}
+			return this.entitySink.toByteArray();
+		}
+
+		private void close() {
+			if (this.client != null) {
+				this.client.close();
+			}
+		}
+
+		private HttpHeaders httpHeaders() {
+			HttpHeaders httpHeaders = new HttpHeaders();
+			getStringHeaders().forEach(httpHeaders::addAll);
+			return httpHeaders;
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return this.properties.get(name);
+		}
+
+		@Override
+		public Collection<String> getPropertyNames() {
+			return this.properties.keySet();
+		}
+
+		@Override
+		public void setProperty(String name, Object object) {
+			this.properties.put(name, object);
+		}
+
+		@Override
+		public void removeProperty(String name) {
+			this.properties.remove(name);
+		}
+
+		@Override
+		public URI getUri() {
+			return this.uri;
+		}
+
+		@Override
+		public void setUri(URI uri) {
+			this.uri = uri;
+		}
+
+		@Override
+		public String getMethod() {
+			return this.method;
+		}
+
+		@Override
+		public void setMethod(String method) {
+			this.method = method;
+		}
+
+		@Override
+		public MultivaluedMap<String, Object> getHeaders() {
+			return this.headers;
+		}
+
+		@Override
+		public MultivaluedMap<String, String> getStringHeaders() {
+			MultivaluedMap<String, String> stringHeaders = new MultivaluedHashMap<>();
+			this.headers.forEach((name, values) -> {
+				for (Object value : values) {
+					stringHeaders.add(name, String.valueOf(value));
+				}
+			});
+			return stringHeaders;
+		}
+
+		@Override
+		public String getHeaderString(String name) {
+			for (Map.Entry<String, List<Object>> header : this.headers.entrySet()) {
+				if (header.getKey().equalsIgnoreCase(name)) {
+					List<String> values = new ArrayList<>();
+					header.getValue().forEach(value -> values.add(String.valueOf(value)));
+					return String.join(",", values);
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasEntity() {
+			return this.body.length > 0;
+		}
+
+		@Override
+		public Object getEntity() {
+			return hasEntity() ? this.body : null;
+		}
+
+		@Override
+		public Class<?> getEntityClass() {
+			return hasEntity() ? byte[].class : null;
+		}
+
+		@Override
+		public Type getEntityType() {
+			return getEntityClass();
+		}
+
+		@Override
+		public Annotation[] getEntityAnnotations() {
+			return new Annotation[0];
+		}
+
+		@Override
+		public Date getDate() {
+			long date = httpHeaders().getDate();
+			return (date != -1) ? new Date(date) : null;
+		}
+
+		@Override
+		public Locale getLanguage() {
+			return httpHeaders().getContentLanguage();
+		}
+
+		@Override
+		public jakarta.ws.rs.core.MediaType getMediaType() {
+			MediaType contentType = httpHeaders().getContentType();
+			return (contentType != null) ? mediaType(contentType) : null;
+		}
+
+		@Override
+		public List<jakarta.ws.rs.core.MediaType> getAcceptableMediaTypes() {
+			List<MediaType> accept = new ArrayList<>(httpHeaders().getAccept());
+			if (accept.isEmpty()) {
+				return Collections.singletonList(jakarta.ws.rs.core.MediaType.WILDCARD_TYPE);
+			}
+			accept.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+			return accept.stream().map(FilterRequestContext::mediaType).toList();
+		}
+
+		@Override
+		public List<Locale> getAcceptableLanguages() {
+			return httpHeaders().getAcceptLanguageAsLocales();
+		}
+
+		@Override
+		public Map<String, Cookie> getCookies() {
+			Map<String, Cookie> cookies = new LinkedHashMap<>();
+			for (String header : httpHeaders().getOrEmpty(HttpHeaders.COOKIE)) {
+				for (String pair : header.split(";")) {
+					int separator = pair.indexOf('=');
+					if (separator > 0) {
+						String name = pair.substring(0, separator).trim();
+						cookies.put(name, new Cookie.Builder(name).value(pair.substring(separator + 1).trim()).build());
+					}
+				}
+			}
+			return cookies;
+		}
+
+		@Override
+		public void setEntity(Object entity) {
+			if (entity instanceof byte[] bytes) {
+				this.body = bytes;
+			}
+			else if (entity instanceof String string) {
+				this.body = string.getBytes(StandardCharsets.UTF_8);
+			}
+			else if (entity == null) {
+				this.body = new byte[0];
+			}
+			else {
+				throw new IllegalArgumentException(
+						"Only byte[] and String entities can be set, not " + entity.getClass().getName());
+			}
+		}
+
+		@Override
+		public void setEntity(Object entity, Annotation[] annotations, jakarta.ws.rs.core.MediaType mediaType) {
+			setEntity(entity);
+			if (mediaType != null) {
+				this.headers.putSingle(HttpHeaders.CONTENT_TYPE, mediaType.toString());
+			}
+		}
+
+		@Override
+		public OutputStream getEntityStream() {
+			return this.entityStream;
+		}
+
+		@Override
+		public void setEntityStream(OutputStream outputStream) {
+			this.entityStream = outputStream;
+		}
+
+		@Override
+		public Client getClient() {
+			if (this.client == null) {
+				this.client = ClientBuilder.newClient();
+			}
+			return this.client;
+		}
+
+		@Override
+		public Configuration getConfiguration() {
+			return this.configuration;
+		}
+
+		@Override
+		public void abortWith(Response response) {
+			this.aborted = response;
+		}
+
+		private static jakarta.ws.rs.core.MediaType mediaType(MediaType mediaType) {
+			return new jakarta.ws.rs.core.MediaType(mediaType.getType(), mediaType.getSubtype(),
+					mediaType.getParameters());
+		}
+
+	}
+
+	/**
+	 * The configuration of the filters, which holds the properties of the request and the
+	 * filters themselves.
+	 */
+	private record FilterConfiguration(Map<String, Object> properties,
+			Collection<ClientRequestFilter> filters) implements Configuration {
+
+		@Override
+		public RuntimeType getRuntimeType() {
+			return RuntimeType.CLIENT;
+		}
+
+		@Override
+		public Map<String, Object> getProperties() {
+			return Collections.unmodifiableMap(this.properties);
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return this.properties.get(name);
+		}
+
+		@Override
+		public Collection<String> getPropertyNames() {
+			return Collections.unmodifiableSet(this.properties.keySet());
+		}
+
+		@Override
+		public boolean isEnabled(Feature feature) {
+			return false;
+		}
+
+		@Override
+		public boolean isEnabled(Class<? extends Feature> featureClass) {
+			return false;
+		}
+
+		@Override
+		public boolean isRegistered(Object component) {
+			return this.filters.contains(component);
+		}
+
+		@Override
+		public boolean isRegistered(Class<?> componentClass) {
+			return getClasses().contains(componentClass);
+		}
+
+		@Override
+		public Map<Class<?>, Integer> getContracts(Class<?> componentClass) {
+			return isRegistered(componentClass) ? Collections.singletonMap(ClientRequestFilter.class, 0)
+					: Collections.emptyMap();
+		}
+
+		@Override
+		public Set<Class<?>> getClasses() {
+			Set<Class<?>> classes = new LinkedHashSet<>();
+			this.filters.forEach(filter -> classes.add(filter.getClass()));
+			return classes;
+		}
+
+		@Override
+		public Set<Object> getInstances() {
+			return new LinkedHashSet<>(this.filters);
+		}
+
+	}
+
+	/**
+	 * The response a filter aborted a request with.
+	 */
+	private static final class AbortedResponse implements ClientHttpResponse {
+
+		private final Response response;
+
+		private AbortedResponse(Response response) {
+			this.response = response;
+		}
+
+		@Override
+		public HttpStatusCode getStatusCode() {
+			return HttpStatusCode.valueOf(this.response.getStatus());
+		}
+
+		@Override
+		public String getStatusText() {
+			String reasonPhrase = this.response.getStatusInfo().getReasonPhrase();
+			return (reasonPhrase != null) ? reasonPhrase : "";
+		}
+
+		@Override
+		public HttpHeaders getHeaders() {
+			HttpHeaders headers = new HttpHeaders();
+			this.response.getStringHeaders().forEach(headers::addAll);
+			return headers;
+		}
+
+		@Override
+		public InputStream getBody() throws IOException {
+			Object entity = this.response.getEntity();
+			if (entity instanceof InputStream inputStream) {
+				return inputStream;
+			}
+			if (entity instanceof byte[] bytes) {
+				return new ByteArrayInputStream(bytes);
+			}
+			byte[] body = (entity != null) ? entity.toString().getBytes(StandardCharsets.UTF_8) : new byte[0];
+			return new ByteArrayInputStream(body);
+		}
+
+		@Override
+		public void close() {
+			this.response.close();
+		}
+
+	}
+
+}
@@ -19,11 +19,13 @@ package org.springframework.cloud.netflix.eureka.server;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.StringWriter;
 import java.lang.reflect.Field;
 import java.util.HashMap;
 import java.util.function.Supplier;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.Version;
@@ -84,6 +86,14 @@ public class CloudJacksonJson extends LegacyJacksonJson {
 		return this.codec.readValue(type, inputStream);
 	}
 
+	/**
+	 * Derive the instance id from the {@code instanceId} metadata for instances that
+	 * don't have one. Instances are normalized when they are decoded and when they are
+	 * registered with {@link InstanceRegistry}, so for registered instances this is a
+	 * cheap check that returns the given instance.
+	 * @param info the instance to normalize
+	 * @return the given instance, or a copy with the derived instance id
+	 */
 	static InstanceInfo updateIfNeeded(final InstanceInfo info) {
 		if (info.getInstanceId() == null && info.getMetadata() != null) {
 			String instanceId = info.getMetadata().get("instanceId");
@@ -102,16 +112,26 @@ public class CloudJacksonJson extends LegacyJacksonJson {
 
 		private static final Version VERSION = new Version(1, 1, 0, null, null, null);
 
-		@SuppressWarnings("deprecation")
+		private final CloudInstanceInfoSerializer instanceInfoSerializer = new CloudInstanceInfoSerializer();
+
 		CloudJacksonCodec() {
+			this(null);
+		}
+
+		/**
+		 * Create a codec that reads and writes the format of the given factory.
+		 * @param factory the factory to use or {@code null} for JSON
+		 */
+		@SuppressWarnings("deprecation")
+		CloudJacksonCodec(JsonFactory factory) {
 			super();
 
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = new ObjectMapper(factory);
 			mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
 
 			SimpleModule module = new SimpleModule("eureka1.x", VERSION);
 			module.addSerializer(DataCenterInfo.class, new DataCenterInfoSerializer());
-			module.addSerializer(InstanceInfo.class, new CloudInstanceInfoSerializer());
+			module.addSerializer(InstanceInfo.class, this.instanceInfoSerializer);
 			module.addSerializer(Application.class, new ApplicationSerializer());
 			module.addSerializer(Applications.class,
 					new ApplicationsSerializer(this.getVersionDeltaKey(), this.getAppHashCodeKey()));
@@ -127,24 +147,36 @@ public class CloudJacksonJson extends LegacyJacksonJson {
 
 			mapper.registerModule(module);
 
+			// ObjectReader and ObjectWriter are immutable and thread-safe, so they are
+			// created once rather than on every read
 			HashMap<Class<?>, Supplier<ObjectReader>> readers = new HashMap<>();
-			readers.put(InstanceInfo.class,
-					() -> mapper.reader().withType(InstanceInfo.class).withRootName("instance"));
-			readers.put(Application.class,
-					() -> mapper.reader().withType(Application.class).withRootName("application"));
+			readers.put(InstanceInfo.class, cached(mapper.readerFor(InstanceInfo.class).withRootName("instance")));
+			readers.put(Application.class, cached(mapper.readerFor(Application.class).withRootName("application")));
 			readers.put(Applications.class,
-					() -> mapper.reader().withType(Applications.class).withRootName("applications"));
+					cached(mapper.readerFor(Applications.class).withRootName("applications")));
 			setField("objectReaderByClass", readers);
 
 			HashMap<Class<?>, ObjectWriter> writers = new HashMap<>();
-			writers.put(InstanceInfo.class, mapper.writer().withType(InstanceInfo.class).withRootName("instance"));
-			writers.put(Application.class, mapper.writer().withType(Application.class).withRootName("application"));
-			writers.put(Applications.class, mapper.writer().withType(Applications.class).withRootName("applications"));
+			writers.put(InstanceInfo.class, mapper.writerFor(InstanceInfo.class).withRootName("instance"));
+			writers.put(Application.class, mapper.writerFor(Application.class).withRootName("application"));
+			writers.put(Applications.class, mapper.writerFor(Applications.class).withRootName("applications"));
 			setField("objectWriterByClass", writers);
 
 			setField("mapper", mapper);
 		}
 
+		/**
+		 * Write instances from already encoded fragments held by the given cache.
+		 * @param fragmentCache the cache to use or {@code null} to encode every instance
+		 */
+		void setInstanceFragmentCache(InstanceFragmentCache fragmentCache) {
+			this.instanceInfoSerializer.fragmentCache = fragmentCache;
+		}
+
+		private static Supplier<ObjectReader> cached(ObjectReader reader) {
+			return () -> reader;
+		}
+
 		void setField(String name, Object value) {
 			Field field = ReflectionUtils.findField(EurekaJacksonCodec.class, name);
 			ReflectionUtils.makeAccessible(field);
@@ -155,12 +187,40 @@ public class CloudJacksonJson extends LegacyJacksonJson {
 
 	static class CloudInstanceInfoSerializer extends InstanceInfoSerializer {
 
+		volatile InstanceFragmentCache fragmentCache;
+
 		@Override
 		public void serialize(final InstanceInfo info, JsonGenerator jgen, SerializerProvider provider)
 				throws IOException {
 
+			// instances are normalized on ingest, this only rebuilds instances that
+			// bypassed InstanceRegistry.register
 			InstanceInfo updated = updateIfNeeded(info);
-			super.serialize(updated, jgen, provider);
+			InstanceFragmentCache cache = this.fragmentCache;
+			if (cache == null || !cache.isActive() || jgen.getCodec() == null) {
+				super.serialize(updated, jgen, provider);
+				return;
+			}
+			String fragment = cache.get(updated);
+			if (fragment == null) {
+				fragment = encode(jgen, generator -> super.serialize(updated, generator, provider));
+				cache.put(updated, fragment);
+			}
+			jgen.writeRawValue(fragment);
+		}
+
+		private static String encode(JsonGenerator jgen, GeneratorCallback callback) throws IOException {
+			StringWriter writer = new StringWriter(256);
+			try (JsonGenerator generator = jgen.getCodec().getFactory().createGenerator(writer)) {
+				callback.write(generator);
+			}
+			return writer.toString();
+		}
+
+		private interface GeneratorCallback {
+
+			void write(JsonGenerator generator) throws IOException;
+
 		}
 
 	}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import org.springframework.cloud.netflix.eureka.server.CloudJacksonJson.CloudJacksonCodec;
+
+/**
+ * Codec for registry payloads in the Jackson Smile binary format. It uses the same
+ * serializers as {@link CloudJacksonJson}, so a Smile payload has exactly the structure
+ * of the JSON payload. Smile is binary, so the codec only encodes to and decodes from
+ * streams, and is not a {@code CodecWrapper}, whose payloads are Strings.
+ *
+ * @since 5.0.3
+ */
+public class CloudJacksonSmile {
+
+	/**
+	 * Media type of registry payloads encoded with Smile.
+	 */
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	private final CloudJacksonCodec codec = new CloudJacksonCodec(new SmileFactory());
+
+	private final JsonFactory jsonFactory = new JsonFactory();
+
+	private final SmileFactory smileFactory = new SmileFactory();
+
+	/**
+	 * Encode an object as Smile.
+	 * @param object the object to encode
+	 * @param outputStream the stream to write the payload to
+	 * @param <T> the type of the object
+	 * @throws IOException if the payload can't be written
+	 */
+	public <T> void encode(T object, OutputStream outputStream) throws IOException {
+		this.codec.writeTo(object, outputStream);
+	}
+
+	/**
+	 * Decode a Smile payload.
+	 * @param inputStream the stream to read the payload from
+	 * @param type the type of the object
+	 * @param <T> the type of the object
+	 * @return the decoded object
+	 * @throws IOException if the payload is not valid Smile or can't be read
+	 */
+	public <T> T decode(InputStream inputStream, Class<T> type) throws IOException {
+		return this.codec.readValue(type, inputStream);
+	}
+
+	/**
+	 * Re-encode a payload produced by {@link CloudJacksonJson} as Smile. This is cheaper
+	 * than decoding and encoding the payload again, and yields the same result.
+	 * @param json the JSON payload
+	 * @param outputStream the stream to write the Smile payload to
+	 * @throws IOException if the payload is not valid JSON or can't be written
+	 */
+	public void transcode(byte[] json, OutputStream outputStream) throws IOException {
+		try (JsonParser parser = this.jsonFactory.createParser(json);
+				JsonGenerator generator = this.smileFactory.createGenerator(outputStream)) {
+			if (parser.nextToken() != null) {
+				generator.copyCurrentStructure(parser);
+			}
+		}
+	}
+
+}
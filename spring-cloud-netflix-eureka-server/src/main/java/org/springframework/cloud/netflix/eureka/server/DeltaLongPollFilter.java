@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Serves delta fetches that name the registry version the client has already seen, and
+ * holds them with {@link RegistryDeltaLongPoll} until the version moves or the wait the
+ * client asked for is over. When enabled, fetches that name the applications the client
+ * is interested in are answered with the delta of just these, as
+ * {@link InterestedApplicationsFilter} answers their full fetches. Other delta fetches,
+ * and those asking for remote regions, XML or compact payloads, are left to the Eureka
+ * resources.
+ *
+ * @since 5.0.3
+ */
+class DeltaLongPollFilter extends OncePerRequestFilter {
+
+	private static final Log log = LogFactory.getLog(DeltaLongPollFilter.class);
+
+	private static final String EUREKA_ACCEPT = "X-Eureka-Accept";
+
+	private static final String GZIP = "gzip";
+
+	private final RegistryDeltaLongPoll longPoll;
+
+	private final boolean interestedApplications;
+
+	DeltaLongPollFilter(RegistryDeltaLongPoll longPoll, boolean interestedApplications) {
+		this.longPoll = longPoll;
+		this.interestedApplications = interestedApplications;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.GET.matches(request.getMethod())
+				|| !request.getRequestURI().endsWith(EurekaConstants.DEFAULT_PREFIX + "/v2/apps/delta")
+				|| request.getParameter(EurekaConstants.DELTA_SINCE_PARAMETER) == null;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!canServe(request)) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		String since = request.getParameter(EurekaConstants.DELTA_SINCE_PARAMETER);
+		Set<String> appNames = this.interestedApplications
+				? InterestedApplicationsFilter.appNames(request.getParameter(EurekaConstants.APPS_PARAMETER)) : null;
+		long maxWaitMs = Math.min(maxWaitMs(request), this.longPoll.getMaxWaitMs());
+		boolean gzip = acceptsGzip(request);
+		if (maxWaitMs <= 0 || !this.longPoll.isCurrent(since)) {
+			write(response, this.longPoll.payload(appNames), gzip);
+			return;
+		}
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(maxWaitMs);
+		AsyncAnswer answer = new AsyncAnswer(asyncContext, appNames, gzip);
+		asyncContext.addListener(answer);
+		if (!this.longPoll.await(since, answer)) {
+			answer.run();
+		}
+	}
+
+	private boolean canServe(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		String eurekaAccept = request.getHeader(EUREKA_ACCEPT);
+		return request.getParameter("regions") == null && accept != null && accept.contains("json")
+				&& (eurekaAccept == null || "full".equalsIgnoreCase(eurekaAccept)) && this.longPoll.isAvailable();
+	}
+
+	private static long maxWaitMs(HttpServletRequest request) {
+		String maxWaitMs = request.getParameter(EurekaConstants.DELTA_MAX_WAIT_PARAMETER);
+		try {
+			return (maxWaitMs != null) ? Long.parseLong(maxWaitMs) : 0;
+		}
+		catch (NumberFormatException ex) {
+			return 0;
+		}
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return acceptEncoding != null && acceptEncoding.contains(GZIP);
+	}
+
+	private static void write(HttpServletResponse response, RegistryDeltaLongPoll.Payload payload, boolean gzip)
+			throws IOException {
+		byte[] body = gzip ? payload.gzipped() : payload.body();
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setHeader(EurekaConstants.REGISTRY_VERSION_HEADER, payload.version());
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	/**
+	 * Answers a held delta fetch once, when the registry version moved or the wait is
+	 * over.
+	 */
+	private final class AsyncAnswer implements Runnable, AsyncListener {
+
+		private final AsyncContext asyncContext;
+
+		private final Set<String> appNames;
+
+		private final boolean gzip;
+
+		private final AtomicBoolean answered = new AtomicBoolean();
+
+		AsyncAnswer(AsyncContext asyncContext, Set<String> appNames, boolean gzip) {
+			this.asyncContext = asyncContext;
+			this.appNames = appNames;
+			this.gzip = gzip;
+		}
+
+		@Override
+		public void run() {
+			if (!this.answered.compareAndSet(false, true)) {
+				return;
+			}
+			try {
+				write((HttpServletResponse) this.asyncContext.getResponse(),
+						DeltaLongPollFilter.this.longPoll.payload(this.appNames), this.gzip);
+			}
+			catch (IOException | RuntimeException ex) {
+				log.debug("Could not answer delta fetch", ex);
+			}
+			finally {
+				complete();
+			}
+		}
+
+		private void complete() {
+			try {
+				this.asyncContext.complete();
+			}
+			catch (IllegalStateException ex) {
+				// already completed
+			}
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			DeltaLongPollFilter.this.longPoll.release(this);
+			run();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			DeltaLongPollFilter.this.longPoll.release(this);
+			this.answered.set(true);
+			complete();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			DeltaLongPollFilter.this.longPoll.release(this);
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+	}
+
+}
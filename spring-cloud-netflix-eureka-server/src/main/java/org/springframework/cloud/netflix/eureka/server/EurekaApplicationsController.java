@@ -0,0 +1,180 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import com.netflix.appinfo.EurekaAccept;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.Version;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.ResponseCache;
+import com.netflix.eureka.registry.ResponseCacheImpl;
+import com.netflix.eureka.resources.ServerCodecs;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.EUREKA_ACCEPT_HEADER;
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.acceptsGzip;
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.acceptsJson;
+
+/**
+ * Spring MVC replacement for the read-only Eureka resources: the registry, its delta,
+ * single applications and instances, and the VIP and secure VIP lookups. Registry
+ * payloads are taken from the {@link ResponseCache} exactly as the Jersey resources do,
+ * including the gzip variants it keeps. Requests have been forwarded to {@code /v2} by
+ * the version filter.
+ *
+ * @since 5.0.3
+ */
+@RestController
+@RequestMapping(EurekaConstants.DEFAULT_PREFIX + "/v2")
+public class EurekaApplicationsController {
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final EurekaServerConfig serverConfig;
+
+	private final ServerCodecs serverCodecs;
+
+	public EurekaApplicationsController(PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+			ServerCodecs serverCodecs) {
+		this.registry = registry;
+		this.serverConfig = serverConfig;
+		this.serverCodecs = serverCodecs;
+	}
+
+	@GetMapping({ "/apps", "/apps/" })
+	public ResponseEntity<byte[]> getApplications(
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(name = EUREKA_ACCEPT_HEADER, required = false) String eurekaAccept,
+			@RequestParam(name = "regions", required = false) String regions) {
+		return registry(ResponseCacheImpl.ALL_APPS, accept, acceptEncoding, eurekaAccept, regions);
+	}
+
+	@GetMapping("/apps/delta")
+	public ResponseEntity<byte[]> getDelta(@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+			@RequestHeader(name = EUREKA_ACCEPT_HEADER, required = false) String eurekaAccept,
+			@RequestParam(name = "regions", required = false) String regions) {
+		if (this.serverConfig.shouldDisableDelta()) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		return registry(ResponseCacheImpl.ALL_APPS_DELTA, accept, acceptEncoding, eurekaAccept, regions);
+	}
+
+	@GetMapping("/apps/{appName}")
+	public ResponseEntity<byte[]> getApplication(@PathVariable String appName,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(name = EUREKA_ACCEPT_HEADER, required = false) String eurekaAccept) {
+		return entity(Key.EntityType.Application, appName.toUpperCase(Locale.ROOT), accept, eurekaAccept);
+	}
+
+	@GetMapping("/apps/{appName}/{id}")
+	public ResponseEntity<byte[]> getInstance(@PathVariable String appName, @PathVariable String id,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+		InstanceInfo instance = this.registry.getInstanceByAppAndId(appName.toUpperCase(Locale.ROOT), id);
+		return instance(instance, accept);
+	}
+
+	@GetMapping("/instances/{id}")
+	public ResponseEntity<byte[]> getInstanceById(@PathVariable String id,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept) throws IOException {
+		List<InstanceInfo> instances = this.registry.getInstancesById(id);
+		return instance((instances == null || instances.isEmpty()) ? null : instances.get(0), accept);
+	}
+
+	@GetMapping("/vips/{vipAddress}")
+	public ResponseEntity<byte[]> getVip(@PathVariable String vipAddress,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(name = EUREKA_ACCEPT_HEADER, required = false) String eurekaAccept) {
+		return entity(Key.EntityType.VIP, vipAddress, accept, eurekaAccept);
+	}
+
+	@GetMapping("/svips/{svipAddress}")
+	public ResponseEntity<byte[]> getSecureVip(@PathVariable String svipAddress,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestHeader(name = EUREKA_ACCEPT_HEADER, required = false) String eurekaAccept) {
+		return entity(Key.EntityType.SVIP, svipAddress, accept, eurekaAccept);
+	}
+
+	private ResponseEntity<byte[]> registry(String entityName, @Nullable String accept,
+			@Nullable String acceptEncoding, @Nullable String eurekaAccept, @Nullable String regionsParameter) {
+		boolean remoteRegions = StringUtils.hasText(regionsParameter);
+		if (!this.registry.shouldAllowAccess(remoteRegions)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		String[] regions = null;
+		if (remoteRegions) {
+			regions = regionsParameter.toLowerCase(Locale.ROOT).split(",");
+			// the regions are part of the cache key, in the same order as Eureka keeps them
+			Arrays.sort(regions);
+		}
+		boolean json = acceptsJson(accept);
+		Key key = new Key(Key.EntityType.Application, entityName, keyType(json), Version.V2,
+				EurekaAccept.fromString(eurekaAccept), regions);
+		ResponseCache responseCache = this.registry.getResponseCache();
+		if (acceptsGzip(acceptEncoding)) {
+			return EurekaMvcEndpoints.gzipPayload(responseCache.getGZIP(key), json);
+		}
+		return EurekaMvcEndpoints.payload(responseCache.get(key), json);
+	}
+
+	private ResponseEntity<byte[]> entity(Key.EntityType entityType, String entityName, @Nullable String accept,
+			@Nullable String eurekaAccept) {
+		if (!this.registry.shouldAllowAccess(false)) {
+			return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+		}
+		boolean json = acceptsJson(accept);
+		Key key = new Key(entityType, entityName, keyType(json), Version.V2, EurekaAccept.fromString(eurekaAccept));
+		String payload = this.registry.getResponseCache().get(key);
+		if (!StringUtils.hasLength(payload)) {
+			return ResponseEntity.notFound().build();
+		}
+		return EurekaMvcEndpoints.payload(payload, json);
+	}
+
+	private ResponseEntity<byte[]> instance(@Nullable InstanceInfo instance, @Nullable String accept)
+			throws IOException {
+		if (instance == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return EurekaMvcEndpoints.encode(this.serverCodecs, ResponseEntity.ok(instance), acceptsJson(accept));
+	}
+
+	private static Key.KeyType keyType(boolean json) {
+		return json ? Key.KeyType.JSON : Key.KeyType.XML;
+	}
+
+}
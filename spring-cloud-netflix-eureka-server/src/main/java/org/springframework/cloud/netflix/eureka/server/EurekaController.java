@@ -28,7 +28,6 @@ import com.netflix.appinfo.AmazonInfo;
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.DataCenterInfo;
 import com.netflix.appinfo.InstanceInfo;
-import com.netflix.discovery.shared.Application;
 import com.netflix.discovery.shared.Pair;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerContextHolder;
@@ -60,9 +59,24 @@ public class EurekaController {
 
 	private final EurekaProperties eurekaProperties;
 
+	private final EurekaDashboardModel dashboardModel;
+
 	public EurekaController(ApplicationInfoManager applicationInfoManager, EurekaProperties eurekaProperties) {
+		this(applicationInfoManager, eurekaProperties, null);
+	}
+
+	/**
+	 * Create a controller that renders the applications kept by the given model instead
+	 * of building them on every request.
+	 * @param applicationInfoManager the manager of the local instance
+	 * @param eurekaProperties the Eureka properties
+	 * @param dashboardModel the applications to show, may be {@code null}
+	 */
+	public EurekaController(ApplicationInfoManager applicationInfoManager, EurekaProperties eurekaProperties,
+			EurekaDashboardModel dashboardModel) {
 		this.applicationInfoManager = applicationInfoManager;
 		this.eurekaProperties = eurekaProperties;
+		this.dashboardModel = dashboardModel;
 	}
 
 	@RequestMapping(method = RequestMethod.GET)
@@ -159,89 +173,8 @@ public class EurekaController {
 	}
 
 	private void populateApps(Map<String, Object> model) {
-		List<Application> sortedApplications = getRegistry().getSortedApplications();
-		ArrayList<Map<String, Object>> apps = new ArrayList<>();
-		for (Application app : sortedApplications) {
-			LinkedHashMap<String, Object> appData = new LinkedHashMap<>();
-			apps.add(appData);
-			appData.put("name", app.getName());
-			Map<String, Integer> amiCounts = new HashMap<>();
-			Map<InstanceInfo.InstanceStatus, List<Pair<String, String>>> instancesByStatus = new HashMap<>();
-			Map<String, Integer> zoneCounts = new HashMap<>();
-			for (InstanceInfo info : app.getInstances()) {
-				String id = info.getId();
-				String url = info.getStatusPageUrl();
-				InstanceInfo.InstanceStatus status = info.getStatus();
-				String ami = "n/a";
-				String zone = "";
-				if (info.getDataCenterInfo().getName() == DataCenterInfo.Name.Amazon) {
-					AmazonInfo dcInfo = (AmazonInfo) info.getDataCenterInfo();
-					ami = dcInfo.get(AmazonInfo.MetaDataKey.amiId);
-					zone = dcInfo.get(AmazonInfo.MetaDataKey.availabilityZone);
-				}
-				Integer count = amiCounts.get(ami);
-				if (count != null) {
-					amiCounts.put(ami, count + 1);
-				}
-				else {
-					amiCounts.put(ami, 1);
-				}
-				count = zoneCounts.get(zone);
-				if (count != null) {
-					zoneCounts.put(zone, count + 1);
-				}
-				else {
-					zoneCounts.put(zone, 1);
-				}
-				List<Pair<String, String>> list = instancesByStatus.computeIfAbsent(status, k -> new ArrayList<>());
-				list.add(new Pair<>(id, url));
-			}
-			appData.put("amiCounts", amiCounts.entrySet());
-			appData.put("zoneCounts", zoneCounts.entrySet());
-			ArrayList<Map<String, Object>> instanceInfos = new ArrayList<>();
-			appData.put("instanceInfos", instanceInfos);
-			for (Map.Entry<InstanceInfo.InstanceStatus, List<Pair<String, String>>> entry : instancesByStatus
-				.entrySet()) {
-				List<Pair<String, String>> value = entry.getValue();
-				InstanceInfo.InstanceStatus status = entry.getKey();
-				LinkedHashMap<String, Object> instanceData = new LinkedHashMap<>();
-				instanceInfos.add(instanceData);
-				instanceData.put("status", entry.getKey());
-				ArrayList<Map<String, Object>> instances = new ArrayList<>();
-				instanceData.put("instances", instances);
-				instanceData.put("isNotUp", status != InstanceInfo.InstanceStatus.UP);
-
-				// TODO
-
-				/*
-				 * if(status != InstanceInfo.InstanceStatus.UP){
-				 * buf.append("<font color=red size=+1><b>"); }
-				 * buf.append("<b>").append(status
-				 * .name()).append("</b> (").append(value.size()).append(") - ");
-				 * if(status != InstanceInfo.InstanceStatus.UP){
-				 * buf.append("</font></b>"); }
-				 */
-
-				for (Pair<String, String> p : value) {
-					LinkedHashMap<String, Object> instance = new LinkedHashMap<>();
-					instances.add(instance);
-					instance.put("id", p.first());
-					String url = p.second();
-					instance.put("url", url);
-					boolean isHref = url != null && url.startsWith("http");
-					instance.put("isHref", isHref);
-					/*
-					 * String id = p.first(); String url = p.second(); if(url != null &&
-					 * url.startsWith("http")){
-					 * buf.append("<a href=\"").append(url).append("\">"); }else { url =
-					 * null; } buf.append(id); if(url != null){ buf.append("</a>"); }
-					 * buf.append(", ");
-					 */
-				}
-			}
-			// out.println("<td>" + buf.toString() + "</td></tr>");
-		}
-		model.put("apps", apps);
+		model.put("apps", (this.dashboardModel != null) ? this.dashboardModel.getApps()
+				: EurekaDashboardModel.build(getRegistry().getSortedApplications()));
 	}
 
 	private void populateInstanceInfo(Map<String, Object> model, StatusInfo statusInfo) {
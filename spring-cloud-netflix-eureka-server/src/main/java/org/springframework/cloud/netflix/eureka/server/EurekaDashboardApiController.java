@@ -0,0 +1,134 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.springframework.cloud.netflix.eureka.server.EurekaDashboardModel.DashboardApplication;
+import org.springframework.cloud.netflix.eureka.server.EurekaDashboardModel.DashboardInstance;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * JSON API of the Eureka dashboard, which loads the applications and their instances a
+ * page at a time instead of rendering the whole registry. All answers come from the
+ * snapshot kept by {@link EurekaDashboardModel}.
+ *
+ * @since 5.0.3
+ */
+@RestController
+@RequestMapping("${eureka.dashboard.path:/}")
+public class EurekaDashboardApiController {
+
+	/**
+	 * Largest page that is served, whatever the requested size.
+	 */
+	static final int MAX_PAGE_SIZE = 500;
+
+	private final EurekaDashboardModel dashboardModel;
+
+	public EurekaDashboardApiController(EurekaDashboardModel dashboardModel) {
+		this.dashboardModel = dashboardModel;
+	}
+
+	/**
+	 * A page of applications, with their instance counts.
+	 * @param query only applications whose name contains it, ignoring case
+	 * @param page the number of the page, starting at {@code 0}
+	 * @param size the number of applications per page
+	 * @return the page
+	 */
+	@GetMapping("api/apps")
+	public Page<DashboardApplication> apps(@RequestParam(required = false) @Nullable String query,
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "50") int size) {
+		String name = (query != null) ? query.toUpperCase(Locale.ROOT) : "";
+		return Page.of(this.dashboardModel.getApplications(), app -> app.name().toUpperCase(Locale.ROOT).contains(name),
+				page, size);
+	}
+
+	/**
+	 * A page of the instances of an application.
+	 * @param appName the name of the application
+	 * @param status only instances in this status, ignoring case
+	 * @param zone only instances in this availability zone
+	 * @param query only instances whose id, host name or IP address contains it
+	 * @param page the number of the page, starting at {@code 0}
+	 * @param size the number of instances per page
+	 * @return the page, or {@code 404} if the application is unknown
+	 */
+	@GetMapping("api/apps/{appName}/instances")
+	public ResponseEntity<Page<DashboardInstance>> instances(@PathVariable String appName,
+			@RequestParam(required = false) @Nullable String status,
+			@RequestParam(required = false) @Nullable String zone,
+			@RequestParam(required = false) @Nullable String query, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "50") int size) {
+		List<DashboardInstance> instances = this.dashboardModel.getInstances(appName);
+		if (instances == null) {
+			return ResponseEntity.notFound().build();
+		}
+		Predicate<DashboardInstance> filter = instance -> (status == null || status.equalsIgnoreCase(instance.status()))
+				&& (zone == null || zone.equals(instance.zone()))
+				&& (query == null || contains(instance.id(), query) || contains(instance.hostName(), query)
+						|| contains(instance.ipAddr(), query));
+		return ResponseEntity.ok(Page.of(instances, filter, page, size));
+	}
+
+	/**
+	 * The number of instances of all applications in each status and in each
+	 * availability zone.
+	 * @return the instance counts by {@code status} and by {@code zone}
+	 */
+	@GetMapping("api/histograms")
+	public Map<String, Map<String, Integer>> histograms() {
+		return Map.of("status", this.dashboardModel.getStatusCounts(), "zone", this.dashboardModel.getZoneCounts());
+	}
+
+	private static boolean contains(@Nullable String value, String query) {
+		return value != null && value.contains(query);
+	}
+
+	/**
+	 * A page of results.
+	 *
+	 * @param content the results on this page
+	 * @param page the number of this page, starting at {@code 0}
+	 * @param size the maximum number of results per page
+	 * @param totalElements the number of results on all pages
+	 * @param <T> the type of the results
+	 */
+	public record Page<T>(List<T> content, int page, int size, int totalElements) {
+
+		static <T> Page<T> of(List<T> all, Predicate<T> filter, int page, int size) {
+			int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+			int pageNumber = Math.max(0, page);
+			List<T> matching = all.stream().filter(filter).toList();
+			int from = (int) Math.min((long) pageNumber * pageSize, matching.size());
+			int to = Math.min(from + pageSize, matching.size());
+			return new Page<>(matching.subList(from, to), pageNumber, pageSize, matching.size());
+		}
+
+	}
+
+}
@@ -0,0 +1,313 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.netflix.appinfo.AmazonInfo;
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Pair;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+/**
+ * Keeps the applications shown on the Eureka dashboard, so that page requests only render
+ * them. The applications are rebuilt on a background thread shortly after registrations,
+ * cancellations and status changes, with changes arriving in the meantime handled by the
+ * same rebuild, and at a fixed interval to pick up anything else, such as remote regions.
+ * Each rebuild produces a new unmodifiable snapshot, both as the model of the dashboard
+ * page and as the applications, instances and instance counts served by
+ * {@link EurekaDashboardApiController}.
+ *
+ * @since 5.0.3
+ */
+public class EurekaDashboardModel implements SmartApplicationListener, MeterBinder, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(EurekaDashboardModel.class);
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final long rebuildDelayMs;
+
+	private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "eureka-dashboard-model");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private volatile Snapshot snapshot;
+
+	private volatile Timer rebuildTimer;
+
+	public EurekaDashboardModel(PeerAwareInstanceRegistry registry, long rebuildIntervalMs, long rebuildDelayMs) {
+		this.registry = registry;
+		this.rebuildDelayMs = rebuildDelayMs;
+		this.executor.scheduleWithFixedDelay(this::rebuild, 0, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		return EurekaInstanceRegisteredEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceCanceledEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceStatusChangedEvent.class.isAssignableFrom(eventType);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (this.rebuildScheduled.compareAndSet(false, true)) {
+			try {
+				this.executor.schedule(this::rebuild, this.rebuildDelayMs, TimeUnit.MILLISECONDS);
+			}
+			catch (RejectedExecutionException ex) {
+				// shutting down
+			}
+		}
+	}
+
+	/**
+	 * The applications to show on the dashboard, as of the last rebuild. They are built
+	 * on the calling thread if they haven't been built yet.
+	 * @return the applications, sorted by name
+	 */
+	public List<Map<String, Object>> getApps() {
+		return snapshot().apps();
+	}
+
+	/**
+	 * The applications with their instance counts, as of the last rebuild.
+	 * @return the applications, sorted by name
+	 */
+	public List<DashboardApplication> getApplications() {
+		return snapshot().applications();
+	}
+
+	/**
+	 * The instances of an application, as of the last rebuild.
+	 * @param appName the name of the application
+	 * @return the instances, sorted by id, or {@code null} if the application is unknown
+	 */
+	public List<DashboardInstance> getInstances(String appName) {
+		return snapshot().instances().get(appName.toUpperCase(Locale.ROOT));
+	}
+
+	/**
+	 * The number of instances in each status, as of the last rebuild.
+	 * @return the instance counts by status
+	 */
+	public Map<String, Integer> getStatusCounts() {
+		return snapshot().statusCounts();
+	}
+
+	/**
+	 * The number of instances in each availability zone, as of the last rebuild.
+	 * @return the instance counts by zone
+	 */
+	public Map<String, Integer> getZoneCounts() {
+		return snapshot().zoneCounts();
+	}
+
+	private Snapshot snapshot() {
+		Snapshot snapshot = this.snapshot;
+		return (snapshot != null) ? snapshot : Snapshot.of(this.registry.getSortedApplications());
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.rebuildTimer = Timer.builder("eureka.server.dashboard.rebuild")
+			.description("Time taken to rebuild the applications shown on the dashboard.")
+			.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	void rebuild() {
+		this.rebuildScheduled.set(false);
+		long start = System.nanoTime();
+		try {
+			this.snapshot = Snapshot.of(this.registry.getSortedApplications());
+		}
+		catch (RuntimeException ex) {
+			log.warn("Could not rebuild the dashboard applications", ex);
+			return;
+		}
+		Timer rebuildTimer = this.rebuildTimer;
+		if (rebuildTimer != null) {
+			rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	/**
+	 * Build the applications to show on the dashboard.
+	 * @param sortedApplications the applications of the registry, sorted by name
+	 * @return an unmodifiable view of the applications, their AMI and zone counts and
+	 * their instances by status
+	 */
+	static List<Map<String, Object>> build(List<Application> sortedApplications) {
+		List<Map<String, Object>> apps = new ArrayList<>(sortedApplications.size());
+		for (Application app : sortedApplications) {
+			Map<String, Integer> amiCounts = new HashMap<>();
+			Map<InstanceInfo.InstanceStatus, List<Pair<String, String>>> instancesByStatus = new HashMap<>();
+			Map<String, Integer> zoneCounts = new HashMap<>();
+			for (InstanceInfo info : app.getInstances()) {
+				amiCounts.merge(ami(info), 1, Integer::sum);
+				zoneCounts.merge(zone(info), 1, Integer::sum);
+				instancesByStatus.computeIfAbsent(info.getStatus(), k -> new ArrayList<>())
+					.add(new Pair<>(info.getId(), info.getStatusPageUrl()));
+			}
+			List<Map<String, Object>> instanceInfos = new ArrayList<>();
+			for (Map.Entry<InstanceInfo.InstanceStatus, List<Pair<String, String>>> entry : instancesByStatus
+				.entrySet()) {
+				List<Map<String, Object>> instances = new ArrayList<>();
+				for (Pair<String, String> p : entry.getValue()) {
+					Map<String, Object> instance = new LinkedHashMap<>();
+					instance.put("id", p.first());
+					String url = p.second();
+					instance.put("url", url);
+					instance.put("isHref", url != null && url.startsWith("http"));
+					instances.add(Collections.unmodifiableMap(instance));
+				}
+				Map<String, Object> instanceData = new LinkedHashMap<>();
+				instanceData.put("status", entry.getKey());
+				instanceData.put("instances", Collections.unmodifiableList(instances));
+				instanceData.put("isNotUp", entry.getKey() != InstanceInfo.InstanceStatus.UP);
+				instanceInfos.add(Collections.unmodifiableMap(instanceData));
+			}
+			Map<String, Object> appData = new LinkedHashMap<>();
+			appData.put("name", app.getName());
+			appData.put("amiCounts", Collections.unmodifiableMap(amiCounts).entrySet());
+			appData.put("zoneCounts", Collections.unmodifiableMap(zoneCounts).entrySet());
+			appData.put("instanceInfos", Collections.unmodifiableList(instanceInfos));
+			apps.add(Collections.unmodifiableMap(appData));
+		}
+		return Collections.unmodifiableList(apps);
+	}
+
+	private static String zone(InstanceInfo info) {
+		if (info.getDataCenterInfo().getName() == DataCenterInfo.Name.Amazon) {
+			return ((AmazonInfo) info.getDataCenterInfo()).get(AmazonInfo.MetaDataKey.availabilityZone);
+		}
+		return "";
+	}
+
+	private static String ami(InstanceInfo info) {
+		if (info.getDataCenterInfo().getName() == DataCenterInfo.Name.Amazon) {
+			return ((AmazonInfo) info.getDataCenterInfo()).get(AmazonInfo.MetaDataKey.amiId);
+		}
+		return "n/a";
+	}
+
+	/**
+	 * An application shown on the dashboard.
+	 *
+	 * @param name the name of the application
+	 * @param instanceCount the number of instances
+	 * @param statusCounts the number of instances in each status
+	 * @param zoneCounts the number of instances in each availability zone
+	 * @param amiCounts the number of instances running each AMI
+	 */
+	public record DashboardApplication(String name, int instanceCount, Map<String, Integer> statusCounts,
+			Map<String, Integer> zoneCounts, Map<String, Integer> amiCounts) {
+	}
+
+	/**
+	 * An instance shown on the dashboard.
+	 *
+	 * @param id the id of the instance
+	 * @param status the status of the instance
+	 * @param zone the availability zone of the instance, empty outside of AWS
+	 * @param ami the AMI of the instance, {@code n/a} outside of AWS
+	 * @param hostName the host name of the instance
+	 * @param ipAddr the IP address of the instance
+	 * @param statusPageUrl the status page of the instance, may be {@code null}
+	 */
+	public record DashboardInstance(String id, String status, String zone, String ami, String hostName,
+			String ipAddr, String statusPageUrl) {
+	}
+
+	/**
+	 * The result of a rebuild.
+	 */
+	private record Snapshot(List<Map<String, Object>> apps, List<DashboardApplication> applications,
+			Map<String, List<DashboardInstance>> instances, Map<String, Integer> statusCounts,
+			Map<String, Integer> zoneCounts) {
+
+		static Snapshot of(List<Application> sortedApplications) {
+			List<DashboardApplication> applications = new ArrayList<>(sortedApplications.size());
+			Map<String, List<DashboardInstance>> instancesByApp = new HashMap<>();
+			Map<String, Integer> totalStatusCounts = new TreeMap<>();
+			Map<String, Integer> totalZoneCounts = new TreeMap<>();
+			for (Application app : sortedApplications) {
+				Map<String, Integer> statusCounts = new TreeMap<>();
+				Map<String, Integer> zoneCounts = new TreeMap<>();
+				Map<String, Integer> amiCounts = new TreeMap<>();
+				List<DashboardInstance> instances = new ArrayList<>();
+				for (InstanceInfo info : app.getInstances()) {
+					String status = String.valueOf(info.getStatus());
+					String zone = String.valueOf(zone(info));
+					statusCounts.merge(status, 1, Integer::sum);
+					zoneCounts.merge(zone, 1, Integer::sum);
+					amiCounts.merge(String.valueOf(ami(info)), 1, Integer::sum);
+					totalStatusCounts.merge(status, 1, Integer::sum);
+					totalZoneCounts.merge(zone, 1, Integer::sum);
+					instances.add(new DashboardInstance(info.getId(), status, zone, ami(info), info.getHostName(),
+							info.getIPAddr(), info.getStatusPageUrl()));
+				}
+				instances.sort(Comparator.comparing(DashboardInstance::id, Comparator.nullsLast(String::compareTo)));
+				applications.add(new DashboardApplication(app.getName(), instances.size(),
+						Collections.unmodifiableMap(statusCounts), Collections.unmodifiableMap(zoneCounts),
+						Collections.unmodifiableMap(amiCounts)));
+				instancesByApp.put(app.getName().toUpperCase(Locale.ROOT), Collections.unmodifiableList(instances));
+			}
+			return new Snapshot(build(sortedApplications), Collections.unmodifiableList(applications),
+					Collections.unmodifiableMap(instancesByApp), Collections.unmodifiableMap(totalStatusCounts),
+					Collections.unmodifiableMap(totalZoneCounts));
+		}
+
+	}
+
+}
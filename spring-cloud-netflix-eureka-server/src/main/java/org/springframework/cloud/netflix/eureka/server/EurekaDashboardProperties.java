@@ -38,6 +38,18 @@ public class EurekaDashboardProperties {
 	 */
 	private boolean enabled = true;
 
+	/**
+	 * Interval in milliseconds at which the applications shown on the dashboard are
+	 * rebuilt, regardless of registry changes.
+	 */
+	private long rebuildIntervalMs = 30000;
+
+	/**
+	 * Delay in milliseconds after a registry change before the applications shown on the
+	 * dashboard are rebuilt. Changes within the delay are handled by the same rebuild.
+	 */
+	private long rebuildDelayMs = 1000;
+
 	public String getPath() {
 		return path;
 	}
@@ -54,6 +66,22 @@ public class EurekaDashboardProperties {
 		this.enabled = enabled;
 	}
 
+	public long getRebuildIntervalMs() {
+		return rebuildIntervalMs;
+	}
+
+	public void setRebuildIntervalMs(long rebuildIntervalMs) {
+		this.rebuildIntervalMs = rebuildIntervalMs;
+	}
+
+	public long getRebuildDelayMs() {
+		return rebuildDelayMs;
+	}
+
+	public void setRebuildDelayMs(long rebuildDelayMs) {
+		this.rebuildDelayMs = rebuildDelayMs;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -63,12 +91,13 @@ public class EurekaDashboardProperties {
 			return false;
 		}
 		EurekaDashboardProperties that = (EurekaDashboardProperties) o;
-		return enabled == that.enabled && Objects.equals(path, that.path);
+		return enabled == that.enabled && rebuildIntervalMs == that.rebuildIntervalMs
+				&& rebuildDelayMs == that.rebuildDelayMs && Objects.equals(path, that.path);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(path, enabled);
+		return Objects.hash(path, enabled, rebuildIntervalMs, rebuildDelayMs);
 	}
 
 	@Override
@@ -76,6 +105,8 @@ public class EurekaDashboardProperties {
 		final StringBuilder sb = new StringBuilder("EurekaDashboardProperties{");
 		sb.append("path='").append(path).append('\'');
 		sb.append(", enabled=").append(enabled);
+		sb.append(", rebuildIntervalMs=").append(rebuildIntervalMs);
+		sb.append(", rebuildDelayMs=").append(rebuildDelayMs);
 		sb.append('}');
 		return sb.toString();
 	}
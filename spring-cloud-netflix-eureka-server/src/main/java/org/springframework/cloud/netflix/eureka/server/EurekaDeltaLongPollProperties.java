@@ -0,0 +1,76 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaDeltaLongPollProperties.PREFIX;
+
+/**
+ * Configuration properties for delta fetches held until the registry changes.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaDeltaLongPollProperties {
+
+	/**
+	 * Prefix for delta long poll properties.
+	 */
+	public static final String PREFIX = "eureka.server.delta-long-poll";
+
+	/**
+	 * Whether clients can long poll for registry deltas.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Longest time in milliseconds a delta fetch is held, whatever the client asks for.
+	 */
+	private long maxWaitMs = 30000;
+
+	/**
+	 * Shortest time in milliseconds between two computations of the delta. Changes made
+	 * within it are answered together once it is over.
+	 */
+	private long refreshIntervalMs = 1000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public long getMaxWaitMs() {
+		return maxWaitMs;
+	}
+
+	public void setMaxWaitMs(long maxWaitMs) {
+		this.maxWaitMs = maxWaitMs;
+	}
+
+	public long getRefreshIntervalMs() {
+		return refreshIntervalMs;
+	}
+
+	public void setRefreshIntervalMs(long refreshIntervalMs) {
+		this.refreshIntervalMs = refreshIntervalMs;
+	}
+
+}
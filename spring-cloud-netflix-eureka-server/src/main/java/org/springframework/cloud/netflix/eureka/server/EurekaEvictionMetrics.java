@@ -0,0 +1,68 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes how long the last eviction of expired leases took, and how many leases it
+ * checked, so that the eviction pause can be followed as the registry grows. Both are
+ * {@code NaN} until leases are evicted for the first time. Nothing is published for a
+ * registry other than {@link InstanceRegistry}.
+ *
+ * @since 5.0.3
+ */
+public class EurekaEvictionMetrics implements MeterBinder {
+
+	private final PeerAwareInstanceRegistry registry;
+
+	public EurekaEvictionMetrics(PeerAwareInstanceRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		if (!(this.registry instanceof InstanceRegistry instanceRegistry)) {
+			return;
+		}
+		TimeGauge
+			.builder("eureka.server.eviction.pause", instanceRegistry, TimeUnit.MILLISECONDS,
+					EurekaEvictionMetrics::pause)
+			.description("Time the last eviction of expired leases took.")
+			.register(meterRegistry);
+		Gauge.builder("eureka.server.eviction.checked.leases", instanceRegistry, EurekaEvictionMetrics::checkedLeases)
+			.description("Number of leases the last eviction of expired leases checked.")
+			.register(meterRegistry);
+	}
+
+	private static double pause(InstanceRegistry registry) {
+		Duration pause = registry.getLastEvictionPause();
+		return (pause != null) ? pause.toNanos() / 1_000_000.0 : Double.NaN;
+	}
+
+	private static double checkedLeases(InstanceRegistry registry) {
+		return (registry.getLastEvictionPause() != null) ? registry.getLastEvictionCheckedLeases() : Double.NaN;
+	}
+
+}
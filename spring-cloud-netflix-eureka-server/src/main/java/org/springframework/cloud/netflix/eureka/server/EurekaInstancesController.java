@@ -0,0 +1,297 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.netflix.appinfo.AmazonInfo;
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.appinfo.UniqueIdentifier;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.StringUtils;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.REPLICATION_HEADER;
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.acceptsJson;
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpoints.isReplication;
+
+/**
+ * Spring MVC replacement for the Eureka resources that change the registry: register,
+ * renew and cancel, status overrides and metadata updates. The operations answer the
+ * same status codes as the Jersey resources, on which the Eureka clients and the peer
+ * replication rely. {@link EurekaPeerReplicationController} dispatches batches of
+ * replicated changes to them.
+ *
+ * @since 5.0.3
+ */
+@RestController
+@RequestMapping(EurekaConstants.DEFAULT_PREFIX + "/v2/apps/{appName}")
+public class EurekaInstancesController {
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final EurekaServerConfig serverConfig;
+
+	private final ServerCodecs serverCodecs;
+
+	public EurekaInstancesController(PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+			ServerCodecs serverCodecs) {
+		this.registry = registry;
+		this.serverConfig = serverConfig;
+		this.serverCodecs = serverCodecs;
+	}
+
+	@PostMapping
+	public ResponseEntity<byte[]> addInstance(@PathVariable String appName,
+			@RequestHeader(name = REPLICATION_HEADER, required = false) String replication,
+			HttpServletRequest request) throws IOException {
+		String contentType = request.getContentType();
+		CodecWrapper codec = (contentType != null && contentType.contains("xml")) ? this.serverCodecs.getFullXmlCodec()
+				: this.serverCodecs.getFullJsonCodec();
+		InstanceInfo info = codec.decode(request.getInputStream(), InstanceInfo.class);
+		ResponseEntity<String> response = register(appName, info, isReplication(replication));
+		String message = response.getBody();
+		if (message == null) {
+			return ResponseEntity.status(response.getStatusCode()).build();
+		}
+		return ResponseEntity.status(response.getStatusCode()).body(message.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@PutMapping("/{id}")
+	public ResponseEntity<byte[]> renewLease(@PathVariable String appName, @PathVariable String id,
+			@RequestHeader(name = REPLICATION_HEADER, required = false) String replication,
+			@RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+			@RequestParam(name = "overriddenstatus", required = false) String overriddenStatus,
+			@RequestParam(name = "lastDirtyTimestamp", required = false) String lastDirtyTimestamp)
+			throws IOException {
+		ResponseEntity<InstanceInfo> response = renew(appName, id, isReplication(replication), overriddenStatus,
+				lastDirtyTimestamp);
+		return EurekaMvcEndpoints.encode(this.serverCodecs, response, acceptsJson(accept));
+	}
+
+	@DeleteMapping("/{id}")
+	public ResponseEntity<byte[]> cancelLease(@PathVariable String appName, @PathVariable String id,
+			@RequestHeader(name = REPLICATION_HEADER, required = false) String replication) {
+		return cancel(appName, id, isReplication(replication));
+	}
+
+	@PutMapping("/{id}/status")
+	public ResponseEntity<byte[]> statusUpdate(@PathVariable String appName, @PathVariable String id,
+			@RequestHeader(name = REPLICATION_HEADER, required = false) String replication,
+			@RequestParam("value") String newStatus,
+			@RequestParam(name = "lastDirtyTimestamp", required = false) String lastDirtyTimestamp) {
+		return statusUpdate(appName, id, newStatus, lastDirtyTimestamp, isReplication(replication));
+	}
+
+	@DeleteMapping("/{id}/status")
+	public ResponseEntity<byte[]> deleteStatusUpdate(@PathVariable String appName, @PathVariable String id,
+			@RequestHeader(name = REPLICATION_HEADER, required = false) String replication,
+			@RequestParam(name = "value", required = false) String newStatus,
+			@RequestParam(name = "lastDirtyTimestamp", required = false) String lastDirtyTimestamp) {
+		return deleteStatusOverride(appName, id, newStatus, lastDirtyTimestamp, isReplication(replication));
+	}
+
+	@PutMapping("/{id}/metadata")
+	public ResponseEntity<byte[]> updateMetadata(@PathVariable String appName, @PathVariable String id,
+			@RequestParam MultiValueMap<String, String> metadata) {
+		InstanceInfo instance = this.registry.getInstanceByAppAndId(appName(appName), id);
+		if (instance == null) {
+			return ResponseEntity.notFound().build();
+		}
+		Map<String, String> metadataMap = instance.getMetadata();
+		if (Collections.emptyMap().getClass().equals(metadataMap.getClass())) {
+			// the instance was registered without metadata, and its map is immutable
+			metadataMap = new ConcurrentHashMap<>();
+			instance = new InstanceInfo.Builder(instance).setMetadata(metadataMap).build();
+		}
+		for (Map.Entry<String, List<String>> entry : metadata.entrySet()) {
+			metadataMap.put(entry.getKey(), entry.getValue().get(0));
+		}
+		this.registry.register(instance, false);
+		return ResponseEntity.ok().build();
+	}
+
+	/**
+	 * Register an instance, once it has been checked to carry the required fields.
+	 * @param appName the name of the application in the path
+	 * @param info the instance
+	 * @param replication whether the registration was replicated from a peer
+	 * @return {@code 204} if the instance was registered, {@code 400} with the reason
+	 * otherwise
+	 */
+	ResponseEntity<String> register(String appName, InstanceInfo info, boolean replication) {
+		String invalid = validate(appName(appName), info);
+		if (invalid != null) {
+			return ResponseEntity.badRequest().body(invalid);
+		}
+		this.registry.register(info, replication);
+		return ResponseEntity.noContent().build();
+	}
+
+	/**
+	 * Renew the lease of an instance.
+	 * @param appName the name of the application
+	 * @param id the id of the instance
+	 * @param replication whether the renewal was replicated from a peer
+	 * @param overriddenStatus the overridden status known to the peer, if any
+	 * @param lastDirtyTimestamp the last dirty timestamp known to the sender, if any
+	 * @return {@code 200} if the lease was renewed, {@code 404} if the instance is
+	 * unknown or older than the sender's, and {@code 409} with the instance if the
+	 * replica is older than this server's
+	 */
+	ResponseEntity<InstanceInfo> renew(String appName, String id, boolean replication,
+			@Nullable String overriddenStatus, @Nullable String lastDirtyTimestamp) {
+		String name = appName(appName);
+		if (!this.registry.renew(name, id, replication)) {
+			return ResponseEntity.notFound().build();
+		}
+		if (lastDirtyTimestamp == null || !this.serverConfig.shouldSyncWhenTimestampDiffers()) {
+			return ResponseEntity.ok().build();
+		}
+		ResponseEntity<InstanceInfo> response = validateDirtyTimestamp(name, id, Long.valueOf(lastDirtyTimestamp),
+				replication);
+		if (response.getStatusCode() == HttpStatus.NOT_FOUND && overriddenStatus != null
+				&& !InstanceStatus.UNKNOWN.name().equals(overriddenStatus) && replication) {
+			this.registry.storeOverriddenStatusIfRequired(name, id, InstanceStatus.valueOf(overriddenStatus));
+		}
+		return response;
+	}
+
+	ResponseEntity<byte[]> cancel(String appName, String id, boolean replication) {
+		if (!this.registry.cancel(appName(appName), id, replication)) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok().build();
+	}
+
+	ResponseEntity<byte[]> statusUpdate(String appName, String id, String newStatus,
+			@Nullable String lastDirtyTimestamp, boolean replication) {
+		String name = appName(appName);
+		if (this.registry.getInstanceByAppAndId(name, id) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		InstanceStatus status;
+		try {
+			status = InstanceStatus.valueOf(newStatus);
+		}
+		catch (IllegalArgumentException ex) {
+			return ResponseEntity.internalServerError().build();
+		}
+		if (!this.registry.statusUpdate(name, id, status, lastDirtyTimestamp, replication)) {
+			return ResponseEntity.internalServerError().build();
+		}
+		return ResponseEntity.ok().build();
+	}
+
+	ResponseEntity<byte[]> deleteStatusOverride(String appName, String id, @Nullable String newStatus,
+			@Nullable String lastDirtyTimestamp, boolean replication) {
+		String name = appName(appName);
+		if (this.registry.getInstanceByAppAndId(name, id) == null) {
+			return ResponseEntity.notFound().build();
+		}
+		InstanceStatus status = InstanceStatus.toEnum(newStatus);
+		if (!this.registry.deleteStatusOverride(name, id, status, lastDirtyTimestamp, replication)) {
+			return ResponseEntity.internalServerError().build();
+		}
+		return ResponseEntity.ok().build();
+	}
+
+	private ResponseEntity<InstanceInfo> validateDirtyTimestamp(String appName, String id, long lastDirtyTimestamp,
+			boolean replication) {
+		InstanceInfo instance = this.registry.getInstanceByAppAndId(appName, id, false);
+		if (instance == null || lastDirtyTimestamp == instance.getLastDirtyTimestamp()) {
+			return ResponseEntity.ok().build();
+		}
+		if (lastDirtyTimestamp > instance.getLastDirtyTimestamp()) {
+			// the sender has a newer registration, which it has to send again
+			return ResponseEntity.notFound().build();
+		}
+		// this server has a newer registration, which a peer takes from the answer
+		return replication ? ResponseEntity.status(HttpStatus.CONFLICT).body(instance) : ResponseEntity.ok().build();
+	}
+
+	@Nullable
+	private String validate(String appName, @Nullable InstanceInfo info) {
+		if (info == null) {
+			return "Missing instance";
+		}
+		if (!StringUtils.hasText(info.getId())) {
+			return "Missing instanceId";
+		}
+		if (!StringUtils.hasText(info.getHostName())) {
+			return "Missing hostname";
+		}
+		if (!StringUtils.hasText(info.getIPAddr())) {
+			return "Missing ip address";
+		}
+		if (!StringUtils.hasText(info.getAppName())) {
+			return "Missing appName";
+		}
+		if (!appName.equals(info.getAppName())) {
+			return "Mismatched appName, expecting " + appName + " but was " + info.getAppName();
+		}
+		DataCenterInfo dataCenterInfo = info.getDataCenterInfo();
+		if (dataCenterInfo == null) {
+			return "Missing dataCenterInfo";
+		}
+		if (dataCenterInfo.getName() == null) {
+			return "Missing dataCenterInfo Name";
+		}
+		if (dataCenterInfo instanceof UniqueIdentifier identifier && !StringUtils.hasText(identifier.getId())) {
+			String strict = this.serverConfig.getExperimental("registration.validation.dataCenterInfoId");
+			if ("true".equalsIgnoreCase(strict)) {
+				return "DataCenterInfo of type " + dataCenterInfo.getClass() + " must contain a valid id";
+			}
+			if (dataCenterInfo instanceof AmazonInfo amazonInfo
+					&& amazonInfo.get(AmazonInfo.MetaDataKey.instanceId) == null) {
+				amazonInfo.getMetadata().put(AmazonInfo.MetaDataKey.instanceId.getName(), info.getId());
+			}
+		}
+		return null;
+	}
+
+	private static String appName(String appName) {
+		return appName.toUpperCase(Locale.ROOT);
+	}
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.eureka.resources.ServerCodecs;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+
+/**
+ * Encoding of the answers of the Spring MVC Eureka endpoints, which follows the Jersey
+ * resources they replace: XML unless the client accepts JSON, with the codecs of the
+ * server.
+ *
+ * @since 5.0.3
+ */
+final class EurekaMvcEndpoints {
+
+	/**
+	 * Header set on requests replicated from a peer.
+	 */
+	static final String REPLICATION_HEADER = "x-netflix-discovery-replication";
+
+	/**
+	 * Header naming the representation (full or compact) a client accepts.
+	 */
+	static final String EUREKA_ACCEPT_HEADER = "X-Eureka-Accept";
+
+	private EurekaMvcEndpoints() {
+	}
+
+	static boolean acceptsJson(@Nullable String accept) {
+		return accept != null && accept.contains("json");
+	}
+
+	static boolean acceptsGzip(@Nullable String acceptEncoding) {
+		return acceptEncoding != null && acceptEncoding.contains("gzip");
+	}
+
+	static boolean isReplication(@Nullable String replication) {
+		return "true".equals(replication);
+	}
+
+	static MediaType mediaType(boolean json) {
+		return json ? MediaType.APPLICATION_JSON : MediaType.APPLICATION_XML;
+	}
+
+	/**
+	 * Answer with a payload taken from the response cache.
+	 * @param payload the payload
+	 * @param json whether the payload is JSON
+	 * @return the response
+	 */
+	static ResponseEntity<byte[]> payload(String payload, boolean json) {
+		return ResponseEntity.ok().contentType(mediaType(json)).body(payload.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Answer with a gzip payload taken from the response cache, which is sent as it is.
+	 * @param payload the compressed payload
+	 * @param json whether the payload is JSON
+	 * @return the response
+	 */
+	static ResponseEntity<byte[]> gzipPayload(byte[] payload, boolean json) {
+		return ResponseEntity.ok()
+			.contentType(mediaType(json))
+			.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+			.body(payload);
+	}
+
+	/**
+	 * Encode the body of a response with the full codec of the server.
+	 * @param serverCodecs the codecs of the server
+	 * @param response the response with the object to encode, if any
+	 * @param json whether to encode the body as JSON
+	 * @return the encoded response
+	 * @throws IOException if the body cannot be encoded
+	 */
+	static ResponseEntity<byte[]> encode(ServerCodecs serverCodecs, ResponseEntity<?> response, boolean json)
+			throws IOException {
+		if (response.getBody() == null) {
+			return ResponseEntity.status(response.getStatusCode()).build();
+		}
+		CodecWrapper codec = json ? serverCodecs.getFullJsonCodec() : serverCodecs.getFullXmlCodec();
+		return ResponseEntity.status(response.getStatusCode())
+			.contentType(mediaType(json))
+			.body(codec.encode(response.getBody()).getBytes(StandardCharsets.UTF_8));
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaMvcEndpointsProperties.PREFIX;
+
+/**
+ * Configuration properties for serving the Eureka REST API with Spring MVC instead of
+ * Jersey.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaMvcEndpointsProperties {
+
+	/**
+	 * Prefix for Spring MVC endpoint properties.
+	 */
+	public static final String PREFIX = "eureka.server.mvc-endpoints";
+
+	/**
+	 * Whether the registry, instance and peer replication endpoints are served by Spring
+	 * MVC controllers rather than by the Jersey resources of Eureka.
+	 */
+	private boolean enabled = false;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+}
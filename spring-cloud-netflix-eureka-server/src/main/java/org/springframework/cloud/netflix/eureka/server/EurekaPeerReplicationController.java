@@ -0,0 +1,113 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.resources.ServerCodecs;
+import jakarta.servlet.http.HttpServletRequest;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Spring MVC replacement for the Eureka resource that receives batches of changes
+ * replicated from peers. Each change is applied by {@link EurekaInstancesController} and
+ * answered with the status it would have had as a single request, so the sending peer
+ * can handle it as it does today.
+ *
+ * @since 5.0.3
+ */
+@RestController
+@RequestMapping(EurekaConstants.DEFAULT_PREFIX + "/v2/peerreplication")
+public class EurekaPeerReplicationController {
+
+	private static final Log log = LogFactory.getLog(EurekaPeerReplicationController.class);
+
+	private final EurekaInstancesController instances;
+
+	private final ServerCodecs serverCodecs;
+
+	public EurekaPeerReplicationController(EurekaInstancesController instances, ServerCodecs serverCodecs) {
+		this.instances = instances;
+		this.serverCodecs = serverCodecs;
+	}
+
+	@PostMapping({ "/batch", "/batch/" })
+	public ResponseEntity<byte[]> batchReplication(HttpServletRequest request) throws IOException {
+		ReplicationList replicationList = this.serverCodecs.getFullJsonCodec()
+			.decode(request.getInputStream(), ReplicationList.class);
+		ReplicationListResponse batchResponse = new ReplicationListResponse();
+		for (ReplicationInstance instance : replicationList.getReplicationList()) {
+			try {
+				batchResponse.addResponse(dispatch(instance));
+			}
+			catch (RuntimeException ex) {
+				log.error("Failed to replicate " + instance.getAction() + " of " + instance.getId(), ex);
+				batchResponse.addResponse(response(HttpStatus.INTERNAL_SERVER_ERROR.value(), null));
+			}
+		}
+		byte[] body = this.serverCodecs.getFullJsonCodec().encode(batchResponse).getBytes(StandardCharsets.UTF_8);
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+
+	private ReplicationInstanceResponse dispatch(ReplicationInstance instance) {
+		String appName = instance.getAppName();
+		String id = instance.getId();
+		String lastDirtyTimestamp = (instance.getLastDirtyTimestamp() != null)
+				? instance.getLastDirtyTimestamp().toString() : null;
+		return switch (instance.getAction()) {
+			case Register -> status(this.instances.register(appName, instance.getInstanceInfo(), true));
+			case Heartbeat -> {
+				ResponseEntity<InstanceInfo> response = this.instances.renew(appName, id, true,
+						instance.getOverriddenStatus(), lastDirtyTimestamp);
+				// the peer takes the newer registration from a conflicting heartbeat
+				yield response(response.getStatusCode().value(), response.getBody());
+			}
+			case Cancel -> status(this.instances.cancel(appName, id, true));
+			case StatusUpdate ->
+				status(this.instances.statusUpdate(appName, id, instance.getStatus(), lastDirtyTimestamp, true));
+			case DeleteStatusOverride ->
+				status(this.instances.deleteStatusOverride(appName, id, null, lastDirtyTimestamp, true));
+			default -> response(HttpStatus.BAD_REQUEST.value(), null);
+		};
+	}
+
+	private static ReplicationInstanceResponse status(ResponseEntity<?> response) {
+		return response(response.getStatusCode().value(), null);
+	}
+
+	private static ReplicationInstanceResponse response(int statusCode, InstanceInfo responseEntity) {
+		return new ReplicationInstanceResponse.Builder().setStatusCode(statusCode)
+			.setResponseEntity(responseEntity)
+			.build();
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.File;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaRegistryJournalProperties.PREFIX;
+
+/**
+ * Configuration properties for the journal of registry changes kept on local disk.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaRegistryJournalProperties {
+
+	/**
+	 * Prefix for registry journal properties.
+	 */
+	public static final String PREFIX = "eureka.server.registry-journal";
+
+	/**
+	 * Whether the changes accepted from clients are written to a journal that peers read
+	 * to catch up, and whether this server catches up from the journals of its peers.
+	 * Peers are read with the replication client, which has to be enabled.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Directory the journal is written to.
+	 */
+	private String directory = new File(System.getProperty("java.io.tmpdir"), "eureka-registry-journal").getPath();
+
+	/**
+	 * Size in bytes after which the journal starts a new segment.
+	 */
+	private long segmentBytes = 8L * 1024 * 1024;
+
+	/**
+	 * Number of segments kept, the oldest ones being deleted.
+	 */
+	private int maxSegments = 8;
+
+	/**
+	 * Maximum number of changes waiting to be written to the journal. When it is
+	 * reached, registry writes wait for the journal.
+	 */
+	private int queueCapacity = 10000;
+
+	/**
+	 * Interval in milliseconds at which the journals of the peers are read.
+	 */
+	private long catchUpIntervalMs = 5000;
+
+	/**
+	 * Maximum number of changes read from a peer at once.
+	 */
+	private int fetchSize = 1000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public long getSegmentBytes() {
+		return segmentBytes;
+	}
+
+	public void setSegmentBytes(long segmentBytes) {
+		this.segmentBytes = segmentBytes;
+	}
+
+	public int getMaxSegments() {
+		return maxSegments;
+	}
+
+	public void setMaxSegments(int maxSegments) {
+		this.maxSegments = maxSegments;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public void setQueueCapacity(int queueCapacity) {
+		this.queueCapacity = queueCapacity;
+	}
+
+	public long getCatchUpIntervalMs() {
+		return catchUpIntervalMs;
+	}
+
+	public void setCatchUpIntervalMs(long catchUpIntervalMs) {
+		this.catchUpIntervalMs = catchUpIntervalMs;
+	}
+
+	public int getFetchSize() {
+		return fetchSize;
+	}
+
+	public void setFetchSize(int fetchSize) {
+		this.fetchSize = fetchSize;
+	}
+
+}
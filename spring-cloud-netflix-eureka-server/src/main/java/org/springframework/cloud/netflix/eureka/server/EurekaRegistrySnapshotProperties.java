@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.File;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaRegistrySnapshotProperties.PREFIX;
+
+/**
+ * Configuration properties for the registry snapshots written to local disk.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaRegistrySnapshotProperties {
+
+	/**
+	 * Prefix for registry snapshot properties.
+	 */
+	public static final String PREFIX = "eureka.server.registry-snapshot";
+
+	/**
+	 * Whether the registry is written to local disk, and restored from there when the
+	 * server starts.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * File the snapshot is written to. It should survive restarts of the server.
+	 */
+	private String path = new File(System.getProperty("java.io.tmpdir"), "eureka-registry.snapshot").getPath();
+
+	/**
+	 * Interval in milliseconds at which the snapshot is written. It is also written when
+	 * the server shuts down.
+	 */
+	private long intervalMs = 30000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public void setPath(String path) {
+		this.path = path;
+	}
+
+	public long getIntervalMs() {
+		return intervalMs;
+	}
+
+	public void setIntervalMs(long intervalMs) {
+		this.intervalMs = intervalMs;
+	}
+
+}
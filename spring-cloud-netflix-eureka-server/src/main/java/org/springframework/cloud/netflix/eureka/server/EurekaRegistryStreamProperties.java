@@ -0,0 +1,90 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaRegistryStreamProperties.PREFIX;
+
+/**
+ * Configuration properties for the stream of registry changes.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaRegistryStreamProperties {
+
+	/**
+	 * Prefix for registry stream properties.
+	 */
+	public static final String PREFIX = "eureka.server.registry-stream";
+
+	/**
+	 * Whether clients can subscribe to registry changes.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Number of recent changes kept so that reconnecting clients can resume.
+	 */
+	private int maxChanges = 10000;
+
+	/**
+	 * Interval in milliseconds at which subscribed clients are sent a keep-alive comment.
+	 */
+	private long keepAliveIntervalMs = 15000;
+
+	/**
+	 * Number of events that can wait to be written to a subscribed client. Clients that
+	 * fall further behind are disconnected, and resume from their last event when they
+	 * reconnect.
+	 */
+	private int maxPendingEvents = 1000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxChanges() {
+		return maxChanges;
+	}
+
+	public void setMaxChanges(int maxChanges) {
+		this.maxChanges = maxChanges;
+	}
+
+	public long getKeepAliveIntervalMs() {
+		return keepAliveIntervalMs;
+	}
+
+	public void setKeepAliveIntervalMs(long keepAliveIntervalMs) {
+		this.keepAliveIntervalMs = keepAliveIntervalMs;
+	}
+
+	public int getMaxPendingEvents() {
+		return maxPendingEvents;
+	}
+
+	public void setMaxPendingEvents(int maxPendingEvents) {
+		this.maxPendingEvents = maxPendingEvents;
+	}
+
+}
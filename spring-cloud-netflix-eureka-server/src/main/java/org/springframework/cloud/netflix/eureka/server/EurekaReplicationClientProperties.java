@@ -0,0 +1,228 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaReplicationClientProperties.PREFIX;
+
+/**
+ * Configuration properties for the client that replicates changes to peers. Timeouts and
+ * connection limits are taken from the {@code eureka.server.peer-node-*} properties.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaReplicationClientProperties {
+
+	/**
+	 * Prefix for replication client properties.
+	 */
+	public static final String PREFIX = "eureka.server.replication-client";
+
+	/**
+	 * Whether changes are replicated with a {@code RestClient} instead of the Jersey
+	 * client of Eureka.
+	 */
+	private boolean enabled = false;
+
+	/**
+	 * Whether the {@code RestClient} talks HTTP/2 to peers, multiplexing all requests to
+	 * a peer over one connection, rather than HTTP/1.1 over pooled connections.
+	 */
+	private boolean http2 = false;
+
+	/**
+	 * Settings of the batching of replicated changes.
+	 */
+	private final Batching batching = new Batching();
+
+	/**
+	 * Settings of the aggregation of replicated renewals.
+	 */
+	private final RenewalAggregation renewalAggregation = new RenewalAggregation();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isHttp2() {
+		return http2;
+	}
+
+	public void setHttp2(boolean http2) {
+		this.http2 = http2;
+	}
+
+	public Batching getBatching() {
+		return batching;
+	}
+
+	public RenewalAggregation getRenewalAggregation() {
+		return renewalAggregation;
+	}
+
+	public static class Batching {
+
+		/**
+		 * Whether the batches of changes of all replication threads are merged into
+		 * adaptively sized requests to each peer.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Number of changes a request starts with and never goes below.
+		 */
+		private int minItems = 250;
+
+		/**
+		 * Number of changes a request can grow to while the peer keeps up.
+		 */
+		private int maxItems = 5000;
+
+		/**
+		 * Estimated size in bytes of the encoded changes at which a request is sent.
+		 */
+		private long maxBytes = 4L * 1024 * 1024;
+
+		/**
+		 * Longest time in milliseconds a change waits for others to be sent with.
+		 */
+		private long maxDelayMs = 100;
+
+		/**
+		 * Time in milliseconds above which a peer is considered slow to answer, which
+		 * halves the number of changes sent to it at once.
+		 */
+		private long slowPeerThresholdMs = 1000;
+
+		/**
+		 * Whether requests are compressed with gzip. The peers must decode compressed
+		 * requests, which servers with this setting do.
+		 */
+		private boolean compressed = true;
+
+		/**
+		 * Size in bytes above which compressed requests received from peers are rejected
+		 * once decompressed.
+		 */
+		private long maxDecompressedBytes = 64L * 1024 * 1024;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMinItems() {
+			return minItems;
+		}
+
+		public void setMinItems(int minItems) {
+			this.minItems = minItems;
+		}
+
+		public int getMaxItems() {
+			return maxItems;
+		}
+
+		public void setMaxItems(int maxItems) {
+			this.maxItems = maxItems;
+		}
+
+		public long getMaxBytes() {
+			return maxBytes;
+		}
+
+		public void setMaxBytes(long maxBytes) {
+			this.maxBytes = maxBytes;
+		}
+
+		public long getMaxDelayMs() {
+			return maxDelayMs;
+		}
+
+		public void setMaxDelayMs(long maxDelayMs) {
+			this.maxDelayMs = maxDelayMs;
+		}
+
+		public long getSlowPeerThresholdMs() {
+			return slowPeerThresholdMs;
+		}
+
+		public void setSlowPeerThresholdMs(long slowPeerThresholdMs) {
+			this.slowPeerThresholdMs = slowPeerThresholdMs;
+		}
+
+		public boolean isCompressed() {
+			return compressed;
+		}
+
+		public void setCompressed(boolean compressed) {
+			this.compressed = compressed;
+		}
+
+		public long getMaxDecompressedBytes() {
+			return maxDecompressedBytes;
+		}
+
+		public void setMaxDecompressedBytes(long maxDecompressedBytes) {
+			this.maxDecompressedBytes = maxDecompressedBytes;
+		}
+
+	}
+
+	public static class RenewalAggregation {
+
+		/**
+		 * Whether the renewals accepted from clients are sent to each peer as a periodic
+		 * summary rather than one by one. Registrations, cancellations and status
+		 * changes are still replicated immediately.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Interval in milliseconds at which the summary is sent. Renewals reach the
+		 * peers up to this much later, so it must stay well below the lease duration.
+		 */
+		private long intervalMs = 5000;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public long getIntervalMs() {
+			return intervalMs;
+		}
+
+		public void setIntervalMs(long intervalMs) {
+			this.intervalMs = intervalMs;
+		}
+
+	}
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaReplicationMetricsProperties.PREFIX;
+
+/**
+ * Configuration properties for the metrics of the replication to peers.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaReplicationMetricsProperties {
+
+	/**
+	 * Prefix for replication metrics properties.
+	 */
+	public static final String PREFIX = "eureka.server.replication-metrics";
+
+	/**
+	 * Whether every change replicated to a peer is followed until it is sent, to publish
+	 * the changes not sent yet, how long they wait and how many are dropped. This costs a
+	 * map entry per change and peer.
+	 */
+	private boolean taskTracking = false;
+
+	public boolean isTaskTracking() {
+		return taskTracking;
+	}
+
+	public void setTaskTracking(boolean taskTracking) {
+		this.taskTracking = taskTracking;
+	}
+
+}
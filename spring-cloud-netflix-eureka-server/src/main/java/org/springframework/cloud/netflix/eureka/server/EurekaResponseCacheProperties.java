@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import static org.springframework.cloud.netflix.eureka.server.EurekaResponseCacheProperties.PREFIX;
+
+/**
+ * Configuration properties for how the Eureka server encodes registry responses.
+ *
+ * @since 5.0.3
+ */
+@ConfigurationProperties(PREFIX)
+public class EurekaResponseCacheProperties {
+
+	/**
+	 * Prefix for Eureka response cache properties.
+	 */
+	public static final String PREFIX = "eureka.server.response-cache";
+
+	/**
+	 * Settings of the cache of encoded instances.
+	 */
+	private final Fragments fragments = new Fragments();
+
+	/**
+	 * Settings of Smile encoded responses.
+	 */
+	private final Smile smile = new Smile();
+
+	/**
+	 * Settings of the payloads of the applications clients are interested in.
+	 */
+	private final InterestedApplications interestedApplications = new InterestedApplications();
+
+	public Fragments getFragments() {
+		return fragments;
+	}
+
+	public Smile getSmile() {
+		return smile;
+	}
+
+	public InterestedApplications getInterestedApplications() {
+		return interestedApplications;
+	}
+
+	public static class Fragments {
+
+		/**
+		 * Whether already encoded instances are reused when full and per-application
+		 * payloads are regenerated.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum number of encoded instances to keep.
+		 */
+		private int maxEntries = 100000;
+
+		/**
+		 * Maximum total size in bytes of the encoded instances to keep.
+		 */
+		private long maxSizeInBytes = 256L * 1024 * 1024;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+		public long getMaxSizeInBytes() {
+			return maxSizeInBytes;
+		}
+
+		public void setMaxSizeInBytes(long maxSizeInBytes) {
+			this.maxSizeInBytes = maxSizeInBytes;
+		}
+
+	}
+
+	public static class Smile {
+
+		/**
+		 * Whether registry payloads are served as Smile to clients that accept it. Requires
+		 * jackson-dataformat-smile on the classpath.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum number of Smile encoded payloads to keep, one per response cache key.
+		 */
+		private int maxEntries = 16;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+	}
+
+	public static class InterestedApplications {
+
+		/**
+		 * Whether registry and delta fetches naming the applications the client is
+		 * interested in are answered with just these applications.
+		 */
+		private boolean enabled = false;
+
+		/**
+		 * Maximum number of payloads to keep until the registry changes, one per set of
+		 * applications and kind of fetch.
+		 */
+		private int maxEntries = 256;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public int getMaxEntries() {
+			return maxEntries;
+		}
+
+		public void setMaxEntries(int maxEntries) {
+			this.maxEntries = maxEntries;
+		}
+
+	}
+
+}
@@ -21,9 +21,9 @@ import java.net.InetAddress;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.UnknownHostException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -42,6 +42,7 @@ import com.netflix.eureka.DefaultEurekaServerContext;
 import com.netflix.eureka.EurekaServerConfig;
 import com.netflix.eureka.EurekaServerContext;
 import com.netflix.eureka.EurekaServerIdentity;
+import com.netflix.eureka.cluster.HttpReplicationClient;
 import com.netflix.eureka.cluster.PeerEurekaNode;
 import com.netflix.eureka.cluster.PeerEurekaNodes;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
@@ -56,11 +57,9 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
 import jakarta.servlet.http.HttpServletResponse;
-import jakarta.ws.rs.Path;
 import jakarta.ws.rs.client.Client;
 import jakarta.ws.rs.client.ClientRequestFilter;
 import jakarta.ws.rs.core.Application;
-import jakarta.ws.rs.ext.Provider;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.glassfish.hk2.api.ServiceLocator;
@@ -73,10 +72,13 @@ import org.jvnet.hk2.spring.bridge.api.SpringBridge;
 import org.jvnet.hk2.spring.bridge.api.SpringIntoHK2Bridge;
 
 import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.AllNestedConditions;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
@@ -88,15 +90,13 @@ import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.cloud.netflix.eureka.EurekaInstanceConfigBean;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.PropertySource;
 import org.springframework.core.Ordered;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
-import org.springframework.core.type.filter.AnnotationTypeFilter;
-import org.springframework.util.ClassUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -113,17 +113,15 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Import(EurekaServerInitializerConfiguration.class)
 @ConditionalOnBean(EurekaServerMarkerConfiguration.Marker.class)
 @EnableConfigurationProperties({ EurekaDashboardProperties.class, InstanceRegistryProperties.class,
-		EurekaProperties.class })
+		EurekaProperties.class, EurekaResponseCacheProperties.class, EurekaRegistryStreamProperties.class,
+		EurekaDeltaLongPollProperties.class, EurekaMvcEndpointsProperties.class,
+		EurekaReplicationClientProperties.class, EurekaReplicationMetricsProperties.class,
+		EurekaRegistrySnapshotProperties.class, EurekaRegistryJournalProperties.class })
 @PropertySource("classpath:/eureka/server.properties")
 public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 
 	private static final Log log = LogFactory.getLog(EurekaServerAutoConfiguration.class);
 
-	/**
-	 * List of packages containing Jersey resources required by the Eureka server.
-	 */
-	private static final String[] EUREKA_PACKAGES = new String[] { "com.netflix.discovery", "com.netflix.eureka" };
-
 	/**
 	 * Static content pattern for dashboard elements (images, css, etc...).
 	 */
@@ -156,8 +154,23 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 
 	@Bean
 	@ConditionalOnProperty(prefix = "eureka.dashboard", name = "enabled", matchIfMissing = true)
-	public EurekaController eurekaController(EurekaProperties eurekaProperties) {
-		return new EurekaController(this.applicationInfoManager, eurekaProperties);
+	public EurekaController eurekaController(EurekaProperties eurekaProperties,
+			EurekaDashboardModel eurekaDashboardModel) {
+		return new EurekaController(this.applicationInfoManager, eurekaProperties, eurekaDashboardModel);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "eureka.dashboard", name = "enabled", matchIfMissing = true)
+	public EurekaDashboardApiController eurekaDashboardApiController(EurekaDashboardModel eurekaDashboardModel) {
+		return new EurekaDashboardApiController(eurekaDashboardModel);
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = "eureka.dashboard", name = "enabled", matchIfMissing = true)
+	public EurekaDashboardModel eurekaDashboardModel(PeerAwareInstanceRegistry registry,
+			EurekaDashboardProperties dashboardProperties) {
+		return new EurekaDashboardModel(registry, dashboardProperties.getRebuildIntervalMs(),
+				dashboardProperties.getRebuildDelayMs());
 	}
 
 	static {
@@ -165,6 +178,17 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 		EurekaJacksonCodec.setInstance(JACKSON_JSON.getCodec());
 	}
 
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaResponseCacheProperties.PREFIX + ".fragments", name = "enabled",
+			havingValue = "true")
+	public InstanceFragmentCache instanceFragmentCache(EurekaResponseCacheProperties responseCacheProperties) {
+		EurekaResponseCacheProperties.Fragments fragments = responseCacheProperties.getFragments();
+		InstanceFragmentCache fragmentCache = new InstanceFragmentCache(fragments.getMaxEntries(),
+				fragments.getMaxSizeInBytes());
+		JACKSON_JSON.getCodec().setInstanceFragmentCache(fragmentCache);
+		return fragmentCache;
+	}
+
 	@Bean
 	public ServerCodecs serverCodecs() {
 		return new CloudServerCodecs(this.eurekaServerConfig);
@@ -186,10 +210,123 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 		return new ReplicationClientAdditionalFilters(Collections.emptySet());
 	}
 
+	@Bean
+	@ConditionalOnProperty(prefix = InstanceRegistryProperties.PREFIX + ".events", name = "async",
+			havingValue = "true")
+	public RegistryEventDispatcher registryEventDispatcher() {
+		InstanceRegistryProperties.Events events = this.instanceRegistryProperties.getEvents();
+		return new RegistryEventDispatcher(events.getQueueCapacity(), events.getRenewalCoalescingWindowMs());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistryStreamProperties.PREFIX, name = "enabled", havingValue = "true")
+	public RegistryChangeStream registryChangeStream(EurekaRegistryStreamProperties registryStreamProperties) {
+		return new RegistryChangeStream(registryStreamProperties.getMaxChanges(),
+				registryStreamProperties.getKeepAliveIntervalMs());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistryStreamProperties.PREFIX, name = "enabled", havingValue = "true")
+	public FilterRegistrationBean<?> registryStreamFilterRegistration(RegistryChangeStream registryChangeStream,
+			EurekaRegistryStreamProperties registryStreamProperties) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(new RegistryStreamFilter(registryChangeStream, registryStreamProperties.getMaxPendingEvents()));
+		// after the version filter, so that requests have been forwarded to /v2
+		bean.setOrder(4);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaDeltaLongPollProperties.PREFIX, name = "enabled", havingValue = "true")
+	public RegistryDeltaLongPoll registryDeltaLongPoll(PeerAwareInstanceRegistry registry, ServerCodecs serverCodecs,
+			InterestedApplicationsPayloads interestedApplicationsPayloads,
+			EurekaDeltaLongPollProperties deltaLongPollProperties) {
+		return new RegistryDeltaLongPoll(registry, this.eurekaServerConfig, serverCodecs,
+				interestedApplicationsPayloads, deltaLongPollProperties.getMaxWaitMs(),
+				deltaLongPollProperties.getRefreshIntervalMs());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaDeltaLongPollProperties.PREFIX, name = "enabled", havingValue = "true")
+	public FilterRegistrationBean<?> deltaLongPollFilterRegistration(RegistryDeltaLongPoll registryDeltaLongPoll,
+			EurekaResponseCacheProperties responseCacheProperties) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(new DeltaLongPollFilter(registryDeltaLongPoll,
+				responseCacheProperties.getInterestedApplications().isEnabled()));
+		// after the version filter, so that requests have been forwarded to /v2
+		bean.setOrder(2);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
+	}
+
+	@Bean
+	public InterestedApplicationsPayloads interestedApplicationsPayloads(PeerAwareInstanceRegistry registry,
+			ServerCodecs serverCodecs, EurekaResponseCacheProperties responseCacheProperties) {
+		return new InterestedApplicationsPayloads(registry, serverCodecs,
+				responseCacheProperties.getInterestedApplications().getMaxEntries());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaResponseCacheProperties.PREFIX, name = "interested-applications.enabled",
+			havingValue = "true")
+	public FilterRegistrationBean<?> interestedApplicationsFilterRegistration(PeerAwareInstanceRegistry registry,
+			InterestedApplicationsPayloads interestedApplicationsPayloads) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(
+				new InterestedApplicationsFilter(registry, this.eurekaServerConfig, interestedApplicationsPayloads));
+		// after the version filter, so that requests have been forwarded to /v2, and
+		// after the Smile filter, which re-encodes the JSON it answers with
+		bean.setOrder(5);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaReplicationClientProperties.PREFIX, name = "renewal-aggregation.enabled",
+			havingValue = "true")
+	public FilterRegistrationBean<?> renewalSummaryFilterRegistration(PeerAwareInstanceRegistry registry) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(new RenewalSummaryFilter(registry));
+		// after the version filter, so that requests have been forwarded to /v2
+		bean.setOrder(6);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistryJournalProperties.PREFIX, name = "enabled", havingValue = "true")
+	public RegistryJournal registryJournal(EurekaRegistryJournalProperties registryJournalProperties)
+			throws IOException {
+		return new RegistryJournal(Path.of(registryJournalProperties.getDirectory()),
+				registryJournalProperties.getSegmentBytes(), registryJournalProperties.getMaxSegments(),
+				registryJournalProperties.getQueueCapacity());
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistryJournalProperties.PREFIX, name = "enabled", havingValue = "true")
+	public FilterRegistrationBean<?> registryJournalFilterRegistration(RegistryJournal registryJournal) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(new RegistryJournalFilter(registryJournal));
+		// after the version filter, so that requests have been forwarded to /v2
+		bean.setOrder(7);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistryJournalProperties.PREFIX, name = "enabled", havingValue = "true")
+	public RegistryJournalFollower registryJournalFollower(PeerAwareInstanceRegistry registry,
+			PeerEurekaNodes peerEurekaNodes, EurekaRegistryJournalProperties registryJournalProperties) {
+		return new RegistryJournalFollower(registry, peerEurekaNodes, registryJournalProperties.getCatchUpIntervalMs(),
+				registryJournalProperties.getFetchSize());
+	}
+
 	@Bean
 	public PeerAwareInstanceRegistry peerAwareInstanceRegistry(ServerCodecs serverCodecs,
 			EurekaServerHttpClientFactory eurekaServerHttpClientFactory,
-			EurekaInstanceConfigBean eurekaInstanceConfigBean) {
+			EurekaInstanceConfigBean eurekaInstanceConfigBean,
+			ObjectProvider<RegistryEventDispatcher> registryEventDispatcher) {
 		if (eurekaInstanceConfigBean.isAsyncClientInitialization()) {
 			if (log.isDebugEnabled()) {
 				log.debug("Initializing client asynchronously...");
@@ -207,18 +344,60 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 			this.eurekaClient.getApplications(); // force initialization
 		}
 
-		return new InstanceRegistry(this.eurekaServerConfig, this.eurekaClientConfig, serverCodecs, this.eurekaClient,
-				eurekaServerHttpClientFactory,
+		InstanceRegistry registry = new InstanceRegistry(this.eurekaServerConfig, this.eurekaClientConfig,
+				serverCodecs, this.eurekaClient, eurekaServerHttpClientFactory,
 				this.instanceRegistryProperties.getExpectedNumberOfClientsSendingRenews(),
 				this.instanceRegistryProperties.getDefaultOpenForTrafficCount());
+		registry.setEventDispatcher(registryEventDispatcher.getIfAvailable());
+		registry.setParallelSync(this.instanceRegistryProperties.getSync().isParallel());
+		registry.setParallelSyncTimeoutMs(this.instanceRegistryProperties.getSync().getTimeoutMs());
+		InstanceRegistryProperties.Eviction eviction = this.instanceRegistryProperties.getEviction();
+		if (eviction.isIndexed()) {
+			registry.setEvictionIndexTickMs(eviction.getTickMs());
+		}
+		registry.setSnapshotReads(this.instanceRegistryProperties.isSnapshotReads());
+		return registry;
 	}
 
 	@Bean
 	@ConditionalOnMissingBean
 	public PeerEurekaNodes peerEurekaNodes(PeerAwareInstanceRegistry registry, ServerCodecs serverCodecs,
-			ReplicationClientAdditionalFilters replicationClientAdditionalFilters) {
+			ReplicationClientAdditionalFilters replicationClientAdditionalFilters,
+			EurekaReplicationClientProperties replicationClientProperties,
+			ReplicationBatchMetrics replicationBatchMetrics, PeerReplicationMetrics peerReplicationMetrics) {
 		return new RefreshablePeerEurekaNodes(registry, this.eurekaServerConfig, this.eurekaClientConfig, serverCodecs,
-				this.applicationInfoManager, replicationClientAdditionalFilters);
+				this.applicationInfoManager, replicationClientAdditionalFilters, replicationClientProperties,
+				replicationBatchMetrics, peerReplicationMetrics);
+	}
+
+	@Bean
+	public ReplicationBatchMetrics replicationBatchMetrics() {
+		return new ReplicationBatchMetrics();
+	}
+
+	@Bean
+	public PeerReplicationMetrics peerReplicationMetrics(
+			EurekaReplicationMetricsProperties replicationMetricsProperties) {
+		return new PeerReplicationMetrics(replicationMetricsProperties.isTaskTracking());
+	}
+
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnAvailableEndpoint
+	public PeerReplicationEndpoint peerReplicationEndpoint(PeerReplicationMetrics peerReplicationMetrics) {
+		return new PeerReplicationEndpoint(this.eurekaServerConfig, peerReplicationMetrics);
+	}
+
+	@Bean
+	@Conditional(OnReplicationCompressionCondition.class)
+	public FilterRegistrationBean<?> gzipRequestFilterRegistration(
+			EurekaReplicationClientProperties replicationClientProperties) {
+		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+		bean.setFilter(new GzipRequestFilter(replicationClientProperties.getBatching().getMaxDecompressedBytes()));
+		// before the Eureka resources read compressed batches replicated by peers
+		bean.setOrder(1);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
 	}
 
 	@Bean
@@ -231,9 +410,29 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 
 	@Bean
 	public EurekaServerBootstrap eurekaServerBootstrap(PeerAwareInstanceRegistry registry,
-			EurekaServerContext serverContext) {
-		return new EurekaServerBootstrap(this.applicationInfoManager, this.eurekaClientConfig, this.eurekaServerConfig,
-				registry, serverContext);
+			EurekaServerContext serverContext, ObjectProvider<RegistrySnapshots> registrySnapshots) {
+		EurekaServerBootstrap bootstrap = new EurekaServerBootstrap(this.applicationInfoManager,
+				this.eurekaClientConfig, this.eurekaServerConfig, registry, serverContext);
+		bootstrap.setRegistrySnapshots(registrySnapshots.getIfAvailable());
+		return bootstrap;
+	}
+
+	@Bean
+	@ConditionalOnProperty(prefix = EurekaRegistrySnapshotProperties.PREFIX, name = "enabled", havingValue = "true")
+	public RegistrySnapshots registrySnapshots(ServerCodecs serverCodecs,
+			EurekaRegistrySnapshotProperties registrySnapshotProperties) {
+		return new RegistrySnapshots(Path.of(registrySnapshotProperties.getPath()),
+				registrySnapshotProperties.getIntervalMs(), serverCodecs);
+	}
+
+	@Bean
+	public EurekaServerStartupMetrics eurekaServerStartupMetrics(EurekaServerBootstrap eurekaServerBootstrap) {
+		return new EurekaServerStartupMetrics(eurekaServerBootstrap);
+	}
+
+	@Bean
+	public EurekaEvictionMetrics eurekaEvictionMetrics(PeerAwareInstanceRegistry registry) {
+		return new EurekaEvictionMetrics(registry);
 	}
 
 	/**
@@ -242,6 +441,8 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 	 * @return a jersey {@link FilterRegistrationBean}
 	 */
 	@Bean
+	@ConditionalOnProperty(prefix = EurekaMvcEndpointsProperties.PREFIX, name = "enabled", havingValue = "false",
+			matchIfMissing = true)
 	public FilterRegistrationBean<?> jerseyFilterRegistration(ResourceConfig eurekaJerseyApp) {
 		FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
 		ServletContainer servletContainer = new ServletContainer(eurekaJerseyApp);
@@ -318,27 +519,15 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 	 * @return created {@link Application} object
 	 */
 	@Bean
+	@ConditionalOnProperty(prefix = EurekaMvcEndpointsProperties.PREFIX, name = "enabled", havingValue = "false",
+			matchIfMissing = true)
 	public ResourceConfig jerseyApplication(Environment environment, ResourceLoader resourceLoader,
 			BeanFactory beanFactory) {
 
-		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false,
-				environment);
-
-		// Filter to include only classes that have a particular annotation.
+		// Eureka resources and providers, from the index written by the build if there
+		// is one
 		//
-		provider.addIncludeFilter(new AnnotationTypeFilter(Path.class));
-		provider.addIncludeFilter(new AnnotationTypeFilter(Provider.class));
-
-		// Find classes in Eureka packages (or subpackages)
-		//
-		Set<Class<?>> classes = new HashSet<>();
-		for (String basePackage : EUREKA_PACKAGES) {
-			Set<BeanDefinition> beans = provider.findCandidateComponents(basePackage);
-			for (BeanDefinition bd : beans) {
-				Class<?> cls = ClassUtils.resolveClassName(bd.getBeanClassName(), resourceLoader.getClassLoader());
-				classes.add(cls);
-			}
-		}
+		Set<Class<?>> classes = JerseyResourceIndex.resources(environment, resourceLoader.getClassLoader());
 
 		// https://javaee.github.io/hk2/spring-bridge
 
@@ -380,6 +569,82 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 		return bean;
 	}
 
+	static class OnReplicationCompressionCondition extends AllNestedConditions {
+
+		OnReplicationCompressionCondition() {
+			super(ConfigurationPhase.REGISTER_BEAN);
+		}
+
+		@ConditionalOnProperty(prefix = EurekaReplicationClientProperties.PREFIX, name = "enabled",
+				havingValue = "true")
+		static class OnReplicationClient {
+
+		}
+
+		@ConditionalOnProperty(prefix = EurekaReplicationClientProperties.PREFIX, name = "batching.enabled",
+				havingValue = "true")
+		static class OnBatching {
+
+		}
+
+		@ConditionalOnProperty(prefix = EurekaReplicationClientProperties.PREFIX, name = "batching.compressed",
+				havingValue = "true", matchIfMissing = true)
+		static class OnCompression {
+
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnProperty(prefix = EurekaMvcEndpointsProperties.PREFIX, name = "enabled", havingValue = "true")
+	protected static class EurekaMvcEndpointsConfiguration {
+
+		@Bean
+		public EurekaApplicationsController eurekaApplicationsController(PeerAwareInstanceRegistry registry,
+				EurekaServerConfig serverConfig, ServerCodecs serverCodecs) {
+			return new EurekaApplicationsController(registry, serverConfig, serverCodecs);
+		}
+
+		@Bean
+		public EurekaInstancesController eurekaInstancesController(PeerAwareInstanceRegistry registry,
+				EurekaServerConfig serverConfig, ServerCodecs serverCodecs) {
+			return new EurekaInstancesController(registry, serverConfig, serverCodecs);
+		}
+
+		@Bean
+		public EurekaPeerReplicationController eurekaPeerReplicationController(
+				EurekaInstancesController eurekaInstancesController, ServerCodecs serverCodecs) {
+			return new EurekaPeerReplicationController(eurekaInstancesController, serverCodecs);
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "com.fasterxml.jackson.dataformat.smile.SmileFactory")
+	@ConditionalOnProperty(prefix = EurekaResponseCacheProperties.PREFIX + ".smile", name = "enabled")
+	protected static class EurekaSmileConfiguration {
+
+		@Bean
+		public CloudJacksonSmile cloudJacksonSmile() {
+			return new CloudJacksonSmile();
+		}
+
+		@Bean
+		public FilterRegistrationBean<?> eurekaSmileFilterRegistration(CloudJacksonSmile cloudJacksonSmile,
+				PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+				EurekaResponseCacheProperties responseCacheProperties) {
+			FilterRegistrationBean<Filter> bean = new FilterRegistrationBean<>();
+			bean.setFilter(new EurekaSmileFilter(cloudJacksonSmile, registry, serverConfig,
+					responseCacheProperties.getSmile().getMaxEntries()));
+			// after the version filter, so that requests have been forwarded to /v2, and
+			// after the delta long poll filter, which only answers with JSON
+			bean.setOrder(3);
+			bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+			return bean;
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	protected static class EurekaServerConfigBeanConfiguration {
 
@@ -413,24 +678,65 @@ public class EurekaServerAutoConfiguration implements WebMvcConfigurer {
 
 		/* for testing */ ReplicationClientAdditionalFilters replicationClientAdditionalFilters;
 
+		private final EurekaReplicationClientProperties replicationClientProperties;
+
+		private final ReplicationBatchMetrics replicationBatchMetrics;
+
+		private final PeerReplicationMetrics peerReplicationMetrics;
+
 		RefreshablePeerEurekaNodes(final PeerAwareInstanceRegistry registry, final EurekaServerConfig serverConfig,
 				final EurekaClientConfig clientConfig, final ServerCodecs serverCodecs,
 				final ApplicationInfoManager applicationInfoManager,
 				final ReplicationClientAdditionalFilters replicationClientAdditionalFilters) {
+			this(registry, serverConfig, clientConfig, serverCodecs, applicationInfoManager,
+					replicationClientAdditionalFilters, new EurekaReplicationClientProperties(),
+					new ReplicationBatchMetrics(), new PeerReplicationMetrics(false));
+		}
+
+		RefreshablePeerEurekaNodes(final PeerAwareInstanceRegistry registry, final EurekaServerConfig serverConfig,
+				final EurekaClientConfig clientConfig, final ServerCodecs serverCodecs,
+				final ApplicationInfoManager applicationInfoManager,
+				final ReplicationClientAdditionalFilters replicationClientAdditionalFilters,
+				final EurekaReplicationClientProperties replicationClientProperties,
+				final ReplicationBatchMetrics replicationBatchMetrics,
+				final PeerReplicationMetrics peerReplicationMetrics) {
 			super(registry, serverConfig, clientConfig, serverCodecs, applicationInfoManager);
 			this.replicationClientAdditionalFilters = replicationClientAdditionalFilters;
+			this.replicationClientProperties = replicationClientProperties;
+			this.replicationBatchMetrics = replicationBatchMetrics;
+			this.peerReplicationMetrics = peerReplicationMetrics;
 		}
 
 		@Override
 		protected PeerEurekaNode createPeerEurekaNode(String peerEurekaNodeUrl) {
-			Jersey3ReplicationClient replicationClient = createReplicationClient(serverConfig, serverCodecs,
-					peerEurekaNodeUrl, this.replicationClientAdditionalFilters.getFilters());
-
 			String targetHost = hostFromUrl(peerEurekaNodeUrl);
 			if (targetHost == null) {
 				targetHost = "host";
 			}
-			return new PeerEurekaNode(registry, targetHost, peerEurekaNodeUrl, replicationClient, serverConfig);
+			PeerReplicationMonitor monitor = this.peerReplicationMetrics.monitor(targetHost, peerEurekaNodeUrl,
+					serverConfig.getMaxTimeForReplication());
+			if (!this.replicationClientProperties.isEnabled()) {
+				HttpReplicationClient replicationClient = createReplicationClient(serverConfig, serverCodecs,
+						peerEurekaNodeUrl, this.replicationClientAdditionalFilters.getFilters());
+				return new MonitoredPeerEurekaNode(registry, targetHost, peerEurekaNodeUrl, replicationClient,
+						serverConfig, this.peerReplicationMetrics, monitor);
+			}
+			RestClientReplicationClient restClientReplicationClient = RestClientReplicationClient.create(serverConfig,
+					serverCodecs, peerEurekaNodeUrl, this.replicationClientProperties.isHttp2(),
+					this.replicationClientAdditionalFilters.getFilters());
+			EurekaReplicationClientProperties.Batching batching = this.replicationClientProperties.getBatching();
+			HttpReplicationClient replicationClient = batching.isEnabled() ? new AdaptiveBatchingReplicationClient(
+					restClientReplicationClient, batching, this.replicationBatchMetrics, targetHost)
+					: restClientReplicationClient;
+			EurekaReplicationClientProperties.RenewalAggregation renewalAggregation = this.replicationClientProperties
+				.getRenewalAggregation();
+			if (renewalAggregation.isEnabled()) {
+				return new AggregatingPeerEurekaNode(registry, targetHost, peerEurekaNodeUrl, replicationClient,
+						restClientReplicationClient, serverConfig, this.peerReplicationMetrics, monitor,
+						renewalAggregation.getIntervalMs());
+			}
+			return new MonitoredPeerEurekaNode(registry, targetHost, peerEurekaNodeUrl, replicationClient,
+					serverConfig, this.peerReplicationMetrics, monitor);
 		}
 
 		// FIXME: 4.0 update Jersey3ReplicationClient.createReplicationClient to handle
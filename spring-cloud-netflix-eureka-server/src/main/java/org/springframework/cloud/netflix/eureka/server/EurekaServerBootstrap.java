@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.netflix.eureka.server;
 
+import java.time.Duration;
+
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.DataCenterInfo;
 import com.netflix.appinfo.InstanceInfo;
@@ -55,6 +57,12 @@ public class EurekaServerBootstrap {
 
 	protected volatile AwsBinder awsBinder;
 
+	private volatile Duration timeToOpenForTraffic;
+
+	private volatile int syncedInstances;
+
+	private RegistrySnapshots registrySnapshots;
+
 	public EurekaServerBootstrap(ApplicationInfoManager applicationInfoManager, EurekaClientConfig eurekaClientConfig,
 			EurekaServerConfig eurekaServerConfig, PeerAwareInstanceRegistry registry,
 			EurekaServerContext serverContext) {
@@ -92,7 +100,35 @@ public class EurekaServerBootstrap {
 		log.info("Eureka Service is now shutdown...");
 	}
 
+	/**
+	 * Restore the registry from a snapshot on local disk before syncing it from the
+	 * peers, and write snapshots while the server runs.
+	 * @param registrySnapshots the snapshots, or {@code null} not to use any
+	 */
+	public void setRegistrySnapshots(RegistrySnapshots registrySnapshots) {
+		this.registrySnapshots = registrySnapshots;
+	}
+
+	/**
+	 * How long the server took to open for traffic, from the initialization of its
+	 * context, which includes the registry sync.
+	 * @return the time to open for traffic, or {@code null} if the server has not opened
+	 * yet
+	 */
+	public Duration getTimeToOpenForTraffic() {
+		return this.timeToOpenForTraffic;
+	}
+
+	/**
+	 * The number of instances copied from peers before the server opened for traffic.
+	 * @return the number of synced instances
+	 */
+	public int getSyncedInstances() {
+		return this.syncedInstances;
+	}
+
 	protected void initEurekaServerContext() throws Exception {
+		long start = System.nanoTime();
 		// For backward compatibility
 		JsonXStream.getInstance().registerConverter(new V1AwareInstanceInfoConverter(), XStream.PRIORITY_VERY_HIGH);
 		XmlXStream.getInstance().registerConverter(new V1AwareInstanceInfoConverter(), XStream.PRIORITY_VERY_HIGH);
@@ -107,9 +143,18 @@ public class EurekaServerBootstrap {
 
 		log.info("Initialized server context");
 
-		// Copy registry from neighboring eureka node
-		int registryCount = this.registry.syncUp();
+		// Restore the registry written before the last shutdown, then copy registry from
+		// neighboring eureka node
+		int restoredCount = (this.registrySnapshots != null) ? this.registrySnapshots.restore(this.registry) : 0;
+		int registryCount = Math.max(this.registry.syncUp(), restoredCount);
 		this.registry.openForTraffic(this.applicationInfoManager, registryCount);
+		if (this.registrySnapshots != null) {
+			this.registrySnapshots.start(this.registry);
+		}
+		this.syncedInstances = registryCount;
+		this.timeToOpenForTraffic = Duration.ofNanos(System.nanoTime() - start);
+		log.info("Opened for traffic in " + this.timeToOpenForTraffic.toMillis() + "ms with " + registryCount
+				+ " instances restored or synced from peers");
 
 		// Register all monitoring statistics.
 		EurekaMonitors.registerAllStats();
@@ -121,6 +166,9 @@ public class EurekaServerBootstrap {
 	 * {@link EurekaServerContext#shutdown()} may result in an exception
 	 */
 	protected void destroyEurekaServerContext() throws Exception {
+		if (this.registrySnapshots != null) {
+			this.registrySnapshots.stop();
+		}
 		EurekaMonitors.shutdown();
 		if (this.awsBinder != null) {
 			this.awsBinder.shutdown();
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes how long the {@link EurekaServerBootstrap} took to open the server for
+ * traffic, registry sync included, and how many instances it copied from peers. Both
+ * are {@code NaN} until the server opens.
+ *
+ * @since 5.0.3
+ */
+public class EurekaServerStartupMetrics implements MeterBinder {
+
+	private final EurekaServerBootstrap bootstrap;
+
+	public EurekaServerStartupMetrics(EurekaServerBootstrap bootstrap) {
+		this.bootstrap = bootstrap;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		TimeGauge
+			.builder("eureka.server.open.for.traffic.time", this.bootstrap, TimeUnit.MILLISECONDS,
+					EurekaServerStartupMetrics::timeToOpenForTraffic)
+			.description("Time the server took to sync its registry and open for traffic.")
+			.register(registry);
+		Gauge.builder("eureka.server.sync.instances", this.bootstrap, EurekaServerStartupMetrics::syncedInstances)
+			.description("Number of instances copied from peers before the server opened for traffic.")
+			.register(registry);
+	}
+
+	private static double timeToOpenForTraffic(EurekaServerBootstrap bootstrap) {
+		Duration timeToOpenForTraffic = bootstrap.getTimeToOpenForTraffic();
+		return (timeToOpenForTraffic != null) ? timeToOpenForTraffic.toMillis() : Double.NaN;
+	}
+
+	private static double syncedInstances(EurekaServerBootstrap bootstrap) {
+		return (bootstrap.getTimeToOpenForTraffic() != null) ? bootstrap.getSyncedInstances() : Double.NaN;
+	}
+
+}
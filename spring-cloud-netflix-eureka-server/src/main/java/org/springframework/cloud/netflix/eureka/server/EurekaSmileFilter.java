@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import com.netflix.appinfo.EurekaAccept;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.Version;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.ResponseCache;
+import com.netflix.eureka.registry.ResponseCacheImpl;
+import com.netflix.eureka.util.EurekaMonitors;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Serves registry payloads as Smile to clients that accept it. Full, delta and
+ * application fetches are answered from the JSON payload of the response cache,
+ * re-encoded with {@link CloudJacksonSmile}, as the Eureka resources would answer them
+ * with JSON. The encoded payload of the most recently requested cache keys is kept for as
+ * long as the response cache returns the same JSON payload, so that a payload is only
+ * encoded again after the response cache built a new one. Other requests, and clients
+ * that don't accept Smile, are left to the Eureka resources.
+ *
+ * @since 5.0.3
+ */
+class EurekaSmileFilter extends OncePerRequestFilter {
+
+	private static final MediaType APPLICATION_SMILE = MediaType.valueOf(CloudJacksonSmile.APPLICATION_SMILE_VALUE);
+
+	private static final String APPS_PATH = EurekaConstants.DEFAULT_PREFIX + "/v2/apps";
+
+	private static final String EUREKA_ACCEPT = "X-Eureka-Accept";
+
+	private static final String GZIP = "gzip";
+
+	private final CloudJacksonSmile codec;
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final EurekaServerConfig serverConfig;
+
+	private final int maxEntries;
+
+	private final Map<Key, Encoded> cache;
+
+	EurekaSmileFilter(CloudJacksonSmile codec, PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+			int maxEntries) {
+		this.codec = codec;
+		this.registry = registry;
+		this.serverConfig = serverConfig;
+		this.maxEntries = maxEntries;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Encoded> eldest) {
+				return size() > EurekaSmileFilter.this.maxEntries;
+			}
+		};
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.GET.matches(request.getMethod()) || !request.getRequestURI().contains(APPS_PATH)
+				|| !acceptsSmile(request);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		ResponseCache responseCache = this.registry.getResponseCache();
+		Key key = cacheKey(request);
+		String json = (key != null && responseCache != null) ? responseCache.get(key) : null;
+		if (json == null || json.isEmpty()) {
+			// unknown applications, denied or disabled fetches are answered by Eureka
+			filterChain.doFilter(request, response);
+			return;
+		}
+		count(key);
+		Encoded encoded = encode(key, json);
+		boolean gzip = acceptsGzip(request);
+		byte[] body = gzip ? encoded.gzipped() : encoded.smile();
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(CloudJacksonSmile.APPLICATION_SMILE_VALUE);
+		response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	private Encoded encode(Key key, String json) throws IOException {
+		Encoded encoded;
+		synchronized (this.cache) {
+			encoded = this.cache.get(key);
+		}
+		// the response cache returns the same payload until it builds a new one
+		if (encoded != null && encoded.json() == json) {
+			return encoded;
+		}
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream smile = new ByteArrayOutputStream(bytes.length / 2);
+		this.codec.transcode(bytes, smile);
+		ByteArrayOutputStream gzipped = new ByteArrayOutputStream(smile.size() / 2);
+		try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+			smile.writeTo(out);
+		}
+		encoded = new Encoded(json, smile.toByteArray(), gzipped.toByteArray());
+		synchronized (this.cache) {
+			this.cache.put(key, encoded);
+		}
+		return encoded;
+	}
+
+	/**
+	 * The response cache key the Eureka resources would answer the request from.
+	 * @param request the request
+	 * @return the key, or {@code null} if the request is not answered from the response
+	 * cache, or not allowed
+	 */
+	private Key cacheKey(HttpServletRequest request) {
+		String uri = request.getRequestURI();
+		String path = uri.substring(uri.indexOf(APPS_PATH) + APPS_PATH.length());
+		if (path.endsWith("/")) {
+			path = path.substring(0, path.length() - 1);
+		}
+		EurekaAccept accept = EurekaAccept.fromString(request.getHeader(EUREKA_ACCEPT));
+		String regionsParameter = request.getParameter("regions");
+		String[] regions = null;
+		if (regionsParameter != null && !regionsParameter.isEmpty()) {
+			regions = regionsParameter.toLowerCase(Locale.ROOT).split(",");
+			Arrays.sort(regions);
+		}
+		if (!this.registry.shouldAllowAccess(regions != null)) {
+			return null;
+		}
+		if (path.isEmpty()) {
+			return new Key(Key.EntityType.Application, ResponseCacheImpl.ALL_APPS, Key.KeyType.JSON, Version.V2,
+					accept, regions);
+		}
+		if (path.equals("/delta")) {
+			return this.serverConfig.shouldDisableDelta() ? null : new Key(Key.EntityType.Application,
+					ResponseCacheImpl.ALL_APPS_DELTA, Key.KeyType.JSON, Version.V2, accept, regions);
+		}
+		if (path.indexOf('/', 1) < 0 && regions == null) {
+			return new Key(Key.EntityType.Application, path.substring(1).toUpperCase(Locale.ROOT), Key.KeyType.JSON,
+					Version.V2, accept);
+		}
+		return null;
+	}
+
+	private static void count(Key key) {
+		boolean remote = key.hasRegions();
+		if (ResponseCacheImpl.ALL_APPS.equals(key.getName())) {
+			(remote ? EurekaMonitors.GET_ALL_WITH_REMOTE_REGIONS : EurekaMonitors.GET_ALL).increment();
+		}
+		else if (ResponseCacheImpl.ALL_APPS_DELTA.equals(key.getName())) {
+			(remote ? EurekaMonitors.GET_ALL_DELTA_WITH_REMOTE_REGIONS : EurekaMonitors.GET_ALL_DELTA).increment();
+		}
+		else {
+			EurekaMonitors.GET_APPLICATION.increment();
+		}
+	}
+
+	private static boolean acceptsSmile(HttpServletRequest request) {
+		try {
+			for (String accept : Collections.list(request.getHeaders(HttpHeaders.ACCEPT))) {
+				for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+					if (APPLICATION_SMILE.equalsTypeAndSubtype(mediaType)) {
+						return true;
+					}
+				}
+			}
+		}
+		catch (InvalidMediaTypeException ex) {
+			// leave it to the Eureka resources to reject the request
+		}
+		return false;
+	}
+
+	private static boolean acceptsGzip(HttpServletRequest request) {
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		return acceptEncoding != null && acceptEncoding.contains(GZIP);
+	}
+
+	private record Encoded(String json, byte[] smile, byte[] gzipped) {
+	}
+
+}
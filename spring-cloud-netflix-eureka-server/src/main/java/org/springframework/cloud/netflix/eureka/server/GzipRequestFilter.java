@@ -0,0 +1,191 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.zip.GZIPInputStream;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Decompresses requests sent with {@code Content-Encoding: gzip}, such as the batches
+ * of changes replicated by peers, before they reach the Eureka resources. The request
+ * is passed on without the header, so that it is not decoded twice. Reading fails once
+ * the decompressed body exceeds the given size, so that a small request can't inflate to
+ * an unbounded one. The decompressed body can only be read with blocking reads, as
+ * decoding gzip may need more of the request than is available.
+ *
+ * @since 5.0.3
+ */
+class GzipRequestFilter extends OncePerRequestFilter {
+
+	private static final String GZIP = "gzip";
+
+	private final long maxDecompressedBytes;
+
+	GzipRequestFilter(long maxDecompressedBytes) {
+		this.maxDecompressedBytes = maxDecompressedBytes;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		return !GZIP.equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		filterChain.doFilter(new GzipRequest(request, this.maxDecompressedBytes), response);
+	}
+
+	private static final class GzipRequest extends HttpServletRequestWrapper {
+
+		private final long maxDecompressedBytes;
+
+		private ServletInputStream inputStream;
+
+		private GzipRequest(HttpServletRequest request, long maxDecompressedBytes) {
+			super(request);
+			this.maxDecompressedBytes = maxDecompressedBytes;
+		}
+
+		@Override
+		public ServletInputStream getInputStream() throws IOException {
+			if (this.inputStream == null) {
+				this.inputStream = new GzipInputStream(new GZIPInputStream(super.getInputStream()),
+						this.maxDecompressedBytes);
+			}
+			return this.inputStream;
+		}
+
+		@Override
+		public BufferedReader getReader() throws IOException {
+			String encoding = getCharacterEncoding();
+			return new BufferedReader(new InputStreamReader(getInputStream(),
+					(encoding != null) ? encoding : StandardCharsets.UTF_8.name()));
+		}
+
+		@Override
+		public int getContentLength() {
+			return -1;
+		}
+
+		@Override
+		public long getContentLengthLong() {
+			return -1;
+		}
+
+		@Override
+		public String getHeader(String name) {
+			return isRemoved(name) ? null : super.getHeader(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaders(String name) {
+			return isRemoved(name) ? Collections.emptyEnumeration() : super.getHeaders(name);
+		}
+
+		@Override
+		public Enumeration<String> getHeaderNames() {
+			return Collections.enumeration(
+					Collections.list(super.getHeaderNames()).stream().filter(name -> !isRemoved(name)).toList());
+		}
+
+		private static boolean isRemoved(String name) {
+			return HttpHeaders.CONTENT_ENCODING.equalsIgnoreCase(name)
+					|| HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name);
+		}
+
+	}
+
+	private static final class GzipInputStream extends ServletInputStream {
+
+		private final GZIPInputStream delegate;
+
+		private final long maxDecompressedBytes;
+
+		private long decompressedBytes;
+
+		private boolean finished;
+
+		private GzipInputStream(GZIPInputStream delegate, long maxDecompressedBytes) {
+			this.delegate = delegate;
+			this.maxDecompressedBytes = maxDecompressedBytes;
+		}
+
+		@Override
+		public int read() throws IOException {
+			int read = this.delegate.read();
+			count((read != -1) ? 1 : -1);
+			return read;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = this.delegate.read(b, off, len);
+			count(read);
+			return read;
+		}
+
+		private void count(int read) throws IOException {
+			this.finished = read == -1;
+			if (read > 0) {
+				this.decompressedBytes += read;
+				if (this.decompressedBytes > this.maxDecompressedBytes) {
+					throw new IOException("Request body decompresses to more than " + this.maxDecompressedBytes
+							+ " bytes");
+				}
+			}
+		}
+
+		@Override
+		public boolean isFinished() {
+			return this.finished;
+		}
+
+		@Override
+		public boolean isReady() {
+			return true;
+		}
+
+		@Override
+		public void setReadListener(ReadListener readListener) {
+			throw new IllegalStateException("Gzip requests can only be read with blocking reads");
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.delegate.close();
+		}
+
+	}
+
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Bounded cache of already encoded JSON for registered instances, used by
+ * {@link CloudJacksonJson} so that instances that have not changed are not re-encoded
+ * every time the response cache regenerates a full or per-application payload.
+ * <p>
+ * A fragment holds the complete encoded instance, its lease information included. It is
+ * reused as long as the instance's dirty and update timestamps, status, action type and
+ * lease timestamps are unchanged, so an instance that renewed its lease since it was
+ * last encoded is encoded again. Least recently used fragments are evicted once the
+ * number of entries or their total size exceeds the configured bounds.
+ *
+ * @since 5.0.3
+ */
+public class InstanceFragmentCache implements MeterBinder, DisposableBean {
+
+	private final int maxEntries;
+
+	private final long maxSizeInBytes;
+
+	private final LinkedHashMap<String, Fragment> fragments = new LinkedHashMap<>(256, 0.75f, true);
+
+	private final LongAdder hits = new LongAdder();
+
+	private final LongAdder misses = new LongAdder();
+
+	private final LongAdder evictions = new LongAdder();
+
+	private long sizeInBytes;
+
+	private volatile boolean active = true;
+
+	public InstanceFragmentCache(int maxEntries, long maxSizeInBytes) {
+		this.maxEntries = maxEntries;
+		this.maxSizeInBytes = maxSizeInBytes;
+	}
+
+	/**
+	 * Return the cached fragment for the given instance if it is still up to date.
+	 * @param info the instance about to be encoded
+	 * @return the fragment or {@code null} if the instance has to be encoded
+	 */
+	public String get(InstanceInfo info) {
+		Fragment fragment;
+		synchronized (this.fragments) {
+			fragment = this.fragments.get(key(info));
+		}
+		if (fragment != null && fragment.matches(info)) {
+			this.hits.increment();
+			return fragment.json;
+		}
+		this.misses.increment();
+		return null;
+	}
+
+	public void put(InstanceInfo info, String json) {
+		if (!this.active || json.length() > this.maxSizeInBytes) {
+			return;
+		}
+		Fragment fragment = new Fragment(info, json);
+		synchronized (this.fragments) {
+			Fragment previous = this.fragments.put(key(info), fragment);
+			this.sizeInBytes += json.length() - ((previous != null) ? previous.json.length() : 0);
+			Iterator<Fragment> eldest = this.fragments.values().iterator();
+			while ((this.fragments.size() > this.maxEntries || this.sizeInBytes > this.maxSizeInBytes)
+					&& eldest.hasNext()) {
+				this.sizeInBytes -= eldest.next().json.length();
+				eldest.remove();
+				this.evictions.increment();
+			}
+		}
+	}
+
+	public boolean isActive() {
+		return this.active;
+	}
+
+	public void clear() {
+		synchronized (this.fragments) {
+			this.fragments.clear();
+			this.sizeInBytes = 0;
+		}
+	}
+
+	public int getEntryCount() {
+		synchronized (this.fragments) {
+			return this.fragments.size();
+		}
+	}
+
+	/**
+	 * Approximate size of the cached fragments; JSON produced by Eureka is mostly ASCII,
+	 * so the number of characters is used as the number of UTF-8 bytes.
+	 * @return the approximate size in bytes
+	 */
+	public long getSizeInBytes() {
+		synchronized (this.fragments) {
+			return this.sizeInBytes;
+		}
+	}
+
+	public long getHitCount() {
+		return this.hits.sum();
+	}
+
+	public long getMissCount() {
+		return this.misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return this.evictions.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("eureka.server.response.fragments.size", this, InstanceFragmentCache::getEntryCount)
+			.description("Number of encoded instances held by the fragment cache.")
+			.register(registry);
+		Gauge.builder("eureka.server.response.fragments.bytes", this, InstanceFragmentCache::getSizeInBytes)
+			.description("Approximate size of the encoded instances held by the fragment cache.")
+			.baseUnit("bytes")
+			.register(registry);
+		FunctionCounter.builder("eureka.server.response.fragments.hits", this, InstanceFragmentCache::getHitCount)
+			.description("Number of instances written from an already encoded fragment.")
+			.register(registry);
+		FunctionCounter.builder("eureka.server.response.fragments.misses", this, InstanceFragmentCache::getMissCount)
+			.description("Number of instances that had to be encoded.")
+			.register(registry);
+		FunctionCounter
+			.builder("eureka.server.response.fragments.evictions", this, InstanceFragmentCache::getEvictionCount)
+			.description("Number of fragments evicted to stay within the cache bounds.")
+			.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.active = false;
+		clear();
+	}
+
+	private static String key(InstanceInfo info) {
+		return info.getAppName() + ":" + info.getId();
+	}
+
+	private static final class Fragment {
+
+		private final long lastDirtyTimestamp;
+
+		private final long lastUpdatedTimestamp;
+
+		private final InstanceInfo.InstanceStatus status;
+
+		private final InstanceInfo.InstanceStatus overriddenStatus;
+
+		private final InstanceInfo.ActionType actionType;
+
+		private final boolean leased;
+
+		private final int renewalIntervalInSecs;
+
+		private final int durationInSecs;
+
+		private final long registrationTimestamp;
+
+		private final long renewalTimestamp;
+
+		private final long evictionTimestamp;
+
+		private final long serviceUpTimestamp;
+
+		private final String json;
+
+		Fragment(InstanceInfo info, String json) {
+			this.lastDirtyTimestamp = info.getLastDirtyTimestamp();
+			this.lastUpdatedTimestamp = info.getLastUpdatedTimestamp();
+			this.status = info.getStatus();
+			this.overriddenStatus = info.getOverriddenStatus();
+			this.actionType = info.getActionType();
+			LeaseInfo lease = info.getLeaseInfo();
+			this.leased = lease != null;
+			this.renewalIntervalInSecs = this.leased ? lease.getRenewalIntervalInSecs() : 0;
+			this.durationInSecs = this.leased ? lease.getDurationInSecs() : 0;
+			this.registrationTimestamp = this.leased ? lease.getRegistrationTimestamp() : 0;
+			this.renewalTimestamp = this.leased ? lease.getRenewalTimestamp() : 0;
+			this.evictionTimestamp = this.leased ? lease.getEvictionTimestamp() : 0;
+			this.serviceUpTimestamp = this.leased ? lease.getServiceUpTimestamp() : 0;
+			this.json = json;
+		}
+
+		boolean matches(InstanceInfo info) {
+			return this.lastDirtyTimestamp == info.getLastDirtyTimestamp()
+					&& this.lastUpdatedTimestamp == info.getLastUpdatedTimestamp() && this.status == info.getStatus()
+					&& this.overriddenStatus == info.getOverriddenStatus() && this.actionType == info.getActionType()
+					&& matches(info.getLeaseInfo());
+		}
+
+		private boolean matches(LeaseInfo lease) {
+			if (lease == null) {
+				return !this.leased;
+			}
+			return this.leased && this.renewalIntervalInSecs == lease.getRenewalIntervalInSecs()
+					&& this.durationInSecs == lease.getDurationInSecs()
+					&& this.registrationTimestamp == lease.getRegistrationTimestamp()
+					&& this.renewalTimestamp == lease.getRenewalTimestamp()
+					&& this.evictionTimestamp == lease.getEvictionTimestamp()
+					&& this.serviceUpTimestamp == lease.getServiceUpTimestamp();
+		}
+
+	}
+
+}
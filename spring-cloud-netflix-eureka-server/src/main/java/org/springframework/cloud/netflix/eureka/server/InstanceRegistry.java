@@ -16,16 +16,33 @@
 
 package org.springframework.cloud.netflix.eureka.server;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
 import com.netflix.appinfo.ApplicationInfoManager;
 import com.netflix.appinfo.InstanceInfo;
 import com.netflix.discovery.EurekaClient;
 import com.netflix.discovery.EurekaClientConfig;
 import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
 import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.PeerEurekaNode;
 import com.netflix.eureka.lease.Lease;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl;
 import com.netflix.eureka.resources.ServerCodecs;
 import com.netflix.eureka.transport.EurekaServerHttpClientFactory;
+import com.netflix.eureka.util.EurekaMonitors;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -33,6 +50,7 @@ import org.springframework.beans.BeansException;
 import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
 import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
 import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ApplicationEvent;
@@ -45,10 +63,42 @@ public class InstanceRegistry extends PeerAwareInstanceRegistryImpl implements A
 
 	private static final Log log = LogFactory.getLog(InstanceRegistry.class);
 
+	private static final long EVICTION_INDEX_SPAN_MS = 512_000;
+
 	private ApplicationContext ctxt;
 
 	private final int defaultOpenForTrafficCount;
 
+	private RegistryEventDispatcher eventDispatcher;
+
+	private boolean parallelSync;
+
+	private long parallelSyncTimeoutMs = 30000;
+
+	private LeaseExpiryIndex expiryIndex;
+
+	private volatile Duration lastEvictionPause;
+
+	private volatile int lastEvictionCheckedLeases;
+
+	/**
+	 * Whether the current thread evicts expired leases, to tell the cancellations of
+	 * evicted instances from those of clients.
+	 */
+	private final ThreadLocal<Boolean> evicting = ThreadLocal.withInitial(() -> false);
+
+	private final AtomicLong changesStarted = new AtomicLong();
+
+	private final AtomicLong changesFinished = new AtomicLong();
+
+	private volatile ApplicationsSnapshot snapshot;
+
+	private final Set<String> changedApplications = ConcurrentHashMap.newKeySet();
+
+	private final Map<String, Integer> changingApplications = new ConcurrentHashMap<>();
+
+	private final ReentrantLock snapshotLock = new ReentrantLock();
+
 	public InstanceRegistry(EurekaServerConfig serverConfig, EurekaClientConfig clientConfig, ServerCodecs serverCodecs,
 			EurekaClient eurekaClient, EurekaServerHttpClientFactory eurekaServerHttpClientFactory,
 			int expectedNumberOfClientsSendingRenews, int defaultOpenForTrafficCount) {
@@ -63,6 +113,202 @@ public class InstanceRegistry extends PeerAwareInstanceRegistryImpl implements A
 		this.ctxt = context;
 	}
 
+	/**
+	 * Publish registry events asynchronously through the given dispatcher instead of on
+	 * the calling thread.
+	 * @param eventDispatcher the dispatcher to use, or {@code null} to publish events
+	 * synchronously
+	 */
+	public void setEventDispatcher(RegistryEventDispatcher eventDispatcher) {
+		this.eventDispatcher = eventDispatcher;
+	}
+
+	/**
+	 * Fetch the registry of all peers in parallel in {@link #syncUp()}, rather than copy
+	 * the registry the Eureka client of this server fetched from one of them.
+	 * @param parallelSync whether to fetch the registry of all peers in parallel
+	 */
+	public void setParallelSync(boolean parallelSync) {
+		this.parallelSync = parallelSync;
+	}
+
+	/**
+	 * How long a parallel sync waits for the peers to answer.
+	 * @param parallelSyncTimeoutMs the timeout in milliseconds
+	 */
+	public void setParallelSyncTimeoutMs(long parallelSyncTimeoutMs) {
+		this.parallelSyncTimeoutMs = parallelSyncTimeoutMs;
+	}
+
+	/**
+	 * Index leases by expiry time, so that eviction checks only the leases that expired
+	 * rather than the whole registry. Has to be called before instances register.
+	 * @param tickMs the precision of the index in milliseconds, leases being evicted up to
+	 * that much later than they would otherwise be, or zero not to index leases
+	 */
+	public void setEvictionIndexTickMs(long tickMs) {
+		this.expiryIndex = (tickMs > 0) ? new LeaseExpiryIndex(tickMs,
+				(int) Math.min(Math.max(EVICTION_INDEX_SPAN_MS / tickMs, 64), 65536), System.currentTimeMillis())
+				: null;
+	}
+
+	/**
+	 * Serve the applications of the local region from an immutable copy of the registry,
+	 * published again after the registry changed, rather than from a copy made on every
+	 * call. Has to be called before instances register.
+	 * @param snapshotReads whether to serve the applications from a published copy
+	 */
+	public void setSnapshotReads(boolean snapshotReads) {
+		this.snapshot = snapshotReads ? ApplicationsSnapshot.EMPTY : null;
+	}
+
+	/**
+	 * The last published copy of the applications of the local region, after publishing
+	 * the changes made since. A read that comes while another thread is publishing waits
+	 * for it rather than return the previous copy, which may no longer be current.
+	 * @return the applications, or {@code null} if snapshot reads are not enabled
+	 * @see #setSnapshotReads(boolean)
+	 */
+	public ApplicationsSnapshot getApplicationsSnapshot() {
+		ApplicationsSnapshot snapshot = this.snapshot;
+		if (snapshot == null || this.changedApplications.isEmpty()) {
+			return snapshot;
+		}
+		this.snapshotLock.lock();
+		try {
+			snapshot = this.snapshot;
+			Map<String, Application> changed = new HashMap<>();
+			for (String appName : new ArrayList<>(this.changedApplications)) {
+				// forgotten before copying, so that a change made meanwhile is published next
+				this.changedApplications.remove(appName);
+				if (this.changingApplications.containsKey(appName)) {
+					// the change is not over yet, published again by the next read
+					this.changedApplications.add(appName);
+				}
+				changed.put(appName, super.getApplication(appName, false));
+			}
+			if (!changed.isEmpty()) {
+				snapshot = snapshot.with(changed);
+				this.snapshot = snapshot;
+			}
+			return snapshot;
+		}
+		finally {
+			this.snapshotLock.unlock();
+		}
+	}
+
+	/**
+	 * The number of registrations, cancellations and status changes made so far. What is
+	 * read from the registry between two calls that return the same number, other than
+	 * {@code -1}, is consistent, as no change was made meanwhile.
+	 * @return the number of changes, or {@code -1} while a change is being made
+	 */
+	public long getChangeCount() {
+		long finished = this.changesFinished.get();
+		return (this.changesStarted.get() == finished) ? finished : -1;
+	}
+
+	/**
+	 * Count a change of the registry as started and, with snapshot reads, mark the
+	 * application as changed before the registry is, and until the change is made, so
+	 * that a read made meanwhile, such as the response cache refilling after Eureka
+	 * invalidated it, publishes the application rather than serve the previous copy.
+	 * @param appName the name of the application, or {@code null} for all of them
+	 */
+	private void beginChange(String appName) {
+		this.changesStarted.incrementAndGet();
+		if (this.snapshot != null && appName != null) {
+			String name = appName.toUpperCase(Locale.ROOT);
+			this.changingApplications.merge(name, 1, Integer::sum);
+			this.changedApplications.add(name);
+		}
+	}
+
+	private void endChange(String appName) {
+		if (this.snapshot != null && appName != null) {
+			this.changingApplications.computeIfPresent(appName.toUpperCase(Locale.ROOT),
+					(name, changes) -> (changes > 1) ? changes - 1 : null);
+		}
+		this.changesFinished.incrementAndGet();
+	}
+
+	/**
+	 * How long the last eviction took.
+	 * @return the duration of the last eviction, or {@code null} if leases have not been
+	 * evicted yet
+	 */
+	public Duration getLastEvictionPause() {
+		return this.lastEvictionPause;
+	}
+
+	/**
+	 * How many leases the last eviction checked: all of them, or only those the expiry
+	 * index found expired.
+	 * @return the number of checked leases
+	 */
+	public int getLastEvictionCheckedLeases() {
+		return this.lastEvictionCheckedLeases;
+	}
+
+	/**
+	 * Fetches the registry of all peers in parallel when enabled, and registers the
+	 * freshest of them, or all of them merged if they disagree. Like the sync of Eureka,
+	 * it is attempted {@code eureka.server.registry-sync-retries} times, until instances
+	 * are found. Peers that were not created by this server fall back to the sync of
+	 * Eureka.
+	 */
+	@Override
+	public int syncUp() {
+		List<MonitoredPeerEurekaNode> peers = syncPeers();
+		if (!this.parallelSync || peers.isEmpty()) {
+			return super.syncUp();
+		}
+		int count = 0;
+		for (int i = 0; i < this.serverConfig.getRegistrySyncRetries() && count == 0; i++) {
+			if (i > 0) {
+				try {
+					Thread.sleep(this.serverConfig.getRegistrySyncRetryWaitMs());
+				}
+				catch (InterruptedException ex) {
+					Thread.currentThread().interrupt();
+					log.warn("Interrupted during the registry sync");
+					break;
+				}
+			}
+			Applications applications = PeerRegistrySync.fetch(peers, this.parallelSyncTimeoutMs);
+			for (Application application : applications.getRegisteredApplications()) {
+				for (InstanceInfo instance : application.getInstances()) {
+					try {
+						if (isRegisterable(instance)) {
+							register(instance, resolveInstanceLeaseDuration(instance), true);
+							count++;
+						}
+					}
+					catch (Throwable ex) {
+						log.error("Failed to register " + instance.getAppName() + "/" + instance.getId()
+								+ " during the registry sync", ex);
+					}
+				}
+			}
+		}
+		return count;
+	}
+
+	private List<MonitoredPeerEurekaNode> syncPeers() {
+		List<MonitoredPeerEurekaNode> peers = new ArrayList<>();
+		if (this.peerEurekaNodes == null) {
+			return peers;
+		}
+		for (PeerEurekaNode node : this.peerEurekaNodes.getPeerEurekaNodes()) {
+			if (!(node instanceof MonitoredPeerEurekaNode monitored)) {
+				return List.of();
+			}
+			peers.add(monitored);
+		}
+		return peers;
+	}
+
 	/**
 	 * If
 	 * {@link PeerAwareInstanceRegistryImpl#openForTraffic(ApplicationInfoManager, int)}
@@ -77,65 +323,369 @@ public class InstanceRegistry extends PeerAwareInstanceRegistryImpl implements A
 		super.openForTraffic(applicationInfoManager, count == 0 ? this.defaultOpenForTrafficCount : count);
 	}
 
+	/**
+	 * Registers the instance after deriving its id from the {@code instanceId} metadata
+	 * if needed, so that the id is computed once here rather than every time the instance
+	 * is serialized.
+	 */
 	@Override
 	public void register(InstanceInfo info, int leaseDuration, boolean isReplication) {
-		super.register(info, leaseDuration, isReplication);
-		handleRegistration(info, leaseDuration, isReplication);
+		final InstanceInfo normalized = CloudJacksonJson.updateIfNeeded(info);
+		beginChange(normalized.getAppName());
+		try {
+			super.register(normalized, leaseDuration, isReplication);
+		}
+		finally {
+			endChange(normalized.getAppName());
+		}
+		handleRegistration(normalized, leaseDuration, isReplication);
 	}
 
 	@Override
 	public void register(final InstanceInfo info, final boolean isReplication) {
-		super.register(info, isReplication);
-		handleRegistration(info, resolveInstanceLeaseDuration(info), isReplication);
+		final InstanceInfo normalized = CloudJacksonJson.updateIfNeeded(info);
+		beginChange(normalized.getAppName());
+		try {
+			super.register(normalized, isReplication);
+		}
+		finally {
+			endChange(normalized.getAppName());
+		}
+		handleRegistration(normalized, resolveInstanceLeaseDuration(normalized), isReplication);
 	}
 
 	@Override
 	public boolean cancel(String appName, String serverId, boolean isReplication) {
+		final Long lastDirtyTimestamp = lastDirtyTimestamp(appName, serverId);
 		final boolean cancelled = super.cancel(appName, serverId, isReplication);
 		if (cancelled) {
-			handleCancelation(appName, serverId, isReplication);
+			handleCancelation(appName, serverId, isReplication, lastDirtyTimestamp, false);
 		}
 		return cancelled;
 	}
 
+	/**
+	 * Renews the lease as Eureka does, which keeps the handling of overridden statuses
+	 * and unknown instances, and takes no lock. Renewals being most of the write traffic,
+	 * what this registry adds on top does not allocate more than the event it publishes:
+	 * the expiry index is updated in place, and the renewed instance is looked up by id
+	 * rather than through a copy of its application. Only instances with an overridden
+	 * status are looked up before renewing, to publish a status change when the renewal
+	 * applies the overridden status.
+	 */
 	@Override
 	public boolean renew(final String appName, final String serverId, boolean isReplication) {
-		final boolean renewed = super.renew(appName, serverId, isReplication);
+		// Eureka applies an overridden status to the instance while renewing its lease
+		InstanceInfo.InstanceStatus overridden = this.overriddenInstanceStatusMap.get(serverId);
+		InstanceInfo.InstanceStatus status = null;
+		final boolean renewed;
+		if (overridden != null) {
+			InstanceInfo instance = getInstanceByAppAndId(appName, serverId, false);
+			status = (instance != null) ? instance.getStatus() : null;
+			beginChange(appName);
+			try {
+				renewed = super.renew(appName, serverId, isReplication);
+			}
+			finally {
+				endChange(appName);
+			}
+		}
+		else {
+			renewed = super.renew(appName, serverId, isReplication);
+		}
+		if (status != null && status != overridden) {
+			InstanceInfo instance = getInstanceByAppAndId(appName, serverId, false);
+			if (instance != null && instance.getStatus() != status) {
+				handleStatusChange(appName, serverId, isReplication);
+			}
+		}
 		if (renewed) {
+			if (this.expiryIndex != null) {
+				this.expiryIndex.renewed(appName, serverId, Lease.DEFAULT_DURATION_IN_SECS * 1000L,
+						System.currentTimeMillis());
+			}
 			handleRenewal(appName, serverId, isReplication);
 		}
 		return renewed;
 	}
 
+	/**
+	 * Stores the overridden status a client renews with, as Eureka does, and counts it as
+	 * a change of the registry if it differs from the stored one.
+	 */
+	@Override
+	public void storeOverriddenStatusIfRequired(String appName, String id,
+			InstanceInfo.InstanceStatus overriddenStatus) {
+		if (overriddenStatus == this.overriddenInstanceStatusMap.get(id)) {
+			super.storeOverriddenStatusIfRequired(appName, id, overriddenStatus);
+			return;
+		}
+		beginChange(appName);
+		try {
+			super.storeOverriddenStatusIfRequired(appName, id, overriddenStatus);
+		}
+		finally {
+			endChange(appName);
+		}
+	}
+
+	@Override
+	public void clearRegistry() {
+		beginChange(null);
+		try {
+			super.clearRegistry();
+		}
+		finally {
+			endChange(null);
+		}
+		if (this.expiryIndex != null) {
+			this.expiryIndex.clear();
+		}
+		if (this.snapshot != null) {
+			this.snapshotLock.lock();
+			try {
+				this.changedApplications.retainAll(this.changingApplications.keySet());
+				this.snapshot = this.snapshot.cleared();
+			}
+			finally {
+				this.snapshotLock.unlock();
+			}
+		}
+	}
+
+	/**
+	 * Returns the published copy of the applications when snapshot reads are enabled,
+	 * unless applications of other regions are asked for too.
+	 */
+	@Override
+	public Applications getApplications() {
+		return getApplications(!this.serverConfig.disableTransparentFallbackToOtherRegion());
+	}
+
+	/**
+	 * Returns the published copy of the applications when snapshot reads are enabled,
+	 * unless applications of other regions are asked for too.
+	 */
+	@Override
+	public Applications getApplications(boolean includeRemoteRegion) {
+		ApplicationsSnapshot snapshot = localSnapshot(includeRemoteRegion);
+		return (snapshot != null) ? snapshot.getApplications() : super.getApplications(includeRemoteRegion);
+	}
+
+	/**
+	 * Returns the published copy of the applications when snapshot reads are enabled.
+	 */
+	@Override
+	public Applications getApplicationsFromLocalRegionOnly() {
+		ApplicationsSnapshot snapshot = localSnapshot(false);
+		return (snapshot != null) ? snapshot.getApplications() : super.getApplicationsFromLocalRegionOnly();
+	}
+
+	/**
+	 * The applications of the local region copied from the registry, even when snapshot
+	 * reads are enabled, so that their leases are those of the last renewals rather than
+	 * those of the published copy.
+	 * @return the applications
+	 * @see #setSnapshotReads(boolean)
+	 */
+	public Applications getLiveApplicationsFromLocalRegionOnly() {
+		return super.getApplicationsFromLocalRegionOnly();
+	}
+
+	/**
+	 * Returns the application from the published copy of the applications when snapshot
+	 * reads are enabled, unless applications of other regions are asked for too.
+	 */
+	@Override
+	public Application getApplication(String appName) {
+		ApplicationsSnapshot snapshot = localSnapshot(!this.serverConfig.disableTransparentFallbackToOtherRegion());
+		return (snapshot != null) ? snapshot.getApplication(appName) : super.getApplication(appName);
+	}
+
+	private ApplicationsSnapshot localSnapshot(boolean includeRemoteRegion) {
+		if (includeRemoteRegion && !this.serverConfig.getRemoteRegionUrlsWithName().isEmpty()) {
+			return null;
+		}
+		return getApplicationsSnapshot();
+	}
+
+	/**
+	 * Evicts the expired leases found by the expiry index when leases are indexed, rather
+	 * than checking every lease of the registry. As with the eviction of Eureka, no more
+	 * leases are evicted than {@code eureka.server.renewal-percent-threshold} allows, and
+	 * those are picked at random.
+	 */
+	@Override
+	public void evict(long additionalLeaseMs) {
+		long start = System.nanoTime();
+		int checked;
+		this.evicting.set(true);
+		try {
+			if (this.expiryIndex == null) {
+				super.evict(additionalLeaseMs);
+				checked = (int) getLocalRegistrySize();
+			}
+			else {
+				checked = evictIndexed(additionalLeaseMs);
+			}
+		}
+		finally {
+			this.evicting.remove();
+		}
+		this.lastEvictionPause = Duration.ofNanos(System.nanoTime() - start);
+		this.lastEvictionCheckedLeases = checked;
+	}
+
+	private int evictIndexed(long additionalLeaseMs) {
+		if (!isLeaseExpirationEnabled()) {
+			log("lease expiration is currently disabled");
+			return 0;
+		}
+		long now = System.currentTimeMillis();
+		List<LeaseExpiryIndex.Key> candidates = this.expiryIndex.expired(now - additionalLeaseMs);
+		List<LeaseExpiryIndex.Key> expired = new ArrayList<>(candidates.size());
+		for (LeaseExpiryIndex.Key candidate : candidates) {
+			// only instances whose lease has not expired are found
+			InstanceInfo info = getInstanceByAppAndId(candidate.appName(), candidate.id(), false);
+			if (info == null) {
+				expired.add(candidate);
+				continue;
+			}
+			// renewed in a way the index missed, move it to its actual expiry time
+			long durationMs = this.expiryIndex.durationMs(candidate);
+			if (durationMs < 0) {
+				durationMs = resolveInstanceLeaseDuration(info) * 1000L;
+			}
+			long renewed = (info.getLeaseInfo() != null) ? info.getLeaseInfo().getRenewalTimestamp() : now;
+			this.expiryIndex.schedule(candidate, durationMs, Math.max(renewed, now) + durationMs);
+		}
+		int registrySize = (int) getLocalRegistrySize();
+		int registrySizeThreshold = (int) (registrySize * this.serverConfig.getRenewalPercentThreshold());
+		int toEvict = Math.min(expired.size(), registrySize - registrySizeThreshold);
+		if (toEvict > 0) {
+			log.info("Evicting " + toEvict + " of " + expired.size() + " expired leases");
+			ThreadLocalRandom random = ThreadLocalRandom.current();
+			for (int i = 0; i < toEvict; i++) {
+				Collections.swap(expired, i, i + random.nextInt(expired.size() - i));
+				LeaseExpiryIndex.Key lease = expired.get(i);
+				EurekaMonitors.EXPIRED.increment();
+				internalCancel(lease.appName(), lease.id(), false);
+			}
+		}
+		return candidates.size();
+	}
+
+	@Override
+	public boolean statusUpdate(String appName, String id, InstanceInfo.InstanceStatus newStatus,
+			String lastDirtyTimestamp, boolean isReplication) {
+		final boolean updated;
+		beginChange(appName);
+		try {
+			updated = super.statusUpdate(appName, id, newStatus, lastDirtyTimestamp, isReplication);
+		}
+		finally {
+			endChange(appName);
+		}
+		if (updated) {
+			handleStatusChange(appName, id, isReplication);
+		}
+		return updated;
+	}
+
+	@Override
+	public boolean deleteStatusOverride(String appName, String id, InstanceInfo.InstanceStatus newStatus,
+			String lastDirtyTimestamp, boolean isReplication) {
+		final boolean updated;
+		beginChange(appName);
+		try {
+			updated = super.deleteStatusOverride(appName, id, newStatus, lastDirtyTimestamp, isReplication);
+		}
+		finally {
+			endChange(appName);
+		}
+		if (updated) {
+			handleStatusChange(appName, id, isReplication);
+		}
+		return updated;
+	}
+
 	@Override
 	protected boolean internalCancel(String appName, String id, boolean isReplication) {
-		final boolean cancelled = super.internalCancel(appName, id, isReplication);
+		final Long lastDirtyTimestamp = lastDirtyTimestamp(appName, id);
+		final boolean expired = this.evicting.get();
+		final boolean cancelled;
+		beginChange(appName);
+		try {
+			cancelled = super.internalCancel(appName, id, isReplication);
+		}
+		finally {
+			endChange(appName);
+		}
 		if (cancelled) {
-			handleCancelation(appName, id, isReplication);
+			handleCancelation(appName, id, isReplication, lastDirtyTimestamp, expired);
 		}
 		return cancelled;
 	}
 
-	private void handleCancelation(String appName, String id, boolean isReplication) {
-		log("cancelled " + appName + ", serverId " + id + ", isReplication " + isReplication);
-		publishEvent(new EurekaInstanceCanceledEvent(this, appName, id, isReplication));
+	/**
+	 * The last dirty timestamp of an instance about to be cancelled, published with the
+	 * cancellation so that it can be compared with the timestamps of other servers.
+	 */
+	private Long lastDirtyTimestamp(String appName, String id) {
+		InstanceInfo instance = getInstanceByAppAndId(appName, id, false);
+		return (instance != null) ? instance.getLastDirtyTimestamp() : null;
+	}
+
+	private void handleCancelation(String appName, String id, boolean isReplication, Long lastDirtyTimestamp,
+			boolean expired) {
+		log("cancelled " + appName + ", serverId " + id + ", isReplication " + isReplication + ", expired " + expired);
+		if (this.expiryIndex != null) {
+			this.expiryIndex.removed(appName, id);
+		}
+		if (this.eventDispatcher != null) {
+			this.eventDispatcher.cancelled(appName, id);
+		}
+		publishEvent(EurekaInstanceCanceledEvent.class,
+				() -> new EurekaInstanceCanceledEvent(this, appName, id, isReplication, lastDirtyTimestamp, expired));
 	}
 
 	private void handleRegistration(InstanceInfo info, int leaseDuration, boolean isReplication) {
 		log("registered " + info.getAppName() + ", vip " + info.getVIPAddress() + ", leaseDuration " + leaseDuration
 				+ ", isReplication " + isReplication);
-		publishEvent(new EurekaInstanceRegisteredEvent(this, info, leaseDuration, isReplication));
+		if (this.expiryIndex != null) {
+			this.expiryIndex.registered(info.getAppName(), info.getId(), leaseDuration * 1000L,
+					System.currentTimeMillis());
+		}
+		publishEvent(EurekaInstanceRegisteredEvent.class,
+				() -> new EurekaInstanceRegisteredEvent(this, info, leaseDuration, isReplication));
+	}
+
+	private void handleStatusChange(String appName, String id, boolean isReplication) {
+		log("status changed " + appName + ", serverId " + id + ", isReplication " + isReplication);
+		publishEvent(EurekaInstanceStatusChangedEvent.class, () -> {
+			final InstanceInfo instanceInfo = getInstanceByAppAndId(appName, id);
+			return instanceInfo != null
+					? new EurekaInstanceStatusChangedEvent(this, appName, id, instanceInfo, isReplication) : null;
+		});
 	}
 
 	private void handleRenewal(final String appName, final String serverId, boolean isReplication) {
-		log("renewed " + appName + ", serverId " + serverId + ", isReplication " + isReplication);
-		final Application application = getApplication(appName);
-		if (application != null) {
-			final InstanceInfo instanceInfo = application.getByInstanceId(serverId);
-			if (instanceInfo != null) {
-				publishEvent(new EurekaInstanceRenewedEvent(this, appName, serverId, instanceInfo, isReplication));
-			}
+		if (log.isDebugEnabled()) {
+			log("renewed " + appName + ", serverId " + serverId + ", isReplication " + isReplication);
+		}
+		Supplier<EurekaInstanceRenewedEvent> event = () -> createRenewedEvent(appName, serverId, isReplication);
+		if (this.eventDispatcher != null) {
+			this.eventDispatcher.dispatchRenewal(appName, serverId, EurekaInstanceRenewedEvent.class, event);
 		}
+		else {
+			publishEvent(event.get());
+		}
+	}
+
+	private EurekaInstanceRenewedEvent createRenewedEvent(String appName, String serverId, boolean isReplication) {
+		final InstanceInfo instanceInfo = getInstanceByAppAndId(appName, serverId, false);
+		return (instanceInfo != null)
+				? new EurekaInstanceRenewedEvent(this, appName, serverId, instanceInfo, isReplication) : null;
 	}
 
 	private void log(String message) {
@@ -144,8 +694,19 @@ public class InstanceRegistry extends PeerAwareInstanceRegistryImpl implements A
 		}
 	}
 
+	private <E extends ApplicationEvent> void publishEvent(Class<E> eventType, Supplier<E> event) {
+		if (this.eventDispatcher != null) {
+			this.eventDispatcher.dispatch(eventType, event);
+		}
+		else {
+			publishEvent(event.get());
+		}
+	}
+
 	private void publishEvent(ApplicationEvent applicationEvent) {
-		this.ctxt.publishEvent(applicationEvent);
+		if (applicationEvent != null) {
+			this.ctxt.publishEvent(applicationEvent);
+		}
 	}
 
 	private int resolveInstanceLeaseDuration(final InstanceInfo info) {
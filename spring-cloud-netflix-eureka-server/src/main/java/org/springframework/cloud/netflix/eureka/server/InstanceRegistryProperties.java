@@ -50,6 +50,28 @@ public class InstanceRegistryProperties {
 	@Value("${eureka.server.defaultOpenForTrafficCount:1}") // for backwards compatibility
 	private int defaultOpenForTrafficCount = 1;
 
+	/**
+	 * Registry event publication settings.
+	 */
+	private final Events events = new Events();
+
+	/**
+	 * Settings of the registry sync at startup.
+	 */
+	private final Sync sync = new Sync();
+
+	/**
+	 * Settings of the eviction of expired leases.
+	 */
+	private final Eviction eviction = new Eviction();
+
+	/**
+	 * Whether the applications of the local region are served from an immutable copy of
+	 * the registry, published again after the registry changed, rather than copied from
+	 * the registry on every full fetch, delta and dashboard or metrics refresh.
+	 */
+	private boolean snapshotReads = false;
+
 	public int getExpectedNumberOfClientsSendingRenews() {
 		return expectedNumberOfClientsSendingRenews;
 	}
@@ -66,4 +88,136 @@ public class InstanceRegistryProperties {
 		this.defaultOpenForTrafficCount = defaultOpenForTrafficCount;
 	}
 
+	public boolean isSnapshotReads() {
+		return snapshotReads;
+	}
+
+	public void setSnapshotReads(boolean snapshotReads) {
+		this.snapshotReads = snapshotReads;
+	}
+
+	public Events getEvents() {
+		return events;
+	}
+
+	public Sync getSync() {
+		return sync;
+	}
+
+	public Eviction getEviction() {
+		return eviction;
+	}
+
+	public static class Events {
+
+		/**
+		 * Whether registry events are published from a dedicated thread instead of the
+		 * thread handling the register, renew or cancel request.
+		 */
+		private boolean async = false;
+
+		/**
+		 * Maximum number of events waiting to be published asynchronously. Events that
+		 * don't fit are dropped.
+		 */
+		private int queueCapacity = 8192;
+
+		/**
+		 * Window in milliseconds within which the renewals of an instance that follow a
+		 * published renewal event are merged into it when publishing asynchronously.
+		 * Defaults to twice the 30 seconds renewal interval of clients, so that every
+		 * other renewal is published. Zero disables coalescing.
+		 */
+		private long renewalCoalescingWindowMs = 60000;
+
+		public boolean isAsync() {
+			return async;
+		}
+
+		public void setAsync(boolean async) {
+			this.async = async;
+		}
+
+		public int getQueueCapacity() {
+			return queueCapacity;
+		}
+
+		public void setQueueCapacity(int queueCapacity) {
+			this.queueCapacity = queueCapacity;
+		}
+
+		public long getRenewalCoalescingWindowMs() {
+			return renewalCoalescingWindowMs;
+		}
+
+		public void setRenewalCoalescingWindowMs(long renewalCoalescingWindowMs) {
+			this.renewalCoalescingWindowMs = renewalCoalescingWindowMs;
+		}
+
+	}
+
+	public static class Sync {
+
+		/**
+		 * Whether a starting server fetches the registry of all peers in parallel, rather
+		 * than copying the registry its Eureka client fetched from one of them.
+		 */
+		private boolean parallel = false;
+
+		/**
+		 * How long in milliseconds a parallel sync waits for the peers to answer. The
+		 * registries of the peers that answered in time are used.
+		 */
+		private long timeoutMs = 30000;
+
+		public boolean isParallel() {
+			return parallel;
+		}
+
+		public void setParallel(boolean parallel) {
+			this.parallel = parallel;
+		}
+
+		public long getTimeoutMs() {
+			return timeoutMs;
+		}
+
+		public void setTimeoutMs(long timeoutMs) {
+			this.timeoutMs = timeoutMs;
+		}
+
+	}
+
+	public static class Eviction {
+
+		/**
+		 * Whether leases are indexed by expiry time, so that eviction checks only the
+		 * leases that expired rather than every lease of the registry.
+		 */
+		private boolean indexed = false;
+
+		/**
+		 * Precision in milliseconds of the expiry index. Leases are evicted up to that
+		 * much later than they would be without the index.
+		 */
+		private long tickMs = 1000;
+
+		public boolean isIndexed() {
+			return indexed;
+		}
+
+		public void setIndexed(boolean indexed) {
+			this.indexed = indexed;
+		}
+
+		public long getTickMs() {
+			return tickMs;
+		}
+
+		public void setTickMs(long tickMs) {
+			this.tickMs = tickMs;
+		}
+
+	}
+
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Serves registry and delta fetches that name the applications the client is interested
+ * in. Only these applications are sent, and the hash code of the payload is computed over
+ * just them, so that the client can reconcile its partial registry. The payloads are
+ * computed from the registry rather than taken from the response cache, whose entries
+ * cover all applications, and kept by {@link InterestedApplicationsPayloads} until the
+ * registry changes. Fetches asking for remote regions, XML or compact payloads are left
+ * to the Eureka resources, which answer them with all applications.
+ *
+ * @since 5.0.3
+ */
+class InterestedApplicationsFilter extends OncePerRequestFilter {
+
+	private static final String EUREKA_ACCEPT = "X-Eureka-Accept";
+
+	private static final String APPS_PATH = EurekaConstants.DEFAULT_PREFIX + "/v2/apps";
+
+	private static final String GZIP = "gzip";
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final EurekaServerConfig serverConfig;
+
+	private final InterestedApplicationsPayloads payloads;
+
+	InterestedApplicationsFilter(PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+			InterestedApplicationsPayloads payloads) {
+		this.registry = registry;
+		this.serverConfig = serverConfig;
+		this.payloads = payloads;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.GET.matches(request.getMethod())
+				|| request.getParameter(EurekaConstants.APPS_PARAMETER) == null
+				|| (!isFullFetch(request) && !isDeltaFetch(request));
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean delta = isDeltaFetch(request);
+		if (!canServe(request) || (delta && this.serverConfig.shouldDisableDelta())) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		Set<String> appNames = appNames(request.getParameter(EurekaConstants.APPS_PARAMETER));
+		InterestedApplicationsPayloads.Payload payload = delta ? this.payloads.delta(appNames)
+				: this.payloads.applications(appNames);
+		String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+		boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP);
+		byte[] body = gzip ? payload.gzipped() : payload.body();
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+		}
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	private boolean canServe(HttpServletRequest request) {
+		String accept = request.getHeader(HttpHeaders.ACCEPT);
+		String eurekaAccept = request.getHeader(EUREKA_ACCEPT);
+		return request.getParameter("regions") == null && accept != null && accept.contains("json")
+				&& (eurekaAccept == null || "full".equalsIgnoreCase(eurekaAccept))
+				&& this.registry.shouldAllowAccess(false);
+	}
+
+	private static boolean isFullFetch(HttpServletRequest request) {
+		String uri = request.getRequestURI();
+		return uri.endsWith(APPS_PATH) || uri.endsWith(APPS_PATH + "/");
+	}
+
+	private static boolean isDeltaFetch(HttpServletRequest request) {
+		return request.getRequestURI().endsWith(APPS_PATH + "/delta");
+	}
+
+	/**
+	 * Parse the value of the {@value EurekaConstants#APPS_PARAMETER} query parameter.
+	 * @param apps the comma separated application names, may be {@code null}
+	 * @return the application names, or {@code null} if the parameter is missing
+	 */
+	static Set<String> appNames(String apps) {
+		if (apps == null) {
+			return null;
+		}
+		Set<String> appNames = new LinkedHashSet<>();
+		for (String appName : apps.split(",")) {
+			if (!appName.isBlank()) {
+				appNames.add(appName.trim().toUpperCase(Locale.ROOT));
+			}
+		}
+		return appNames;
+	}
+
+	/**
+	 * The given applications of the local region, with the hash code of just these.
+	 * @param registry the registry
+	 * @param appNames the names of the applications
+	 * @return the applications
+	 */
+	static Applications applications(PeerAwareInstanceRegistry registry, Set<String> appNames) {
+		Applications applications = new Applications();
+		for (String appName : appNames) {
+			Application application = registry.getApplication(appName);
+			if (application != null) {
+				applications.addApplication(application);
+			}
+		}
+		applications.setAppsHashCode(applications.getReconcileHashCode());
+		return applications;
+	}
+
+	/**
+	 * The delta of the given applications of the local region, with the hash code of
+	 * just these applications as they are now.
+	 * @param registry the registry
+	 * @param appNames the names of the applications
+	 * @return the delta
+	 */
+	static Applications delta(PeerAwareInstanceRegistry registry, Set<String> appNames) {
+		Applications deltas = registry.getApplicationDeltas();
+		Applications delta = new Applications();
+		delta.setVersion(deltas.getVersion());
+		for (Application application : deltas.getRegisteredApplications()) {
+			if (appNames.contains(application.getName())) {
+				delta.addApplication(application);
+			}
+		}
+		delta.setAppsHashCode(applications(registry, appNames).getAppsHashCode());
+		return delta;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.zip.GZIPOutputStream;
+
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+
+/**
+ * Encodes the registry and delta payloads of the applications clients are interested in,
+ * along with their gzipped variant, and keeps them until the registry changes. A payload
+ * is only kept if no change was made to the registry while it was read, so that the
+ * applications it holds and the hash code they are reconciled with match. Payloads are
+ * not kept for registries other than {@link InstanceRegistry}, which don't count their
+ * changes.
+ *
+ * @since 5.0.3
+ * @see InterestedApplicationsFilter
+ */
+public class InterestedApplicationsPayloads {
+
+	private static final int MAX_READS = 3;
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final ServerCodecs serverCodecs;
+
+	private final int maxEntries;
+
+	private final Map<Key, Payload> cache;
+
+	private long changeCount = -1;
+
+	public InterestedApplicationsPayloads(PeerAwareInstanceRegistry registry, ServerCodecs serverCodecs,
+			int maxEntries) {
+		this.registry = registry;
+		this.serverCodecs = serverCodecs;
+		this.maxEntries = maxEntries;
+		this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Payload> eldest) {
+				return size() > InterestedApplicationsPayloads.this.maxEntries;
+			}
+		};
+	}
+
+	/**
+	 * The encoded applications of the local region with the given names.
+	 * @param appNames the names of the applications
+	 * @return the payload
+	 * @throws IOException if the applications can't be encoded
+	 */
+	Payload applications(Set<String> appNames) throws IOException {
+		return get(false, appNames);
+	}
+
+	/**
+	 * The encoded delta of the applications of the local region with the given names.
+	 * @param appNames the names of the applications
+	 * @return the payload
+	 * @throws IOException if the delta can't be encoded
+	 */
+	Payload delta(Set<String> appNames) throws IOException {
+		return get(true, appNames);
+	}
+
+	private Payload get(boolean delta, Set<String> appNames) throws IOException {
+		Key key = new Key(delta, List.copyOf(new TreeSet<>(appNames)));
+		for (int reads = 1;; reads++) {
+			long changeCount = changeCount();
+			if (changeCount >= 0) {
+				synchronized (this.cache) {
+					Payload payload = (changeCount == this.changeCount) ? this.cache.get(key) : null;
+					if (payload != null) {
+						return payload;
+					}
+				}
+			}
+			Applications applications = delta ? InterestedApplicationsFilter.delta(this.registry, appNames)
+					: InterestedApplicationsFilter.applications(this.registry, appNames);
+			boolean consistent = changeCount >= 0 && changeCount == changeCount();
+			if (consistent || reads >= MAX_READS || !(this.registry instanceof InstanceRegistry)) {
+				Payload payload = Payload.of(this.serverCodecs.getFullJsonCodec().encode(applications));
+				if (consistent) {
+					keep(changeCount, key, payload);
+				}
+				return payload;
+			}
+		}
+	}
+
+	private void keep(long changeCount, Key key, Payload payload) {
+		synchronized (this.cache) {
+			if (changeCount > this.changeCount) {
+				this.cache.clear();
+				this.changeCount = changeCount;
+			}
+			if (changeCount == this.changeCount) {
+				this.cache.put(key, payload);
+			}
+		}
+	}
+
+	private long changeCount() {
+		return (this.registry instanceof InstanceRegistry instanceRegistry) ? instanceRegistry.getChangeCount() : -1;
+	}
+
+	int size() {
+		synchronized (this.cache) {
+			return this.cache.size();
+		}
+	}
+
+	private record Key(boolean delta, List<String> appNames) {
+	}
+
+	record Payload(byte[] body, byte[] gzipped) {
+
+		static Payload of(String json) throws IOException {
+			byte[] body = json.getBytes(StandardCharsets.UTF_8);
+			ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+			try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+				out.write(body);
+			}
+			return new Payload(body, gzipped.toByteArray());
+		}
+
+	}
+
+}
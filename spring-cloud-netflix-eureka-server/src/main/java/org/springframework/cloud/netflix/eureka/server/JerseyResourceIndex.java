@@ -0,0 +1,192 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jakarta.ws.rs.ext.Provider;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.lang.Nullable;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+/**
+ * The Jersey resources and providers of Eureka that the server registers. They are found
+ * by scanning the Eureka packages, which is slow given their size, so the build writes
+ * their names to an index that is read instead, with a generator that is only on the
+ * test classpath. The index records the versions of the Eureka artifacts it was written
+ * with, and the packages are still scanned if these differ from the versions on the
+ * classpath, if the index is missing, or if it names a class that cannot be loaded.
+ */
+final class JerseyResourceIndex {
+
+	/**
+	 * Location of the index on the classpath.
+	 */
+	static final String LOCATION = "META-INF/spring-cloud-netflix/eureka-jersey-resources";
+
+	/**
+	 * List of packages containing Jersey resources required by the Eureka server.
+	 */
+	private static final String[] EUREKA_PACKAGES = new String[] { "com.netflix.discovery", "com.netflix.eureka" };
+
+	/**
+	 * The Eureka artifacts the packages are spread over.
+	 */
+	private static final String[] EUREKA_ARTIFACTS = new String[] { "eureka-client", "eureka-client-jersey3",
+			"eureka-core", "eureka-core-jersey3" };
+
+	private static final String VERSION_PREFIX = "# ";
+
+	private static final Log log = LogFactory.getLog(JerseyResourceIndex.class);
+
+	private JerseyResourceIndex() {
+	}
+
+	/**
+	 * Load the Jersey resources and providers, from the index if there is one.
+	 * @param environment the environment used to scan the packages
+	 * @param classLoader the class loader to load the classes with
+	 * @return the classes
+	 */
+	static Set<Class<?>> resources(Environment environment, ClassLoader classLoader) {
+		long start = System.nanoTime();
+		Set<Class<?>> classes = load(classLoader);
+		String source = "index";
+		if (classes == null) {
+			classes = resolve(scan(environment), classLoader);
+			source = "classpath scan";
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Found " + classes.size() + " Jersey resources and providers by " + source + " in "
+					+ (System.nanoTime() - start) / 1_000_000 + " ms");
+		}
+		return classes;
+	}
+
+	/**
+	 * Scan the Eureka packages for Jersey resources and providers.
+	 * @param environment the environment used to scan the packages
+	 * @return the names of the classes, sorted
+	 */
+	static Set<String> scan(Environment environment) {
+		ClassPathScanningCandidateComponentProvider provider = new ClassPathScanningCandidateComponentProvider(false,
+				environment);
+
+		// Filter to include only classes that have a particular annotation.
+		//
+		provider.addIncludeFilter(new AnnotationTypeFilter(jakarta.ws.rs.Path.class));
+		provider.addIncludeFilter(new AnnotationTypeFilter(Provider.class));
+
+		// Find classes in Eureka packages (or subpackages)
+		//
+		Set<String> classNames = new TreeSet<>();
+		for (String basePackage : EUREKA_PACKAGES) {
+			for (BeanDefinition bd : provider.findCandidateComponents(basePackage)) {
+				classNames.add(bd.getBeanClassName());
+			}
+		}
+		return classNames;
+	}
+
+	/**
+	 * Load the classes named by the index.
+	 * @param classLoader the class loader to read the index and load the classes with
+	 * @return the classes, or {@code null} if there is no index, it was written with
+	 * other versions of Eureka, or one of the classes is missing
+	 */
+	@Nullable
+	static Set<Class<?>> load(ClassLoader classLoader) {
+		List<String> versions = new ArrayList<>();
+		List<String> classNames = new ArrayList<>();
+		List<String> current;
+		try (InputStream index = classLoader.getResourceAsStream(LOCATION)) {
+			if (index == null) {
+				return null;
+			}
+			for (String line : new String(index.readAllBytes(), StandardCharsets.UTF_8).split("\n")) {
+				if (line.startsWith(VERSION_PREFIX)) {
+					versions.add(line.trim());
+				}
+				else if (StringUtils.hasText(line)) {
+					classNames.add(line.trim());
+				}
+			}
+			current = versions(classLoader);
+		}
+		catch (IOException ex) {
+			log.warn("Failed to read " + LOCATION + ", scanning the classpath instead", ex);
+			return null;
+		}
+		if (!versions.equals(current)) {
+			log.info(LOCATION + " was written for " + versions + " rather than " + current
+					+ ", scanning the classpath instead");
+			return null;
+		}
+		for (String className : classNames) {
+			if (!ClassUtils.isPresent(className, classLoader)) {
+				log.warn(LOCATION + " names " + className + ", which cannot be loaded, scanning the classpath instead");
+				return null;
+			}
+		}
+		return resolve(classNames, classLoader);
+	}
+
+	/**
+	 * The versions of the Eureka artifacts, as recorded in the index.
+	 * @param classLoader the class loader to read the Maven metadata of the artifacts with
+	 * @return a line per artifact, with an unknown version if it has no Maven metadata
+	 * @throws IOException if the metadata of an artifact cannot be read
+	 */
+	static List<String> versions(ClassLoader classLoader) throws IOException {
+		List<String> versions = new ArrayList<>();
+		for (String artifact : EUREKA_ARTIFACTS) {
+			try (InputStream pom = classLoader
+				.getResourceAsStream("META-INF/maven/com.netflix.eureka/" + artifact + "/pom.properties")) {
+				Properties properties = new Properties();
+				if (pom != null) {
+					properties.load(pom);
+				}
+				versions.add(VERSION_PREFIX + artifact + " " + properties.getProperty("version", "unknown"));
+			}
+		}
+		return versions;
+	}
+
+	private static Set<Class<?>> resolve(Iterable<String> classNames, ClassLoader classLoader) {
+		Set<Class<?>> classes = new LinkedHashSet<>();
+		for (String className : classNames) {
+			classes.add(ClassUtils.resolveClassName(className, classLoader));
+		}
+		return classes;
+	}
+
+}
@@ -0,0 +1,233 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Timing wheel of lease expiry times, so that eviction checks only the leases that
+ * expired rather than the whole registry. The wheel has a fixed number of slots, each
+ * covering one tick; a lease sits in the slot of the tick it expires in, and moves to
+ * another slot when it is renewed. Finding the expired leases visits the slots of the
+ * ticks that elapsed since the previous time, and the leases found expired that were not
+ * cancelled since. Leases expiring more than a revolution ahead share their slot with
+ * the leases of the current revolution and are skipped until their tick comes.
+ * <p>
+ * Expiry times follow {@link com.netflix.eureka.lease.Lease}: a lease expires its
+ * duration after it was registered, or twice its duration after it was last renewed.
+ * They are a hint for eviction, which checks the lease before cancelling it, and leases
+ * are found up to a tick after they expired.
+ * <p>
+ * Renewals update the expiry time of an indexed lease in place, with no lock, and only
+ * move it to another slot when its slot changes.
+ *
+ * @since 5.0.3
+ */
+final class LeaseExpiryIndex {
+
+	private final long tickMs;
+
+	private final List<Set<Key>> wheel;
+
+	private final Map<Key, Expiry> expiries = new ConcurrentHashMap<>();
+
+	private final Set<Key> expired = ConcurrentHashMap.newKeySet();
+
+	private long lastTick;
+
+	LeaseExpiryIndex(long tickMs, int slots, long now) {
+		this.tickMs = Math.max(tickMs, 1);
+		this.wheel = new ArrayList<>(slots);
+		for (int i = 0; i < slots; i++) {
+			this.wheel.add(ConcurrentHashMap.newKeySet());
+		}
+		this.lastTick = now / this.tickMs - 1;
+	}
+
+	/**
+	 * Index a lease that was just registered.
+	 * @param appName the application name of the instance
+	 * @param id the id of the instance
+	 * @param durationMs the duration of the lease
+	 * @param now the current time
+	 */
+	void registered(String appName, String id, long durationMs, long now) {
+		schedule(new Key(appName, id), durationMs, now + durationMs);
+	}
+
+	/**
+	 * Move a lease that was just renewed.
+	 * @param appName the application name of the instance
+	 * @param id the id of the instance
+	 * @param defaultDurationMs the duration of the lease if it was not indexed
+	 * @param now the current time
+	 */
+	void renewed(String appName, String id, long defaultDurationMs, long now) {
+		Key key = new Key(appName, id);
+		Expiry expiry = this.expiries.get(key);
+		if (expiry == null) {
+			schedule(key, defaultDurationMs, now + 2 * defaultDurationMs);
+			return;
+		}
+		long expiresAt = now + 2 * expiry.durationMs;
+		long previous = expiry.expiresAt.getAndSet(expiresAt);
+		if (!this.expired.isEmpty()) {
+			this.expired.remove(key);
+		}
+		move(key, previous, expiresAt);
+	}
+
+	/**
+	 * Move a lease to the slot of the given expiry time.
+	 * @param key the lease
+	 * @param durationMs the duration of the lease
+	 * @param expiresAt when the lease expires
+	 */
+	void schedule(Key key, long durationMs, long expiresAt) {
+		Expiry previous = this.expiries.put(key, new Expiry(expiresAt, durationMs));
+		this.expired.remove(key);
+		if (previous != null) {
+			move(key, previous.expiresAt.get(), expiresAt);
+		}
+		else {
+			slot(expiresAt).add(key);
+		}
+	}
+
+	private void move(Key key, long previousExpiresAt, long expiresAt) {
+		Set<Key> slot = slot(expiresAt);
+		Set<Key> previousSlot = slot(previousExpiresAt);
+		if (previousSlot != slot) {
+			previousSlot.remove(key);
+			slot.add(key);
+		}
+		else if (!slot.contains(key)) {
+			// removed from the slot by a concurrent move of the same lease
+			slot.add(key);
+		}
+	}
+
+	/**
+	 * Remove a cancelled lease.
+	 * @param appName the application name of the instance
+	 * @param id the id of the instance
+	 */
+	void removed(String appName, String id) {
+		Key key = new Key(appName, id);
+		Expiry expiry = this.expiries.remove(key);
+		this.expired.remove(key);
+		if (expiry != null) {
+			slot(expiry.expiresAt.get()).remove(key);
+		}
+	}
+
+	void clear() {
+		this.expiries.clear();
+		this.expired.clear();
+		this.wheel.forEach(Set::clear);
+	}
+
+	/**
+	 * The duration of an indexed lease.
+	 * @param key the lease
+	 * @return the duration, or {@code -1} if the lease is not indexed
+	 */
+	long durationMs(Key key) {
+		Expiry expiry = this.expiries.get(key);
+		return (expiry != null) ? expiry.durationMs : -1;
+	}
+
+	int size() {
+		return this.expiries.size();
+	}
+
+	/**
+	 * Find the leases that expired at the given time, visiting only the ticks that
+	 * elapsed since the previous call, and the leases found before that are still
+	 * expired.
+	 * @param time the time
+	 * @return the expired leases
+	 */
+	synchronized List<Key> expired(long time) {
+		// only visit the ticks that are over, so that every lease of a visited tick expired
+		long tick = time / this.tickMs - 1;
+		long from = Math.max(this.lastTick + 1, tick - this.wheel.size() + 1);
+		for (long t = from; t <= tick; t++) {
+			Set<Key> slot = this.wheel.get((int) Math.floorMod(t, (long) this.wheel.size()));
+			for (Key key : slot) {
+				Expiry expiry = this.expiries.get(key);
+				if (expiry == null) {
+					slot.remove(key);
+					continue;
+				}
+				long expiresAt = expiry.expiresAt.get();
+				if (slot(expiresAt) != slot) {
+					// left behind by concurrent moves of the lease
+					slot.remove(key);
+					slot(expiresAt).add(key);
+				}
+				if (expiresAt < time) {
+					this.expired.add(key);
+				}
+			}
+		}
+		this.lastTick = Math.max(this.lastTick, tick);
+		List<Key> expired = new ArrayList<>(this.expired.size());
+		for (Key key : this.expired) {
+			Expiry expiry = this.expiries.get(key);
+			if (expiry != null && expiry.expiresAt.get() < time) {
+				expired.add(key);
+			}
+			else {
+				this.expired.remove(key);
+			}
+		}
+		return expired;
+	}
+
+	private Set<Key> slot(long expiresAt) {
+		return this.wheel.get((int) Math.floorMod(expiresAt / this.tickMs, (long) this.wheel.size()));
+	}
+
+	/**
+	 * An indexed lease.
+	 *
+	 * @param appName the application name of the instance
+	 * @param id the id of the instance
+	 */
+	record Key(String appName, String id) {
+	}
+
+	private static final class Expiry {
+
+		private final AtomicLong expiresAt;
+
+		private final long durationMs;
+
+		private Expiry(long expiresAt, long durationMs) {
+			this.expiresAt = new AtomicLong(expiresAt);
+			this.durationMs = durationMs;
+		}
+
+	}
+
+}
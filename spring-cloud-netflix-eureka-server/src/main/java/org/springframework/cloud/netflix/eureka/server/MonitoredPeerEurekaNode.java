@@ -0,0 +1,99 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
+
+/**
+ * {@link PeerEurekaNode} that reports the changes it hands over to its dispatcher to a
+ * {@link PeerReplicationMonitor}, which follows them through a
+ * {@link MonitoredReplicationClient}. The monitor is removed when the node shuts down.
+ *
+ * @since 5.0.3
+ */
+class MonitoredPeerEurekaNode extends PeerEurekaNode {
+
+	private final HttpReplicationClient replicationClient;
+
+	private final PeerReplicationMetrics metrics;
+
+	private final PeerReplicationMonitor monitor;
+
+	MonitoredPeerEurekaNode(PeerAwareInstanceRegistry registry, String targetHost, String serviceUrl,
+			HttpReplicationClient replicationClient, EurekaServerConfig config, PeerReplicationMetrics metrics,
+			PeerReplicationMonitor monitor) {
+		super(registry, targetHost, serviceUrl, new MonitoredReplicationClient(replicationClient, monitor), config);
+		this.replicationClient = replicationClient;
+		this.metrics = metrics;
+		this.monitor = monitor;
+	}
+
+	/**
+	 * The client this node replicates with, which can also read the registry of the peer.
+	 * @return the replication client
+	 */
+	HttpReplicationClient getReplicationClient() {
+		return this.replicationClient;
+	}
+
+	@Override
+	public void register(InstanceInfo info) throws Exception {
+		this.monitor.accepted(Action.Register, info.getAppName(), info.getId());
+		super.register(info);
+	}
+
+	@Override
+	public void cancel(String appName, String id) throws Exception {
+		this.monitor.accepted(Action.Cancel, appName, id);
+		super.cancel(appName, id);
+	}
+
+	@Override
+	public void heartbeat(String appName, String id, InstanceInfo info, InstanceStatus overriddenStatus,
+			boolean primeConnection) throws Throwable {
+		if (!primeConnection) {
+			// priming heartbeats are sent right away, without the dispatcher
+			this.monitor.accepted(Action.Heartbeat, appName, id);
+		}
+		super.heartbeat(appName, id, info, overriddenStatus, primeConnection);
+	}
+
+	@Override
+	public void statusUpdate(String appName, String id, InstanceStatus newStatus, InstanceInfo info) {
+		this.monitor.accepted(Action.StatusUpdate, appName, id);
+		super.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public void deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		this.monitor.accepted(Action.DeleteStatusOverride, appName, id);
+		super.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public void shutDown() {
+		super.shutDown();
+		this.metrics.remove(this.monitor);
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.resources.ASGResource.ASGStatus;
+
+/**
+ * {@link HttpReplicationClient} that reports the batches and ASG status changes sent by
+ * the dispatchers of a {@link MonitoredPeerEurekaNode} to its
+ * {@link PeerReplicationMonitor}.
+ *
+ * @since 5.0.3
+ */
+class MonitoredReplicationClient implements HttpReplicationClient {
+
+	private final HttpReplicationClient delegate;
+
+	private final PeerReplicationMonitor monitor;
+
+	MonitoredReplicationClient(HttpReplicationClient delegate, PeerReplicationMonitor monitor) {
+		this.delegate = delegate;
+		this.monitor = monitor;
+	}
+
+	@Override
+	public EurekaHttpResponse<ReplicationListResponse> submitBatchUpdates(ReplicationList replicationList) {
+		List<ReplicationInstance> instances = replicationList.getReplicationList();
+		long[] accepted = this.monitor.dispatched(instances);
+		long start = System.nanoTime();
+		EurekaHttpResponse<ReplicationListResponse> response;
+		try {
+			response = this.delegate.submitBatchUpdates(replicationList);
+		}
+		catch (RuntimeException ex) {
+			this.monitor.batchFailed(instances, accepted, System.nanoTime() - start);
+			throw ex;
+		}
+		this.monitor.batchCompleted(instances, accepted, response, System.nanoTime() - start);
+		return response;
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String asgName, ASGStatus newStatus) {
+		long start = System.nanoTime();
+		boolean success = false;
+		try {
+			EurekaHttpResponse<Void> response = this.delegate.statusUpdate(asgName, newStatus);
+			success = response.getStatusCode() >= 200 && response.getStatusCode() < 300;
+			return response;
+		}
+		finally {
+			this.monitor.requestCompleted(PeerReplicationMonitor.ASG_STATUS, success, System.nanoTime() - start);
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> register(InstanceInfo info) {
+		return this.delegate.register(info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> cancel(String appName, String id) {
+		return this.delegate.cancel(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info,
+			InstanceStatus overriddenStatus) {
+		return this.delegate.sendHeartBeat(appName, id, info, overriddenStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus,
+			InstanceInfo info) {
+		return this.delegate.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		return this.delegate.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(String... regions) {
+		return this.delegate.getApplications(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(String... regions) {
+		return this.delegate.getDelta(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+		return this.delegate.getVip(vipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+		return this.delegate.getSecureVip(secureVipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Application> getApplication(String appName) {
+		return this.delegate.getApplication(appName);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+		return this.delegate.getInstance(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+		return this.delegate.getInstance(id);
+	}
+
+}
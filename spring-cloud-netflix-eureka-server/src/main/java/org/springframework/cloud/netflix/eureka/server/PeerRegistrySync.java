@@ -0,0 +1,167 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Fetches the registry of all peers at once when a server starts, rather than waiting
+ * for the Eureka client of the server to fetch it from one of them. When the peers agree
+ * on the registry, the freshest copy is used: the one whose latest change is the most
+ * recent. When they disagree, the copies are merged, keeping the most recently changed
+ * version of every instance. Instances that a peer has already cancelled may come back
+ * from another one this way; they expire when their lease does.
+ *
+ * @since 5.0.3
+ */
+final class PeerRegistrySync {
+
+	private static final Log log = LogFactory.getLog(PeerRegistrySync.class);
+
+	private PeerRegistrySync() {
+	}
+
+	/**
+	 * Fetch the registry of the given peers in parallel.
+	 * @param peers the peers
+	 * @param timeoutMs how long to wait for the peers to answer
+	 * @return the freshest or merged registry of the peers that answered in time
+	 */
+	static Applications fetch(List<MonitoredPeerEurekaNode> peers, long timeoutMs) {
+		ExecutorService executor = Executors.newFixedThreadPool(peers.size(), runnable -> {
+			Thread thread = new Thread(runnable, "eureka-registry-sync");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			List<CompletableFuture<Applications>> snapshots = peers.stream()
+				.map(peer -> CompletableFuture.supplyAsync(() -> fetch(peer), executor))
+				.toList();
+			try {
+				CompletableFuture.allOf(snapshots.toArray(new CompletableFuture<?>[0]))
+					.get(timeoutMs, TimeUnit.MILLISECONDS);
+			}
+			catch (TimeoutException ex) {
+				log.warn("Not all peers sent their registry within " + timeoutMs + "ms, using the others");
+			}
+			catch (ExecutionException ex) {
+				// failures are handled per peer
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			return select(snapshots.stream()
+				.filter(snapshot -> snapshot.isDone() && !snapshot.isCompletedExceptionally())
+				.map(CompletableFuture::join)
+				.filter(Objects::nonNull)
+				.toList());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static Applications fetch(MonitoredPeerEurekaNode peer) {
+		try {
+			EurekaHttpResponse<Applications> response = peer.getReplicationClient().getApplications();
+			if (response.getStatusCode() == HttpStatus.OK.value() && response.getEntity() != null) {
+				return response.getEntity();
+			}
+			log.warn("Cannot sync the registry from " + peer.getServiceUrl() + ", status " + response.getStatusCode());
+		}
+		catch (RuntimeException ex) {
+			log.warn("Cannot sync the registry from " + peer.getServiceUrl(), ex);
+		}
+		return null;
+	}
+
+	/**
+	 * Pick the freshest of the given registries if they agree, or merge them.
+	 * @param snapshots the registries of the peers
+	 * @return the registry to start with
+	 */
+	static Applications select(List<Applications> snapshots) {
+		if (snapshots.isEmpty()) {
+			return new Applications();
+		}
+		List<Applications> byFreshness = new ArrayList<>(snapshots);
+		byFreshness.sort(Comparator.comparingLong(PeerRegistrySync::latestChange).reversed());
+		Applications freshest = byFreshness.get(0);
+		String hashCode = freshest.getReconcileHashCode();
+		if (byFreshness.stream().allMatch(snapshot -> hashCode.equals(snapshot.getReconcileHashCode()))) {
+			return freshest;
+		}
+		if (log.isInfoEnabled()) {
+			log.info("Peers disagree on the registry, merging the registries of " + snapshots.size() + " peers");
+		}
+		Map<String, Map<String, InstanceInfo>> merged = new LinkedHashMap<>();
+		for (Applications snapshot : byFreshness) {
+			for (Application application : snapshot.getRegisteredApplications()) {
+				Map<String, InstanceInfo> instances = merged.computeIfAbsent(application.getName(),
+						name -> new LinkedHashMap<>());
+				for (InstanceInfo instance : application.getInstances()) {
+					instances.merge(instance.getId(), instance,
+							(current, other) -> (lastDirtyTimestamp(other) > lastDirtyTimestamp(current)) ? other
+									: current);
+				}
+			}
+		}
+		Applications applications = new Applications();
+		merged.forEach((name, instances) -> {
+			Application application = new Application(name);
+			instances.values().forEach(application::addInstance);
+			applications.addApplication(application);
+		});
+		return applications;
+	}
+
+	private static long latestChange(Applications applications) {
+		long latest = 0;
+		for (Application application : applications.getRegisteredApplications()) {
+			for (InstanceInfo instance : application.getInstances()) {
+				latest = Math.max(latest, lastDirtyTimestamp(instance));
+			}
+		}
+		return latest;
+	}
+
+	private static long lastDirtyTimestamp(InstanceInfo instance) {
+		Long lastDirtyTimestamp = instance.getLastDirtyTimestamp();
+		return (lastDirtyTimestamp != null) ? lastDirtyTimestamp : 0;
+	}
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.eureka.EurekaServerConfig;
+
+import org.springframework.boot.actuate.endpoint.OperationResponseBody;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+/**
+ * {@link Endpoint @Endpoint} summarizing the replication to each peer next to the
+ * settings that bound it, to size the replication pools from data. A peer is reported as
+ * lagging when the oldest change not sent to it has waited more than half of
+ * {@code eureka.server.max-time-for-replication}, or when more than half of
+ * {@code eureka.server.max-elements-in-peer-replication-pool} changes wait for it. The
+ * changes waiting are only known when
+ * {@code eureka.server.replication-metrics.task-tracking} is enabled.
+ *
+ * @since 5.0.3
+ */
+@Endpoint(id = "eurekareplication")
+public class PeerReplicationEndpoint {
+
+	private final EurekaServerConfig serverConfig;
+
+	private final PeerReplicationMetrics metrics;
+
+	public PeerReplicationEndpoint(EurekaServerConfig serverConfig, PeerReplicationMetrics metrics) {
+		this.serverConfig = serverConfig;
+		this.metrics = metrics;
+	}
+
+	@ReadOperation
+	public ReplicationDescriptor replication() {
+		int maxElements = this.serverConfig.getMaxElementsInPeerReplicationPool();
+		long maxTime = this.serverConfig.getMaxTimeForReplication();
+		List<PeerDescriptor> peers = this.metrics.getMonitors().stream().map(monitor -> {
+			int pendingTasks = monitor.getPendingTasks();
+			long oldestPendingTaskAgeMs = monitor.getOldestPendingTaskAgeMs();
+			boolean lagging = oldestPendingTaskAgeMs > maxTime / 2 || pendingTasks > maxElements / 2;
+			return new PeerDescriptor(monitor.getServiceUrl(), lagging, pendingTasks, oldestPendingTaskAgeMs,
+					monitor.getTasks(), monitor.getRequests(), monitor.getFailedRequests(),
+					monitor.getMeanRequestLatencyMs(), monitor.getMaxRequestLatencyMs());
+		}).toList();
+		return new ReplicationDescriptor(maxElements, this.serverConfig.getMaxThreadsForPeerReplication(), maxTime,
+				peers);
+	}
+
+	/**
+	 * Description of the replication to all peers.
+	 *
+	 * @param maxElementsInPeerReplicationPool the capacity of the queue of each peer
+	 * @param maxThreadsForPeerReplication the threads replicating to each peer
+	 * @param maxTimeForReplicationMs how long changes wait to be sent before they are
+	 * dropped
+	 * @param peers the replication to each peer
+	 */
+	public record ReplicationDescriptor(int maxElementsInPeerReplicationPool, int maxThreadsForPeerReplication,
+			long maxTimeForReplicationMs, List<PeerDescriptor> peers) implements OperationResponseBody {
+
+	}
+
+	/**
+	 * Description of the replication to a peer.
+	 *
+	 * @param serviceUrl the service URL of the peer
+	 * @param lagging whether changes wait too long or too many of them wait
+	 * @param pendingTasks the changes not sent yet
+	 * @param oldestPendingTaskAgeMs how long the oldest change not sent yet has waited
+	 * @param tasks the number of succeeded, failed and dropped changes, by action
+	 * @param requests the requests sent
+	 * @param failedRequests the requests that failed
+	 * @param meanRequestLatencyMs the mean latency of the requests
+	 * @param maxRequestLatencyMs the highest latency of the requests
+	 */
+	public record PeerDescriptor(String serviceUrl, boolean lagging, int pendingTasks, long oldestPendingTaskAgeMs,
+			Map<String, Map<String, Long>> tasks, long requests, long failedRequests, double meanRequestLatencyMs,
+			double maxRequestLatencyMs) {
+
+	}
+
+}
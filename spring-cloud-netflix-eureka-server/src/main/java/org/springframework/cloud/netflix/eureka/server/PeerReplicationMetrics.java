@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Keeps the {@link PeerReplicationMonitor} of every peer this server replicates to and
+ * publishes their meters: the changes not sent yet and the age of the oldest of them,
+ * the outcome of the changes by action, the time changes wait to be sent, the batches
+ * handed over by the dispatchers and the latency of the requests. Every meter is tagged
+ * with the peer. Nothing is published until the metrics are bound to a
+ * {@link MeterRegistry}. The changes not sent yet, their age and the dropped changes are
+ * only known when task tracking is enabled.
+ *
+ * @since 5.0.3
+ */
+public class PeerReplicationMetrics implements MeterBinder {
+
+	private final List<PeerReplicationMonitor> monitors = new CopyOnWriteArrayList<>();
+
+	private final boolean taskTracking;
+
+	private volatile MeterRegistry meterRegistry;
+
+	public PeerReplicationMetrics(boolean taskTracking) {
+		this.taskTracking = taskTracking;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.meterRegistry = registry;
+		this.monitors.forEach(monitor -> monitor.bindTo(registry));
+	}
+
+	PeerReplicationMonitor monitor(String peer, String serviceUrl, long maxTimeForReplicationMs) {
+		PeerReplicationMonitor monitor = new PeerReplicationMonitor(peer, serviceUrl, maxTimeForReplicationMs,
+				this.taskTracking);
+		MeterRegistry registry = this.meterRegistry;
+		if (registry != null) {
+			monitor.bindTo(registry);
+		}
+		this.monitors.add(monitor);
+		return monitor;
+	}
+
+	void remove(PeerReplicationMonitor monitor) {
+		this.monitors.remove(monitor);
+		monitor.close();
+	}
+
+	List<PeerReplicationMonitor> getMonitors() {
+		return List.copyOf(this.monitors);
+	}
+
+}
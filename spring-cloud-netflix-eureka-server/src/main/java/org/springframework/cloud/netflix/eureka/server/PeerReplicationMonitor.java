@@ -0,0 +1,404 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Follows the changes replicated to one peer, from the moment its {@link
+ * MonitoredPeerEurekaNode} accepts them until the peer answers. The tasks of a peer are
+ * tracked the way its dispatcher identifies them, by action, application and instance,
+ * so a task that replaces a pending one keeps the age of the first. Tasks that are not
+ * sent within {@code eureka.server.max-time-for-replication} have been dropped by the
+ * dispatcher, because it expired them or its queue was full, and are counted as such.
+ * <p>
+ * Following every task costs a map entry per task, so it is only done when task tracking
+ * is enabled. Otherwise only the outcome of the tasks sent, the batches and the requests
+ * are recorded. The meters are registered once, when the monitor is bound to a
+ * {@link MeterRegistry}, and not looked up again for every batch.
+ *
+ * @since 5.0.3
+ */
+class PeerReplicationMonitor {
+
+	/**
+	 * Type of the requests sending batches of tasks.
+	 */
+	static final String BATCH = "batch";
+
+	/**
+	 * Type of the requests sending the status of an ASG.
+	 */
+	static final String ASG_STATUS = "asg_status";
+
+	private final String peer;
+
+	private final String serviceUrl;
+
+	private final long maxTaskAgeNanos;
+
+	private final boolean taskTracking;
+
+	private final ConcurrentMap<String, PendingTask> pending = new ConcurrentHashMap<>();
+
+	private final Map<Action, Outcomes> outcomes = new EnumMap<>(Action.class);
+
+	private final LongAdder requests = new LongAdder();
+
+	private final LongAdder failedRequests = new LongAdder();
+
+	private final LongAdder requestNanos = new LongAdder();
+
+	private final AtomicLong maxRequestNanos = new AtomicLong();
+
+	private final Set<Meter> registered = ConcurrentHashMap.newKeySet();
+
+	private volatile MeterRegistry meterRegistry;
+
+	private volatile Meters meters;
+
+	PeerReplicationMonitor(String peer, String serviceUrl, long maxTimeForReplicationMs, boolean taskTracking) {
+		this.peer = peer;
+		this.serviceUrl = serviceUrl;
+		this.maxTaskAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxTimeForReplicationMs);
+		this.taskTracking = taskTracking;
+		for (Action action : Action.values()) {
+			this.outcomes.put(action, new Outcomes());
+		}
+	}
+
+	String getServiceUrl() {
+		return this.serviceUrl;
+	}
+
+	boolean isTaskTracking() {
+		return this.taskTracking;
+	}
+
+	/**
+	 * Record that the node handed a task over to its dispatcher.
+	 * @param action the action of the task
+	 * @param appName the application of the instance
+	 * @param id the id of the instance
+	 */
+	void accepted(Action action, String appName, String id) {
+		if (this.taskTracking) {
+			this.pending.putIfAbsent(key(action, appName, id), new PendingTask(action, System.nanoTime()));
+		}
+	}
+
+	/**
+	 * Record that the dispatcher is sending a batch of tasks.
+	 * @param instances the tasks
+	 * @return when each task was accepted, to put the tasks back if they are retried, or
+	 * {@code null} if tasks are not tracked
+	 */
+	long[] dispatched(List<ReplicationInstance> instances) {
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.batchSize.record(instances.size());
+		}
+		if (!this.taskTracking) {
+			return null;
+		}
+		long now = System.nanoTime();
+		long[] accepted = new long[instances.size()];
+		for (int i = 0; i < accepted.length; i++) {
+			ReplicationInstance instance = instances.get(i);
+			PendingTask task = this.pending.remove(key(instance));
+			accepted[i] = (task != null) ? task.accepted() : now;
+			if (task != null && meters != null) {
+				meters.taskAge.get(instance.getAction()).record(now - task.accepted(), TimeUnit.NANOSECONDS);
+			}
+		}
+		return accepted;
+	}
+
+	/**
+	 * Record the answer of the peer to a batch of tasks.
+	 * @param instances the tasks
+	 * @param accepted when each task was accepted
+	 * @param response the response of the peer
+	 * @param elapsedNanos how long the peer took to answer
+	 */
+	void batchCompleted(List<ReplicationInstance> instances, long[] accepted,
+			EurekaHttpResponse<ReplicationListResponse> response, long elapsedNanos) {
+		int statusCode = response.getStatusCode();
+		requestCompleted(BATCH, isSuccess(statusCode), elapsedNanos);
+		if (statusCode == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+			// the dispatcher retries the batch
+			retried(instances, accepted);
+			return;
+		}
+		List<ReplicationInstanceResponse> responses = (isSuccess(statusCode) && response.getEntity() != null)
+				? response.getEntity().getResponseList() : null;
+		for (int i = 0; i < instances.size(); i++) {
+			boolean success = responses != null && i < responses.size()
+					&& isSuccess(responses.get(i).getStatusCode());
+			Outcomes outcomes = this.outcomes.get(instances.get(i).getAction());
+			(success ? outcomes.succeeded : outcomes.failed).increment();
+		}
+	}
+
+	/**
+	 * Record that a batch of tasks could not be sent.
+	 * @param instances the tasks
+	 * @param accepted when each task was accepted
+	 * @param elapsedNanos how long the attempt took
+	 */
+	void batchFailed(List<ReplicationInstance> instances, long[] accepted, long elapsedNanos) {
+		requestCompleted(BATCH, false, elapsedNanos);
+		// network errors are retried, other tasks expire and are counted as dropped
+		retried(instances, accepted);
+	}
+
+	/**
+	 * Record a request that is not part of a batch.
+	 * @param type the type of the request
+	 * @param success whether the peer accepted it
+	 * @param elapsedNanos how long the request took
+	 */
+	void requestCompleted(String type, boolean success, long elapsedNanos) {
+		this.requests.increment();
+		if (!success) {
+			this.failedRequests.increment();
+		}
+		this.requestNanos.add(elapsedNanos);
+		this.maxRequestNanos.accumulateAndGet(elapsedNanos, Math::max);
+		Meters meters = this.meters;
+		if (meters != null) {
+			meters.requests.get(requestKey(type, success)).record(elapsedNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void retried(List<ReplicationInstance> instances, long[] accepted) {
+		for (int i = 0; i < instances.size(); i++) {
+			ReplicationInstance instance = instances.get(i);
+			this.outcomes.get(instance.getAction()).failed.increment();
+			if (accepted != null) {
+				this.pending.putIfAbsent(key(instance), new PendingTask(instance.getAction(), accepted[i]));
+			}
+		}
+	}
+
+	/**
+	 * Count the tasks that have waited longer than the dispatcher keeps them as dropped.
+	 */
+	void expire() {
+		long now = System.nanoTime();
+		this.pending.forEach((key, task) -> {
+			if (now - task.accepted() > this.maxTaskAgeNanos && this.pending.remove(key, task)) {
+				this.outcomes.get(task.action()).dropped.increment();
+			}
+		});
+	}
+
+	int getPendingTasks() {
+		expire();
+		return this.pending.size();
+	}
+
+	long getOldestPendingTaskAgeMs() {
+		expire();
+		long now = System.nanoTime();
+		long oldest = this.pending.values().stream().mapToLong(PendingTask::accepted).min().orElse(now);
+		return TimeUnit.NANOSECONDS.toMillis(now - oldest);
+	}
+
+	/**
+	 * The outcomes of the tasks sent so far.
+	 * @return the number of succeeded, failed and dropped tasks, by action
+	 */
+	Map<String, Map<String, Long>> getTasks() {
+		expire();
+		Map<String, Map<String, Long>> tasks = new LinkedHashMap<>();
+		this.outcomes.forEach((action, outcomes) -> tasks.put(tagValue(action),
+				Map.of("success", outcomes.succeeded.sum(), "failure", outcomes.failed.sum(), "dropped",
+						outcomes.dropped.sum())));
+		return tasks;
+	}
+
+	long getRequests() {
+		return this.requests.sum();
+	}
+
+	long getFailedRequests() {
+		return this.failedRequests.sum();
+	}
+
+	double getMeanRequestLatencyMs() {
+		long requests = this.requests.sum();
+		return (requests != 0) ? (double) this.requestNanos.sum() / requests / 1_000_000 : 0;
+	}
+
+	double getMaxRequestLatencyMs() {
+		return this.maxRequestNanos.get() / 1_000_000d;
+	}
+
+	void bindTo(MeterRegistry registry) {
+		if (this.taskTracking) {
+			track(Gauge.builder("eureka.server.replication.pending", this, PeerReplicationMonitor::getPendingTasks)
+				.description("Number of changes accepted for replication to a peer and not sent yet.")
+				.tag("peer", this.peer)
+				.register(registry));
+			track(TimeGauge
+				.builder("eureka.server.replication.pending.age", this, TimeUnit.MILLISECONDS,
+						PeerReplicationMonitor::getOldestPendingTaskAgeMs)
+				.description("Time the oldest change not sent to a peer yet has waited.")
+				.tag("peer", this.peer)
+				.register(registry));
+		}
+		this.outcomes.forEach((action, outcomes) -> {
+			registerOutcome(registry, action, "success", outcomes.succeeded);
+			registerOutcome(registry, action, "failure", outcomes.failed);
+			registerOutcome(registry, action, "dropped", outcomes.dropped);
+		});
+		this.meters = new Meters(registry);
+		this.meterRegistry = registry;
+	}
+
+	private void registerOutcome(MeterRegistry registry, Action action, String outcome, LongAdder count) {
+		track(FunctionCounter.builder("eureka.server.replication.tasks", count, LongAdder::sum)
+			.description("Number of changes replicated to a peer, by outcome.")
+			.tag("peer", this.peer)
+			.tag("action", tagValue(action))
+			.tag("outcome", outcome)
+			.register(registry));
+	}
+
+	/**
+	 * Remove the meters of this peer.
+	 */
+	void close() {
+		MeterRegistry registry = this.meterRegistry;
+		this.meterRegistry = null;
+		this.meters = null;
+		if (registry != null) {
+			new ArrayList<>(this.registered).forEach(registry::remove);
+		}
+		this.registered.clear();
+	}
+
+	private <M extends Meter> M track(M meter) {
+		this.registered.add(meter);
+		return meter;
+	}
+
+	private static String requestKey(String type, boolean success) {
+		return type + '/' + (success ? "success" : "failure");
+	}
+
+	private static boolean isSuccess(int statusCode) {
+		return statusCode >= 200 && statusCode < 300;
+	}
+
+	private static String key(ReplicationInstance instance) {
+		return key(instance.getAction(), instance.getAppName(), instance.getId());
+	}
+
+	private static String key(Action action, String appName, String id) {
+		// the id of the task in the dispatcher of the node
+		return action + "#" + appName + '/' + id;
+	}
+
+	private static String tagValue(Action action) {
+		return action.name().toLowerCase(Locale.ROOT);
+	}
+
+	private record PendingTask(Action action, long accepted) {
+	}
+
+	/**
+	 * The meters recorded for every batch and request, registered when the monitor is
+	 * bound.
+	 */
+	private final class Meters {
+
+		private final Map<Action, Timer> taskAge = new EnumMap<>(Action.class);
+
+		private final Map<String, Timer> requests = new HashMap<>();
+
+		private final DistributionSummary batchSize;
+
+		private Meters(MeterRegistry registry) {
+			if (PeerReplicationMonitor.this.taskTracking) {
+				for (Action action : Action.values()) {
+					this.taskAge.put(action, track(Timer.builder("eureka.server.replication.task.age")
+						.description("Time replicated changes wait between being accepted and sent to a peer.")
+						.tag("peer", PeerReplicationMonitor.this.peer)
+						.tag("action", tagValue(action))
+						.register(registry)));
+				}
+			}
+			for (String type : List.of(BATCH, ASG_STATUS)) {
+				for (boolean success : new boolean[] { true, false }) {
+					Timer timer = Timer.builder("eureka.server.replication.requests")
+						.description("Latency of the requests replicating changes to a peer.")
+						.tag("peer", PeerReplicationMonitor.this.peer)
+						.tag("type", type)
+						.tag("outcome", success ? "success" : "failure")
+						.publishPercentileHistogram()
+						.register(registry);
+					this.requests.put(requestKey(type, success), track(timer));
+				}
+			}
+			this.batchSize = track(DistributionSummary.builder("eureka.server.replication.task.batch.size")
+				.description("Number of changes per batch sent to a peer by the replication dispatcher.")
+				.tag("peer", PeerReplicationMonitor.this.peer)
+				.register(registry));
+		}
+
+	}
+
+	private static final class Outcomes {
+
+		private final LongAdder succeeded = new LongAdder();
+
+		private final LongAdder failed = new LongAdder();
+
+		private final LongAdder dropped = new LongAdder();
+
+	}
+
+}
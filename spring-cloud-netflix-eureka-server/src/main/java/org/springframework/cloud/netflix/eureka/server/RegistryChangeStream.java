@@ -0,0 +1,321 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.netflix.appinfo.InstanceInfo;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+/**
+ * Keeps the most recent registry changes and pushes new ones to subscribed clients, so
+ * that clients learn about registrations, cancellations and status changes as they happen
+ * instead of on their next delta fetch.
+ * <p>
+ * Every change gets a cursor made of the start time of this server and a sequence
+ * number. A subscriber that passes the cursor of the last change it has seen receives the
+ * changes it missed; if those are no longer kept, or the cursor comes from another server
+ * or an earlier run of this one, the subscriber is sent a {@value #RESET} event and has
+ * to fetch the registry again. All events are written from a single thread, so every
+ * subscriber sees them in order.
+ *
+ * @since 5.0.3
+ */
+public class RegistryChangeStream implements SmartApplicationListener, MeterBinder, DisposableBean {
+
+	/**
+	 * Event sent for a registered instance, with the encoded instance as data.
+	 */
+	public static final String REGISTER = "register";
+
+	/**
+	 * Event sent for an instance whose status changed, with the encoded instance as data.
+	 */
+	public static final String STATUS = "status";
+
+	/**
+	 * Event sent for a cancelled instance, with its application name and id as data.
+	 */
+	public static final String CANCEL = "cancel";
+
+	/**
+	 * Event sent when the missed changes can't be replayed.
+	 */
+	public static final String RESET = "reset";
+
+	private static final Log log = LogFactory.getLog(RegistryChangeStream.class);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final long epoch = System.currentTimeMillis();
+
+	private final int maxChanges;
+
+	private final ArrayDeque<Change> changes = new ArrayDeque<>();
+
+	private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "eureka-registry-stream");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private long sequence;
+
+	public RegistryChangeStream(int maxChanges, long keepAliveIntervalMs) {
+		this.maxChanges = maxChanges;
+		if (keepAliveIntervalMs > 0) {
+			this.executor.scheduleWithFixedDelay(this::keepAlive, keepAliveIntervalMs, keepAliveIntervalMs,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+
+	@Override
+	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		return EurekaInstanceRegisteredEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceCanceledEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceStatusChangedEvent.class.isAssignableFrom(eventType);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof EurekaInstanceRegisteredEvent registered) {
+			append(REGISTER, encode(registered.getInstanceInfo()));
+		}
+		else if (event instanceof EurekaInstanceStatusChangedEvent statusChanged
+				&& statusChanged.getInstanceInfo() != null) {
+			append(STATUS, encode(statusChanged.getInstanceInfo()));
+		}
+		else if (event instanceof EurekaInstanceCanceledEvent canceled) {
+			append(CANCEL, cancellation(canceled.getAppName(), canceled.getServerId()));
+		}
+	}
+
+	/**
+	 * Subscribe to registry changes.
+	 * @param cursor the cursor of the last change the subscriber has seen, or
+	 * {@code null}
+	 * @param subscriber receives the missed changes and all following ones
+	 */
+	public void subscribe(String cursor, Subscriber subscriber) {
+		this.executor.execute(() -> {
+			long seen = parse(cursor);
+			List<Change> missed = missed(seen);
+			this.subscribers.add(subscriber);
+			if (missed == null) {
+				send(subscriber, new Change(currentSequence(), RESET, ""));
+				return;
+			}
+			subscriber.lastSequence = seen;
+			for (Change change : missed) {
+				send(subscriber, change);
+			}
+		});
+	}
+
+	public void unsubscribe(Subscriber subscriber) {
+		this.subscribers.remove(subscriber);
+	}
+
+	public int getSubscriberCount() {
+		return this.subscribers.size();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("eureka.server.registry.stream.subscribers", this, RegistryChangeStream::getSubscriberCount)
+			.description("Number of clients subscribed to registry changes.")
+			.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+		for (Subscriber subscriber : this.subscribers) {
+			subscriber.close();
+		}
+		this.subscribers.clear();
+	}
+
+	void append(String type, String data) {
+		Change change;
+		synchronized (this.changes) {
+			change = new Change(++this.sequence, type, data);
+			this.changes.addLast(change);
+			if (this.changes.size() > this.maxChanges) {
+				this.changes.removeFirst();
+			}
+		}
+		try {
+			this.executor.execute(() -> {
+				for (Subscriber subscriber : this.subscribers) {
+					send(subscriber, change);
+				}
+			});
+		}
+		catch (RejectedExecutionException ex) {
+			// shutting down, subscribers have been closed
+		}
+	}
+
+	private List<Change> missed(long seen) {
+		synchronized (this.changes) {
+			if (seen < 0 || seen > this.sequence) {
+				return null;
+			}
+			Change oldest = this.changes.peekFirst();
+			if (oldest != null && oldest.sequence > seen + 1) {
+				return null;
+			}
+			List<Change> missed = new ArrayList<>();
+			Iterator<Change> newestFirst = this.changes.descendingIterator();
+			while (newestFirst.hasNext()) {
+				Change change = newestFirst.next();
+				if (change.sequence <= seen) {
+					break;
+				}
+				missed.add(change);
+			}
+			Collections.reverse(missed);
+			return missed;
+		}
+	}
+
+	private long currentSequence() {
+		synchronized (this.changes) {
+			return this.sequence;
+		}
+	}
+
+	private long parse(String cursor) {
+		if (cursor == null) {
+			return -1;
+		}
+		int separator = cursor.indexOf(':');
+		try {
+			if (separator < 0 || Long.parseLong(cursor.substring(0, separator)) != this.epoch) {
+				return -1;
+			}
+			return Long.parseLong(cursor.substring(separator + 1));
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	private String cursor(long sequence) {
+		return this.epoch + ":" + sequence;
+	}
+
+	private void send(Subscriber subscriber, Change change) {
+		if (change.sequence <= subscriber.lastSequence && !RESET.equals(change.type)) {
+			// already sent while replaying the missed changes
+			return;
+		}
+		try {
+			subscriber.send(cursor(change.sequence), change.type, change.data);
+			subscriber.lastSequence = change.sequence;
+		}
+		catch (IOException | RuntimeException ex) {
+			log.debug("Dropping registry stream subscriber", ex);
+			unsubscribe(subscriber);
+			subscriber.close();
+		}
+	}
+
+	private void keepAlive() {
+		for (Subscriber subscriber : this.subscribers) {
+			try {
+				subscriber.keepAlive();
+			}
+			catch (IOException | RuntimeException ex) {
+				log.debug("Dropping registry stream subscriber", ex);
+				unsubscribe(subscriber);
+				subscriber.close();
+			}
+		}
+	}
+
+	private static String encode(InstanceInfo info) {
+		return EurekaServerAutoConfiguration.JACKSON_JSON.encode(info);
+	}
+
+	private static String cancellation(String appName, String id) {
+		ObjectNode cancellation = MAPPER.createObjectNode().put("app", appName).put("id", id);
+		return cancellation.toString();
+	}
+
+	private record Change(long sequence, String type, String data) {
+	}
+
+	/**
+	 * A client subscribed to registry changes.
+	 */
+	public abstract static class Subscriber {
+
+		private long lastSequence;
+
+		/**
+		 * Send a change to the client. Changes are sent to all subscribers from a single
+		 * thread, so this must not block: a subscriber that can't keep up should fail
+		 * rather than wait, and is then dropped.
+		 * @param cursor the cursor of the change
+		 * @param type the type of the change
+		 * @param data the data of the change
+		 * @throws IOException if the client can't be written to
+		 */
+		protected abstract void send(String cursor, String type, String data) throws IOException;
+
+		/**
+		 * Tell the client that the subscription is still alive, without blocking.
+		 * @throws IOException if the client can't be written to
+		 */
+		protected abstract void keepAlive() throws IOException;
+
+		/**
+		 * Release the connection to the client.
+		 */
+		protected abstract void close();
+
+	}
+
+}
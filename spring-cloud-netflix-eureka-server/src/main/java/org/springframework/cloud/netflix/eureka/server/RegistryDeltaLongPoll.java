@@ -0,0 +1,305 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+/**
+ * Tracks the version of the registry and holds delta fetches until it changes. The
+ * version moves on every registration, cancellation and status change; a delta fetch
+ * that names the current version waits until the next one, or until its wait is over,
+ * and is then answered with the delta of the local region.
+ * <p>
+ * The delta is computed from the registry rather than taken from the response cache,
+ * whose read-only copy may lag behind by up to the cache update interval. As computing it
+ * takes the write lock of the registry, it is computed at most once per refresh interval
+ * and kept, along with its gzipped variant, for all fetches until then: changes made
+ * within the interval wake the held fetches together once it is over. Versions include
+ * the start time of this server, so a version from another server, or an earlier run of
+ * this one, is answered right away.
+ *
+ * @since 5.0.3
+ */
+public class RegistryDeltaLongPoll implements SmartApplicationListener, MeterBinder, DisposableBean {
+
+	private final String epoch = Long.toString(System.currentTimeMillis());
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final EurekaServerConfig serverConfig;
+
+	private final ServerCodecs serverCodecs;
+
+	private final InterestedApplicationsPayloads interestedPayloads;
+
+	private final long maxWaitMs;
+
+	private final long refreshIntervalNanos;
+
+	private final Set<Runnable> waiting = new LinkedHashSet<>();
+
+	private final Object payloadMonitor = new Object();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread thread = new Thread(r, "eureka-delta-long-poll");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	private long sequence;
+
+	private String version = version(0);
+
+	private boolean wakeScheduled;
+
+	private volatile Payload payload;
+
+	private volatile long refreshed;
+
+	public RegistryDeltaLongPoll(PeerAwareInstanceRegistry registry, EurekaServerConfig serverConfig,
+			ServerCodecs serverCodecs, InterestedApplicationsPayloads interestedPayloads, long maxWaitMs,
+			long refreshIntervalMs) {
+		this.registry = registry;
+		this.serverConfig = serverConfig;
+		this.serverCodecs = serverCodecs;
+		this.interestedPayloads = interestedPayloads;
+		this.maxWaitMs = maxWaitMs;
+		this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+	}
+
+	@Override
+	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		return EurekaInstanceRegisteredEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceCanceledEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceStatusChangedEvent.class.isAssignableFrom(eventType);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		synchronized (this.waiting) {
+			this.version = version(++this.sequence);
+			if (!this.waiting.isEmpty()) {
+				scheduleWake();
+			}
+		}
+	}
+
+	/**
+	 * Wake the held fetches once the refresh interval is over. Called with the lock on
+	 * {@link #waiting} held.
+	 */
+	private void scheduleWake() {
+		if (this.wakeScheduled) {
+			return;
+		}
+		long delay = Math.max(0, this.refreshed + this.refreshIntervalNanos - System.nanoTime());
+		try {
+			this.executor.schedule(this::wake, (this.payload != null) ? delay : 0, TimeUnit.NANOSECONDS);
+			this.wakeScheduled = true;
+		}
+		catch (RejectedExecutionException ex) {
+			// shutting down, waiting fetches have been answered
+		}
+	}
+
+	private void wake() {
+		List<Runnable> woken;
+		synchronized (this.waiting) {
+			this.wakeScheduled = false;
+			woken = new ArrayList<>(this.waiting);
+			this.waiting.clear();
+		}
+		try {
+			refresh(true);
+		}
+		catch (IOException | RuntimeException ex) {
+			// answered with the previous payload
+		}
+		woken.forEach(Runnable::run);
+	}
+
+	public String getVersion() {
+		synchronized (this.waiting) {
+			return this.version;
+		}
+	}
+
+	public long getMaxWaitMs() {
+		return this.maxWaitMs;
+	}
+
+	public int getWaitingCount() {
+		synchronized (this.waiting) {
+			return this.waiting.size();
+		}
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("eureka.server.delta.long-poll.waiting", this, RegistryDeltaLongPoll::getWaitingCount)
+			.description("Number of delta fetches held until the registry changes.")
+			.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+		List<Runnable> waiting;
+		synchronized (this.waiting) {
+			waiting = new ArrayList<>(this.waiting);
+			this.waiting.clear();
+		}
+		waiting.forEach(Runnable::run);
+	}
+
+	/**
+	 * Whether delta fetches can be held, which they can't while deltas are disabled or
+	 * the registry is not open for fetches yet.
+	 * @return {@code true} if delta fetches can be held
+	 */
+	boolean isAvailable() {
+		return !this.serverConfig.shouldDisableDelta() && this.registry.shouldAllowAccess(false);
+	}
+
+	/**
+	 * Whether a client that has seen the given version has nothing new to fetch yet,
+	 * because it is the current version, or the version of the delta the client would be
+	 * answered with until the refresh interval is over.
+	 * @param since the version the client has already seen
+	 * @return {@code true} if a fetch would be held
+	 */
+	boolean isCurrent(String since) {
+		Payload payload = this.payload;
+		return since.equals(getVersion()) || (payload != null && since.equals(payload.version()));
+	}
+
+	/**
+	 * Hold a delta fetch until a delta past the given version can be answered.
+	 * @param since the version the client has already seen
+	 * @param answer answers the fetch once the version moved
+	 * @return {@code false} if the version already moved and the fetch was not held
+	 */
+	boolean await(String since, Runnable answer) {
+		synchronized (this.waiting) {
+			if (!isCurrent(since)) {
+				return false;
+			}
+			this.waiting.add(answer);
+			if (!since.equals(this.version)) {
+				scheduleWake();
+			}
+			return true;
+		}
+	}
+
+	/**
+	 * Stop holding a delta fetch.
+	 * @param answer the fetch passed to {@link #await}
+	 * @return {@code false} if the fetch was no longer held
+	 */
+	boolean release(Runnable answer) {
+		synchronized (this.waiting) {
+			return this.waiting.remove(answer);
+		}
+	}
+
+	/**
+	 * The encoded delta of the current registry version, or of an earlier one while the
+	 * refresh interval is not over.
+	 * @return the delta
+	 * @throws IOException if the delta can't be encoded
+	 */
+	Payload payload() throws IOException {
+		return refresh(false);
+	}
+
+	private Payload refresh(boolean force) throws IOException {
+		synchronized (this.payloadMonitor) {
+			String version = getVersion();
+			Payload payload = this.payload;
+			if (payload == null || (!payload.version().equals(version)
+					&& (force || System.nanoTime() - this.refreshed >= this.refreshIntervalNanos))) {
+				// the version is read first, so changes made meanwhile move it again
+				payload = Payload.of(version,
+						this.serverCodecs.getFullJsonCodec().encode(this.registry.getApplicationDeltas()));
+				this.payload = payload;
+				this.refreshed = System.nanoTime();
+			}
+			return payload;
+		}
+	}
+
+	/**
+	 * The encoded delta of the given applications at the current registry version, kept
+	 * by {@link InterestedApplicationsPayloads} until the registry changes.
+	 * @param appNames the names of the applications, or {@code null} for all of them
+	 * @return the delta
+	 * @throws IOException if the delta can't be encoded
+	 * @see InterestedApplicationsFilter
+	 */
+	Payload payload(Set<String> appNames) throws IOException {
+		if (appNames == null) {
+			return payload();
+		}
+		String version = getVersion();
+		InterestedApplicationsPayloads.Payload delta = this.interestedPayloads.delta(appNames);
+		return new Payload(version, delta.body(), delta.gzipped());
+	}
+
+	private String version(long sequence) {
+		return this.epoch + ":" + sequence;
+	}
+
+	record Payload(String version, byte[] body, byte[] gzipped) {
+
+		static Payload of(String version, String json) throws IOException {
+			byte[] body = json.getBytes(StandardCharsets.UTF_8);
+			ByteArrayOutputStream gzipped = new ByteArrayOutputStream(body.length / 4);
+			try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+				out.write(body);
+			}
+			return new Payload(version, body, gzipped.toByteArray());
+		}
+
+	}
+
+}
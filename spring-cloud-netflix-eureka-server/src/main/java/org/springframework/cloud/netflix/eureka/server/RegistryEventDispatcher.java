@@ -0,0 +1,290 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.GenericApplicationListener;
+import org.springframework.context.event.GenericApplicationListenerAdapter;
+import org.springframework.context.support.AbstractApplicationContext;
+import org.springframework.core.ResolvableType;
+
+/**
+ * Publishes {@link InstanceRegistry} events from a dedicated thread, so that slow
+ * listeners do not add to the latency of register, renew and cancel requests. Events are
+ * handed over through a bounded queue; when the queue is full the event is dropped
+ * rather than blocking the request thread, which is counted and logged. Renewals of an instance within the coalescing
+ * window of the last renewal event published for it are merged into that event, and
+ * events are not created at all when no listener is subscribed to their type. Instances
+ * that stop renewing are forgotten once their window elapsed, whether or not they were
+ * cancelled.
+ *
+ * @since 5.0.3
+ */
+public class RegistryEventDispatcher implements ApplicationContextAware, ApplicationListener<ContextRefreshedEvent>,
+		MeterBinder, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(RegistryEventDispatcher.class);
+
+	private static final long DROPPED_WARNING_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+	private final BlockingQueue<Supplier<? extends ApplicationEvent>> queue;
+
+	private final long renewalCoalescingWindowNanos;
+
+	private final Map<String, Long> lastRenewals = new ConcurrentHashMap<>();
+
+	private final AtomicLong nextPrune = new AtomicLong(System.nanoTime());
+
+	private final AtomicLong nextDroppedWarning = new AtomicLong(System.nanoTime());
+
+	private final Map<Class<?>, Boolean> subscriptions = new ConcurrentHashMap<>();
+
+	private final LongAdder dispatched = new LongAdder();
+
+	private final LongAdder dropped = new LongAdder();
+
+	private final LongAdder coalesced = new LongAdder();
+
+	private final LongAdder skipped = new LongAdder();
+
+	private final Thread worker;
+
+	private volatile boolean running = true;
+
+	private ApplicationContext context;
+
+	public RegistryEventDispatcher(int queueCapacity, long renewalCoalescingWindowMs) {
+		this.queue = new ArrayBlockingQueue<>(queueCapacity);
+		this.renewalCoalescingWindowNanos = TimeUnit.MILLISECONDS.toNanos(renewalCoalescingWindowMs);
+		this.worker = new Thread(this::drain, "eureka-registry-events");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	@Override
+	public void setApplicationContext(ApplicationContext context) throws BeansException {
+		this.context = context;
+	}
+
+	@Override
+	public void onApplicationEvent(ContextRefreshedEvent event) {
+		// listeners may have been added while the context was refreshing
+		this.subscriptions.clear();
+	}
+
+	/**
+	 * Queue an event for asynchronous publication. The event is only created, on the
+	 * dispatcher thread, if at least one listener is subscribed to its type.
+	 * @param eventType the type of the event that will be published
+	 * @param eventFactory creates the event, may return {@code null} to skip it
+	 */
+	public void dispatch(Class<? extends ApplicationEvent> eventType,
+			Supplier<? extends ApplicationEvent> eventFactory) {
+		if (!hasListeners(eventType)) {
+			this.skipped.increment();
+			return;
+		}
+		if (!this.queue.offer(eventFactory)) {
+			this.dropped.increment();
+			warnDropped(eventType);
+		}
+	}
+
+	private void warnDropped(Class<? extends ApplicationEvent> eventType) {
+		long now = System.nanoTime();
+		long next = this.nextDroppedWarning.get();
+		if (now - next >= 0 && this.nextDroppedWarning.compareAndSet(next, now + DROPPED_WARNING_INTERVAL_NANOS)) {
+			log.warn("Dropped a " + eventType.getSimpleName() + " because the registry event queue is full, "
+					+ getDroppedCount() + " events dropped so far");
+		}
+	}
+
+	/**
+	 * Queue a renewal event, unless a renewal event of the same instance was published
+	 * within the coalescing window.
+	 * @param appName the application name of the renewed instance
+	 * @param serverId the id of the renewed instance
+	 * @param eventType the type of the event that will be published
+	 * @param eventFactory creates the event, may return {@code null} to skip it
+	 */
+	public void dispatchRenewal(String appName, String serverId, Class<? extends ApplicationEvent> eventType,
+			Supplier<? extends ApplicationEvent> eventFactory) {
+		if (this.renewalCoalescingWindowNanos > 0 && hasListeners(eventType)) {
+			long now = System.nanoTime();
+			prune(now);
+			String key = renewalKey(appName, serverId);
+			boolean[] coalesce = new boolean[1];
+			// atomically, so that concurrent renewals of an instance publish a single event
+			this.lastRenewals.compute(key, (renewed, last) -> {
+				coalesce[0] = last != null && now - last < this.renewalCoalescingWindowNanos;
+				return coalesce[0] ? last : now;
+			});
+			if (coalesce[0]) {
+				this.coalesced.increment();
+				return;
+			}
+		}
+		dispatch(eventType, eventFactory);
+	}
+
+	/**
+	 * Forget the coalescing state of a cancelled instance.
+	 * @param appName the application name of the cancelled instance
+	 * @param serverId the id of the cancelled instance
+	 */
+	public void cancelled(String appName, String serverId) {
+		this.lastRenewals.remove(renewalKey(appName, serverId));
+	}
+
+	private void prune(long now) {
+		long next = this.nextPrune.get();
+		if (now - next >= 0 && this.nextPrune.compareAndSet(next, now + this.renewalCoalescingWindowNanos)) {
+			this.lastRenewals.values().removeIf(last -> now - last >= this.renewalCoalescingWindowNanos);
+		}
+	}
+
+	int getCoalescingEntries() {
+		return this.lastRenewals.size();
+	}
+
+	public int getQueueSize() {
+		return this.queue.size();
+	}
+
+	public long getDispatchedCount() {
+		return this.dispatched.sum();
+	}
+
+	public long getDroppedCount() {
+		return this.dropped.sum();
+	}
+
+	public long getCoalescedCount() {
+		return this.coalesced.sum();
+	}
+
+	public long getSkippedCount() {
+		return this.skipped.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("eureka.server.registry.events.queue.size", this, RegistryEventDispatcher::getQueueSize)
+			.description("Number of registry events waiting to be published.")
+			.register(registry);
+		FunctionCounter
+			.builder("eureka.server.registry.events.dispatched", this, RegistryEventDispatcher::getDispatchedCount)
+			.description("Number of registry events published.")
+			.register(registry);
+		FunctionCounter.builder("eureka.server.registry.events.dropped", this, RegistryEventDispatcher::getDroppedCount)
+			.description("Number of registry events dropped because the queue was full.")
+			.register(registry);
+		FunctionCounter
+			.builder("eureka.server.registry.events.coalesced", this, RegistryEventDispatcher::getCoalescedCount)
+			.description("Number of renewal events merged with a previous renewal of the same instance.")
+			.register(registry);
+		FunctionCounter.builder("eureka.server.registry.events.skipped", this, RegistryEventDispatcher::getSkippedCount)
+			.description("Number of registry events not created because no listener is subscribed.")
+			.register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		this.running = false;
+		this.worker.interrupt();
+	}
+
+	boolean hasListeners(Class<? extends ApplicationEvent> eventType) {
+		return this.subscriptions.computeIfAbsent(eventType, this::resolveListeners);
+	}
+
+	private boolean resolveListeners(Class<?> eventType) {
+		ResolvableType type = ResolvableType.forClass(eventType);
+		ApplicationContext current = this.context;
+		while (current != null) {
+			if (!(current instanceof AbstractApplicationContext abstractContext)) {
+				// can't tell which listeners are registered, assume there are some
+				return true;
+			}
+			for (ApplicationListener<?> listener : abstractContext.getApplicationListeners()) {
+				if (supports(listener, type)) {
+					return true;
+				}
+			}
+			for (String name : current.getBeanNamesForType(ApplicationListener.class, true, false)) {
+				// singleton listeners are already part of getApplicationListeners()
+				if (!current.isSingleton(name)) {
+					return true;
+				}
+			}
+			current = current.getParent();
+		}
+		return false;
+	}
+
+	private static boolean supports(ApplicationListener<?> listener, ResolvableType type) {
+		GenericApplicationListener adapter = (listener instanceof GenericApplicationListener generic) ? generic
+				: new GenericApplicationListenerAdapter(listener);
+		return adapter.supportsEventType(type) && adapter.supportsSourceType(InstanceRegistry.class);
+	}
+
+	private static String renewalKey(String appName, String serverId) {
+		return appName + ":" + serverId;
+	}
+
+	private void drain() {
+		while (this.running) {
+			try {
+				ApplicationEvent event = this.queue.take().get();
+				if (event != null) {
+					this.context.publishEvent(event);
+					this.dispatched.increment();
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException e) {
+				log.warn("Failed to publish registry event", e);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,576 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.netflix.appinfo.InstanceInfo;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.event.SmartApplicationListener;
+
+/**
+ * Appends the registrations, cancellations and status changes this server accepts from
+ * its clients to a journal on local disk, so that a peer that missed them, because it was
+ * partitioned from this server or restarting, can read them back and catch up rather than
+ * wait for the clients to renew against an instance it does not know. Changes replicated
+ * from other peers are not written, each peer journals its own. Nor are the instances
+ * this server evicts: as Eureka does not replicate evictions, a server that missed the
+ * renewals of healthy instances, for instance because it was partitioned from them, must
+ * not cancel them on its peers.
+ * <p>
+ * Every change gets a sequence number, and the journal a cursor made of the time it was
+ * created and the sequence number of a change, like {@link RegistryChangeStream}. The
+ * journal is split in segments of a bounded size, named after the sequence number of
+ * their first change, and only the most recent segments are kept. Every change is written
+ * with its length and a CRC32 checksum, so that a change left incomplete by a crash is
+ * dropped when the journal is opened again, and sequence numbers go on from the last
+ * complete one. Changes are written through the page cache, the segments are forced to
+ * disk when they are complete.
+ * <p>
+ * Changes are written from a dedicated thread, so that registry writes do not wait for
+ * the disk. They are handed over through a bounded queue; when the writer falls that far
+ * behind, the threads that change the registry wait for it rather than leave changes out
+ * of the journal.
+ *
+ * @since 5.0.3
+ */
+public class RegistryJournal implements SmartApplicationListener, DisposableBean {
+
+	/**
+	 * Change of a registered instance, with the encoded instance as data.
+	 */
+	public static final String REGISTER = "register";
+
+	/**
+	 * Change of an instance whose status changed, with the encoded instance as data.
+	 */
+	public static final String STATUS = "status";
+
+	/**
+	 * Change of a cancelled instance, with its application name, id and last dirty
+	 * timestamp, when known, as data.
+	 */
+	public static final String CANCEL = "cancel";
+
+	private static final Log log = LogFactory.getLog(RegistryJournal.class);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	static final int MAGIC = 0x45524a4c;
+
+	static final int VERSION = 1;
+
+	private static final String[] TYPES = { REGISTER, STATUS, CANCEL };
+
+	private static final int SEGMENT_HEADER_LENGTH = 4 + 4 + 8;
+
+	private static final int RECORD_HEADER_LENGTH = 4 + 4;
+
+	private static final int RECORD_BODY_MIN_LENGTH = 8 + 8 + 1;
+
+	private static final String SUFFIX = ".journal";
+
+	private static final Pattern SEGMENT_NAME = Pattern.compile("\\d{20}" + Pattern.quote(SUFFIX));
+
+	private static final Pending STOP = new Pending(null, null);
+
+	private final Path directory;
+
+	private final long segmentBytes;
+
+	private final int maxSegments;
+
+	private final TreeMap<Long, Path> segments = new TreeMap<>();
+
+	private long epoch;
+
+	private long sequence;
+
+	private FileChannel channel;
+
+	private long position;
+
+	private final BlockingQueue<Pending> queue;
+
+	private final Thread writer;
+
+	private volatile boolean running = true;
+
+	public RegistryJournal(Path directory, long segmentBytes, int maxSegments) throws IOException {
+		this(directory, segmentBytes, maxSegments, 10000);
+	}
+
+	public RegistryJournal(Path directory, long segmentBytes, int maxSegments, int queueCapacity) throws IOException {
+		this.directory = directory;
+		this.segmentBytes = segmentBytes;
+		this.maxSegments = Math.max(maxSegments, 1);
+		open();
+		this.queue = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+		this.writer = new Thread(this::drain, "eureka-registry-journal");
+		this.writer.setDaemon(true);
+		this.writer.start();
+	}
+
+	@Override
+	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+		return EurekaInstanceRegisteredEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceCanceledEvent.class.isAssignableFrom(eventType)
+				|| EurekaInstanceStatusChangedEvent.class.isAssignableFrom(eventType);
+	}
+
+	@Override
+	public void onApplicationEvent(ApplicationEvent event) {
+		if (event instanceof EurekaInstanceRegisteredEvent registered && !registered.isReplication()) {
+			write(REGISTER, encode(registered.getInstanceInfo()));
+		}
+		else if (event instanceof EurekaInstanceStatusChangedEvent statusChanged && !statusChanged.isReplication()
+				&& statusChanged.getInstanceInfo() != null) {
+			write(STATUS, encode(statusChanged.getInstanceInfo()));
+		}
+		else if (event instanceof EurekaInstanceCanceledEvent canceled && !canceled.isReplication()
+				&& !canceled.isExpired()) {
+			write(CANCEL,
+					cancellation(canceled.getAppName(), canceled.getServerId(), canceled.getLastDirtyTimestamp()));
+		}
+	}
+
+	/**
+	 * Hand a change over to the writer thread, encoded on the calling thread as the
+	 * instance may change afterwards.
+	 */
+	private void write(String type, String data) {
+		if (!this.running) {
+			return;
+		}
+		try {
+			this.queue.put(new Pending(type, data));
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			log.warn("Interrupted while journaling a " + type + " change, it is not written");
+		}
+	}
+
+	private void drain() {
+		while (true) {
+			try {
+				Pending pending = this.queue.take();
+				if (pending == STOP) {
+					return;
+				}
+				append(pending.type(), pending.data());
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+			catch (RuntimeException ex) {
+				log.warn("Failed to append to the registry journal in " + this.directory, ex);
+			}
+		}
+	}
+
+	/**
+	 * The cursor of the last change written to the journal.
+	 * @return the cursor
+	 */
+	public synchronized String getCursor() {
+		return cursor(this.sequence);
+	}
+
+	/**
+	 * Read the changes that follow the given cursor.
+	 * @param cursor the cursor of the last change the reader has seen, or {@code null}
+	 * @param max the maximum number of changes to read
+	 * @return the changes, which are reset if the cursor is {@code null}, comes from
+	 * another journal or its changes are no longer kept
+	 */
+	public Changes read(String cursor, int max) {
+		long last;
+		TreeMap<Long, Path> segments;
+		synchronized (this) {
+			last = this.sequence;
+			segments = new TreeMap<>(this.segments);
+		}
+		long since = parse(cursor);
+		if (since < 0 || since > last || segments.isEmpty() || since + 1 < segments.firstKey()) {
+			return new Changes(cursor(last), true, false, List.of());
+		}
+		List<Change> changes = new ArrayList<>();
+		if (since < last) {
+			try {
+				for (Path segment : segments.tailMap(segments.floorKey(since + 1), true).values()) {
+					if (!read(segment, since, last, max, changes)) {
+						break;
+					}
+				}
+			}
+			catch (NoSuchFileException ex) {
+				// deleted since, the reader is too far behind
+				return new Changes(cursor(last), true, false, List.of());
+			}
+			catch (IOException ex) {
+				log.warn("Cannot read the registry journal in " + this.directory, ex);
+				return new Changes(cursor(last), true, false, List.of());
+			}
+		}
+		long upTo = changes.isEmpty() ? since : changes.get(changes.size() - 1).sequence();
+		return new Changes(cursor(upTo), false, upTo < last, changes);
+	}
+
+	@Override
+	public void destroy() throws IOException {
+		if (this.running) {
+			this.running = false;
+			// the changes already queued are written first
+			try {
+				this.queue.put(STOP);
+				this.writer.join();
+			}
+			catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+			}
+			// changes that came in meanwhile are not written, do not keep their threads waiting
+			this.queue.clear();
+		}
+		close();
+	}
+
+	private synchronized void close() throws IOException {
+		if (this.channel != null) {
+			this.channel.force(false);
+			this.channel.close();
+			this.channel = null;
+		}
+	}
+
+	/**
+	 * Append a change to the journal.
+	 * @param type the type of the change
+	 * @param data the data of the change
+	 * @return the sequence number of the change, or {@code -1} if it could not be written
+	 */
+	synchronized long append(String type, String data) {
+		if (this.channel == null) {
+			return -1;
+		}
+		long next = this.sequence + 1;
+		byte[] bytes = data.getBytes(StandardCharsets.UTF_8);
+		ByteBuffer body = ByteBuffer.allocate(RECORD_BODY_MIN_LENGTH + bytes.length)
+			.putLong(next)
+			.putLong(System.currentTimeMillis())
+			.put(typeCode(type))
+			.put(bytes)
+			.flip();
+		CRC32 crc = new CRC32();
+		crc.update(body.duplicate());
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_LENGTH + body.remaining())
+			.putInt(body.remaining())
+			.putInt((int) crc.getValue())
+			.put(body)
+			.flip();
+		long start = this.position;
+		try {
+			if (start > SEGMENT_HEADER_LENGTH && start + record.remaining() > this.segmentBytes) {
+				roll(next);
+				start = this.position;
+			}
+			while (record.hasRemaining()) {
+				this.position += this.channel.write(record);
+			}
+		}
+		catch (IOException ex) {
+			log.warn("Cannot append to the registry journal in " + this.directory, ex);
+			truncate(start);
+			return -1;
+		}
+		this.sequence = next;
+		return next;
+	}
+
+	private void open() throws IOException {
+		Files.createDirectories(this.directory);
+		List<Path> files;
+		try (Stream<Path> list = Files.list(this.directory)) {
+			files = list.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+				.sorted()
+				.toList();
+		}
+		Long journalEpoch = null;
+		for (Path file : files) {
+			Long segmentEpoch = readEpoch(file);
+			if (segmentEpoch == null || (journalEpoch != null && !journalEpoch.equals(segmentEpoch))) {
+				log.warn("Discarding the registry journal in " + this.directory + ", segment " + file.getFileName()
+						+ " is unreadable");
+				for (Path discarded : files) {
+					Files.deleteIfExists(discarded);
+				}
+				this.segments.clear();
+				journalEpoch = null;
+				break;
+			}
+			journalEpoch = segmentEpoch;
+			String name = file.getFileName().toString();
+			this.segments.put(Long.parseLong(name.substring(0, name.length() - SUFFIX.length())), file);
+		}
+		if (journalEpoch == null) {
+			this.epoch = System.currentTimeMillis();
+			this.sequence = 0;
+			createSegment(1);
+			return;
+		}
+		this.epoch = journalEpoch;
+		Map.Entry<Long, Path> active = this.segments.lastEntry();
+		long[] last = { active.getKey() - 1 };
+		this.channel = FileChannel.open(active.getValue(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+		long end = scan(this.channel, (changeSequence, body) -> {
+			last[0] = changeSequence;
+			return true;
+		});
+		if (end < this.channel.size()) {
+			log.warn("Dropping the incomplete end of the registry journal segment " + active.getValue());
+			this.channel.truncate(end);
+		}
+		this.channel.position(end);
+		this.position = end;
+		this.sequence = last[0];
+		if (log.isInfoEnabled()) {
+			log.info("Opened the registry journal in " + this.directory + " at cursor " + cursor(this.sequence));
+		}
+	}
+
+	private void roll(long first) throws IOException {
+		this.channel.force(false);
+		this.channel.close();
+		this.channel = null;
+		createSegment(first);
+		while (this.segments.size() > this.maxSegments) {
+			Files.deleteIfExists(this.segments.pollFirstEntry().getValue());
+		}
+	}
+
+	private void createSegment(long first) throws IOException {
+		Path segment = this.directory.resolve(String.format("%020d", first) + SUFFIX);
+		this.channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING);
+		ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH)
+			.putInt(MAGIC)
+			.putInt(VERSION)
+			.putLong(this.epoch)
+			.flip();
+		while (header.hasRemaining()) {
+			this.channel.write(header);
+		}
+		this.position = SEGMENT_HEADER_LENGTH;
+		this.segments.put(first, segment);
+	}
+
+	private void truncate(long position) {
+		try {
+			if (this.channel != null) {
+				this.channel.truncate(position);
+				this.channel.position(position);
+				this.position = position;
+			}
+		}
+		catch (IOException ex) {
+			log.warn("Cannot truncate the registry journal in " + this.directory + ", closing it", ex);
+			try {
+				this.channel.close();
+			}
+			catch (IOException closeEx) {
+				// ignore
+			}
+			this.channel = null;
+		}
+	}
+
+	private boolean read(Path segment, long since, long last, int max, List<Change> changes) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			scan(channel, (changeSequence, body) -> {
+				if (changeSequence <= since) {
+					return true;
+				}
+				if (changeSequence > last || changes.size() >= max) {
+					return false;
+				}
+				long timestamp = body.getLong();
+				String type = TYPES[body.get()];
+				String data = StandardCharsets.UTF_8.decode(body).toString();
+				changes.add(new Change(changeSequence, timestamp, type, data));
+				return true;
+			});
+		}
+		return changes.size() < max && (changes.isEmpty() || changes.get(changes.size() - 1).sequence() < last);
+	}
+
+	/**
+	 * Visit the complete changes of a segment, in order.
+	 * @return the position after the last complete change visited
+	 */
+	private static long scan(FileChannel channel, RecordVisitor visitor) throws IOException {
+		long size = channel.size();
+		if (size < SEGMENT_HEADER_LENGTH) {
+			return size;
+		}
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		buffer.position(SEGMENT_HEADER_LENGTH);
+		while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+			int start = buffer.position();
+			int length = buffer.getInt();
+			int checksum = buffer.getInt();
+			if (length < RECORD_BODY_MIN_LENGTH || length > buffer.remaining()) {
+				return start;
+			}
+			ByteBuffer body = buffer.slice(buffer.position(), length);
+			CRC32 crc = new CRC32();
+			crc.update(body.duplicate());
+			byte type = body.get(RECORD_BODY_MIN_LENGTH - 1);
+			if ((int) crc.getValue() != checksum || type < 0 || type >= TYPES.length) {
+				return start;
+			}
+			buffer.position(buffer.position() + length);
+			if (!visitor.visit(body.getLong(), body)) {
+				return buffer.position();
+			}
+		}
+		return buffer.position();
+	}
+
+	private static Long readEpoch(Path segment) throws IOException {
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(SEGMENT_HEADER_LENGTH);
+			while (header.hasRemaining() && channel.read(header) >= 0) {
+				// read the whole header
+			}
+			if (header.hasRemaining()) {
+				return null;
+			}
+			header.flip();
+			if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+				return null;
+			}
+			return header.getLong();
+		}
+	}
+
+	private static byte typeCode(String type) {
+		for (byte code = 0; code < TYPES.length; code++) {
+			if (TYPES[code].equals(type)) {
+				return code;
+			}
+		}
+		throw new IllegalArgumentException("Unknown change type " + type);
+	}
+
+	private long parse(String cursor) {
+		if (cursor == null) {
+			return -1;
+		}
+		int separator = cursor.indexOf(':');
+		try {
+			if (separator < 0 || Long.parseLong(cursor.substring(0, separator)) != this.epoch) {
+				return -1;
+			}
+			return Long.parseLong(cursor.substring(separator + 1));
+		}
+		catch (NumberFormatException ex) {
+			return -1;
+		}
+	}
+
+	private String cursor(long sequence) {
+		return this.epoch + ":" + sequence;
+	}
+
+	private static String encode(InstanceInfo info) {
+		return EurekaServerAutoConfiguration.JACKSON_JSON.encode(info);
+	}
+
+	private static String cancellation(String appName, String id, Long lastDirtyTimestamp) {
+		ObjectNode cancellation = MAPPER.createObjectNode().put("app", appName).put("id", id);
+		if (lastDirtyTimestamp != null) {
+			cancellation.put("lastDirtyTimestamp", lastDirtyTimestamp);
+		}
+		return cancellation.toString();
+	}
+
+	private record Pending(String type, String data) {
+	}
+
+	private interface RecordVisitor {
+
+		/**
+		 * Visit a change.
+		 * @param sequence the sequence number of the change
+		 * @param body the rest of the change, after its sequence number
+		 * @return whether to visit the next change
+		 */
+		boolean visit(long sequence, ByteBuffer body);
+
+	}
+
+	/**
+	 * A change read from the journal.
+	 *
+	 * @param sequence the sequence number of the change
+	 * @param timestamp when the change was written
+	 * @param type the type of the change
+	 * @param data the data of the change
+	 */
+	public record Change(long sequence, long timestamp, String type, String data) {
+	}
+
+	/**
+	 * Changes read from the journal.
+	 *
+	 * @param cursor the cursor to read the following changes from
+	 * @param reset whether the changes the reader missed cannot be read, in which case
+	 * the cursor is the one of the last change
+	 * @param more whether there are more changes to read
+	 * @param changes the changes
+	 */
+	public record Changes(String cursor, boolean reset, boolean more, List<Change> changes) {
+	}
+
+}
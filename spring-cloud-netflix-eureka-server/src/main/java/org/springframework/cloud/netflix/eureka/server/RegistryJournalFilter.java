@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Serves the {@link RegistryJournal} of this server to its peers on
+ * {@code /eureka/peerreplication/journal}. Peers pass the cursor of the last change they
+ * have read, and the maximum number of changes to answer with, as the {@code cursor}
+ * and {@code max} query parameters.
+ *
+ * @since 5.0.3
+ */
+class RegistryJournalFilter extends OncePerRequestFilter {
+
+	/**
+	 * Path of the journal, relative to the Eureka service URL.
+	 */
+	static final String PATH = "/peerreplication/journal";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final int DEFAULT_MAX = 1000;
+
+	private final RegistryJournal journal;
+
+	RegistryJournalFilter(RegistryJournal journal) {
+		this.journal = journal;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.GET.matches(request.getMethod())
+				|| !request.getRequestURI().endsWith(EurekaConstants.DEFAULT_PREFIX + "/v2" + PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!EurekaMvcEndpoints.isReplication(request.getHeader(EurekaMvcEndpoints.REPLICATION_HEADER))) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN, "Only peers can read the registry journal");
+			return;
+		}
+		int max = DEFAULT_MAX;
+		String maxParameter = request.getParameter("max");
+		if (maxParameter != null) {
+			try {
+				max = Integer.parseInt(maxParameter);
+			}
+			catch (NumberFormatException ex) {
+				response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid max " + maxParameter);
+				return;
+			}
+		}
+		byte[] body = encodeChanges(this.journal.read(request.getParameter("cursor"), Math.max(max, 1)));
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	static byte[] encodeChanges(RegistryJournal.Changes changes) throws IOException {
+		ObjectNode node = MAPPER.createObjectNode()
+			.put("cursor", changes.cursor())
+			.put("reset", changes.reset())
+			.put("more", changes.more());
+		ArrayNode array = node.putArray("changes");
+		for (RegistryJournal.Change change : changes.changes()) {
+			array.addObject()
+				.put("sequence", change.sequence())
+				.put("timestamp", change.timestamp())
+				.put("type", change.type())
+				.put("data", change.data());
+		}
+		return MAPPER.writeValueAsBytes(node);
+	}
+
+	static RegistryJournal.Changes decodeChanges(byte[] body) throws IOException {
+		JsonNode node = MAPPER.readTree(body);
+		List<RegistryJournal.Change> changes = new ArrayList<>();
+		for (JsonNode change : node.path("changes")) {
+			changes.add(new RegistryJournal.Change(change.path("sequence").asLong(), change.path("timestamp").asLong(),
+					change.path("type").asText(), change.path("data").asText()));
+		}
+		return new RegistryJournal.Changes(node.path("cursor").asText(null), node.path("reset").asBoolean(),
+				node.path("more").asBoolean(), changes);
+	}
+
+}
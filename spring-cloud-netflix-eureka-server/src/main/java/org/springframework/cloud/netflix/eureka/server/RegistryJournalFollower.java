@@ -0,0 +1,204 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.PeerEurekaNode;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+
+/**
+ * Reads the {@link RegistryJournal} of every peer at a fixed interval and applies the
+ * changes it did not apply yet, so that this server catches up with the changes it missed
+ * while the peer could not replicate to it, within an interval rather than once the
+ * clients of the peer have renewed, re-registered or the registry has been synced again.
+ * <p>
+ * Changes are applied as replicated, and only when they are newer than what this server
+ * knows of the instance, so that changes it already got from the replication are skipped.
+ * Changes are compared by the last dirty timestamp of the instance, which the instance
+ * sets, rather than by the time the peer journaled them, which the clock of the peer
+ * sets. Cancellations journaled without the last dirty timestamp are skipped.
+ * The first time a peer is read, or if its journal no longer has the changes this server
+ * missed, reading goes on from the last change of the journal. Peers are read with the
+ * replication client, peers replicated with another client are not read.
+ *
+ * @since 5.0.3
+ */
+public class RegistryJournalFollower implements DisposableBean {
+
+	private static final Log log = LogFactory.getLog(RegistryJournalFollower.class);
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private final PeerAwareInstanceRegistry registry;
+
+	private final PeerEurekaNodes peerEurekaNodes;
+
+	private final int fetchSize;
+
+	private final Map<String, String> cursors = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "eureka-registry-journal-follower");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	public RegistryJournalFollower(PeerAwareInstanceRegistry registry, PeerEurekaNodes peerEurekaNodes,
+			long intervalMs, int fetchSize) {
+		this.registry = registry;
+		this.peerEurekaNodes = peerEurekaNodes;
+		this.fetchSize = fetchSize;
+		this.executor.scheduleWithFixedDelay(this::catchUp, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@Override
+	public void destroy() {
+		this.executor.shutdownNow();
+	}
+
+	/**
+	 * Read the journals of all peers.
+	 */
+	void catchUp() {
+		Set<String> serviceUrls = new HashSet<>();
+		for (PeerEurekaNode node : this.peerEurekaNodes.getPeerEurekaNodes()) {
+			RestClientReplicationClient client = journalClient(node);
+			if (client == null) {
+				continue;
+			}
+			serviceUrls.add(node.getServiceUrl());
+			try {
+				catchUp(node.getServiceUrl(), client);
+			}
+			catch (RuntimeException ex) {
+				if (log.isDebugEnabled()) {
+					log.debug("Cannot read the registry journal of " + node.getServiceUrl(), ex);
+				}
+			}
+		}
+		this.cursors.keySet().retainAll(serviceUrls);
+	}
+
+	/**
+	 * Read the journal of a peer, from the last change read.
+	 * @param serviceUrl the service URL of the peer
+	 * @param client the client to read with
+	 */
+	void catchUp(String serviceUrl, RestClientReplicationClient client) {
+		String cursor = this.cursors.get(serviceUrl);
+		int applied = 0;
+		RegistryJournal.Changes changes;
+		do {
+			changes = client.fetchJournal(cursor, this.fetchSize);
+			if (changes.reset()) {
+				if (cursor != null) {
+					log.info("The registry journal of " + serviceUrl
+							+ " no longer has the changes missed by this server, going on from its last change");
+				}
+			}
+			else {
+				for (RegistryJournal.Change change : changes.changes()) {
+					if (apply(change)) {
+						applied++;
+					}
+				}
+			}
+			cursor = changes.cursor();
+			this.cursors.put(serviceUrl, cursor);
+		}
+		while (changes.more() && !changes.changes().isEmpty());
+		if (applied > 0 && log.isInfoEnabled()) {
+			log.info("Applied " + applied + " missed changes from the registry journal of " + serviceUrl);
+		}
+	}
+
+	/**
+	 * Apply a change, unless this server knows the instance at least as recently.
+	 * @param change the change
+	 * @return whether the change was applied
+	 */
+	boolean apply(RegistryJournal.Change change) {
+		try {
+			if (RegistryJournal.CANCEL.equals(change.type())) {
+				JsonNode cancellation = MAPPER.readTree(change.data());
+				String appName = cancellation.path("app").asText();
+				String id = cancellation.path("id").asText();
+				JsonNode lastDirtyTimestamp = cancellation.path("lastDirtyTimestamp");
+				if (!lastDirtyTimestamp.canConvertToLong()) {
+					return false;
+				}
+				InstanceInfo existing = this.registry.getInstanceByAppAndId(appName, id, false);
+				return existing != null && existing.getLastDirtyTimestamp() <= lastDirtyTimestamp.asLong()
+						&& this.registry.cancel(appName, id, true);
+			}
+			InstanceInfo info = EurekaServerAutoConfiguration.JACKSON_JSON.decode(change.data(), InstanceInfo.class);
+			InstanceInfo existing = this.registry.getInstanceByAppAndId(info.getAppName(), info.getId(), false);
+			if (RegistryJournal.REGISTER.equals(change.type())) {
+				if (existing != null && existing.getLastDirtyTimestamp() >= info.getLastDirtyTimestamp()) {
+					return false;
+				}
+				this.registry.register(info, true);
+				return true;
+			}
+			if (existing == null || existing.getLastDirtyTimestamp() > info.getLastDirtyTimestamp()
+					|| existing.getOverriddenStatus() == info.getOverriddenStatus()) {
+				return false;
+			}
+			String lastDirtyTimestamp = String.valueOf(info.getLastDirtyTimestamp());
+			if (info.getOverriddenStatus() == null || info.getOverriddenStatus() == InstanceStatus.UNKNOWN) {
+				return this.registry.deleteStatusOverride(info.getAppName(), info.getId(), info.getStatus(),
+						lastDirtyTimestamp, true);
+			}
+			return this.registry.statusUpdate(info.getAppName(), info.getId(), info.getOverriddenStatus(),
+					lastDirtyTimestamp, true);
+		}
+		catch (IOException ex) {
+			log.warn("Skipping the unreadable registry journal change " + change.sequence(), ex);
+			return false;
+		}
+	}
+
+	private static RestClientReplicationClient journalClient(PeerEurekaNode node) {
+		if (!(node instanceof MonitoredPeerEurekaNode monitored)) {
+			return null;
+		}
+		HttpReplicationClient client = monitored.getReplicationClient();
+		if (client instanceof AdaptiveBatchingReplicationClient batching) {
+			return batching.getDelegate();
+		}
+		return (client instanceof RestClientReplicationClient restClient) ? restClient : null;
+	}
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.lease.Lease;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Writes the local registry to a file at a fixed interval and when the server shuts
+ * down, and restores it when the server starts, before the registry is synced from the
+ * peers. A server whose peers are down or restarting too can then serve its registry
+ * right away rather than after {@code eureka.server.wait-time-in-ms-when-sync-empty}.
+ * <p>
+ * The file starts with a fixed size header: a magic number, the format version, when the
+ * snapshot was taken, the number of instances, and the length and CRC32 checksum of the
+ * payload, which is the registry encoded as JSON and compressed with gzip. A snapshot is
+ * written to a temporary file that then replaces the previous one, so a crash never
+ * leaves a partial snapshot behind, and it is read through a memory mapping. Snapshots
+ * that do not match their checksum are ignored.
+ *
+ * @since 5.0.3
+ */
+public class RegistrySnapshots {
+
+	private static final Log log = LogFactory.getLog(RegistrySnapshots.class);
+
+	static final int MAGIC = 0x45524753;
+
+	static final int VERSION = 1;
+
+	static final int HEADER_LENGTH = 4 + 4 + 8 + 4 + 4 + 8;
+
+	private final Path path;
+
+	private final long intervalMs;
+
+	private final CodecWrapper codec;
+
+	private ScheduledExecutorService executor;
+
+	private PeerAwareInstanceRegistry registry;
+
+	public RegistrySnapshots(Path path, long intervalMs, ServerCodecs serverCodecs) {
+		this.path = path;
+		this.intervalMs = intervalMs;
+		this.codec = serverCodecs.getFullJsonCodec();
+	}
+
+	/**
+	 * Register the instances of the last snapshot whose lease had not expired yet. They
+	 * are registered as replicated, with a new lease, so that they expire unless they
+	 * renew against this server or its peers.
+	 * @param registry the registry to restore
+	 * @return the number of restored instances
+	 */
+	public int restore(PeerAwareInstanceRegistry registry) {
+		long start = System.nanoTime();
+		Applications applications;
+		try {
+			applications = read();
+		}
+		catch (IOException | RuntimeException ex) {
+			log.warn("Cannot read the registry snapshot " + this.path + ", ignoring it", ex);
+			return 0;
+		}
+		if (applications == null) {
+			return 0;
+		}
+		long now = System.currentTimeMillis();
+		int count = 0;
+		int expired = 0;
+		for (Application application : applications.getRegisteredApplications()) {
+			for (InstanceInfo instance : application.getInstances()) {
+				LeaseInfo leaseInfo = instance.getLeaseInfo();
+				int duration = (leaseInfo != null && leaseInfo.getDurationInSecs() > 0)
+						? leaseInfo.getDurationInSecs() : Lease.DEFAULT_DURATION_IN_SECS;
+				long lastRenewal = (leaseInfo != null) ? leaseInfo.getRenewalTimestamp() : 0;
+				if (lastRenewal > 0 && lastRenewal + TimeUnit.SECONDS.toMillis(duration) < now) {
+					expired++;
+					continue;
+				}
+				registry.register(instance, duration, true);
+				count++;
+			}
+		}
+		log.info("Restored " + count + " instances from the registry snapshot in "
+				+ TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + "ms, skipped " + expired
+				+ " expired instances");
+		return count;
+	}
+
+	/**
+	 * Start writing snapshots of the given registry.
+	 * @param registry the registry
+	 */
+	public synchronized void start(PeerAwareInstanceRegistry registry) {
+		if (this.executor != null) {
+			return;
+		}
+		this.registry = registry;
+		this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "eureka-registry-snapshot");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.executor.scheduleWithFixedDelay(this::writeQuietly, this.intervalMs, this.intervalMs,
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Stop writing snapshots, after writing a last one.
+	 */
+	public synchronized void stop() {
+		if (this.executor == null) {
+			return;
+		}
+		this.executor.shutdown();
+		try {
+			this.executor.awaitTermination(10, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+		}
+		this.executor = null;
+		writeQuietly();
+	}
+
+	private void writeQuietly() {
+		try {
+			write(applications(this.registry));
+		}
+		catch (IOException | RuntimeException ex) {
+			log.warn("Cannot write the registry snapshot " + this.path, ex);
+		}
+	}
+
+	/**
+	 * The applications to write, read from the registry rather than from the copy it
+	 * publishes for snapshot reads, whose leases may predate the last renewals and would
+	 * be taken as expired when restored.
+	 */
+	private static Applications applications(PeerAwareInstanceRegistry registry) {
+		if (registry instanceof InstanceRegistry instanceRegistry) {
+			return instanceRegistry.getLiveApplicationsFromLocalRegionOnly();
+		}
+		return registry.getApplicationsFromLocalRegionOnly();
+	}
+
+	/**
+	 * Write a snapshot of the given registry.
+	 * @param applications the registry
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	void write(Applications applications) throws IOException {
+		int instances = 0;
+		for (Application application : applications.getRegisteredApplications()) {
+			instances += application.getInstances().size();
+		}
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(this.codec.encode(applications).getBytes(StandardCharsets.UTF_8));
+		}
+		byte[] payload = compressed.toByteArray();
+		CRC32 crc = new CRC32();
+		crc.update(payload);
+		ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH)
+			.putInt(MAGIC)
+			.putInt(VERSION)
+			.putLong(System.currentTimeMillis())
+			.putInt(instances)
+			.putInt(payload.length)
+			.putLong(crc.getValue())
+			.flip();
+		Path parent = this.path.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		Path temporary = this.path.resolveSibling(this.path.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer[] buffers = { header, ByteBuffer.wrap(payload) };
+			while (buffers[1].hasRemaining()) {
+				channel.write(buffers);
+			}
+			channel.force(true);
+		}
+		try {
+			Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (AtomicMoveNotSupportedException ex) {
+			Files.move(temporary, this.path, StandardCopyOption.REPLACE_EXISTING);
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Wrote " + instances + " instances to the registry snapshot " + this.path);
+		}
+	}
+
+	/**
+	 * Read the last snapshot.
+	 * @return the registry, or {@code null} if there is no valid snapshot
+	 * @throws IOException if the snapshot cannot be read
+	 */
+	Applications read() throws IOException {
+		try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size < HEADER_LENGTH) {
+				log.warn("Ignoring the truncated registry snapshot " + this.path);
+				return null;
+			}
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+			int magic = buffer.getInt();
+			int version = buffer.getInt();
+			if (magic != MAGIC || version != VERSION) {
+				log.warn("Ignoring the registry snapshot " + this.path + " of an unknown format");
+				return null;
+			}
+			long takenAt = buffer.getLong();
+			int instances = buffer.getInt();
+			int length = buffer.getInt();
+			long checksum = buffer.getLong();
+			if (length != size - HEADER_LENGTH) {
+				log.warn("Ignoring the truncated registry snapshot " + this.path);
+				return null;
+			}
+			ByteBuffer payload = buffer.slice();
+			CRC32 crc = new CRC32();
+			crc.update(payload.duplicate());
+			if (crc.getValue() != checksum) {
+				log.warn("Ignoring the corrupted registry snapshot " + this.path);
+				return null;
+			}
+			try (InputStream in = new GZIPInputStream(new ByteBufferInputStream(payload))) {
+				Applications applications = this.codec.decode(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+						Applications.class);
+				if (log.isInfoEnabled()) {
+					log.info("Read the registry snapshot " + this.path + " of " + instances + " instances taken "
+							+ (System.currentTimeMillis() - takenAt) + "ms ago");
+				}
+				return applications;
+			}
+		}
+		catch (NoSuchFileException ex) {
+			return null;
+		}
+	}
+
+	private static final class ByteBufferInputStream extends InputStream {
+
+		private final ByteBuffer buffer;
+
+		private ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return this.buffer.hasRemaining() ? (this.buffer.get() & 0xFF) : -1;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) {
+			if (!this.buffer.hasRemaining()) {
+				return -1;
+			}
+			int read = Math.min(len, this.buffer.remaining());
+			this.buffer.get(b, off, read);
+			return read;
+		}
+
+	}
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.concurrent.RejectedExecutionException;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Serves {@link RegistryChangeStream} as server-sent events on {@code /eureka/stream}.
+ * The id of every event is its cursor; clients resume with the {@code Last-Event-ID}
+ * header or the {@code cursor} query parameter.
+ * <p>
+ * Events are written with non-blocking I/O from a bounded queue per subscriber, so that
+ * a slow client does not hold up the delivery to the others. A subscriber whose queue
+ * overflows is disconnected, and resumes from its last event when it reconnects.
+ *
+ * @since 5.0.3
+ */
+class RegistryStreamFilter extends OncePerRequestFilter {
+
+	/**
+	 * Path of the stream, relative to the Eureka service URL.
+	 */
+	static final String PATH = "/stream";
+
+	private static final String LAST_EVENT_ID = "Last-Event-ID";
+
+	private final RegistryChangeStream stream;
+
+	private final int maxPendingEvents;
+
+	RegistryStreamFilter(RegistryChangeStream stream, int maxPendingEvents) {
+		this.stream = stream;
+		this.maxPendingEvents = maxPendingEvents;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.GET.matches(request.getMethod())
+				|| !request.getRequestURI().endsWith(EurekaConstants.DEFAULT_PREFIX + "/v2" + PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String cursor = request.getHeader(LAST_EVENT_ID);
+		if (cursor == null) {
+			cursor = request.getParameter("cursor");
+		}
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+		response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+		response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+		response.flushBuffer();
+
+		AsyncContext asyncContext = request.startAsync(request, response);
+		asyncContext.setTimeout(0);
+		AsyncSubscriber subscriber = new AsyncSubscriber(asyncContext);
+		asyncContext.addListener(subscriber);
+		subscriber.outputStream.setWriteListener(subscriber);
+		try {
+			this.stream.subscribe(cursor, subscriber);
+		}
+		catch (RejectedExecutionException ex) {
+			// shutting down
+			subscriber.close();
+		}
+	}
+
+	private final class AsyncSubscriber extends RegistryChangeStream.Subscriber
+			implements AsyncListener, WriteListener {
+
+		private final AsyncContext asyncContext;
+
+		private final ServletOutputStream outputStream;
+
+		private final ArrayDeque<byte[]> pending = new ArrayDeque<>();
+
+		private boolean closed;
+
+		AsyncSubscriber(AsyncContext asyncContext) throws IOException {
+			this.asyncContext = asyncContext;
+			this.outputStream = asyncContext.getResponse().getOutputStream();
+		}
+
+		@Override
+		protected void send(String cursor, String type, String data) throws IOException {
+			write("id:" + cursor + "\nevent:" + type + "\ndata:" + data + "\n\n");
+		}
+
+		@Override
+		protected void keepAlive() throws IOException {
+			write(":\n\n");
+		}
+
+		@Override
+		protected void close() {
+			synchronized (this) {
+				this.closed = true;
+				this.pending.clear();
+			}
+			try {
+				this.asyncContext.complete();
+			}
+			catch (IllegalStateException ex) {
+				// already completed
+			}
+		}
+
+		private void write(String event) throws IOException {
+			synchronized (this) {
+				if (this.closed) {
+					throw new IOException("Subscription closed");
+				}
+				if (this.pending.size() >= RegistryStreamFilter.this.maxPendingEvents) {
+					throw new IOException("Subscriber is more than " + this.pending.size() + " events behind");
+				}
+				this.pending.addLast(event.getBytes(StandardCharsets.UTF_8));
+				drain();
+			}
+		}
+
+		/**
+		 * Write the pending events for as long as the connection accepts them without
+		 * blocking. Otherwise the container calls {@link #onWritePossible()} once it does.
+		 */
+		private synchronized void drain() throws IOException {
+			while (!this.closed && this.outputStream.isReady()) {
+				byte[] event = this.pending.pollFirst();
+				if (event == null) {
+					this.outputStream.flush();
+					return;
+				}
+				this.outputStream.write(event);
+			}
+		}
+
+		@Override
+		public void onWritePossible() throws IOException {
+			drain();
+		}
+
+		@Override
+		public void onComplete(AsyncEvent event) {
+			RegistryStreamFilter.this.stream.unsubscribe(this);
+		}
+
+		@Override
+		public void onTimeout(AsyncEvent event) {
+			RegistryStreamFilter.this.stream.unsubscribe(this);
+			close();
+		}
+
+		@Override
+		public void onError(AsyncEvent event) {
+			RegistryStreamFilter.this.stream.unsubscribe(this);
+			close();
+		}
+
+		@Override
+		public void onError(Throwable ex) {
+			RegistryStreamFilter.this.stream.unsubscribe(this);
+			close();
+		}
+
+		@Override
+		public void onStartAsync(AsyncEvent event) {
+		}
+
+	}
+
+}
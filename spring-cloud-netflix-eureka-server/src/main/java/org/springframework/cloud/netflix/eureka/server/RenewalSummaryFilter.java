@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Accepts the summaries of renewals sent by peers that aggregate them, on
+ * {@code /eureka/peerreplication/renewals}. A summary maps the name of each application
+ * to the ids of its renewed instances and the last dirty timestamp of each. An instance
+ * is renewed only if this server knows it with the same timestamp; the others are
+ * answered back, also by application, so that the peer replicates their renewals one by
+ * one and reconciles them the usual way.
+ *
+ * @since 5.0.3
+ */
+class RenewalSummaryFilter extends OncePerRequestFilter {
+
+	/**
+	 * Path of the summaries, relative to the Eureka service URL.
+	 */
+	static final String PATH = "/peerreplication/renewals";
+
+	private static final ObjectMapper MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Map<String, Long>>> RENEWALS = new TypeReference<>() {
+	};
+
+	private static final TypeReference<Map<String, List<String>>> REJECTED = new TypeReference<>() {
+	};
+
+	private final PeerAwareInstanceRegistry registry;
+
+	RenewalSummaryFilter(PeerAwareInstanceRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	protected boolean shouldNotFilter(HttpServletRequest request) {
+		// requests have been forwarded to /v2 by the version filter
+		return !HttpMethod.POST.matches(request.getMethod())
+				|| !request.getRequestURI().endsWith(EurekaConstants.DEFAULT_PREFIX + "/v2" + PATH);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		if (!EurekaMvcEndpoints.isReplication(request.getHeader(EurekaMvcEndpoints.REPLICATION_HEADER))) {
+			response.sendError(HttpServletResponse.SC_FORBIDDEN, "Only peers can send renewal summaries");
+			return;
+		}
+		Map<String, Map<String, Long>> renewals = decodeRenewals(request.getInputStream());
+		byte[] body = MAPPER.writeValueAsBytes(renew(this.registry, renewals));
+		response.setStatus(HttpServletResponse.SC_OK);
+		response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+		response.setContentLength(body.length);
+		response.getOutputStream().write(body);
+	}
+
+	/**
+	 * Renew the instances of a summary that this server knows as the peer does.
+	 * @param registry the registry
+	 * @param renewals the last dirty timestamp of each renewed instance, by application
+	 * @return the ids of the instances that were not renewed, by application
+	 */
+	static Map<String, List<String>> renew(PeerAwareInstanceRegistry registry,
+			Map<String, Map<String, Long>> renewals) {
+		Map<String, List<String>> rejected = new LinkedHashMap<>();
+		renewals.forEach((appName, instances) -> instances.forEach((id, lastDirtyTimestamp) -> {
+			InstanceInfo info = registry.getInstanceByAppAndId(appName, id, false);
+			if (info == null || !lastDirtyTimestamp.equals(info.getLastDirtyTimestamp())
+					|| !registry.renew(appName, id, true)) {
+				rejected.computeIfAbsent(appName, name -> new ArrayList<>()).add(id);
+			}
+		}));
+		return rejected;
+	}
+
+	static byte[] encodeRenewals(Map<String, Map<String, Long>> renewals) throws IOException {
+		return MAPPER.writeValueAsBytes(renewals);
+	}
+
+	static Map<String, Map<String, Long>> decodeRenewals(InputStream body) throws IOException {
+		return MAPPER.readValue(body, RENEWALS);
+	}
+
+	static Map<String, List<String>> decodeRejected(byte[] body) throws IOException {
+		return MAPPER.readValue(body, REJECTED);
+	}
+
+}
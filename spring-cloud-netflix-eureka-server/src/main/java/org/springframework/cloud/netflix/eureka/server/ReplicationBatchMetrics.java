@@ -0,0 +1,66 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.Locale;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Records the requests sent by {@link AdaptiveBatchingReplicationClient}s: the number of
+ * changes and bytes per request, and why each request was sent. Nothing is recorded
+ * until the metrics are bound to a {@link MeterRegistry}.
+ *
+ * @since 5.0.3
+ */
+public class ReplicationBatchMetrics implements MeterBinder {
+
+	private volatile MeterRegistry meterRegistry;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.meterRegistry = registry;
+	}
+
+	void recordFlush(String peer, AdaptiveBatchingReplicationClient.FlushReason reason, int items, int bytes) {
+		MeterRegistry registry = this.meterRegistry;
+		if (registry == null) {
+			return;
+		}
+		DistributionSummary.builder("eureka.server.replication.batch.size")
+			.description("Number of changes replicated to a peer per request.")
+			.tag("peer", peer)
+			.register(registry)
+			.record(items);
+		DistributionSummary.builder("eureka.server.replication.batch.bytes")
+			.description("Size in bytes of the changes replicated to a peer per request, before compression.")
+			.baseUnit("bytes")
+			.tag("peer", peer)
+			.register(registry)
+			.record(bytes);
+		Counter.builder("eureka.server.replication.batch.flushes")
+			.description("Number of requests replicating changes to a peer, by the reason they were sent.")
+			.tag("peer", peer)
+			.tag("reason", reason.name().toLowerCase(Locale.ROOT))
+			.register(registry)
+			.increment();
+	}
+
+}
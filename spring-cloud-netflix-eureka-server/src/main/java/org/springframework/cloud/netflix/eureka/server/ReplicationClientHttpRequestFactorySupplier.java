@@ -0,0 +1,118 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import javax.net.ssl.HostnameVerifier;
+import javax.net.ssl.SSLContext;
+
+import com.netflix.eureka.EurekaServerConfig;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.ssl.SSLConnectionSocketFactoryBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+
+import org.springframework.cloud.netflix.eureka.http.EurekaClientHttpRequestFactorySupplier;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
+
+/**
+ * Request factories of the clients that replicate changes to peers, configured with the
+ * {@code eureka.server.peer-node-*} timeouts and connection limits. Over HTTP/1.1 the
+ * connections to a peer are pooled by Apache HttpClient; over HTTP/2 the JDK client
+ * multiplexes all requests to a peer over one connection.
+ *
+ * @since 5.0.3
+ */
+class ReplicationClientHttpRequestFactorySupplier implements EurekaClientHttpRequestFactorySupplier {
+
+	private final EurekaServerConfig serverConfig;
+
+	private final boolean http2;
+
+	ReplicationClientHttpRequestFactorySupplier(EurekaServerConfig serverConfig, boolean http2) {
+		this.serverConfig = serverConfig;
+		this.http2 = http2;
+	}
+
+	@Override
+	public ClientHttpRequestFactory get(@Nullable SSLContext sslContext, @Nullable HostnameVerifier hostnameVerifier) {
+		return this.http2 ? http2RequestFactory(sslContext) : pooledRequestFactory(sslContext, hostnameVerifier);
+	}
+
+	private ClientHttpRequestFactory http2RequestFactory(@Nullable SSLContext sslContext) {
+		HttpClient.Builder builder = HttpClient.newBuilder()
+			.version(HttpClient.Version.HTTP_2)
+			.connectTimeout(Duration.ofMillis(this.serverConfig.getPeerNodeConnectTimeoutMs()));
+		if (sslContext != null) {
+			builder.sslContext(sslContext);
+		}
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(builder.build());
+		requestFactory.setReadTimeout(this.serverConfig.getPeerNodeReadTimeoutMs());
+		return requestFactory;
+	}
+
+	private ClientHttpRequestFactory pooledRequestFactory(@Nullable SSLContext sslContext,
+			@Nullable HostnameVerifier hostnameVerifier) {
+		PoolingHttpClientConnectionManagerBuilder connectionManagerBuilder = PoolingHttpClientConnectionManagerBuilder
+			.create()
+			.setMaxConnTotal(this.serverConfig.getPeerNodeTotalConnections())
+			.setMaxConnPerRoute(this.serverConfig.getPeerNodeTotalConnectionsPerHost())
+			.setDefaultSocketConfig(SocketConfig.custom()
+				.setSoTimeout(Timeout.of(this.serverConfig.getPeerNodeReadTimeoutMs(), TimeUnit.MILLISECONDS))
+				.build())
+			.setDefaultConnectionConfig(ConnectionConfig.custom()
+				.setConnectTimeout(Timeout.of(this.serverConfig.getPeerNodeConnectTimeoutMs(), TimeUnit.MILLISECONDS))
+				.build());
+		if (sslContext != null || hostnameVerifier != null) {
+			SSLConnectionSocketFactoryBuilder sslConnectionSocketFactoryBuilder = SSLConnectionSocketFactoryBuilder
+				.create();
+			if (sslContext != null) {
+				sslConnectionSocketFactoryBuilder.setSslContext(sslContext);
+			}
+			if (hostnameVerifier != null) {
+				sslConnectionSocketFactoryBuilder.setHostnameVerifier(hostnameVerifier);
+			}
+			connectionManagerBuilder.setSSLSocketFactory(sslConnectionSocketFactoryBuilder.build());
+		}
+		else {
+			connectionManagerBuilder.useSystemProperties();
+		}
+		PoolingHttpClientConnectionManager connectionManager = connectionManagerBuilder.build();
+		CloseableHttpClient httpClient = HttpClients.custom()
+			.setConnectionManager(connectionManager)
+			.setDefaultRequestConfig(RequestConfig.custom()
+				.setConnectionRequestTimeout(
+						Timeout.of(this.serverConfig.getPeerNodeConnectTimeoutMs(), TimeUnit.MILLISECONDS))
+				.build())
+			.evictIdleConnections(TimeValue.ofSeconds(this.serverConfig.getPeerNodeConnectionIdleTimeoutSeconds()))
+			.build();
+		return new HttpComponentsClientHttpRequestFactory(httpClient);
+	}
+
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
+
+import com.netflix.appinfo.AbstractEurekaIdentity;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.InstanceInfo.InstanceStatus;
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.discovery.shared.resolver.DefaultEndpoint;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse.EurekaHttpResponseBuilder;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.EurekaServerIdentity;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.resources.ASGResource.ASGStatus;
+import com.netflix.eureka.resources.ServerCodecs;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cloud.netflix.eureka.http.RestClientEurekaHttpClient;
+import org.springframework.cloud.netflix.eureka.http.RestClientTransportClientFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.web.client.RestClient;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+
+/**
+ * {@link HttpReplicationClient} built on the {@code RestClient} stack of the Eureka
+ * client, used instead of the Jersey replication client when
+ * {@code eureka.server.replication-client.enabled} is {@code true}. Single changes go
+ * through {@link RestClientEurekaHttpClient}; batches are encoded with the codec of the
+ * server, as the peers expect. Every request is marked as a replication and carries the
+ * identity of this server, and the {@link ReplicationClientAdditionalFilters} are
+ * applied to it.
+ *
+ * @since 5.0.3
+ */
+class RestClientReplicationClient implements HttpReplicationClient {
+
+	private static final Log log = LogFactory.getLog(RestClientReplicationClient.class);
+
+	private final RestClientEurekaHttpClient delegate;
+
+	private final CodecWrapper codec;
+
+	private final ClientHttpRequestFactory requestFactory;
+
+	RestClientReplicationClient(RestClientEurekaHttpClient delegate, CodecWrapper codec,
+			ClientHttpRequestFactory requestFactory) {
+		this.delegate = delegate;
+		this.codec = codec;
+		this.requestFactory = requestFactory;
+	}
+
+	/**
+	 * Create a client replicating to the given peer.
+	 * @param config the server configuration, with the peer node timeouts and limits
+	 * @param serverCodecs the codecs of the server
+	 * @param serviceUrl the service URL of the peer
+	 * @param http2 whether to talk HTTP/2 to the peer
+	 * @param additionalFilters the filters to apply to every request
+	 * @return the client
+	 */
+	static RestClientReplicationClient create(EurekaServerConfig config, ServerCodecs serverCodecs,
+			String serviceUrl, boolean http2, Collection<ClientRequestFilter> additionalFilters) {
+		ClientHttpRequestFactory requestFactory = new ReplicationClientHttpRequestFactorySupplier(config, http2)
+			.get(null, null);
+		EurekaServerIdentity identity = new EurekaServerIdentity(localAddress());
+		RestClientTransportClientFactory factory = new RestClientTransportClientFactory(Optional.empty(),
+				Optional.empty(), (sslContext, hostnameVerifier) -> requestFactory, () -> {
+					RestClient.Builder builder = RestClient.builder()
+						.defaultHeader(EurekaMvcEndpoints.REPLICATION_HEADER, "true")
+						.defaultHeader(HttpHeaders.USER_AGENT, "Java-EurekaClient-Replication")
+						.defaultHeader(AbstractEurekaIdentity.AUTH_NAME_HEADER_KEY, identity.getName())
+						.defaultHeader(AbstractEurekaIdentity.AUTH_VERSION_HEADER_KEY, identity.getVersion());
+					if (identity.getId() != null) {
+						builder.defaultHeader(AbstractEurekaIdentity.AUTH_ID_HEADER_KEY, identity.getId());
+					}
+					if (!additionalFilters.isEmpty()) {
+						builder.requestInterceptor(new ClientRequestFilterInterceptor(additionalFilters));
+					}
+					return builder;
+				});
+		RestClientEurekaHttpClient client = (RestClientEurekaHttpClient) factory
+			.newClient(new DefaultEndpoint(serviceUrl));
+		return new RestClientReplicationClient(client, serverCodecs.getFullJsonCodec(), requestFactory);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> register(InstanceInfo info) {
+		return this.delegate.register(info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> cancel(String appName, String id) {
+		return this.delegate.cancel(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> sendHeartBeat(String appName, String id, InstanceInfo info,
+			InstanceStatus overriddenStatus) {
+		return this.delegate.sendHeartBeat(appName, id, info, overriddenStatus);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String appName, String id, InstanceStatus newStatus,
+			InstanceInfo info) {
+		return this.delegate.statusUpdate(appName, id, newStatus, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> deleteStatusOverride(String appName, String id, InstanceInfo info) {
+		return this.delegate.deleteStatusOverride(appName, id, info);
+	}
+
+	@Override
+	public EurekaHttpResponse<Void> statusUpdate(String asgName, ASGStatus newStatus) {
+		ResponseEntity<Void> response = this.delegate.getRestClient()
+			.put()
+			.uri(builder -> builder.pathSegment("asg", asgName, "status").queryParam("value", newStatus.name()).build())
+			.retrieve()
+			.toBodilessEntity();
+		return anEurekaHttpResponse(response.getStatusCode().value()).build();
+	}
+
+	@Override
+	public EurekaHttpResponse<ReplicationListResponse> submitBatchUpdates(ReplicationList replicationList) {
+		return submitBatchUpdates(encode(replicationList), false);
+	}
+
+	/**
+	 * Send a batch of changes that has already been encoded.
+	 * @param body the batch encoded as JSON
+	 * @param compressed whether to compress the request with gzip
+	 * @return the response of the peer
+	 */
+	EurekaHttpResponse<ReplicationListResponse> submitBatchUpdates(byte[] body, boolean compressed) {
+		RestClient.RequestBodySpec request = this.delegate.getRestClient()
+			.post()
+			.uri("/peerreplication/batch/")
+			.contentType(MediaType.APPLICATION_JSON)
+			.accept(MediaType.APPLICATION_JSON);
+		if (compressed) {
+			request.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		ResponseEntity<byte[]> response = request.body(compressed ? gzip(body) : body)
+			.retrieve()
+			.toEntity(byte[].class);
+		int statusCode = response.getStatusCode().value();
+		EurekaHttpResponseBuilder<ReplicationListResponse> builder = anEurekaHttpResponse(statusCode,
+				ReplicationListResponse.class);
+		byte[] responseBody = response.getBody();
+		if (statusCode == HttpStatus.OK.value() && responseBody != null) {
+			builder.entity(decode(responseBody));
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Send a summary of renewals, as accepted by {@link RenewalSummaryFilter}.
+	 * @param renewals the last dirty timestamp of each renewed instance, by application
+	 * @return the ids of the instances the peer did not renew, by application
+	 */
+	Map<String, List<String>> sendRenewals(Map<String, Map<String, Long>> renewals) {
+		try {
+			byte[] response = this.delegate.getRestClient()
+				.post()
+				.uri(RenewalSummaryFilter.PATH)
+				.contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON)
+				.body(RenewalSummaryFilter.encodeRenewals(renewals))
+				.retrieve()
+				.body(byte[].class);
+			return (response != null) ? RenewalSummaryFilter.decodeRejected(response) : Map.of();
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	/**
+	 * Read the changes of the {@link RegistryJournal} of the peer, as served by
+	 * {@link RegistryJournalFilter}.
+	 * @param cursor the cursor of the last change read, or {@code null}
+	 * @param max the maximum number of changes to read
+	 * @return the changes
+	 */
+	RegistryJournal.Changes fetchJournal(String cursor, int max) {
+		try {
+			byte[] response = this.delegate.getRestClient()
+				.get()
+				.uri(uriBuilder -> uriBuilder.path(RegistryJournalFilter.PATH)
+					.queryParam("max", max)
+					.queryParamIfPresent("cursor", Optional.ofNullable(cursor))
+					.build())
+				.accept(MediaType.APPLICATION_JSON)
+				.retrieve()
+				.body(byte[].class);
+			if (response == null) {
+				throw new IllegalStateException("Empty registry journal response");
+			}
+			return RegistryJournalFilter.decodeChanges(response);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getApplications(String... regions) {
+		return this.delegate.getApplications(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getDelta(String... regions) {
+		return this.delegate.getDelta(regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getVip(String vipAddress, String... regions) {
+		return this.delegate.getVip(vipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Applications> getSecureVip(String secureVipAddress, String... regions) {
+		return this.delegate.getSecureVip(secureVipAddress, regions);
+	}
+
+	@Override
+	public EurekaHttpResponse<Application> getApplication(String appName) {
+		return this.delegate.getApplication(appName);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String appName, String id) {
+		return this.delegate.getInstance(appName, id);
+	}
+
+	@Override
+	public EurekaHttpResponse<InstanceInfo> getInstance(String id) {
+		return this.delegate.getInstance(id);
+	}
+
+	@Override
+	public void shutdown() {
+		this.delegate.shutdown();
+		if (this.requestFactory instanceof DisposableBean disposable) {
+			try {
+				disposable.destroy();
+			}
+			catch (Exception ex) {
+				log.warn("Failed to close the replication client", ex);
+			}
+		}
+	}
+
+	/**
+	 * Encode a batch of changes as the peers expect it.
+	 * @param replicationList the changes
+	 * @return the changes encoded as JSON
+	 */
+	byte[] encode(ReplicationList replicationList) {
+		try {
+			return this.codec.encode(replicationList).getBytes(StandardCharsets.UTF_8);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private ReplicationListResponse decode(byte[] body) {
+		try {
+			return this.codec.decode(new String(body, StandardCharsets.UTF_8), ReplicationListResponse.class);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private static byte[] gzip(byte[] body) {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+		try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+			out.write(body);
+		}
+		catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		return compressed.toByteArray();
+	}
+
+	private static String localAddress() {
+		try {
+			return InetAddress.getLocalHost().getHostAddress();
+		}
+		catch (UnknownHostException ex) {
+			log.warn("Cannot find localhost ip", ex);
+			return null;
+		}
+	}
+
+}
@@ -33,11 +33,27 @@ public class EurekaInstanceCanceledEvent extends ApplicationEvent {
 
 	private boolean replication;
 
+	private Long lastDirtyTimestamp;
+
+	private boolean expired;
+
 	public EurekaInstanceCanceledEvent(Object source, String appName, String serverId, boolean replication) {
+		this(source, appName, serverId, replication, null);
+	}
+
+	public EurekaInstanceCanceledEvent(Object source, String appName, String serverId, boolean replication,
+			Long lastDirtyTimestamp) {
+		this(source, appName, serverId, replication, lastDirtyTimestamp, false);
+	}
+
+	public EurekaInstanceCanceledEvent(Object source, String appName, String serverId, boolean replication,
+			Long lastDirtyTimestamp, boolean expired) {
 		super(source);
 		this.appName = appName;
 		this.serverId = serverId;
 		this.replication = replication;
+		this.lastDirtyTimestamp = lastDirtyTimestamp;
+		this.expired = expired;
 	}
 
 	public String getAppName() {
@@ -64,6 +80,34 @@ public class EurekaInstanceCanceledEvent extends ApplicationEvent {
 		this.replication = replication;
 	}
 
+	/**
+	 * The last dirty timestamp of the instance when it was cancelled.
+	 * @return the timestamp, or {@code null} if it is not known
+	 * @since 5.0.3
+	 */
+	public Long getLastDirtyTimestamp() {
+		return lastDirtyTimestamp;
+	}
+
+	public void setLastDirtyTimestamp(Long lastDirtyTimestamp) {
+		this.lastDirtyTimestamp = lastDirtyTimestamp;
+	}
+
+	/**
+	 * Whether the instance was cancelled by this server because its lease expired, rather
+	 * than by a client. Like Eureka, which does not replicate evictions to its peers,
+	 * listeners that share changes with other servers should skip expired instances.
+	 * @return {@code true} if the lease of the instance expired
+	 * @since 5.0.3
+	 */
+	public boolean isExpired() {
+		return expired;
+	}
+
+	public void setExpired(boolean expired) {
+		this.expired = expired;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
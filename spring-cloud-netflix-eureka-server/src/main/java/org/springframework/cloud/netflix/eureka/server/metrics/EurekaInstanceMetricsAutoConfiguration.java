@@ -16,24 +16,23 @@
 
 package org.springframework.cloud.netflix.eureka.server.metrics;
 
+import java.util.Collections;
+
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
 
-import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
-import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
 import org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration;
 import org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConfiguration;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
 import org.springframework.cloud.netflix.eureka.server.EurekaServerAutoConfiguration;
 import org.springframework.context.annotation.Bean;
-import org.springframework.core.task.TaskExecutor;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME;
 
 /**
  * Auto-configuration for Eureka Instance metrics.
@@ -42,10 +41,10 @@ import static org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfi
  * @author Olga Maciaszek-Sharma
  * @since 4.1.2
  */
-@ConditionalOnClass({ MeterRegistry.class, ThreadPoolTaskExecutor.class })
+@ConditionalOnClass(MeterRegistry.class)
 @ConditionalOnBean(MeterRegistry.class)
 @AutoConfiguration(after = { MetricsAutoConfiguration.class, CompositeMeterRegistryAutoConfiguration.class,
-		EurekaServerAutoConfiguration.class, TaskExecutionAutoConfiguration.class })
+		EurekaServerAutoConfiguration.class })
 @ConditionalOnProperty(name = "eureka.server.metrics.enabled", havingValue = "true")
 class EurekaInstanceMetricsAutoConfiguration {
 
@@ -59,8 +58,22 @@ class EurekaInstanceMetricsAutoConfiguration {
 	@Bean
 	public EurekaInstanceMonitor eurekaInstanceMeterBinder(MeterRegistry meterRegistry,
 			PeerAwareInstanceRegistry instanceRegistry, EurekaInstanceTagsProvider tagProvider,
-			@Qualifier(APPLICATION_TASK_EXECUTOR_BEAN_NAME) TaskExecutor executor) {
-		return new EurekaInstanceMonitor(meterRegistry, instanceRegistry, tagProvider, executor);
+			@Value("${eureka.server.metrics.debounce-ms:1000}") long debounceMs,
+			@Value("${eureka.server.metrics.reconciliation-interval-ms:300000}") long reconciliationIntervalMs) {
+		return new EurekaInstanceMonitor(meterRegistry, instanceRegistry, tagProvider, debounceMs,
+				reconciliationIntervalMs);
+	}
+
+	@Bean
+	@ConditionalOnProperty(name = "eureka.server.metrics.responses.enabled", havingValue = "true",
+			matchIfMissing = true)
+	public FilterRegistrationBean<EurekaResponseMetricsFilter> eurekaResponseMetricsFilterRegistration(
+			MeterRegistry meterRegistry) {
+		FilterRegistrationBean<EurekaResponseMetricsFilter> bean = new FilterRegistrationBean<>(
+				new EurekaResponseMetricsFilter(meterRegistry));
+		bean.setOrder(1);
+		bean.setUrlPatterns(Collections.singletonList(EurekaConstants.DEFAULT_PREFIX + "/*"));
+		return bean;
 	}
 
 }
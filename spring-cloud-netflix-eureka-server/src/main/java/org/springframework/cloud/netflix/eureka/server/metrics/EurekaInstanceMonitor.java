@@ -16,31 +16,53 @@
 
 package org.springframework.cloud.netflix.eureka.server.metrics;
 
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
 import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
 import io.micrometer.core.instrument.MeterRegistry;
 import io.micrometer.core.instrument.MultiGauge;
 import io.micrometer.core.instrument.Tags;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
 import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
-import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
 import org.springframework.context.ApplicationEvent;
 import org.springframework.context.event.SmartApplicationListener;
 
 /**
  * {@link SmartApplicationListener} for collecting event metrics from
  * {@link PeerAwareInstanceRegistry}.
+ * <p>
+ * Instance counts are maintained incrementally per set of tags as instances register,
+ * cancel and change status, so handling an event does not depend on the size of the
+ * registry. Gauge rows are only re-registered, debounced, when a set of tags appears or
+ * disappears. A periodic reconciliation scan corrects any drift, for example from
+ * instances that were evicted or whose tags changed without an event. Events that arrive
+ * during the scan are replayed on top of it, so that they are not lost.
  *
  * @author Wonchul Heo
  * @author Olga Maciaszek-Sharma
  * @since 4.1.2
  */
-public class EurekaInstanceMonitor implements SmartApplicationListener {
+public class EurekaInstanceMonitor implements SmartApplicationListener, DisposableBean {
+
+	private static final Log log = LogFactory.getLog(EurekaInstanceMonitor.class);
 
 	private final MultiGauge eurekaInstances;
 
@@ -48,17 +70,38 @@ public class EurekaInstanceMonitor implements SmartApplicationListener {
 
 	private final EurekaInstanceTagsProvider tagProvider;
 
-	private final Executor executor;
+	private final ScheduledExecutorService scheduler;
+
+	private final long debounceMs;
+
+	private final AtomicBoolean registrationPending = new AtomicBoolean();
+
+	private final Object monitor = new Object();
+
+	private Map<String, Tags> instanceTags = new HashMap<>();
+
+	private Map<Tags, AtomicLong> counts = new HashMap<>();
+
+	private List<Map.Entry<String, Tags>> updatesDuringScan;
 
 	EurekaInstanceMonitor(MeterRegistry meterRegistry, PeerAwareInstanceRegistry instanceRegistry,
-			EurekaInstanceTagsProvider tagProvider, Executor executor) {
+			EurekaInstanceTagsProvider tagProvider, long debounceMs, long reconciliationIntervalMs) {
 		Objects.requireNonNull(meterRegistry);
 		this.instanceRegistry = Objects.requireNonNull(instanceRegistry);
 		this.tagProvider = Objects.requireNonNull(tagProvider);
 		this.eurekaInstances = MultiGauge.builder("eureka.server.instances")
 			.description("Number of application instances registered with the Eureka server.")
 			.register(meterRegistry);
-		this.executor = executor;
+		this.debounceMs = debounceMs;
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "eureka-instance-monitor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		if (reconciliationIntervalMs > 0) {
+			this.scheduler.scheduleWithFixedDelay(this::reconcile, reconciliationIntervalMs, reconciliationIntervalMs,
+					TimeUnit.MILLISECONDS);
+		}
 	}
 
 	@Override
@@ -66,30 +109,131 @@ public class EurekaInstanceMonitor implements SmartApplicationListener {
 		// If events that change state are added, an event class must be added.
 		return EurekaInstanceCanceledEvent.class.isAssignableFrom(eventType)
 				|| EurekaInstanceRegisteredEvent.class.isAssignableFrom(eventType)
-				|| EurekaInstanceRenewedEvent.class.isAssignableFrom(eventType);
+				|| EurekaInstanceStatusChangedEvent.class.isAssignableFrom(eventType);
 	}
 
 	@Override
 	public void onApplicationEvent(ApplicationEvent event) {
-		executor.execute(() -> {
-			Map<Tags, Long> aggregatedCounts = collectAggregatedCounts();
-			registerMetrics(aggregatedCounts);
-		});
+		if (event instanceof EurekaInstanceRegisteredEvent registered) {
+			update(registered.getInstanceInfo());
+		}
+		else if (event instanceof EurekaInstanceStatusChangedEvent statusChanged) {
+			update(statusChanged.getInstanceInfo());
+		}
+		else if (event instanceof EurekaInstanceCanceledEvent canceled) {
+			update(key(canceled.getAppName(), canceled.getServerId()), null);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		this.scheduler.shutdownNow();
+	}
+
+	/**
+	 * Rebuild all counts from a full scan of the registry.
+	 */
+	void reconcile() {
+		synchronized (this.monitor) {
+			this.updatesDuringScan = new ArrayList<>();
+		}
+		try {
+			Map<String, Tags> scannedTags = new HashMap<>();
+			for (Application application : instanceRegistry.getApplications().getRegisteredApplications()) {
+				for (InstanceInfo instanceInfo : application.getInstances()) {
+					scannedTags.put(key(instanceInfo.getAppName(), instanceInfo.getId()),
+							tagProvider.eurekaInstanceTags(instanceInfo));
+				}
+			}
+			synchronized (this.monitor) {
+				// the scan may have missed these, or seen the instances before they happened
+				for (Map.Entry<String, Tags> update : this.updatesDuringScan) {
+					if (update.getValue() != null) {
+						scannedTags.put(update.getKey(), update.getValue());
+					}
+					else {
+						scannedTags.remove(update.getKey());
+					}
+				}
+				Map<Tags, AtomicLong> scannedCounts = new HashMap<>();
+				for (Tags tags : scannedTags.values()) {
+					scannedCounts.computeIfAbsent(tags, t -> new AtomicLong()).incrementAndGet();
+				}
+				this.instanceTags = scannedTags;
+				this.counts = scannedCounts;
+			}
+			registerMetrics();
+		}
+		catch (RuntimeException e) {
+			log.warn("Failed to reconcile Eureka instance metrics", e);
+		}
+		finally {
+			synchronized (this.monitor) {
+				this.updatesDuringScan = null;
+			}
+		}
+	}
+
+	private void update(InstanceInfo instanceInfo) {
+		if (instanceInfo != null) {
+			update(key(instanceInfo.getAppName(), instanceInfo.getId()), tagProvider.eurekaInstanceTags(instanceInfo));
+		}
+	}
+
+	private void update(String key, Tags tags) {
+		boolean rowsChanged = false;
+		synchronized (this.monitor) {
+			if (this.updatesDuringScan != null) {
+				this.updatesDuringScan.add(new AbstractMap.SimpleImmutableEntry<>(key, tags));
+			}
+			Tags previous = (tags != null) ? this.instanceTags.put(key, tags) : this.instanceTags.remove(key);
+			if (Objects.equals(previous, tags)) {
+				return;
+			}
+			if (previous != null) {
+				AtomicLong count = this.counts.get(previous);
+				if (count != null && count.decrementAndGet() <= 0) {
+					this.counts.remove(previous);
+					rowsChanged = true;
+				}
+			}
+			if (tags != null) {
+				AtomicLong count = this.counts.get(tags);
+				if (count == null) {
+					count = new AtomicLong();
+					this.counts.put(tags, count);
+					rowsChanged = true;
+				}
+				count.incrementAndGet();
+			}
+		}
+		if (rowsChanged) {
+			scheduleRegistration();
+		}
+	}
+
+	private void scheduleRegistration() {
+		if (this.registrationPending.compareAndSet(false, true)) {
+			this.scheduler.schedule(() -> {
+				this.registrationPending.set(false);
+				registerMetrics();
+			}, this.debounceMs, TimeUnit.MILLISECONDS);
+		}
 	}
 
-	private Map<Tags, Long> collectAggregatedCounts() {
-		return instanceRegistry.getApplications()
-			.getRegisteredApplications()
-			.stream()
-			.flatMap(application -> application.getInstances().stream())
-			.collect(Collectors.groupingBy(tagProvider::eurekaInstanceTags, Collectors.counting()));
+	private void registerMetrics() {
+		List<MultiGauge.Row<?>> rows;
+		synchronized (this.monitor) {
+			rows = this.counts.entrySet()
+				.stream()
+				.map(entry -> MultiGauge.Row.of(entry.getKey(), entry.getValue(), AtomicLong::doubleValue))
+				.collect(Collectors.toList());
+		}
+		eurekaInstances.register(rows, true);
 	}
 
-	private void registerMetrics(Map<Tags, Long> aggregatedCounts) {
-		eurekaInstances.register(aggregatedCounts.entrySet()
-			.stream()
-			.map(entry -> MultiGauge.Row.of(entry.getKey(), entry.getValue()))
-			.collect(Collectors.toList()), true);
+	private static String key(String appName, String id) {
+		return appName + ":" + id;
 	}
 
 }
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server.metrics;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Records the size of registry responses and how many of them were gzip encoded. The
+ * compression ratio is that of the last gzip full registry response served, read from
+ * the uncompressed size recorded at the end of the gzip stream, so that it never makes
+ * the response cache build a payload of its own. The meters of every resource are
+ * registered up front, so that recording a response does not look them up.
+ *
+ * @since 5.0.3
+ */
+class EurekaResponseMetricsFilter extends OncePerRequestFilter {
+
+	private static final String GZIP = "gzip";
+
+	// header and trailer of a gzip stream
+	private static final int GZIP_MIN_SIZE = 18;
+
+	private static final String[] RESOURCES = { "full", "delta", "application" };
+
+	private final Map<String, Meters> meters;
+
+	private volatile double compressionRatio = Double.NaN;
+
+	EurekaResponseMetricsFilter(MeterRegistry meterRegistry) {
+		Map<String, Meters> meters = new HashMap<>();
+		for (String resource : RESOURCES) {
+			meters.put(resource, new Meters(meterRegistry, resource));
+		}
+		this.meters = Map.copyOf(meters);
+		Gauge.builder("eureka.server.responses.compression.ratio", this, EurekaResponseMetricsFilter::compressionRatio)
+			.description("Size of the last gzip full registry response relative to its uncompressed payload.")
+			.register(meterRegistry);
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		String resource = resource(request);
+		if (resource == null) {
+			filterChain.doFilter(request, response);
+			return;
+		}
+		CountingResponse countingResponse = new CountingResponse(response);
+		try {
+			filterChain.doFilter(request, countingResponse);
+		}
+		finally {
+			if (request.isAsyncStarted()) {
+				// held delta fetches are answered later
+				request.getAsyncContext().addListener(new AsyncListener() {
+					@Override
+					public void onComplete(AsyncEvent event) {
+						record(resource, response, countingResponse);
+					}
+
+					@Override
+					public void onTimeout(AsyncEvent event) {
+					}
+
+					@Override
+					public void onError(AsyncEvent event) {
+					}
+
+					@Override
+					public void onStartAsync(AsyncEvent event) {
+					}
+				});
+			}
+			else {
+				record(resource, response, countingResponse);
+			}
+		}
+	}
+
+	private void record(String resource, HttpServletResponse response, CountingResponse counted) {
+		long bytes = counted.count;
+		boolean gzip = GZIP.equalsIgnoreCase(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+		Meters meters = this.meters.get(resource);
+		(gzip ? meters.gzipSize : meters.identitySize).record(bytes);
+		if (gzip && response.getStatus() == HttpServletResponse.SC_OK) {
+			meters.gzipResponses.increment();
+			long uncompressed = counted.uncompressedSize();
+			if ("full".equals(resource) && bytes >= GZIP_MIN_SIZE && uncompressed > 0) {
+				this.compressionRatio = (double) bytes / uncompressed;
+			}
+		}
+	}
+
+	double compressionRatio() {
+		return this.compressionRatio;
+	}
+
+	private static String resource(HttpServletRequest request) {
+		if (!HttpMethod.GET.matches(request.getMethod())) {
+			return null;
+		}
+		String uri = request.getRequestURI();
+		if (uri.endsWith("/apps") || uri.endsWith("/apps/")) {
+			return "full";
+		}
+		if (uri.endsWith("/apps/delta")) {
+			return "delta";
+		}
+		int apps = uri.lastIndexOf("/apps/");
+		if (apps >= 0 && uri.indexOf('/', apps + "/apps/".length()) < 0) {
+			return "application";
+		}
+		return null;
+	}
+
+	private static final class Meters {
+
+		private final DistributionSummary identitySize;
+
+		private final DistributionSummary gzipSize;
+
+		private final Counter gzipResponses;
+
+		Meters(MeterRegistry registry, String resource) {
+			this.identitySize = size(registry, resource, "identity");
+			this.gzipSize = size(registry, resource, GZIP);
+			this.gzipResponses = Counter.builder("eureka.server.responses.gzip")
+				.description("Number of successful gzip encoded registry responses.")
+				.tag("resource", resource)
+				.register(registry);
+		}
+
+		private static DistributionSummary size(MeterRegistry registry, String resource, String encoding) {
+			return DistributionSummary.builder("eureka.server.responses.size")
+				.description("Size of registry responses as written to the client.")
+				.baseUnit("bytes")
+				.tag("resource", resource)
+				.tag("encoding", encoding)
+				.register(registry);
+		}
+
+	}
+
+	private static final class CountingResponse extends HttpServletResponseWrapper {
+
+		private long count;
+
+		// the last four bytes written, which end a gzip stream with its uncompressed size
+		private int trailer;
+
+		private ServletOutputStream outputStream;
+
+		CountingResponse(HttpServletResponse response) {
+			super(response);
+		}
+
+		@Override
+		public ServletOutputStream getOutputStream() throws IOException {
+			if (this.outputStream == null) {
+				ServletOutputStream delegate = super.getOutputStream();
+				this.outputStream = new ServletOutputStream() {
+
+					@Override
+					public void write(int b) throws IOException {
+						delegate.write(b);
+						CountingResponse.this.count++;
+						track(b);
+					}
+
+					@Override
+					public void write(byte[] b, int off, int len) throws IOException {
+						delegate.write(b, off, len);
+						CountingResponse.this.count += len;
+						for (int i = Math.max(off, off + len - 4); i < off + len; i++) {
+							track(b[i]);
+						}
+					}
+
+					@Override
+					public void flush() throws IOException {
+						delegate.flush();
+					}
+
+					@Override
+					public void close() throws IOException {
+						delegate.close();
+					}
+
+					@Override
+					public boolean isReady() {
+						return delegate.isReady();
+					}
+
+					@Override
+					public void setWriteListener(WriteListener writeListener) {
+						delegate.setWriteListener(writeListener);
+					}
+
+				};
+			}
+			return this.outputStream;
+		}
+
+		private void track(int b) {
+			this.trailer = (this.trailer >>> 8) | ((b & 0xff) << 24);
+		}
+
+		/**
+		 * The uncompressed size a gzip stream ends with, modulo 2^32.
+		 * @return the uncompressed size
+		 */
+		long uncompressedSize() {
+			return Integer.toUnsignedLong(this.trailer);
+		}
+
+	}
+
+}
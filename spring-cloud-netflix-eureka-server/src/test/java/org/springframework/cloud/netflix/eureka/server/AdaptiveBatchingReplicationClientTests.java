@@ -0,0 +1,144 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.EurekaReplicationClientProperties.Batching;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link AdaptiveBatchingReplicationClient}.
+ */
+class AdaptiveBatchingReplicationClientTests {
+
+	private final RestClientReplicationClient delegate = mock(RestClientReplicationClient.class);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final ReplicationBatchMetrics metrics = new ReplicationBatchMetrics();
+
+	private final Batching batching = new Batching();
+
+	private final List<Integer> sent = Collections.synchronizedList(new ArrayList<>());
+
+	private volatile long peerLatencyMs;
+
+	private AdaptiveBatchingReplicationClient client;
+
+	AdaptiveBatchingReplicationClientTests() {
+		this.metrics.bindTo(this.meterRegistry);
+		when(this.delegate.encode(any())).thenAnswer(invocation -> {
+			ReplicationList list = invocation.getArgument(0);
+			this.sent.add(list.getReplicationList().size());
+			return new byte[list.getReplicationList().size() * 100];
+		});
+		when(this.delegate.submitBatchUpdates(any(byte[].class), anyBoolean())).thenAnswer(invocation -> {
+			Thread.sleep(this.peerLatencyMs);
+			byte[] body = invocation.getArgument(0);
+			ReplicationListResponse response = new ReplicationListResponse();
+			for (int i = 0; i < body.length / 100; i++) {
+				response.addResponse(new ReplicationInstanceResponse.Builder().setStatusCode(200 + i).build());
+			}
+			return anEurekaHttpResponse(200, response).build();
+		});
+	}
+
+	@AfterEach
+	void shutdown() {
+		this.client.shutdown();
+	}
+
+	@Test
+	void mergesConcurrentBatches() {
+		this.batching.setMaxDelayMs(500);
+		this.batching.setMinItems(4);
+		this.client = new AdaptiveBatchingReplicationClient(this.delegate, this.batching, this.metrics, "peer");
+
+		CompletableFuture<EurekaHttpResponse<ReplicationListResponse>> first = CompletableFuture
+			.supplyAsync(() -> this.client.submitBatchUpdates(changes(2)));
+		CompletableFuture<EurekaHttpResponse<ReplicationListResponse>> second = CompletableFuture
+			.supplyAsync(() -> this.client.submitBatchUpdates(changes(2)));
+
+		List<ReplicationInstanceResponse> responses = new ArrayList<>(first.join().getEntity().getResponseList());
+		responses.addAll(second.join().getEntity().getResponseList());
+		assertThat(responses).extracting(ReplicationInstanceResponse::getStatusCode)
+			.containsExactlyInAnyOrder(200, 201, 202, 203);
+		assertThat(this.sent).containsExactly(4);
+		verify(this.delegate, times(1)).submitBatchUpdates(any(byte[].class), anyBoolean());
+		assertThat(this.meterRegistry.get("eureka.server.replication.batch.flushes").tag("reason", "size").counter()
+			.count()).isEqualTo(1);
+	}
+
+	@Test
+	void sendsPendingChangesAtDeadline() {
+		this.batching.setMaxDelayMs(20);
+		this.client = new AdaptiveBatchingReplicationClient(this.delegate, this.batching, this.metrics, "peer");
+
+		assertThat(this.client.submitBatchUpdates(changes(3)).getEntity().getResponseList()).hasSize(3);
+		assertThat(this.meterRegistry.get("eureka.server.replication.batch.size").summary().totalAmount())
+			.isEqualTo(3);
+		assertThat(this.client.getMaxItems()).isEqualTo(250);
+	}
+
+	@Test
+	void growsUnderLoadAndShrinksWhenPeerIsSlow() {
+		this.batching.setMinItems(2);
+		this.batching.setMaxItems(8);
+		this.batching.setSlowPeerThresholdMs(100);
+		this.client = new AdaptiveBatchingReplicationClient(this.delegate, this.batching, this.metrics, "peer");
+
+		this.client.submitBatchUpdates(changes(2));
+		assertThat(this.client.getMaxItems()).isEqualTo(4);
+		this.client.submitBatchUpdates(changes(4));
+		this.client.submitBatchUpdates(changes(8));
+		assertThat(this.client.getMaxItems()).isEqualTo(8);
+
+		this.peerLatencyMs = 200;
+		this.client.submitBatchUpdates(changes(8));
+		assertThat(this.client.getMaxItems()).isEqualTo(4);
+	}
+
+	private static ReplicationList changes(int count) {
+		List<ReplicationInstance> instances = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			instances.add(mock(ReplicationInstance.class));
+		}
+		return new ReplicationList(instances);
+	}
+
+}
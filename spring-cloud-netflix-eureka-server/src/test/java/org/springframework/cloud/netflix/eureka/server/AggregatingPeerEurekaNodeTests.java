@@ -0,0 +1,137 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationList;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.web.client.RestClientException;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link AggregatingPeerEurekaNode}.
+ */
+class AggregatingPeerEurekaNodeTests {
+
+	private final HttpReplicationClient replicationClient = mock(HttpReplicationClient.class);
+
+	private final RestClientReplicationClient renewalClient = mock(RestClientReplicationClient.class);
+
+	private final PeerReplicationMetrics metrics = new PeerReplicationMetrics(true);
+
+	private final AggregatingPeerEurekaNode node = new AggregatingPeerEurekaNode(
+			mock(PeerAwareInstanceRegistry.class), "aggregating-peer", "http://aggregating-peer:8761/eureka/",
+			this.replicationClient, this.renewalClient, new EurekaServerConfigBean(), this.metrics,
+			this.metrics.monitor("aggregating-peer", "http://aggregating-peer:8761/eureka/", 30000), 60000);
+
+	private final InstanceInfo first = getInstanceInfo("FOO", "foo1", "foo1:8080", 8080, getLeaseInfo());
+
+	private final InstanceInfo second = getInstanceInfo("FOO", "foo2", "foo2:8080", 8080, getLeaseInfo());
+
+	@AfterEach
+	void shutDown() {
+		this.node.shutDown();
+	}
+
+	@Test
+	void sendsRenewalsAsSummary() throws Throwable {
+		when(this.renewalClient.sendRenewals(any())).thenReturn(Map.of());
+		heartbeat(this.first);
+		heartbeat(this.first);
+		heartbeat(this.second);
+
+		this.node.sendRenewals();
+		this.node.sendRenewals();
+
+		verify(this.renewalClient).sendRenewals(Map.of("FOO", Map.of("foo1:8080", this.first.getLastDirtyTimestamp(),
+				"foo2:8080", this.second.getLastDirtyTimestamp())));
+		verify(this.replicationClient, never()).submitBatchUpdates(any());
+	}
+
+	@Test
+	void replicatesRejectedRenewalsOneByOne() throws Throwable {
+		when(this.renewalClient.sendRenewals(any())).thenReturn(Map.of("FOO", List.of("foo2:8080")));
+		heartbeat(this.first);
+		heartbeat(this.second);
+
+		this.node.sendRenewals();
+
+		assertThat(replicatedIds()).containsExactly("foo2:8080");
+	}
+
+	@Test
+	void replicatesRenewalsOneByOneWhenSummaryFails() throws Throwable {
+		when(this.renewalClient.sendRenewals(any())).thenThrow(new RestClientException("peer down"));
+		heartbeat(this.first);
+		heartbeat(this.second);
+
+		this.node.sendRenewals();
+
+		assertThat(replicatedIds()).containsExactlyInAnyOrder("foo1:8080", "foo2:8080");
+	}
+
+	@Test
+	void replicatesRenewalsOfOverriddenInstancesOneByOne() throws Throwable {
+		when(this.renewalClient.sendRenewals(any())).thenReturn(Map.of());
+		this.node.heartbeat(this.first.getAppName(), this.first.getId(), this.first,
+				InstanceInfo.InstanceStatus.OUT_OF_SERVICE, false);
+		heartbeat(this.second);
+
+		this.node.sendRenewals();
+
+		assertThat(replicatedIds()).containsExactly("foo1:8080");
+		verify(this.renewalClient)
+			.sendRenewals(Map.of("FOO", Map.of("foo2:8080", this.second.getLastDirtyTimestamp())));
+	}
+
+	private void heartbeat(InstanceInfo info) throws Throwable {
+		this.node.heartbeat(info.getAppName(), info.getId(), info, null, false);
+	}
+
+	private List<String> replicatedIds() {
+		ArgumentCaptor<ReplicationList> batches = ArgumentCaptor.forClass(ReplicationList.class);
+		await().atMost(5, SECONDS)
+			.untilAsserted(() -> verify(this.replicationClient, atLeastOnce()).submitBatchUpdates(batches.capture()));
+		return batches.getAllValues()
+			.stream()
+			.flatMap(batch -> batch.getReplicationList().stream())
+			.map(ReplicationInstance::getId)
+			.distinct()
+			.toList();
+	}
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.Collections;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.glassfish.jersey.server.ResourceConfig;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.resttestclient.TestRestTemplate;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.netflix.eureka.server.ApplicationMvcEndpointsTests.Application;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT,
+		properties = { "spring.application.name=eureka", "eureka.server.mvc-endpoints.enabled=true" })
+class ApplicationMvcEndpointsTests {
+
+	@LocalServerPort
+	private int port = 0;
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Autowired
+	private ServerCodecs serverCodecs;
+
+	private final TestRestTemplate rest = new TestRestTemplate();
+
+	@Test
+	void jerseyIsNotStarted() {
+		assertThat(this.context.getBeanNamesForType(ResourceConfig.class)).isEmpty();
+		assertThat(this.context.getBean(EurekaApplicationsController.class)).isNotNull();
+	}
+
+	@Test
+	void registryLoads() {
+		ResponseEntity<String> entity = this.rest.exchange(url("/eureka/apps/"), HttpMethod.GET, json(null),
+				String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(entity.getHeaders().getContentType().isCompatibleWith(MediaType.APPLICATION_JSON)).isTrue();
+		assertThat(entity.getBody()).contains("\"applications\"");
+
+		entity = this.rest.exchange(url("/eureka/apps/delta"), HttpMethod.GET, json(null), String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void instanceLifecycle() throws Exception {
+		InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+			.setAppName("mvc-app")
+			.setInstanceId("mvc-app-1")
+			.setHostName("mvc-host")
+			.setIPAddr("10.0.0.1")
+			.setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+			.build();
+		String body = this.serverCodecs.getFullJsonCodec().encode(instance);
+
+		ResponseEntity<String> entity = this.rest.exchange(url("/eureka/apps/MVC-APP"), HttpMethod.POST, json(body),
+				String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NO_CONTENT);
+
+		entity = this.rest.exchange(url("/eureka/apps/MVC-APP/mvc-app-1"), HttpMethod.GET, json(null), String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(this.serverCodecs.getFullJsonCodec().decode(entity.getBody(), InstanceInfo.class).getHostName())
+			.isEqualTo("mvc-host");
+
+		entity = this.rest.exchange(url("/eureka/apps/MVC-APP/mvc-app-1"), HttpMethod.PUT, json(null), String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		entity = this.rest.exchange(url("/eureka/apps/MVC-APP/mvc-app-1/status?value=OUT_OF_SERVICE"),
+				HttpMethod.PUT, json(null), String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		entity = this.rest.exchange(url("/eureka/apps/MVC-APP/mvc-app-1"), HttpMethod.DELETE, json(null),
+				String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.OK);
+
+		entity = this.rest.exchange(url("/eureka/apps/MVC-APP/mvc-app-1"), HttpMethod.PUT, json(null), String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void registrationIsValidated() {
+		String body = this.serverCodecs.getFullJsonCodec()
+			.encode(InstanceInfo.Builder.newBuilder().setAppName("mvc-app").setInstanceId("mvc-app-2").build());
+
+		ResponseEntity<String> entity = this.rest.exchange(url("/eureka/apps/MVC-APP"), HttpMethod.POST, json(body),
+				String.class);
+		assertThat(entity.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(entity.getBody()).isEqualTo("Missing hostname");
+	}
+
+	private String url(String path) {
+		return "http://localhost:" + this.port + path;
+	}
+
+	private static HttpEntity<String> json(String body) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		return new HttpEntity<>(body, headers);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@EnableEurekaServer
+	protected static class Application {
+
+	}
+
+}
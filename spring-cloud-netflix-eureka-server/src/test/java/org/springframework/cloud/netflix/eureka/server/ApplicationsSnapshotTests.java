@@ -0,0 +1,201 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+
+/**
+ * Tests for {@link ApplicationsSnapshot}.
+ */
+@SpringBootTest(classes = InstanceRegistryTests.TestApplication.class,
+		webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+		value = { "spring.application.name=eureka", "eureka.instance.registry.snapshot-reads=true" })
+class ApplicationsSnapshotTests {
+
+	@Autowired
+	private InstanceRegistry instanceRegistry;
+
+	@Autowired
+	private ServerCodecs serverCodecs;
+
+	@BeforeEach
+	void setup() {
+		this.instanceRegistry.clearRegistry();
+	}
+
+	@Test
+	void publishesRegisteredInstances() {
+		register("APP-A", "host-a:8001", 8001);
+		register("APP-B", "host-b:8002", 8002);
+
+		ApplicationsSnapshot snapshot = this.instanceRegistry.getApplicationsSnapshot();
+
+		assertThat(snapshot.getApplication("APP-A").getByInstanceId("host-a:8001")).isNotNull();
+		assertThat(snapshot.getApplication("APP-B").getByInstanceId("host-b:8002")).isNotNull();
+		assertThat(this.instanceRegistry.getApplications()
+			.getRegisteredApplication("APP-A")
+			.getByInstanceId("host-a:8001")).isSameAs(snapshot.getApplication("APP-A").getByInstanceId("host-a:8001"));
+		assertThat(this.instanceRegistry.getApplications().getAppsHashCode()).contains("UP_");
+	}
+
+	@Test
+	void handsOutCopiesOfTheApplications() {
+		register("APP-A", "host-a:8001", 8001);
+		register("APP-A", "host-a:8002", 8002);
+		this.instanceRegistry.statusUpdate("APP-A", "host-a:8002", InstanceInfo.InstanceStatus.DOWN, null, false);
+		ApplicationsSnapshot snapshot = this.instanceRegistry.getApplicationsSnapshot();
+
+		Applications applications = snapshot.getApplications();
+		applications.shuffleInstances(true);
+		applications.removeApplication(applications.getRegisteredApplication("APP-A"));
+		Application application = snapshot.getApplication("APP-A");
+		application.removeInstance(application.getByInstanceId("host-a:8001"));
+
+		assertThat(snapshot.getApplications().getRegisteredApplication("APP-A").getInstances()).hasSize(2);
+		assertThat(snapshot.getApplication("APP-A").getInstances()).hasSize(2);
+		assertThat(snapshot.getApplications()).isNotSameAs(snapshot.getApplications());
+	}
+
+	@Test
+	void sharesApplicationsThatDidNotChange() {
+		register("APP-A", "host-a:8001", 8001);
+		register("APP-B", "host-b:8002", 8002);
+		ApplicationsSnapshot before = this.instanceRegistry.getApplicationsSnapshot();
+
+		register("APP-A", "host-a:8003", 8003);
+		ApplicationsSnapshot after = this.instanceRegistry.getApplicationsSnapshot();
+
+		assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+		assertThat(after.published("APP-B")).isSameAs(before.published("APP-B"));
+		assertThat(after.getApplication("APP-A").getInstances()).hasSize(2);
+		assertThat(before.getApplication("APP-A").getInstances()).hasSize(1);
+	}
+
+	@Test
+	void keepsVersionWhenNothingChanged() {
+		register("APP-A", "host-a:8001", 8001);
+		ApplicationsSnapshot snapshot = this.instanceRegistry.getApplicationsSnapshot();
+
+		this.instanceRegistry.renew("APP-A", "host-a:8001", false);
+
+		assertThat(this.instanceRegistry.getApplicationsSnapshot()).isSameAs(snapshot);
+		assertThat(this.instanceRegistry.getApplications().getAppsHashCode())
+			.isEqualTo(snapshot.getApplications().getAppsHashCode());
+	}
+
+	@Test
+	void dropsApplicationsWithoutInstances() {
+		register("APP-A", "host-a:8001", 8001);
+		register("APP-B", "host-b:8002", 8002);
+
+		this.instanceRegistry.cancel("APP-A", "host-a:8001", false);
+
+		assertThat(this.instanceRegistry.getApplication("APP-A")).isNull();
+		assertThat(this.instanceRegistry.getApplicationsSnapshot().getApplication("APP-A")).isNull();
+		assertThat(this.instanceRegistry.getApplicationsSnapshot().getApplication("APP-B")).isNotNull();
+	}
+
+	@Test
+	void publishesStatusChanges() {
+		register("APP-A", "host-a:8001", 8001);
+		ApplicationsSnapshot before = this.instanceRegistry.getApplicationsSnapshot();
+
+		this.instanceRegistry.statusUpdate("APP-A", "host-a:8001", InstanceInfo.InstanceStatus.OUT_OF_SERVICE, null,
+				false);
+
+		ApplicationsSnapshot after = this.instanceRegistry.getApplicationsSnapshot();
+		assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+		assertThat(after.published("APP-A")).isNotSameAs(before.published("APP-A"));
+		assertThat(after.getApplications().getAppsHashCode()).contains("OUT_OF_SERVICE_1_");
+	}
+
+	@Test
+	void readDuringRegistrationPublishesTheRegisteredInstance() {
+		register("APP-A", "host-a:8001", 8001);
+		this.instanceRegistry.getApplicationsSnapshot();
+		List<Application> readDuringRegistration = new CopyOnWriteArrayList<>();
+		InstanceInfo instance = new InstanceInfo(getInstanceInfo("APP-A", "host-a", "host-a:8002", 8002, null)) {
+			@Override
+			public void setLastUpdatedTimestamp() {
+				super.setLastUpdatedTimestamp();
+				// Eureka invalidates the response cache next, which may be refilled at once
+				readDuringRegistration.add(ApplicationsSnapshotTests.this.instanceRegistry.getApplication("APP-A"));
+			}
+		};
+
+		this.instanceRegistry.register(instance, false);
+
+		assertThat(readDuringRegistration).isNotEmpty()
+			.allSatisfy(application -> assertThat(application.getByInstanceId("host-a:8002")).isNotNull());
+		assertThat(this.instanceRegistry.getApplication("APP-A").getInstances()).hasSize(2);
+	}
+
+	@Test
+	void publishesOverriddenStatusesStoredOnRenewal() {
+		register("APP-A", "host-a:8001", 8001);
+		ApplicationsSnapshot before = this.instanceRegistry.getApplicationsSnapshot();
+
+		this.instanceRegistry.storeOverriddenStatusIfRequired("APP-A", "host-a:8001",
+				InstanceInfo.InstanceStatus.OUT_OF_SERVICE);
+
+		ApplicationsSnapshot after = this.instanceRegistry.getApplicationsSnapshot();
+		assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+		assertThat(after.published("APP-A")).isNotSameAs(before.published("APP-A"));
+	}
+
+	@Test
+	void registrySnapshotsHaveTheLeasesOfTheLastRenewals(@TempDir Path directory) throws Exception {
+		register("APP-A", "host-a:8001", 8001);
+		long published = this.instanceRegistry.getApplicationsSnapshot()
+			.getApplication("APP-A")
+			.getByInstanceId("host-a:8001")
+			.getLeaseInfo()
+			.getRenewalTimestamp();
+		Thread.sleep(10);
+		this.instanceRegistry.renew("APP-A", "host-a:8001", false);
+		RegistrySnapshots snapshots = new RegistrySnapshots(directory.resolve("registry.snapshot"), 60000,
+				this.serverCodecs);
+
+		snapshots.start(this.instanceRegistry);
+		snapshots.stop();
+
+		InstanceInfo written = snapshots.read().getRegisteredApplications("APP-A").getByInstanceId("host-a:8001");
+		assertThat(written.getLeaseInfo().getRenewalTimestamp()).isGreaterThan(published);
+	}
+
+	private void register(String appName, String instanceId, int port) {
+		this.instanceRegistry.register(getInstanceInfo(appName, instanceId.split(":")[0], instanceId, port, null),
+				false);
+	}
+
+}
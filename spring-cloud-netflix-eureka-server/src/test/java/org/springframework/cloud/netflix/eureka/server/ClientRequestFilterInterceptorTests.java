@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.ws.rs.client.ClientRequestFilter;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link ClientRequestFilterInterceptor}.
+ */
+class ClientRequestFilterInterceptorTests {
+
+	private final ClientHttpRequestExecution execution = mock(ClientHttpRequestExecution.class);
+
+	private final MockClientHttpRequest request = new MockClientHttpRequest(HttpMethod.POST,
+			URI.create("http://peer/eureka/apps/FOO"));
+
+	@Test
+	void abortedRequestIsAnsweredWithTheResponseOfTheFilter() throws Exception {
+		List<String> filtered = new ArrayList<>();
+		ClientRequestFilter abort = context -> context
+			.abortWith(Response.status(403).header("X-Reason", "denied").entity("denied").build());
+		ClientRequestFilter next = context -> filtered.add("next");
+
+		ClientHttpResponse response = new ClientRequestFilterInterceptor(List.of(abort, next))
+			.intercept(this.request, new byte[0], this.execution);
+
+		assertThat(response.getStatusCode().value()).isEqualTo(403);
+		assertThat(response.getHeaders().getFirst("X-Reason")).isEqualTo("denied");
+		assertThat(new String(response.getBody().readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("denied");
+		assertThat(filtered).isEmpty();
+		verifyNoInteractions(this.execution);
+	}
+
+	@Test
+	void filtersCanReplaceAndWrapTheEntity() throws Exception {
+		ClientRequestFilter replace = context -> context.setEntity("{\"a\":1}", null,
+				jakarta.ws.rs.core.MediaType.APPLICATION_JSON_TYPE);
+		ClientRequestFilter wrap = context -> context
+			.setEntityStream(new FilterOutputStream(context.getEntityStream()) {
+				@Override
+				public void close() throws IOException {
+					this.out.write('\n');
+					super.close();
+				}
+			});
+		ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+		when(this.execution.execute(any(), body.capture())).thenReturn(new MockClientHttpResponse());
+
+		new ClientRequestFilterInterceptor(List.of(replace, wrap)).intercept(this.request,
+				"{}".getBytes(StandardCharsets.UTF_8), this.execution);
+
+		assertThat(new String(body.getValue(), StandardCharsets.UTF_8)).isEqualTo("{\"a\":1}\n");
+		assertThat(this.request.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE)).isEqualTo("application/json");
+	}
+
+	@Test
+	void filtersCanReadTheHeadersOfTheRequest() throws Exception {
+		this.request.getHeaders().add(HttpHeaders.ACCEPT, "text/plain;q=0.5, application/json");
+		this.request.getHeaders().add(HttpHeaders.COOKIE, "a=1; b=2");
+		this.request.getHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+		List<Object> read = new ArrayList<>();
+		ClientRequestFilter filter = context -> {
+			read.add(context.getAcceptableMediaTypes().get(0).toString());
+			read.add(context.getCookies().get("b").getValue());
+			read.add(context.getMediaType().getSubtype());
+			Object registered = context.getConfiguration().getInstances().iterator().next();
+			read.add(context.getConfiguration().isRegistered(registered));
+		};
+		ArgumentCaptor<HttpRequest> filtered = ArgumentCaptor.forClass(HttpRequest.class);
+		when(this.execution.execute(filtered.capture(), any())).thenReturn(new MockClientHttpResponse());
+
+		new ClientRequestFilterInterceptor(List.of(filter)).intercept(this.request, new byte[0], this.execution);
+
+		assertThat(read).containsExactly("application/json", "2", "json", true);
+		assertThat(filtered.getValue().getURI()).isEqualTo(this.request.getURI());
+	}
+
+}
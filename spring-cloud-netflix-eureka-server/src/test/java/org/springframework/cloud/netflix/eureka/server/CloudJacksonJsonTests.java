@@ -0,0 +1,133 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link CloudJacksonJson}.
+ */
+class CloudJacksonJsonTests {
+
+	private final CloudJacksonJson json = new CloudJacksonJson();
+
+	@Test
+	void instanceInfoRoundTrip() throws Exception {
+		InstanceInfo info = getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo());
+
+		InstanceInfo decoded = json.decode(json.encode(info), InstanceInfo.class);
+
+		assertThat(decoded.getAppName()).isEqualTo("FOO");
+		assertThat(decoded.getInstanceId()).isEqualTo("foo-host:8080");
+		assertThat(decoded.getPort()).isEqualTo(8080);
+	}
+
+	@Test
+	void fragmentCacheReusesEncodedInstances() throws Exception {
+		InstanceFragmentCache fragmentCache = new InstanceFragmentCache(100, 1024 * 1024);
+		CloudJacksonJson cachingJson = new CloudJacksonJson();
+		cachingJson.getCodec().setInstanceFragmentCache(fragmentCache);
+		InstanceInfo info = getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo());
+		Applications applications = new Applications();
+		Application application = new Application("FOO");
+		application.addInstance(info);
+		applications.addApplication(application);
+
+		String first = cachingJson.encode(applications);
+		String second = cachingJson.encode(applications);
+
+		assertThat(fragmentCache.getMissCount()).isEqualTo(1);
+		assertThat(fragmentCache.getHitCount()).isEqualTo(1);
+		assertThat(second).isEqualTo(first);
+		InstanceInfo decoded = json.decode(second, Applications.class)
+			.getRegisteredApplications("FOO")
+			.getByInstanceId("foo-host:8080");
+		assertThat(decoded.getPort()).isEqualTo(8080);
+		assertThat(decoded.getLeaseInfo().getDurationInSecs()).isEqualTo(15);
+	}
+
+	@Test
+	void fragmentCacheEncodesRenewedInstances() throws Exception {
+		InstanceFragmentCache fragmentCache = new InstanceFragmentCache(100, 1024 * 1024);
+		CloudJacksonJson cachingJson = new CloudJacksonJson();
+		cachingJson.getCodec().setInstanceFragmentCache(fragmentCache);
+		InstanceInfo info = getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo());
+
+		cachingJson.encode(info);
+		info.setLeaseInfo(LeaseInfo.Builder.newBuilder().setRenewalTimestamp(12345L).build());
+		InstanceInfo decoded = json.decode(cachingJson.encode(info), InstanceInfo.class);
+
+		assertThat(fragmentCache.getMissCount()).isEqualTo(2);
+		assertThat(decoded.getLeaseInfo().getRenewalTimestamp()).isEqualTo(12345L);
+	}
+
+	@Test
+	void fragmentCacheEncodesChangedInstances() throws Exception {
+		InstanceFragmentCache fragmentCache = new InstanceFragmentCache(100, 1024 * 1024);
+		CloudJacksonJson cachingJson = new CloudJacksonJson();
+		cachingJson.getCodec().setInstanceFragmentCache(fragmentCache);
+		InstanceInfo info = getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo());
+
+		cachingJson.encode(info);
+		info.setStatusWithoutDirty(InstanceInfo.InstanceStatus.DOWN);
+		InstanceInfo decoded = json.decode(cachingJson.encode(info), InstanceInfo.class);
+
+		assertThat(fragmentCache.getMissCount()).isEqualTo(2);
+		assertThat(decoded.getStatus()).isEqualTo(InstanceInfo.InstanceStatus.DOWN);
+	}
+
+	@Test
+	void concurrentDecodingSharesReaders() throws Exception {
+		Applications applications = new Applications();
+		Application application = new Application("FOO");
+		for (int i = 0; i < 10; i++) {
+			application.addInstance(getInstanceInfo("FOO", "foo-host", "foo-host:" + i, i, getLeaseInfo()));
+		}
+		applications.addApplication(application);
+		String encoded = json.encode(applications);
+
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<Applications>> tasks = new ArrayList<>();
+			for (int i = 0; i < 16; i++) {
+				tasks.add(() -> json.decode(encoded, Applications.class));
+			}
+			for (Future<Applications> result : executor.invokeAll(tasks)) {
+				assertThat(result.get().getRegisteredApplications("FOO").getInstances()).hasSize(10);
+			}
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+}
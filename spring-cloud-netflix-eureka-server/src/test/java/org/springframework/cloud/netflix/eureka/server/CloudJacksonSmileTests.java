@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link CloudJacksonSmile}.
+ */
+class CloudJacksonSmileTests {
+
+	private final CloudJacksonJson json = new CloudJacksonJson();
+
+	private final CloudJacksonSmile smile = new CloudJacksonSmile();
+
+	@Test
+	void applicationsRoundTrip() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		this.smile.encode(applications(), out);
+
+		Applications decoded = this.smile.decode(new ByteArrayInputStream(out.toByteArray()), Applications.class);
+
+		assertThat(decoded.getRegisteredApplications("FOO").getByInstanceId("foo-host:8080").getPort())
+			.isEqualTo(8080);
+	}
+
+	@Test
+	void transcodedJsonDecodesToSamePayload() throws Exception {
+		byte[] payload = this.json.encode(applications()).getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		this.smile.transcode(payload, out);
+
+		assertThat(out.size()).isLessThan(payload.length);
+		Applications decoded = this.smile.decode(new ByteArrayInputStream(out.toByteArray()), Applications.class);
+		assertThat(decoded.getRegisteredApplications()).hasSize(2);
+		InstanceInfo instance = decoded.getRegisteredApplications("BAR").getByInstanceId("bar-host:9090");
+		assertThat(instance.getPort()).isEqualTo(9090);
+		assertThat(instance.getLeaseInfo().getRenewalIntervalInSecs())
+			.isEqualTo(getLeaseInfo().getRenewalIntervalInSecs());
+	}
+
+	private static Applications applications() {
+		Applications applications = new Applications();
+		Application foo = new Application("FOO");
+		foo.addInstance(getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo()));
+		applications.addApplication(foo);
+		Application bar = new Application("BAR");
+		bar.addInstance(getInstanceInfo("BAR", "bar-host", "bar-host:9090", 9090, getLeaseInfo()));
+		applications.addApplication(bar);
+		return applications;
+	}
+
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.netflix.discovery.converters.wrappers.CodecWrapper;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link DeltaLongPollFilter}.
+ */
+class DeltaLongPollFilterTests {
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private final ServerCodecs serverCodecs = mock(ServerCodecs.class);
+
+	private RegistryDeltaLongPoll longPoll;
+
+	private DeltaLongPollFilter filter;
+
+	@BeforeEach
+	void setup() throws Exception {
+		CodecWrapper codec = mock(CodecWrapper.class);
+		when(codec.encode(any())).thenReturn("{}");
+		when(this.serverCodecs.getFullJsonCodec()).thenReturn(codec);
+		when(this.registry.getApplicationDeltas()).thenReturn(new Applications());
+		when(this.registry.shouldAllowAccess(false)).thenReturn(true);
+		this.longPoll = new RegistryDeltaLongPoll(this.registry, mock(EurekaServerConfig.class), this.serverCodecs,
+				new InterestedApplicationsPayloads(this.registry, this.serverCodecs, 16), 30000, 1000);
+		this.filter = new DeltaLongPollFilter(this.longPoll, true);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.longPoll.destroy();
+	}
+
+	@Test
+	void answersRightAwayWhenVersionMoved() throws Exception {
+		MockHttpServletRequest request = request("0:0");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(request, response, chain);
+
+		assertThat(chain.getRequest()).isNull();
+		assertThat(request.isAsyncStarted()).isFalse();
+		assertThat(response.getContentAsString()).isEqualTo("{}");
+		assertThat(response.getHeader(EurekaConstants.REGISTRY_VERSION_HEADER)).isEqualTo(this.longPoll.getVersion());
+	}
+
+	@Test
+	void holdsFetchUntilRegistryChanges() throws Exception {
+		String version = this.longPoll.getVersion();
+		MockHttpServletRequest request = request(version);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(request.isAsyncStarted()).isTrue();
+		assertThat(this.longPoll.getWaitingCount()).isEqualTo(1);
+		assertThat(response.getContentAsByteArray()).isEmpty();
+
+		this.longPoll.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo", false));
+
+		await().atMost(5, SECONDS).until(() -> !request.isAsyncStarted());
+		assertThat(response.getContentAsString()).isEqualTo("{}");
+		assertThat(response.getHeader(EurekaConstants.REGISTRY_VERSION_HEADER)).isNotEqualTo(version)
+			.isEqualTo(this.longPoll.getVersion());
+	}
+
+	@Test
+	void answersHeldFetchWhenWaitIsOver() throws Exception {
+		String version = this.longPoll.getVersion();
+		MockHttpServletRequest request = request(version);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		MockAsyncContext asyncContext = (MockAsyncContext) request.getAsyncContext();
+		assertThat(asyncContext.getTimeout()).isEqualTo(10000);
+		for (AsyncListener listener : asyncContext.getListeners()) {
+			listener.onTimeout(new AsyncEvent(asyncContext));
+		}
+
+		assertThat(request.isAsyncStarted()).isFalse();
+		assertThat(this.longPoll.getWaitingCount()).isZero();
+		assertThat(response.getHeader(EurekaConstants.REGISTRY_VERSION_HEADER)).isEqualTo(version);
+	}
+
+	@Test
+	void answersChangesWithinTheRefreshIntervalTogether() throws Exception {
+		this.filter.doFilter(request("0:0"), new MockHttpServletResponse(), new MockFilterChain());
+		String version = this.longPoll.getVersion();
+		this.longPoll.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo", false));
+		this.longPoll.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "BAR", "bar", false));
+
+		MockHttpServletRequest request = request(version);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(request.isAsyncStarted()).isTrue();
+		await().atMost(5, SECONDS).until(() -> !request.isAsyncStarted());
+		assertThat(response.getHeader(EurekaConstants.REGISTRY_VERSION_HEADER)).isEqualTo(this.longPoll.getVersion());
+		verify(this.registry, times(2)).getApplicationDeltas();
+	}
+
+	@Test
+	void answersWithGzipWhenAccepted() throws Exception {
+		MockHttpServletRequest request = request("0:0");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("{}");
+		}
+	}
+
+	@Test
+	void leavesRemoteRegionFetchesToEurekaResources() throws Exception {
+		MockHttpServletRequest request = request(this.longPoll.getVersion());
+		request.addParameter("regions", "us-west");
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest()).isSameAs(request);
+		assertThat(request.isAsyncStarted()).isFalse();
+	}
+
+	private static MockHttpServletRequest request(String since) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/eureka/v2/apps/delta");
+		request.setAsyncSupported(true);
+		request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+		request.addParameter(EurekaConstants.DELTA_SINCE_PARAMETER, since);
+		request.addParameter(EurekaConstants.DELTA_MAX_WAIT_PARAMETER, "10000");
+		return request;
+	}
+
+}
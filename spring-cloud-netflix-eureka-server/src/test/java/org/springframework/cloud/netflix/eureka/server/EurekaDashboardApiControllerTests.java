@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.EurekaDashboardApiController.Page;
+import org.springframework.cloud.netflix.eureka.server.EurekaDashboardModel.DashboardApplication;
+import org.springframework.cloud.netflix.eureka.server.EurekaDashboardModel.DashboardInstance;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link EurekaDashboardApiController}.
+ */
+class EurekaDashboardApiControllerTests {
+
+	private EurekaDashboardModel model;
+
+	private EurekaDashboardApiController controller;
+
+	@BeforeEach
+	void setup() {
+		List<Application> applications = new ArrayList<>();
+		applications.add(application("BAR", 1));
+		applications.add(application("FOO", 3));
+		applications.get(1).getByInstanceId("foo-host-0:8080").setStatus(InstanceInfo.InstanceStatus.DOWN);
+		PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+		when(registry.getSortedApplications()).thenReturn(applications);
+		this.model = new EurekaDashboardModel(registry, 60000, 10);
+		this.controller = new EurekaDashboardApiController(this.model);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.model.destroy();
+	}
+
+	@Test
+	void pagesAndFiltersApplications() {
+		Page<DashboardApplication> page = this.controller.apps(null, 1, 1);
+
+		assertThat(page.totalElements()).isEqualTo(2);
+		assertThat(page.content()).singleElement().satisfies(app -> {
+			assertThat(app.name()).isEqualTo("FOO");
+			assertThat(app.instanceCount()).isEqualTo(3);
+			assertThat(app.statusCounts()).containsOnly(entry("DOWN", 1), entry("UP", 2));
+		});
+		assertThat(this.controller.apps("ba", 0, 50).content()).extracting(DashboardApplication::name)
+			.containsExactly("BAR");
+	}
+
+	@Test
+	void pagesAndFiltersInstances() {
+		ResponseEntity<Page<DashboardInstance>> response = this.controller.instances("foo", null, null, null, 0, 2);
+
+		assertThat(response.getBody().totalElements()).isEqualTo(3);
+		assertThat(response.getBody().content()).extracting(DashboardInstance::id)
+			.containsExactly("foo-host-0:8080", "foo-host-1:8080");
+		assertThat(this.controller.instances("FOO", "down", null, null, 0, 50).getBody().content())
+			.extracting(DashboardInstance::id)
+			.containsExactly("foo-host-0:8080");
+		assertThat(this.controller.instances("FOO", null, null, "host-2", 0, 50).getBody().content()).hasSize(1);
+		assertThat(this.controller.instances("BAZ", null, null, null, 0, 50).getStatusCode())
+			.isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	@Test
+	void countsInstancesOfAllApplications() {
+		assertThat(this.controller.histograms().get("status")).containsOnly(entry("DOWN", 1), entry("UP", 3));
+		assertThat(this.controller.histograms().get("zone")).containsOnly(entry("", 4));
+	}
+
+	private static Application application(String name, int instances) {
+		Application application = new Application(name);
+		for (int i = 0; i < instances; i++) {
+			String host = name.toLowerCase() + "-host-" + i;
+			application.addInstance(getInstanceInfo(name, host, host + ":8080", 8080, getLeaseInfo()));
+		}
+		return application;
+	}
+
+}
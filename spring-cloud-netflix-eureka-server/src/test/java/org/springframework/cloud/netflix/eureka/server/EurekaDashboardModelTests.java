@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.discovery.shared.Application;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link EurekaDashboardModel}.
+ */
+class EurekaDashboardModelTests {
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private EurekaDashboardModel model;
+
+	@BeforeEach
+	void setup() {
+		when(this.registry.getSortedApplications()).thenReturn(List.of(application("FOO")));
+		this.model = new EurekaDashboardModel(this.registry, 60000, 10);
+		this.model.bindTo(this.meterRegistry);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.model.destroy();
+	}
+
+	@Test
+	void rendersSnapshotUntilRegistryChanges() {
+		when(this.registry.getSortedApplications()).thenReturn(List.of(application("BAR"), application("FOO")));
+		this.model.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "BAZ", "baz-host:8080", false));
+		await().atMost(5, SECONDS).until(() -> rebuildCount() >= 1 && this.model.getApps().size() == 2);
+
+		when(this.registry.getSortedApplications()).thenReturn(List.of());
+		assertThat(this.model.getApps()).extracting(app -> app.get("name")).containsExactly("BAR", "FOO");
+
+		this.model.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo-host:8080", false));
+		await().atMost(5, SECONDS).until(() -> this.model.getApps().isEmpty());
+	}
+
+	@Test
+	void snapshotIsUnmodifiable() {
+		List<Map<String, Object>> apps = this.model.getApps();
+
+		assertThat(apps).hasSize(1);
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(() -> apps.get(0).put("name", "BAR"));
+		assertThatExceptionOfType(UnsupportedOperationException.class).isThrownBy(apps::clear);
+	}
+
+	private long rebuildCount() {
+		return this.meterRegistry.get("eureka.server.dashboard.rebuild").timer().count();
+	}
+
+	private static Application application(String name) {
+		Application application = new Application(name);
+		application.addInstance(getInstanceInfo(name, name.toLowerCase() + "-host",
+				name.toLowerCase() + "-host:8080", 8080, getLeaseInfo()));
+		return application;
+	}
+
+}
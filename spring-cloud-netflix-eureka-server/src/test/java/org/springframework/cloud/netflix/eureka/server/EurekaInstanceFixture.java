@@ -33,13 +33,18 @@ public final class EurekaInstanceFixture {
 
 	public static InstanceInfo getInstanceInfo(String appName, String hostName, String instanceId, int port,
 			LeaseInfo leaseInfo) {
+		return getInstanceInfoBuilder(appName, hostName, instanceId, port, leaseInfo).build();
+	}
+
+	public static InstanceInfo.Builder getInstanceInfoBuilder(String appName, String hostName, String instanceId,
+			int port, LeaseInfo leaseInfo) {
 		InstanceInfo.Builder builder = InstanceInfo.Builder.newBuilder();
 		builder.setAppName(appName);
 		builder.setHostName(hostName);
 		builder.setInstanceId(instanceId);
 		builder.setPort(port);
 		builder.setLeaseInfo(leaseInfo);
-		return builder.build();
+		return builder;
 	}
 
 }
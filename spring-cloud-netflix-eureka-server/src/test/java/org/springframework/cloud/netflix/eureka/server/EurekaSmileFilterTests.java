@@ -0,0 +1,151 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.Key;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.registry.ResponseCache;
+import com.netflix.eureka.registry.ResponseCacheImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link EurekaSmileFilter}.
+ */
+class EurekaSmileFilterTests {
+
+	private final CloudJacksonSmile smile = spy(new CloudJacksonSmile());
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private final ResponseCache responseCache = mock(ResponseCache.class);
+
+	private final EurekaServerConfig serverConfig = mock(EurekaServerConfig.class);
+
+	private final EurekaSmileFilter filter = new EurekaSmileFilter(this.smile, this.registry, this.serverConfig, 4);
+
+	private String payload = new CloudJacksonJson().encode(applications());
+
+	@BeforeEach
+	void setup() {
+		when(this.registry.getResponseCache()).thenReturn(this.responseCache);
+		when(this.registry.shouldAllowAccess(anyBoolean())).thenReturn(true);
+		when(this.responseCache.get(any(Key.class))).thenAnswer(invocation -> {
+			Key key = invocation.getArgument(0);
+			return ResponseCacheImpl.ALL_APPS.equals(key.getName()) ? this.payload : null;
+		});
+	}
+
+	@Test
+	void servesSmileFromTheResponseCache() throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		MockHttpServletResponse response = get("/eureka/v2/apps/",
+				CloudJacksonSmile.APPLICATION_SMILE_VALUE + ", application/json", null, chain);
+
+		assertThat(chain.getRequest()).isNull();
+		assertThat(response.getContentType()).isEqualTo(CloudJacksonSmile.APPLICATION_SMILE_VALUE);
+		Applications decoded = this.smile.decode(new ByteArrayInputStream(response.getContentAsByteArray()),
+				Applications.class);
+		assertThat(decoded.getRegisteredApplications("FOO").getInstances()).hasSize(1);
+	}
+
+	@Test
+	void servesGzipSmileToClientsThatAcceptGzip() throws Exception {
+		MockHttpServletResponse response = get("/eureka/v2/apps/", CloudJacksonSmile.APPLICATION_SMILE_VALUE,
+				"gzip", new MockFilterChain());
+
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		Applications decoded = this.smile.decode(
+				new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())), Applications.class);
+		assertThat(decoded.getRegisteredApplications("FOO").getInstances()).hasSize(1);
+	}
+
+	@Test
+	void leavesOtherClientsAndRequestsToEureka() throws Exception {
+		MockFilterChain json = new MockFilterChain();
+		get("/eureka/v2/apps/", MediaType.APPLICATION_JSON_VALUE, null, json);
+		MockFilterChain unknownApplication = new MockFilterChain();
+		get("/eureka/v2/apps/BAR", CloudJacksonSmile.APPLICATION_SMILE_VALUE, null, unknownApplication);
+		MockFilterChain instance = new MockFilterChain();
+		get("/eureka/v2/apps/FOO/foo-host:8080", CloudJacksonSmile.APPLICATION_SMILE_VALUE, null, instance);
+
+		assertThat(json.getRequest()).isNotNull();
+		assertThat(unknownApplication.getRequest()).isNotNull();
+		assertThat(instance.getRequest()).isNotNull();
+	}
+
+	@Test
+	void reencodesOnlyWhenTheResponseCacheBuildsANewPayload() throws Exception {
+		byte[] first = get("/eureka/v2/apps/", CloudJacksonSmile.APPLICATION_SMILE_VALUE, null, new MockFilterChain())
+			.getContentAsByteArray();
+		byte[] second = get("/eureka/v2/apps/", CloudJacksonSmile.APPLICATION_SMILE_VALUE, null,
+				new MockFilterChain())
+			.getContentAsByteArray();
+		this.payload = new CloudJacksonJson().encode(new Applications());
+		byte[] third = get("/eureka/v2/apps/", CloudJacksonSmile.APPLICATION_SMILE_VALUE, null, new MockFilterChain())
+			.getContentAsByteArray();
+
+		assertThat(second).isEqualTo(first);
+		assertThat(third).isNotEqualTo(first);
+		verify(this.responseCache, times(3)).get(any(Key.class));
+		verify(this.smile, times(2)).transcode(any(), any());
+	}
+
+	private MockHttpServletResponse get(String uri, String accept, String acceptEncoding, MockFilterChain chain)
+			throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.addHeader(HttpHeaders.ACCEPT, accept);
+		if (acceptEncoding != null) {
+			request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, chain);
+		return response;
+	}
+
+	private static Applications applications() {
+		Applications applications = new Applications();
+		Application application = new Application("FOO");
+		application.addInstance(getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo()));
+		applications.addApplication(application);
+		return applications;
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+
+/**
+ * Tests for {@link GzipRequestFilter}.
+ */
+class GzipRequestFilterTests {
+
+	private static final String BODY = "{\"replicationList\":[]}";
+
+	private final GzipRequestFilter filter = new GzipRequestFilter(1024);
+
+	@Test
+	void decompressesGzipRequests() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/eureka/peerreplication/batch/");
+		request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		request.setContent(gzip(BODY));
+
+		HttpServletRequest filtered = filter(request);
+
+		assertThat(filtered.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+		assertThat(filtered.getContentLength()).isEqualTo(-1);
+		assertThat(StreamUtils.copyToString(filtered.getInputStream(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+	}
+
+	@Test
+	void rejectsRequestsThatDecompressPastTheLimit() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/eureka/peerreplication/batch/");
+		request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		request.setContent(gzip(" ".repeat(1025)));
+
+		HttpServletRequest filtered = filter(request);
+
+		assertThatExceptionOfType(IOException.class)
+			.isThrownBy(() -> StreamUtils.copyToByteArray(filtered.getInputStream()));
+	}
+
+	@Test
+	void rejectsNonBlockingReads() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/eureka/peerreplication/batch/");
+		request.addHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		request.setContent(gzip(BODY));
+
+		HttpServletRequest filtered = filter(request);
+
+		assertThatIllegalStateException().isThrownBy(() -> filtered.getInputStream().setReadListener(null));
+	}
+
+	@Test
+	void passesOtherRequestsThrough() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/eureka/peerreplication/batch/");
+		request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+
+		assertThat(filter(request)).isSameAs(request);
+	}
+
+	private HttpServletRequest filter(MockHttpServletRequest request) throws Exception {
+		MockFilterChain chain = new MockFilterChain();
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+		return (HttpServletRequest) chain.getRequest();
+	}
+
+	private static byte[] gzip(String content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(content.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+
+}
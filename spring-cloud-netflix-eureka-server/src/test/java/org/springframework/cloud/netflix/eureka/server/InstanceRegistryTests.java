@@ -44,7 +44,7 @@ import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixt
  * @author Bartlomiej Slota
  */
 @SpringBootTest(classes = TestApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-		value = { "spring.application.name=eureka",
+		value = { "spring.application.name=eureka", "eureka.server.enable-self-preservation=false",
 				"logging.level.org.springframework." + "cloud.netflix.eureka.server.InstanceRegistry=DEBUG" })
 class InstanceRegistryTests {
 
@@ -99,6 +99,19 @@ class InstanceRegistryTests {
 		assertThat(registeredEvent.getLeaseDuration()).isEqualTo(LeaseInfo.DEFAULT_LEASE_DURATION);
 	}
 
+	@Test
+	void testRegisterDerivesInstanceIdFromMetadata() {
+		final InstanceInfo instanceInfo = getInstanceInfo(APP_NAME, HOST_NAME, null, PORT, null);
+		instanceInfo.getMetadata().put("instanceId", "8008");
+
+		instanceRegistry.register(instanceInfo, false);
+
+		assertThat(instanceRegistry.getInstanceByAppAndId(APP_NAME, INSTANCE_ID)).isNotNull();
+		final EurekaInstanceRegisteredEvent registeredEvent = (EurekaInstanceRegisteredEvent) (this.testEvents.applicationEvents
+			.get(0));
+		assertThat(registeredEvent.getInstanceInfo().getInstanceId()).isEqualTo(INSTANCE_ID);
+	}
+
 	@Test
 	void testInternalCancel() {
 		// registering instance info
@@ -117,6 +130,23 @@ class InstanceRegistryTests {
 		assertThat(registeredEvent.getServerId()).isEqualTo(INSTANCE_ID);
 		assertThat(registeredEvent.getSource()).isEqualTo(instanceRegistry);
 		assertThat(registeredEvent.isReplication()).isFalse();
+		assertThat(registeredEvent.getLastDirtyTimestamp()).isEqualTo(instanceInfo.getLastDirtyTimestamp());
+		assertThat(registeredEvent.isExpired()).isFalse();
+	}
+
+	@Test
+	void testEvict() {
+		final InstanceInfo instanceInfo = getInstanceInfo(APP_NAME, HOST_NAME, INSTANCE_ID, PORT, getLeaseInfo());
+		instanceRegistry.register(instanceInfo, false);
+		// evicting as if the lease had expired a minute ago
+		instanceRegistry.evict(-60_000);
+		assertThat(instanceRegistry.getInstanceByAppAndId(APP_NAME, INSTANCE_ID)).isNull();
+		assertThat(this.testEvents.applicationEvents.size()).isEqualTo(2);
+		final EurekaInstanceCanceledEvent event = (EurekaInstanceCanceledEvent) (this.testEvents.applicationEvents
+			.get(1));
+		assertThat(event.getServerId()).isEqualTo(INSTANCE_ID);
+		assertThat(event.isReplication()).isFalse();
+		assertThat(event.isExpired()).isTrue();
 	}
 
 	@Test
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.EurekaConstants;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link InterestedApplicationsFilter}.
+ */
+class InterestedApplicationsFilterTests {
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private InterestedApplicationsFilter filter;
+
+	@BeforeEach
+	void setup() {
+		ServerCodecs serverCodecs = mock(ServerCodecs.class);
+		when(serverCodecs.getFullJsonCodec()).thenReturn(EurekaServerAutoConfiguration.JACKSON_JSON);
+		when(this.registry.shouldAllowAccess(false)).thenReturn(true);
+		when(this.registry.getApplication("FOO")).thenReturn(application("FOO"));
+		when(this.registry.getApplication("BAR")).thenReturn(application("BAR"));
+		this.filter = new InterestedApplicationsFilter(this.registry, mock(EurekaServerConfig.class),
+				new InterestedApplicationsPayloads(this.registry, serverCodecs, 16));
+	}
+
+	@Test
+	void servesOnlyInterestedApplications() throws Exception {
+		MockHttpServletRequest request = request("/eureka/v2/apps/", "foo");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(request, response, chain);
+
+		assertThat(chain.getRequest()).isNull();
+		Applications applications = decode(response);
+		assertThat(applications.getRegisteredApplications()).extracting(Application::getName).containsExactly("FOO");
+		assertThat(applications.getAppsHashCode()).isEqualTo("UP_1_");
+	}
+
+	@Test
+	void servesDeltaOfInterestedApplications() throws Exception {
+		Applications deltas = new Applications();
+		deltas.addApplication(application("FOO"));
+		deltas.addApplication(application("BAR"));
+		when(this.registry.getApplicationDeltas()).thenReturn(deltas);
+		MockHttpServletRequest request = request("/eureka/v2/apps/delta", "BAR,BAZ");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		Applications delta = decode(response);
+		assertThat(delta.getRegisteredApplications()).extracting(Application::getName).containsExactly("BAR");
+		assertThat(delta.getAppsHashCode()).isEqualTo("UP_1_");
+	}
+
+	@Test
+	void servesGzipWhenAccepted() throws Exception {
+		MockHttpServletRequest request = request("/eureka/v2/apps/", "foo");
+		request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+
+		this.filter.doFilter(request, response, new MockFilterChain());
+
+		assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+			Applications applications = EurekaServerAutoConfiguration.JACKSON_JSON
+				.decode(new String(in.readAllBytes(), StandardCharsets.UTF_8), Applications.class);
+			assertThat(applications.getRegisteredApplications()).extracting(Application::getName)
+				.containsExactly("FOO");
+		}
+	}
+
+	@Test
+	void leavesFetchesOfAllApplicationsToEurekaResources() throws Exception {
+		MockHttpServletRequest request = request("/eureka/v2/apps/", null);
+		MockFilterChain chain = new MockFilterChain();
+
+		this.filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+		assertThat(chain.getRequest()).isSameAs(request);
+	}
+
+	private static MockHttpServletRequest request(String uri, String apps) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.addHeader(HttpHeaders.ACCEPT, MediaType.APPLICATION_JSON_VALUE);
+		if (apps != null) {
+			request.addParameter(EurekaConstants.APPS_PARAMETER, apps);
+		}
+		return request;
+	}
+
+	private static Application application(String name) {
+		InstanceInfo instance = EurekaInstanceFixture.getInstanceInfo(name, "localhost", name.toLowerCase() + ":1",
+				8080, EurekaInstanceFixture.getLeaseInfo());
+		Application application = new Application(name);
+		application.addInstance(instance);
+		return application;
+	}
+
+	private static Applications decode(MockHttpServletResponse response) throws Exception {
+		return EurekaServerAutoConfiguration.JACKSON_JSON.decode(response.getContentAsString(), Applications.class);
+	}
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link InterestedApplicationsPayloads}.
+ */
+class InterestedApplicationsPayloadsTests {
+
+	private final InstanceRegistry registry = mock(InstanceRegistry.class);
+
+	private InterestedApplicationsPayloads payloads;
+
+	@BeforeEach
+	void setup() {
+		ServerCodecs serverCodecs = mock(ServerCodecs.class);
+		when(serverCodecs.getFullJsonCodec()).thenReturn(EurekaServerAutoConfiguration.JACKSON_JSON);
+		Applications deltas = new Applications();
+		deltas.addApplication(application("FOO"));
+		when(this.registry.getApplicationDeltas()).thenReturn(deltas);
+		when(this.registry.getApplication("FOO")).thenReturn(application("FOO"));
+		when(this.registry.getApplication("BAR")).thenReturn(application("BAR"));
+		this.payloads = new InterestedApplicationsPayloads(this.registry, serverCodecs, 16);
+	}
+
+	@Test
+	void keepsPayloadsUntilRegistryChanges() throws Exception {
+		when(this.registry.getChangeCount()).thenReturn(5L);
+		InterestedApplicationsPayloads.Payload delta = this.payloads.delta(Set.of("FOO"));
+
+		assertThat(this.payloads.delta(Set.of("FOO"))).isSameAs(delta);
+		verify(this.registry, times(1)).getApplicationDeltas();
+
+		when(this.registry.getChangeCount()).thenReturn(6L);
+		assertThat(this.payloads.delta(Set.of("FOO"))).isNotSameAs(delta);
+		verify(this.registry, times(2)).getApplicationDeltas();
+		assertThat(this.payloads.size()).isOne();
+	}
+
+	@Test
+	void keepsPayloadsRegardlessOfTheOrderOfApplications() throws Exception {
+		when(this.registry.getChangeCount()).thenReturn(5L);
+		InterestedApplicationsPayloads.Payload applications = this.payloads
+			.applications(new LinkedHashSet<>(List.of("FOO", "BAR")));
+
+		assertThat(this.payloads.applications(new LinkedHashSet<>(List.of("BAR", "FOO")))).isSameAs(applications);
+		assertThat(this.payloads.delta(Set.of("FOO", "BAR"))).isNotSameAs(applications);
+	}
+
+	@Test
+	void readsAgainWhenRegistryChangesMeanwhile() throws Exception {
+		when(this.registry.getChangeCount()).thenReturn(5L, 6L, 6L, 6L);
+		InterestedApplicationsPayloads.Payload delta = this.payloads.delta(Set.of("FOO"));
+
+		verify(this.registry, times(2)).getApplicationDeltas();
+		assertThat(this.payloads.delta(Set.of("FOO"))).isSameAs(delta);
+	}
+
+	@Test
+	void doesNotKeepPayloadsWhileRegistryKeepsChanging() throws Exception {
+		when(this.registry.getChangeCount()).thenReturn(-1L);
+
+		this.payloads.delta(Set.of("FOO"));
+
+		verify(this.registry, times(3)).getApplicationDeltas();
+		assertThat(this.payloads.size()).isZero();
+	}
+
+	private static Application application(String name) {
+		InstanceInfo instance = EurekaInstanceFixture.getInstanceInfo(name, "localhost", name.toLowerCase() + ":1",
+				8080, EurekaInstanceFixture.getLeaseInfo());
+		Application application = new Application(name);
+		application.addInstance(instance);
+		return application;
+	}
+
+}
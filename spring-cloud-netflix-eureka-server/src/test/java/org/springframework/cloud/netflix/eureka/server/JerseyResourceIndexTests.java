@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.netflix.eureka.resources.ApplicationsResource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.core.env.StandardEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+
+class JerseyResourceIndexTests {
+
+	private final ClassLoader classLoader = getClass().getClassLoader();
+
+	@Test
+	void scanFindsEurekaResources() {
+		assertThat(JerseyResourceIndex.scan(new StandardEnvironment())).contains(ApplicationsResource.class.getName());
+	}
+
+	@Test
+	void indexMatchesScan() {
+		Set<Class<?>> indexed = JerseyResourceIndex.load(this.classLoader);
+		// the index is written by the build once the classes are compiled
+		assumeThat(indexed).isNotNull();
+
+		assertThat(indexed.stream().map(Class::getName).collect(Collectors.toSet()))
+			.isEqualTo(JerseyResourceIndex.scan(new StandardEnvironment()));
+	}
+
+	@Test
+	void writerWritesIndex(@TempDir Path dir) throws Exception {
+		JerseyResourceIndexWriter.main(new String[] { dir.toString() });
+
+		List<String> expected = new ArrayList<>(JerseyResourceIndex.versions(this.classLoader));
+		expected.addAll(JerseyResourceIndex.scan(new StandardEnvironment()));
+		assertThat(Files.readAllLines(dir.resolve(JerseyResourceIndex.LOCATION))).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void indexOfOtherEurekaVersionIsIgnored() throws Exception {
+		List<String> lines = new ArrayList<>();
+		for (String version : JerseyResourceIndex.versions(this.classLoader)) {
+			lines.add(version + "-other");
+		}
+		lines.add(ApplicationsResource.class.getName());
+		ClassLoader loader = new ClassLoader(this.classLoader) {
+			@Override
+			public InputStream getResourceAsStream(String name) {
+				return JerseyResourceIndex.LOCATION.equals(name)
+						? new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8))
+						: super.getResourceAsStream(name);
+			}
+		};
+
+		assertThat(JerseyResourceIndex.load(loader)).isNull();
+	}
+
+	@Test
+	void staleIndexIsIgnored(@TempDir Path dir) throws Exception {
+		Path index = dir.resolve(JerseyResourceIndex.LOCATION);
+		Files.createDirectories(index.getParent());
+		Files.write(index, List.of(ApplicationsResource.class.getName(), "com.netflix.eureka.resources.Missing"));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { dir.toUri().toURL() }, null)) {
+			assertThat(JerseyResourceIndex.load(loader)).isNull();
+		}
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.springframework.core.env.StandardEnvironment;
+
+/**
+ * Writes the {@link JerseyResourceIndex}, run by the build once the classes have been
+ * compiled. Kept with the tests so that it is not part of the server jar.
+ */
+public final class JerseyResourceIndexWriter {
+
+	private JerseyResourceIndexWriter() {
+	}
+
+	/**
+	 * Write the index.
+	 * @param args the output directory of the classes
+	 * @throws IOException if the index cannot be written
+	 */
+	public static void main(String[] args) throws IOException {
+		Path index = Paths.get(args[0]).resolve(JerseyResourceIndex.LOCATION);
+		Files.createDirectories(index.getParent());
+		List<String> lines = JerseyResourceIndex.versions(JerseyResourceIndexWriter.class.getClassLoader());
+		lines.addAll(JerseyResourceIndex.scan(new StandardEnvironment()));
+		Files.write(index, lines);
+	}
+
+}
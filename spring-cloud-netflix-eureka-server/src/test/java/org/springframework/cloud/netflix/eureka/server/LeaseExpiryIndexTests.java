@@ -0,0 +1,111 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link LeaseExpiryIndex}.
+ */
+class LeaseExpiryIndexTests {
+
+	private static final long TICK = 1000;
+
+	private final LeaseExpiryIndex index = new LeaseExpiryIndex(TICK, 64, 0);
+
+	@Test
+	void findsLeasesOnceTheirTickIsOver() {
+		this.index.registered("FOO", "foo1", 30_000, 0);
+		this.index.registered("FOO", "foo2", 90_000, 0);
+
+		assertThat(this.index.expired(30_500)).isEmpty();
+		assertThat(this.index.expired(31_000)).containsExactly(new LeaseExpiryIndex.Key("FOO", "foo1"));
+	}
+
+	@Test
+	void renewedLeasesExpireTwiceTheirDurationLater() {
+		this.index.registered("FOO", "foo1", 30_000, 0);
+		this.index.renewed("FOO", "foo1", 90_000, 20_000);
+
+		assertThat(this.index.expired(60_000)).isEmpty();
+		assertThat(this.index.expired(81_000)).containsExactly(new LeaseExpiryIndex.Key("FOO", "foo1"));
+	}
+
+	@Test
+	void keepsFindingExpiredLeasesUntilTheyAreRemoved() {
+		this.index.registered("FOO", "foo1", 30_000, 0);
+
+		assertThat(this.index.expired(40_000)).hasSize(1);
+		assertThat(this.index.expired(50_000)).hasSize(1);
+
+		this.index.removed("FOO", "foo1");
+
+		assertThat(this.index.expired(60_000)).isEmpty();
+		assertThat(this.index.size()).isZero();
+	}
+
+	@Test
+	void skipsLeasesOfLaterRevolutions() {
+		// the wheel spans 64 ticks, so both leases share a slot
+		this.index.registered("FOO", "foo1", 10_000, 0);
+		this.index.registered("FOO", "foo2", 74_000, 0);
+
+		assertThat(this.index.expired(11_000)).containsExactly(new LeaseExpiryIndex.Key("FOO", "foo1"));
+		this.index.removed("FOO", "foo1");
+		assertThat(this.index.expired(60_000)).isEmpty();
+		assertThat(this.index.expired(75_000)).containsExactly(new LeaseExpiryIndex.Key("FOO", "foo2"));
+	}
+
+	@Test
+	void concurrentRenewalsKeepEveryLeaseIndexed() throws InterruptedException {
+		for (int i = 0; i < 1000; i++) {
+			this.index.registered("FOO", "foo" + i, 10_000, 0);
+		}
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int offset = t;
+			threads.add(new Thread(() -> {
+				for (int i = 0; i < 1000; i++) {
+					this.index.renewed("FOO", "foo" + ((i + offset * 125) % 1000), 90_000, 1_000 + offset * 500);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		assertThat(this.index.expired(20_000)).isEmpty();
+		assertThat(this.index.expired(26_000)).hasSize(1000);
+	}
+
+	@Test
+	void findsAllExpiredLeasesWhenNotCalledForMoreThanARevolution() {
+		this.index.registered("FOO", "foo1", 10_000, 0);
+		this.index.registered("FOO", "foo2", 50_000, 0);
+		this.index.registered("FOO", "foo3", 500_000, 0);
+
+		assertThat(this.index.expired(200_000)).containsExactlyInAnyOrder(new LeaseExpiryIndex.Key("FOO", "foo1"),
+				new LeaseExpiryIndex.Key("FOO", "foo2"));
+	}
+
+}
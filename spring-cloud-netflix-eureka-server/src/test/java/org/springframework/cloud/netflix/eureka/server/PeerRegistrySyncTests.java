@@ -0,0 +1,116 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.cluster.HttpReplicationClient;
+import org.junit.jupiter.api.Test;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfoBuilder;
+
+/**
+ * Tests for {@link PeerRegistrySync}.
+ */
+class PeerRegistrySyncTests {
+
+	@Test
+	void usesFreshestRegistryWhenPeersAgree() {
+		Applications stale = applications(instance("FOO", "foo1", 1), instance("FOO", "foo2", 2));
+		Applications fresh = applications(instance("FOO", "foo1", 1), instance("FOO", "foo2", 3));
+
+		assertThat(PeerRegistrySync.select(List.of(stale, fresh))).isSameAs(fresh);
+	}
+
+	@Test
+	void mergesRegistriesWhenPeersDisagree() {
+		Applications first = applications(instance("FOO", "foo1", 1), instance("FOO", "foo2", 5));
+		Applications second = applications(instance("FOO", "foo1", 4), instance("BAR", "bar1", 2),
+				instance("BAR", "bar2", 1));
+
+		Applications merged = PeerRegistrySync.select(List.of(first, second));
+
+		assertThat(merged.getRegisteredApplications("FOO").getInstances())
+			.extracting(InstanceInfo::getId, InstanceInfo::getLastDirtyTimestamp)
+			.containsExactlyInAnyOrder(tuple("foo1", 4L),
+					tuple("foo2", 5L));
+		assertThat(merged.getRegisteredApplications("BAR").getInstances()).hasSize(2);
+	}
+
+	@Test
+	void fetchesFromPeersThatAnswerInTime() {
+		Applications registry = applications(instance("FOO", "foo1", 1));
+		MonitoredPeerEurekaNode answering = peer(() -> registry);
+		MonitoredPeerEurekaNode failing = peer(() -> {
+			throw new IllegalStateException("peer down");
+		});
+		MonitoredPeerEurekaNode slow = peer(() -> {
+			Thread.sleep(5000);
+			return applications();
+		});
+
+		long start = System.nanoTime();
+		Applications synced = PeerRegistrySync.fetch(List.of(answering, failing, slow), 200);
+
+		assertThat(synced).isSameAs(registry);
+		assertThat(System.nanoTime() - start).isLessThan(4_000_000_000L);
+	}
+
+	private static MonitoredPeerEurekaNode peer(RegistrySupplier registry) {
+		HttpReplicationClient client = mock(HttpReplicationClient.class);
+		when(client.getApplications()).thenAnswer(invocation -> anEurekaHttpResponse(200, registry.get()).build());
+		MonitoredPeerEurekaNode peer = mock(MonitoredPeerEurekaNode.class);
+		when(peer.getReplicationClient()).thenReturn(client);
+		when(peer.getServiceUrl()).thenReturn("http://peer/eureka/");
+		return peer;
+	}
+
+	private static Applications applications(InstanceInfo... instances) {
+		Applications applications = new Applications();
+		for (InstanceInfo instance : instances) {
+			Application application = applications.getRegisteredApplications(instance.getAppName());
+			if (application == null) {
+				application = new Application(instance.getAppName());
+				applications.addApplication(application);
+			}
+			application.addInstance(instance);
+		}
+		return applications;
+	}
+
+	private static InstanceInfo instance(String appName, String id, long lastDirtyTimestamp) {
+		return getInstanceInfoBuilder(appName, id, id, 8080, null)
+			.setStatus(InstanceInfo.InstanceStatus.UP)
+			.setLastDirtyTimestamp(lastDirtyTimestamp)
+			.build();
+	}
+
+	private interface RegistrySupplier {
+
+		Applications get() throws Exception;
+
+	}
+
+}
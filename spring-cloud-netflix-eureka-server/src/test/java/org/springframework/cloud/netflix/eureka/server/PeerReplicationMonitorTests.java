@@ -0,0 +1,179 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.eureka.cluster.protocol.ReplicationInstance;
+import com.netflix.eureka.cluster.protocol.ReplicationInstanceResponse;
+import com.netflix.eureka.cluster.protocol.ReplicationListResponse;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistryImpl.Action;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static com.netflix.discovery.shared.transport.EurekaHttpResponse.anEurekaHttpResponse;
+import static com.netflix.eureka.cluster.protocol.ReplicationInstance.ReplicationInstanceBuilder.aReplicationInstance;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Tests for {@link PeerReplicationMonitor} and {@link PeerReplicationEndpoint}.
+ */
+class PeerReplicationMonitorTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final PeerReplicationMetrics metrics = new PeerReplicationMetrics(true);
+
+	private final ReplicationInstance register = aReplicationInstance().withAppName("FOO")
+		.withId("foo1")
+		.withAction(Action.Register)
+		.build();
+
+	private final ReplicationInstance heartbeat = aReplicationInstance().withAppName("FOO")
+		.withId("foo2")
+		.withAction(Action.Heartbeat)
+		.build();
+
+	PeerReplicationMonitorTests() {
+		this.metrics.bindTo(this.meterRegistry);
+	}
+
+	@Test
+	void followsTasksUntilThePeerAnswers() {
+		PeerReplicationMonitor monitor = this.metrics.monitor("peer1", "http://peer1/eureka/", 30000);
+		monitor.accepted(Action.Register, "FOO", "foo1");
+		monitor.accepted(Action.Heartbeat, "FOO", "foo2");
+		assertThat(gauge("eureka.server.replication.pending")).isEqualTo(2);
+
+		List<ReplicationInstance> batch = List.of(this.register, this.heartbeat);
+		long[] accepted = monitor.dispatched(batch);
+		ReplicationListResponse response = new ReplicationListResponse();
+		response.addResponse(new ReplicationInstanceResponse.Builder().setStatusCode(200).build());
+		response.addResponse(new ReplicationInstanceResponse.Builder().setStatusCode(404).build());
+		monitor.batchCompleted(batch, accepted, anEurekaHttpResponse(200, response).build(), 5_000_000);
+
+		assertThat(gauge("eureka.server.replication.pending")).isZero();
+		assertThat(monitor.getTasks()).containsEntry("register", Map.of("success", 1L, "failure", 0L, "dropped", 0L))
+			.containsEntry("heartbeat", Map.of("success", 0L, "failure", 1L, "dropped", 0L));
+		assertThat(this.meterRegistry.get("eureka.server.replication.tasks")
+			.tags("peer", "peer1", "action", "register", "outcome", "success")
+			.functionCounter()
+			.count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("eureka.server.replication.task.age").tag("action", "heartbeat").timer()
+			.count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("eureka.server.replication.task.batch.size").summary().totalAmount())
+			.isEqualTo(2);
+		assertThat(this.meterRegistry.get("eureka.server.replication.requests").tag("type", "batch").timer()
+			.count()).isEqualTo(1);
+		assertThat(monitor.getMeanRequestLatencyMs()).isEqualTo(5);
+	}
+
+	@Test
+	void keepsRetriedTasksPending() {
+		PeerReplicationMonitor monitor = this.metrics.monitor("peer1", "http://peer1/eureka/", 30000);
+		monitor.accepted(Action.Register, "FOO", "foo1");
+
+		List<ReplicationInstance> batch = List.of(this.register);
+		monitor.batchFailed(batch, monitor.dispatched(batch), 1_000_000);
+
+		assertThat(monitor.getPendingTasks()).isEqualTo(1);
+		assertThat(monitor.getFailedRequests()).isEqualTo(1);
+		assertThat(monitor.getTasks().get("register")).containsEntry("failure", 1L);
+	}
+
+	@Test
+	void countsExpiredTasksAsDropped() throws Exception {
+		PeerReplicationMonitor monitor = this.metrics.monitor("peer1", "http://peer1/eureka/", 1);
+		monitor.accepted(Action.Cancel, "FOO", "foo1");
+		monitor.accepted(Action.Cancel, "FOO", "foo1");
+		Thread.sleep(10);
+
+		assertThat(monitor.getPendingTasks()).isZero();
+		assertThat(monitor.getTasks().get("cancel")).containsEntry("dropped", 1L);
+	}
+
+	@Test
+	void endpointReportsLaggingPeers() throws Exception {
+		EurekaServerConfigBean serverConfig = new EurekaServerConfigBean();
+		serverConfig.setMaxTimeForReplication(20);
+		PeerReplicationMonitor monitor = this.metrics.monitor("peer1", "http://peer1/eureka/", 100);
+		this.metrics.monitor("peer2", "http://peer2/eureka/", 100);
+		monitor.accepted(Action.Register, "FOO", "foo1");
+		Thread.sleep(20);
+
+		PeerReplicationEndpoint.ReplicationDescriptor replication = new PeerReplicationEndpoint(serverConfig,
+				this.metrics)
+			.replication();
+
+		assertThat(replication.maxTimeForReplicationMs()).isEqualTo(20);
+		assertThat(replication.peers()).extracting(PeerReplicationEndpoint.PeerDescriptor::serviceUrl,
+				PeerReplicationEndpoint.PeerDescriptor::pendingTasks, PeerReplicationEndpoint.PeerDescriptor::lagging)
+			.containsExactly(tuple("http://peer1/eureka/", 1, true),
+					tuple("http://peer2/eureka/", 0, false));
+	}
+
+	@Test
+	void registersMetersWhenBound() {
+		this.metrics.monitor("peer1", "http://peer1/eureka/", 30000);
+
+		assertThat(this.meterRegistry.get("eureka.server.replication.requests")
+			.tags("peer", "peer1", "type", "asg_status", "outcome", "failure")
+			.timer()
+			.count()).isZero();
+		assertThat(this.meterRegistry.get("eureka.server.replication.task.age").tag("action", "cancel").timer())
+			.isNotNull();
+		assertThat(this.meterRegistry.get("eureka.server.replication.task.batch.size").summary()).isNotNull();
+	}
+
+	@Test
+	void countsOutcomesWithoutTrackingTasks() {
+		PeerReplicationMetrics metrics = new PeerReplicationMetrics(false);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		metrics.bindTo(meterRegistry);
+		PeerReplicationMonitor monitor = metrics.monitor("peer1", "http://peer1/eureka/", 30000);
+		monitor.accepted(Action.Register, "FOO", "foo1");
+
+		List<ReplicationInstance> batch = List.of(this.register);
+		long[] accepted = monitor.dispatched(batch);
+		monitor.batchFailed(batch, accepted, 1_000_000);
+
+		assertThat(accepted).isNull();
+		assertThat(monitor.getPendingTasks()).isZero();
+		assertThat(monitor.getTasks().get("register")).containsEntry("failure", 1L);
+		assertThat(meterRegistry.find("eureka.server.replication.pending").gauge()).isNull();
+		assertThat(meterRegistry.find("eureka.server.replication.task.age").timer()).isNull();
+		assertThat(meterRegistry.get("eureka.server.replication.task.batch.size").summary().count()).isEqualTo(1);
+	}
+
+	@Test
+	void removesTheMetersOfRemovedPeers() {
+		PeerReplicationMonitor monitor = this.metrics.monitor("peer1", "http://peer1/eureka/", 30000);
+		assertThat(this.meterRegistry.find("eureka.server.replication.pending").gauge()).isNotNull();
+
+		this.metrics.remove(monitor);
+
+		assertThat(this.meterRegistry.find("eureka.server.replication.pending").gauge()).isNull();
+		assertThat(this.metrics.getMonitors()).isEmpty();
+	}
+
+	private double gauge(String name) {
+		return this.meterRegistry.get(name).gauge().value();
+	}
+
+}
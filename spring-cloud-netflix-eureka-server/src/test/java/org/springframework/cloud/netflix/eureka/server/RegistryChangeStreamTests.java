@@ -0,0 +1,124 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link RegistryChangeStream}.
+ */
+class RegistryChangeStreamTests {
+
+	private final RegistryChangeStream stream = new RegistryChangeStream(2, 0);
+
+	@AfterEach
+	void tearDown() {
+		this.stream.destroy();
+	}
+
+	@Test
+	void newSubscriberIsResetThenReceivesChanges() {
+		RecordingSubscriber subscriber = new RecordingSubscriber();
+		this.stream.subscribe(null, subscriber);
+		await().atMost(5, SECONDS).until(() -> this.stream.getSubscriberCount() == 1);
+
+		this.stream.onApplicationEvent(new EurekaInstanceRegisteredEvent(this,
+				getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo()), 30, false));
+		this.stream.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo-host:8080", false));
+
+		await().atMost(5, SECONDS).until(() -> subscriber.events.size() == 3);
+		assertThat(subscriber.types()).containsExactly(RegistryChangeStream.RESET, RegistryChangeStream.REGISTER,
+				RegistryChangeStream.CANCEL);
+		assertThat(subscriber.events.get(1).data()).contains("\"instanceId\":\"foo-host:8080\"");
+		assertThat(subscriber.events.get(2).data()).isEqualTo("{\"app\":\"FOO\",\"id\":\"foo-host:8080\"}");
+	}
+
+	@Test
+	void resumingSubscriberReceivesMissedChanges() {
+		RecordingSubscriber first = new RecordingSubscriber();
+		this.stream.subscribe(null, first);
+		this.stream.append(RegistryChangeStream.CANCEL, "a");
+		await().atMost(5, SECONDS).until(() -> first.events.size() == 2);
+		this.stream.append(RegistryChangeStream.CANCEL, "b");
+
+		RecordingSubscriber resumed = new RecordingSubscriber();
+		this.stream.subscribe(first.events.get(1).cursor(), resumed);
+
+		await().atMost(5, SECONDS).until(() -> resumed.events.size() == 1);
+		assertThat(resumed.events.get(0).data()).isEqualTo("b");
+	}
+
+	@Test
+	void subscriberIsResetWhenMissedChangesAreNoLongerKept() {
+		RecordingSubscriber first = new RecordingSubscriber();
+		this.stream.subscribe(null, first);
+		this.stream.append(RegistryChangeStream.CANCEL, "a");
+		await().atMost(5, SECONDS).until(() -> first.events.size() == 2);
+		this.stream.append(RegistryChangeStream.CANCEL, "b");
+		this.stream.append(RegistryChangeStream.CANCEL, "c");
+		this.stream.append(RegistryChangeStream.CANCEL, "d");
+
+		RecordingSubscriber resumed = new RecordingSubscriber();
+		this.stream.subscribe(first.events.get(1).cursor(), resumed);
+		RecordingSubscriber foreign = new RecordingSubscriber();
+		this.stream.subscribe("1:1", foreign);
+
+		await().atMost(5, SECONDS).until(() -> resumed.events.size() == 1 && foreign.events.size() == 1);
+		assertThat(resumed.types()).containsExactly(RegistryChangeStream.RESET);
+		assertThat(foreign.types()).containsExactly(RegistryChangeStream.RESET);
+	}
+
+	record Event(String cursor, String type, String data) {
+	}
+
+	static class RecordingSubscriber extends RegistryChangeStream.Subscriber {
+
+		final List<Event> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		protected void send(String cursor, String type, String data) {
+			this.events.add(new Event(cursor, type, data));
+		}
+
+		@Override
+		protected void keepAlive() {
+		}
+
+		@Override
+		protected void close() {
+		}
+
+		List<String> types() {
+			return this.events.stream().map(Event::type).toList();
+		}
+
+	}
+
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRenewedEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.support.StaticApplicationContext;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Tests for {@link RegistryEventDispatcher}.
+ */
+class RegistryEventDispatcherTests {
+
+	private final RenewedEvents listener = new RenewedEvents();
+
+	private final List<EurekaInstanceRenewedEvent> events = this.listener.events;
+
+	private StaticApplicationContext context;
+
+	private RegistryEventDispatcher dispatcher;
+
+	@BeforeEach
+	void setup() {
+		this.context = new StaticApplicationContext();
+		this.context.addApplicationListener(this.listener);
+		this.context.refresh();
+		this.dispatcher = new RegistryEventDispatcher(16, 60_000);
+		this.dispatcher.setApplicationContext(this.context);
+	}
+
+	@AfterEach
+	void tearDown() {
+		this.dispatcher.destroy();
+		this.context.close();
+	}
+
+	@Test
+	void publishesEventsFromDispatcherThread() {
+		this.dispatcher.dispatch(EurekaInstanceRenewedEvent.class, () -> renewed("foo:8080"));
+
+		await().atMost(5, SECONDS).until(() -> this.events.size() == 1);
+		assertThat(this.dispatcher.getDispatchedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void coalescesRenewalsOfSameInstance() {
+		this.dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+				() -> renewed("foo:8080"));
+		this.dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+				() -> renewed("foo:8080"));
+		this.dispatcher.dispatchRenewal("FOO", "foo:8081", EurekaInstanceRenewedEvent.class,
+				() -> renewed("foo:8081"));
+
+		await().atMost(5, SECONDS).until(() -> this.events.size() == 2);
+		assertThat(this.dispatcher.getCoalescedCount()).isEqualTo(1);
+	}
+
+	@Test
+	void cancellationResetsCoalescing() {
+		this.dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+				() -> renewed("foo:8080"));
+		this.dispatcher.cancelled("FOO", "foo:8080");
+		this.dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+				() -> renewed("foo:8080"));
+
+		await().atMost(5, SECONDS).until(() -> this.events.size() == 2);
+		assertThat(this.dispatcher.getCoalescedCount()).isZero();
+	}
+
+	@Test
+	void coalescesRelativeToLastPublishedRenewal() throws InterruptedException {
+		RegistryEventDispatcher dispatcher = new RegistryEventDispatcher(16, 200);
+		dispatcher.setApplicationContext(this.context);
+		try {
+			for (int i = 0; i < 6; i++) {
+				dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+						() -> renewed("foo:8080"));
+				Thread.sleep(60);
+			}
+
+			// renewing more often than the window still publishes once per window
+			await().atMost(5, SECONDS).until(() -> this.events.size() >= 2);
+		}
+		finally {
+			dispatcher.destroy();
+		}
+	}
+
+	@Test
+	void forgetsInstancesOnceTheirWindowElapsed() throws InterruptedException {
+		RegistryEventDispatcher dispatcher = new RegistryEventDispatcher(16, 50);
+		dispatcher.setApplicationContext(this.context);
+		try {
+			dispatcher.dispatchRenewal("FOO", "foo:8080", EurekaInstanceRenewedEvent.class,
+					() -> renewed("foo:8080"));
+			assertThat(dispatcher.getCoalescingEntries()).isEqualTo(1);
+			Thread.sleep(120);
+
+			dispatcher.dispatchRenewal("FOO", "foo:8081", EurekaInstanceRenewedEvent.class,
+					() -> renewed("foo:8081"));
+
+			assertThat(dispatcher.getCoalescingEntries()).isEqualTo(1);
+		}
+		finally {
+			dispatcher.destroy();
+		}
+	}
+
+	@Test
+	void skipsEventsWithoutListeners() {
+		this.dispatcher.dispatch(EurekaInstanceCanceledEvent.class, () -> {
+			throw new AssertionError("event should not be created");
+		});
+
+		assertThat(this.dispatcher.getSkippedCount()).isEqualTo(1);
+		assertThat(this.dispatcher.getQueueSize()).isZero();
+	}
+
+	@Test
+	void countsEventsDroppedWhenTheQueueIsFull() throws InterruptedException {
+		RegistryEventDispatcher dispatcher = new RegistryEventDispatcher(1, 60_000);
+		dispatcher.setApplicationContext(this.context);
+		CountDownLatch publishing = new CountDownLatch(1);
+		CountDownLatch released = new CountDownLatch(1);
+		try {
+			// keeps the dispatcher thread busy
+			dispatcher.dispatch(EurekaInstanceRenewedEvent.class, () -> {
+				publishing.countDown();
+				await().atMost(5, SECONDS).until(() -> released.getCount() == 0);
+				return renewed("foo:8080");
+			});
+			assertThat(publishing.await(5, SECONDS)).isTrue();
+
+			dispatcher.dispatch(EurekaInstanceRenewedEvent.class, () -> renewed("foo:8081"));
+			dispatcher.dispatch(EurekaInstanceRenewedEvent.class, () -> renewed("foo:8082"));
+
+			assertThat(dispatcher.getDroppedCount()).isEqualTo(1);
+		}
+		finally {
+			released.countDown();
+			dispatcher.destroy();
+		}
+	}
+
+	private EurekaInstanceRenewedEvent renewed(String serverId) {
+		return new EurekaInstanceRenewedEvent(this, "FOO", serverId, null, false);
+	}
+
+	static class RenewedEvents implements ApplicationListener<EurekaInstanceRenewedEvent> {
+
+		final List<EurekaInstanceRenewedEvent> events = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onApplicationEvent(EurekaInstanceRenewedEvent event) {
+			this.events.add(event);
+		}
+
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.eureka.cluster.PeerEurekaNodes;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfoBuilder;
+
+/**
+ * Tests for {@link RegistryJournalFollower}.
+ */
+class RegistryJournalFollowerTests {
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private final RegistryJournalFollower follower = new RegistryJournalFollower(this.registry,
+			mock(PeerEurekaNodes.class), 60000, 2);
+
+	@AfterEach
+	void tearDown() {
+		this.follower.destroy();
+	}
+
+	@Test
+	void registersUnknownInstances() {
+		assertThat(this.follower.apply(register(instance("foo1", 10)))).isTrue();
+
+		verify(this.registry).register(argThat(info -> "foo1".equals(info.getId())), eq(true));
+	}
+
+	@Test
+	void skipsRegistrationsOlderThanKnownInstance() {
+		when(this.registry.getInstanceByAppAndId("FOO", "foo1", false)).thenReturn(instance("foo1", 20));
+
+		assertThat(this.follower.apply(register(instance("foo1", 10)))).isFalse();
+
+		verify(this.registry, never()).register(any(), anyBoolean());
+	}
+
+	@Test
+	void cancelsInstancesNotChangedSinceCancellation() {
+		when(this.registry.getInstanceByAppAndId("FOO", "foo1", false)).thenReturn(instance("foo1", 10));
+		when(this.registry.cancel("FOO", "foo1", true)).thenReturn(true);
+
+		assertThat(this.follower.apply(cancel("foo1", 5))).isFalse();
+		assertThat(this.follower.apply(cancel("foo1", 10))).isTrue();
+
+		verify(this.registry).cancel("FOO", "foo1", true);
+	}
+
+	@Test
+	void skipsCancellationsWithoutLastDirtyTimestamp() {
+		when(this.registry.getInstanceByAppAndId("FOO", "foo1", false)).thenReturn(instance("foo1", 10));
+		RegistryJournal.Change cancel = new RegistryJournal.Change(1, 20, RegistryJournal.CANCEL,
+				"{\"app\":\"FOO\",\"id\":\"foo1\"}");
+
+		assertThat(this.follower.apply(cancel)).isFalse();
+
+		verify(this.registry, never()).cancel(any(), any(), anyBoolean());
+	}
+
+	@Test
+	void readsFromLastChangeOfJournalFirstThenFollowsIt() {
+		RestClientReplicationClient client = mock(RestClientReplicationClient.class);
+		when(client.fetchJournal(null, 2)).thenReturn(new RegistryJournal.Changes("1:5", true, false, List.of()));
+		when(client.fetchJournal("1:5", 2))
+			.thenReturn(new RegistryJournal.Changes("1:7", false, true,
+					List.of(register(instance("foo1", 10)), register(instance("foo2", 10)))));
+		when(client.fetchJournal("1:7", 2))
+			.thenReturn(new RegistryJournal.Changes("1:8", false, false, List.of(register(instance("foo3", 10)))));
+
+		this.follower.catchUp("http://peer/eureka/", client);
+		this.follower.catchUp("http://peer/eureka/", client);
+
+		verify(this.registry).register(argThat(info -> "foo1".equals(info.getId())), eq(true));
+		verify(this.registry).register(argThat(info -> "foo3".equals(info.getId())), eq(true));
+		verify(client).fetchJournal("1:7", 2);
+	}
+
+	private static RegistryJournal.Change register(InstanceInfo instance) {
+		return new RegistryJournal.Change(1, instance.getLastDirtyTimestamp(), RegistryJournal.REGISTER,
+				EurekaServerAutoConfiguration.JACKSON_JSON.encode(instance));
+	}
+
+	private static RegistryJournal.Change cancel(String id, long lastDirtyTimestamp) {
+		// journaled by a peer whose clock is far ahead
+		return new RegistryJournal.Change(1, Long.MAX_VALUE, RegistryJournal.CANCEL,
+				"{\"app\":\"FOO\",\"id\":\"" + id + "\",\"lastDirtyTimestamp\":" + lastDirtyTimestamp + "}");
+	}
+
+	private static InstanceInfo instance(String id, long lastDirtyTimestamp) {
+		return getInstanceInfoBuilder("FOO", id, id, 8080, null)
+			.setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+			.setLastDirtyTimestamp(lastDirtyTimestamp)
+			.build();
+	}
+
+}
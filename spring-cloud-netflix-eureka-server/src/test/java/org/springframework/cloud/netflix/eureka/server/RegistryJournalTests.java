@@ -0,0 +1,175 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link RegistryJournal}.
+ */
+class RegistryJournalTests {
+
+	@TempDir
+	Path directory;
+
+	private RegistryJournal journal;
+
+	@AfterEach
+	void tearDown() throws IOException {
+		if (this.journal != null) {
+			this.journal.destroy();
+		}
+	}
+
+	@Test
+	void journalsChangesAcceptedFromClients() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+		String cursor = this.journal.read(null, 10).cursor();
+
+		this.journal.onApplicationEvent(new EurekaInstanceRegisteredEvent(this,
+				getInstanceInfo("FOO", "foo-host", "foo-host:8080", 8080, getLeaseInfo()), 30, false));
+		this.journal.onApplicationEvent(new EurekaInstanceRegisteredEvent(this,
+				getInstanceInfo("BAR", "bar-host", "bar-host:8080", 8080, getLeaseInfo()), 30, true));
+		this.journal.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo-host:8080", false, 42L));
+
+		await().untilAsserted(() -> assertThat(this.journal.read(cursor, 10).changes()).hasSize(2));
+		RegistryJournal.Changes changes = this.journal.read(cursor, 10);
+		assertThat(changes.reset()).isFalse();
+		assertThat(changes.more()).isFalse();
+		assertThat(changes.changes()).extracting(RegistryJournal.Change::type)
+			.containsExactly(RegistryJournal.REGISTER, RegistryJournal.CANCEL);
+		assertThat(changes.changes().get(0).data()).contains("\"instanceId\":\"foo-host:8080\"");
+		assertThat(changes.changes().get(1).data())
+			.isEqualTo("{\"app\":\"FOO\",\"id\":\"foo-host:8080\",\"lastDirtyTimestamp\":42}");
+		assertThat(changes.cursor()).isEqualTo(this.journal.getCursor());
+	}
+
+	@Test
+	void doesNotJournalEvictions() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+		String cursor = this.journal.getCursor();
+
+		this.journal
+			.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo-host:8080", false, 42L, true));
+		this.journal.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "BAR", "bar-host:8080", false, 42L));
+
+		await().untilAsserted(() -> assertThat(this.journal.read(cursor, 10).changes()).hasSize(1));
+		assertThat(this.journal.read(cursor, 10).changes().get(0).data()).contains("\"app\":\"BAR\"");
+	}
+
+	@Test
+	void writesQueuedChangesWhenDestroyed() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+		String cursor = this.journal.getCursor();
+		for (int i = 0; i < 100; i++) {
+			this.journal.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo-" + i, false, 42L));
+		}
+		this.journal.destroy();
+
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+
+		assertThat(this.journal.read(cursor, 1000).changes()).hasSize(100);
+	}
+
+	@Test
+	void readsChangesAcrossSegmentsInPages() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 256, 100);
+		String cursor = this.journal.getCursor();
+		for (int i = 0; i < 20; i++) {
+			this.journal.append(RegistryJournal.CANCEL, "change-" + i);
+		}
+		assertThat(segments()).hasSizeGreaterThan(1);
+
+		RegistryJournal.Changes first = this.journal.read(cursor, 15);
+		RegistryJournal.Changes second = this.journal.read(first.cursor(), 15);
+
+		assertThat(first.more()).isTrue();
+		assertThat(first.changes()).hasSize(15);
+		assertThat(second.more()).isFalse();
+		assertThat(second.changes()).extracting(RegistryJournal.Change::data)
+			.containsExactly("change-15", "change-16", "change-17", "change-18", "change-19");
+	}
+
+	@Test
+	void resetsReadersThatAreTooFarBehind() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 256, 2);
+		String cursor = this.journal.getCursor();
+		for (int i = 0; i < 50; i++) {
+			this.journal.append(RegistryJournal.CANCEL, "change-" + i);
+		}
+
+		RegistryJournal.Changes changes = this.journal.read(cursor, 10);
+
+		assertThat(segments()).hasSize(2);
+		assertThat(changes.reset()).isTrue();
+		assertThat(changes.changes()).isEmpty();
+		assertThat(changes.cursor()).isEqualTo(this.journal.getCursor());
+	}
+
+	@Test
+	void resetsReadersOfAnotherJournal() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 1024, 2);
+		this.journal.append(RegistryJournal.CANCEL, "change");
+
+		assertThat(this.journal.read("42:0", 10).reset()).isTrue();
+		assertThat(this.journal.read("invalid", 10).reset()).isTrue();
+	}
+
+	@Test
+	void goesOnFromLastCompleteChangeWhenReopened() throws IOException {
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+		String cursor = this.journal.getCursor();
+		this.journal.append(RegistryJournal.CANCEL, "first");
+		this.journal.append(RegistryJournal.CANCEL, "second");
+		this.journal.destroy();
+		Path segment = segments().get(0);
+		try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+			// leave the last change incomplete
+			file.setLength(file.length() - 3);
+		}
+
+		this.journal = new RegistryJournal(this.directory, 1024 * 1024, 2);
+		this.journal.append(RegistryJournal.CANCEL, "third");
+
+		assertThat(this.journal.read(cursor, 10).changes()).extracting(RegistryJournal.Change::data)
+			.containsExactly("first", "third");
+	}
+
+	private List<Path> segments() throws IOException {
+		try (Stream<Path> files = Files.list(this.directory)) {
+			return files.filter(file -> file.toString().endsWith(".journal")).toList();
+		}
+	}
+
+}
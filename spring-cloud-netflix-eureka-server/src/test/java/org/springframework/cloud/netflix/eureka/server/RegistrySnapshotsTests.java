@@ -0,0 +1,161 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.LeaseInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.converters.wrappers.CodecWrappers;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfoBuilder;
+
+/**
+ * Tests for {@link RegistrySnapshots}.
+ */
+class RegistrySnapshotsTests {
+
+	@TempDir
+	Path directory;
+
+	private Path path;
+
+	private RegistrySnapshots snapshots;
+
+	@BeforeEach
+	void setUp() {
+		ServerCodecs serverCodecs = mock(ServerCodecs.class);
+		when(serverCodecs.getFullJsonCodec()).thenReturn(CodecWrappers.getCodec(CodecWrappers.JacksonJson.class));
+		this.path = this.directory.resolve("registry.snapshot");
+		this.snapshots = new RegistrySnapshots(this.path, 30000, serverCodecs);
+	}
+
+	@Test
+	void readsWrittenSnapshot() throws Exception {
+		this.snapshots.write(applications(instance("FOO", "foo1", System.currentTimeMillis()),
+				instance("BAR", "bar1", System.currentTimeMillis())));
+
+		Applications applications = this.snapshots.read();
+
+		assertThat(applications.getRegisteredApplications()).extracting(Application::getName)
+			.containsExactlyInAnyOrder("FOO", "BAR");
+		assertThat(applications.getRegisteredApplications("FOO").getByInstanceId("foo1")).isNotNull();
+		assertThat(Files.exists(this.path.resolveSibling("registry.snapshot.tmp"))).isFalse();
+	}
+
+	@Test
+	void ignoresMissingSnapshot() throws Exception {
+		assertThat(this.snapshots.read()).isNull();
+		assertThat(this.snapshots.restore(mock(PeerAwareInstanceRegistry.class))).isZero();
+	}
+
+	@Test
+	void ignoresCorruptedSnapshot() throws Exception {
+		this.snapshots.write(applications(instance("FOO", "foo1", System.currentTimeMillis())));
+		try (RandomAccessFile file = new RandomAccessFile(this.path.toFile(), "rw")) {
+			file.seek(file.length() - 1);
+			int last = file.read();
+			file.seek(file.length() - 1);
+			file.write(last ^ 0xFF);
+		}
+
+		assertThat(this.snapshots.read()).isNull();
+	}
+
+	@Test
+	void ignoresTruncatedSnapshot() throws Exception {
+		this.snapshots.write(applications(instance("FOO", "foo1", System.currentTimeMillis())));
+		try (RandomAccessFile file = new RandomAccessFile(this.path.toFile(), "rw")) {
+			file.setLength(file.length() - 10);
+		}
+
+		assertThat(this.snapshots.read()).isNull();
+	}
+
+	@Test
+	void restoresInstancesWithUnexpiredLeases() throws Exception {
+		long now = System.currentTimeMillis();
+		this.snapshots
+			.write(applications(instance("FOO", "foo1", now - 10_000), instance("FOO", "foo2", now - 600_000)));
+		PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+		assertThat(this.snapshots.restore(registry)).isEqualTo(1);
+
+		verify(registry).register(argThat(instance -> "foo1".equals(instance.getId())), eq(90), eq(true));
+		verify(registry, never()).register(argThat(instance -> "foo2".equals(instance.getId())), anyInt(),
+				anyBoolean());
+	}
+
+	@Test
+	void writesSnapshotWhenStopped() throws Exception {
+		PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+		when(registry.getApplicationsFromLocalRegionOnly())
+			.thenReturn(applications(instance("FOO", "foo1", System.currentTimeMillis())));
+
+		this.snapshots.start(registry);
+		this.snapshots.stop();
+
+		assertThat(this.snapshots.read().getRegisteredApplications("FOO").getInstances()).hasSize(1);
+		verify(registry, never()).register(any(), anyInt(), anyBoolean());
+	}
+
+	private static Applications applications(InstanceInfo... instances) {
+		Applications applications = new Applications();
+		for (InstanceInfo instance : instances) {
+			Application application = applications.getRegisteredApplications(instance.getAppName());
+			if (application == null) {
+				application = new Application(instance.getAppName());
+				applications.addApplication(application);
+			}
+			application.addInstance(instance);
+		}
+		return applications;
+	}
+
+	private static InstanceInfo instance(String appName, String id, long lastRenewal) {
+		LeaseInfo leaseInfo = LeaseInfo.Builder.newBuilder()
+			.setDurationInSecs(90)
+			.setRenewalTimestamp(lastRenewal)
+			.build();
+		return getInstanceInfoBuilder(appName, id, id, 8080, leaseInfo)
+			.setStatus(InstanceInfo.InstanceStatus.UP)
+			.setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+			.build();
+	}
+
+}
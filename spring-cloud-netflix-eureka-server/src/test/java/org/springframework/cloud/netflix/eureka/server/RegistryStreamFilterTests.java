@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests for {@link RegistryStreamFilter}.
+ */
+class RegistryStreamFilterTests {
+
+	private final RegistryChangeStream stream = new RegistryChangeStream(100, 0);
+
+	private final RegistryStreamFilter filter = new RegistryStreamFilter(this.stream, 2);
+
+	@AfterEach
+	void tearDown() {
+		this.stream.destroy();
+	}
+
+	@Test
+	void stalledSubscriberIsDroppedWithoutHoldingUpOthers() throws Exception {
+		Connection stalled = new Connection(false);
+		Connection ready = new Connection(true);
+		subscribe(stalled);
+		subscribe(ready);
+		await().atMost(5, SECONDS).until(() -> this.stream.getSubscriberCount() == 2);
+
+		for (int i = 0; i < 3; i++) {
+			this.stream.append(RegistryChangeStream.CANCEL, "change-" + i);
+		}
+
+		await().atMost(5, SECONDS).until(() -> this.stream.getSubscriberCount() == 1);
+		verify(stalled.asyncContext).complete();
+		await().atMost(5, SECONDS).until(() -> ready.written().contains("change-2"));
+	}
+
+	@Test
+	void pendingEventsAreWrittenWhenTheConnectionBecomesReady() throws Exception {
+		Connection connection = new Connection(false);
+		subscribe(connection);
+		this.stream.append(RegistryChangeStream.CANCEL, "change");
+		await().atMost(5, SECONDS).until(() -> this.stream.getSubscriberCount() == 1);
+		assertThat(connection.written()).isEmpty();
+
+		connection.ready = true;
+		await().atMost(5, SECONDS).untilAsserted(() -> {
+			connection.writeListener.onWritePossible();
+			assertThat(connection.written()).contains("event:reset").contains("data:change");
+		});
+	}
+
+	private void subscribe(Connection connection) throws Exception {
+		this.filter.doFilter(connection.request, connection.response, mock(FilterChain.class));
+	}
+
+	private static final class Connection {
+
+		final HttpServletRequest request = mock(HttpServletRequest.class);
+
+		final HttpServletResponse response = mock(HttpServletResponse.class);
+
+		final AsyncContext asyncContext = mock(AsyncContext.class);
+
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		volatile boolean ready;
+
+		volatile WriteListener writeListener;
+
+		Connection(boolean ready) throws Exception {
+			this.ready = ready;
+			when(this.request.getMethod()).thenReturn("GET");
+			when(this.request.getRequestURI()).thenReturn("/eureka/v2/stream");
+			when(this.request.startAsync(any(), any())).thenReturn(this.asyncContext);
+			when(this.asyncContext.getResponse()).thenReturn(this.response);
+			when(this.response.getOutputStream()).thenReturn(new ServletOutputStream() {
+
+				@Override
+				public boolean isReady() {
+					return Connection.this.ready;
+				}
+
+				@Override
+				public void setWriteListener(WriteListener writeListener) {
+					Connection.this.writeListener = writeListener;
+				}
+
+				@Override
+				public void write(int b) {
+					synchronized (Connection.this.output) {
+						Connection.this.output.write(b);
+					}
+				}
+
+			});
+		}
+
+		String written() {
+			synchronized (this.output) {
+				return this.output.toString(StandardCharsets.UTF_8);
+			}
+		}
+
+	}
+
+}
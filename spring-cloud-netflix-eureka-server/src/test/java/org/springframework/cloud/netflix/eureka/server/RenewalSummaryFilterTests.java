@@ -0,0 +1,95 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.nio.charset.StandardCharsets;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getLeaseInfo;
+
+/**
+ * Tests for {@link RenewalSummaryFilter}.
+ */
+class RenewalSummaryFilterTests {
+
+	private final PeerAwareInstanceRegistry registry = mock(PeerAwareInstanceRegistry.class);
+
+	private final RenewalSummaryFilter filter = new RenewalSummaryFilter(this.registry);
+
+	private final InstanceInfo info = getInstanceInfo("FOO", "foo1", "foo1:8080", 8080, getLeaseInfo());
+
+	@Test
+	void renewsInstancesKnownWithTheSameTimestamp() throws Exception {
+		when(this.registry.getInstanceByAppAndId("FOO", "foo1:8080", false)).thenReturn(this.info);
+		when(this.registry.renew("FOO", "foo1:8080", true)).thenReturn(true);
+
+		MockHttpServletResponse response = post("""
+				{"FOO":{"foo1:8080":%d,"foo2:8080":1},"BAR":{"bar1:8080":1}}
+				""".formatted(this.info.getLastDirtyTimestamp()), true);
+
+		assertThat(response.getStatus()).isEqualTo(200);
+		assertThat(response.getContentAsString()).isEqualTo("{\"FOO\":[\"foo2:8080\"],\"BAR\":[\"bar1:8080\"]}");
+		verify(this.registry).renew("FOO", "foo1:8080", true);
+	}
+
+	@Test
+	void rejectsInstancesKnownWithAnotherTimestamp() throws Exception {
+		when(this.registry.getInstanceByAppAndId("FOO", "foo1:8080", false)).thenReturn(this.info);
+
+		MockHttpServletResponse response = post("""
+				{"FOO":{"foo1:8080":%d}}
+				""".formatted(this.info.getLastDirtyTimestamp() - 1), true);
+
+		assertThat(response.getContentAsString()).isEqualTo("{\"FOO\":[\"foo1:8080\"]}");
+		verify(this.registry, never()).renew(anyString(), anyString(), anyBoolean());
+	}
+
+	@Test
+	void acceptsSummariesOnlyFromPeers() throws Exception {
+		MockHttpServletResponse response = post("{}", false);
+
+		assertThat(response.getStatus()).isEqualTo(403);
+	}
+
+	private MockHttpServletResponse post(String body, boolean replication) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST",
+				"/eureka/v2" + RenewalSummaryFilter.PATH);
+		if (replication) {
+			request.addHeader(EurekaMvcEndpoints.REPLICATION_HEADER, "true");
+		}
+		request.setContent(body.getBytes(StandardCharsets.UTF_8));
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+}
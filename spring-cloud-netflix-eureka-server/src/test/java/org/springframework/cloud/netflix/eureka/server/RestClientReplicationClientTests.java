@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.netflix.appinfo.DataCenterInfo;
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.appinfo.MyDataCenterInfo;
+import com.netflix.discovery.shared.transport.EurekaHttpResponse;
+import com.netflix.eureka.EurekaServerConfig;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import com.netflix.eureka.resources.ServerCodecs;
+import jakarta.ws.rs.client.ClientRequestFilter;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cloud.netflix.eureka.server.RestClientReplicationClientTests.Application;
+import org.springframework.context.annotation.Configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+@SpringBootTest(classes = Application.class, webEnvironment = RANDOM_PORT,
+		properties = { "spring.application.name=eureka", "eureka.server.peer-node-read-timeout-ms=5000" })
+class RestClientReplicationClientTests {
+
+	@LocalServerPort
+	private int port = 0;
+
+	@Autowired
+	private EurekaServerConfig serverConfig;
+
+	@Autowired
+	private ServerCodecs serverCodecs;
+
+	@Autowired
+	private PeerAwareInstanceRegistry registry;
+
+	@ParameterizedTest
+	@ValueSource(booleans = { false, true })
+	void replicatesToPeer(boolean http2) {
+		List<String> filtered = new CopyOnWriteArrayList<>();
+		ClientRequestFilter filter = context -> {
+			filtered.add(context.getMethod() + " " + context.getUri().getPath());
+			context.getHeaders().add("X-Filtered", "true");
+		};
+		RestClientReplicationClient client = RestClientReplicationClient.create(this.serverConfig,
+				this.serverCodecs, "http://localhost:" + this.port + "/eureka/", http2, List.of(filter));
+		String id = "replicated-" + http2;
+		InstanceInfo instance = InstanceInfo.Builder.newBuilder()
+			.setAppName("replicated-app")
+			.setInstanceId(id)
+			.setHostName("replicated-host")
+			.setIPAddr("10.0.0.2")
+			.setDataCenterInfo(new MyDataCenterInfo(DataCenterInfo.Name.MyOwn))
+			.build();
+		try {
+			assertThat(client.register(instance).getStatusCode()).isEqualTo(204);
+			assertThat(this.registry.getInstanceByAppAndId("REPLICATED-APP", id)).isNotNull();
+
+			EurekaHttpResponse<InstanceInfo> heartbeat = client.sendHeartBeat("REPLICATED-APP", id, instance, null);
+			assertThat(heartbeat.getStatusCode()).isEqualTo(200);
+
+			assertThat(client.cancel("REPLICATED-APP", id).getStatusCode()).isEqualTo(200);
+			assertThat(this.registry.getInstanceByAppAndId("REPLICATED-APP", id)).isNull();
+			assertThat(client.cancel("REPLICATED-APP", id).getStatusCode()).isEqualTo(404);
+		}
+		finally {
+			client.shutdown();
+		}
+
+		assertThat(filtered).contains("POST /eureka/apps/REPLICATED-APP",
+				"DELETE /eureka/apps/REPLICATED-APP/" + id);
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@EnableAutoConfiguration
+	@EnableEurekaServer
+	protected static class Application {
+
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server.metrics;
+
+import java.util.List;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import com.netflix.eureka.registry.PeerAwareInstanceRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceCanceledEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceRegisteredEvent;
+import org.springframework.cloud.netflix.eureka.server.event.EurekaInstanceStatusChangedEvent;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.cloud.netflix.eureka.server.EurekaInstanceFixture.getInstanceInfo;
+
+/**
+ * Tests for the incremental counting in {@link EurekaInstanceMonitor}.
+ */
+class EurekaInstanceMonitorIncrementalTests {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final PeerAwareInstanceRegistry instanceRegistry = mock(PeerAwareInstanceRegistry.class);
+
+	private final EurekaInstanceTagsProvider tagsProvider = new DefaultEurekaInstanceTagsProvider();
+
+	private final EurekaInstanceMonitor monitor = new EurekaInstanceMonitor(meterRegistry, instanceRegistry,
+			tagsProvider, 10, 0);
+
+	@AfterEach
+	void tearDown() {
+		monitor.destroy();
+	}
+
+	@Test
+	void countsAreUpdatedWithoutScanningRegistry() {
+		InstanceInfo foo1 = getInstanceInfo("FOO", "localhost", "foo:1", 8080, null);
+		InstanceInfo foo2 = getInstanceInfo("FOO", "localhost", "foo:2", 8080, null);
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo1, 30, false));
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo2, 30, false));
+		// re-registration of the same instance is not counted twice
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo2, 30, false));
+
+		assertCount(tagsProvider.eurekaInstanceTags(foo1), 2);
+		verifyNoInteractions(instanceRegistry);
+	}
+
+	@Test
+	void statusChangeMovesInstanceBetweenRows() {
+		InstanceInfo foo1 = getInstanceInfo("FOO", "localhost", "foo:1", 8080, null);
+		InstanceInfo foo2 = getInstanceInfo("FOO", "localhost", "foo:2", 8080, null);
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo1, 30, false));
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo2, 30, false));
+		Tags up = tagsProvider.eurekaInstanceTags(foo1);
+
+		foo1.setStatusWithoutDirty(InstanceInfo.InstanceStatus.DOWN);
+		monitor.onApplicationEvent(new EurekaInstanceStatusChangedEvent(this, "FOO", "foo:1", foo1, false));
+
+		assertCount(up, 1);
+		assertCount(tagsProvider.eurekaInstanceTags(foo1), 1);
+	}
+
+	@Test
+	void cancelRemovesEmptyRow() {
+		InstanceInfo foo1 = getInstanceInfo("FOO", "localhost", "foo:1", 8080, null);
+		InstanceInfo bar1 = getInstanceInfo("BAR", "localhost", "bar:1", 8080, null);
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo1, 30, false));
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, bar1, 30, false));
+		assertCount(tagsProvider.eurekaInstanceTags(foo1), 1);
+
+		monitor.onApplicationEvent(new EurekaInstanceCanceledEvent(this, "FOO", "foo:1", false));
+
+		await().atMost(5, SECONDS)
+			.untilAsserted(() -> assertThat(meterRegistry.find("eureka.server.instances")
+				.tags(tagsProvider.eurekaInstanceTags(foo1))
+				.gauge()).isNull());
+		assertCount(tagsProvider.eurekaInstanceTags(bar1), 1);
+	}
+
+	@Test
+	void reconciliationReplacesCounts() {
+		InstanceInfo foo1 = getInstanceInfo("FOO", "localhost", "foo:1", 8080, null);
+		InstanceInfo foo2 = getInstanceInfo("FOO", "localhost", "foo:2", 8080, null);
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo1, 30, false));
+		Application application = new Application("FOO", List.of(foo1, foo2));
+		Applications applications = new Applications();
+		applications.addApplication(application);
+		when(instanceRegistry.getApplications()).thenReturn(applications);
+
+		monitor.reconcile();
+
+		assertCount(tagsProvider.eurekaInstanceTags(foo1), 2);
+	}
+
+	@Test
+	void reconciliationKeepsEventsThatArriveDuringTheScan() {
+		InstanceInfo foo1 = getInstanceInfo("FOO", "localhost", "foo:1", 8080, null);
+		InstanceInfo foo2 = getInstanceInfo("FOO", "localhost", "foo:2", 8080, null);
+		InstanceInfo foo3 = getInstanceInfo("FOO", "localhost", "foo:3", 8080, null);
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo1, 30, false));
+		monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo2, 30, false));
+		Applications applications = new Applications();
+		applications.addApplication(new Application("FOO", List.of(foo1, foo2)));
+		when(instanceRegistry.getApplications()).thenAnswer(invocation -> {
+			// registered while the registry is being scanned, after the scan copied it
+			monitor.onApplicationEvent(new EurekaInstanceRegisteredEvent(this, foo3, 30, false));
+			return applications;
+		});
+
+		monitor.reconcile();
+
+		assertCount(tagsProvider.eurekaInstanceTags(foo1), 3);
+	}
+
+	private void assertCount(Tags tags, long count) {
+		await().atMost(5, SECONDS).untilAsserted(() -> {
+			double value = meterRegistry.get("eureka.server.instances").tags(tags).gauge().value();
+			assertThat((long) value).isEqualTo(count);
+		});
+	}
+
+}
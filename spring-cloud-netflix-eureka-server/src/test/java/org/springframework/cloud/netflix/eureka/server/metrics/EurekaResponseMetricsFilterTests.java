@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.netflix.eureka.server.metrics;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Tests for {@link EurekaResponseMetricsFilter}.
+ */
+class EurekaResponseMetricsFilterTests {
+
+	private static final String PAYLOAD = "{\"applications\":{\"application\":[]}}".repeat(50);
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	private final EurekaResponseMetricsFilter filter = new EurekaResponseMetricsFilter(this.meterRegistry);
+
+	@Test
+	void recordsSizeOfIdentityResponses() throws Exception {
+		byte[] body = PAYLOAD.getBytes(StandardCharsets.UTF_8);
+
+		serve("/eureka/apps/", body, null);
+
+		assertThat(this.meterRegistry.get("eureka.server.responses.size")
+			.tag("resource", "full")
+			.tag("encoding", "identity")
+			.summary()
+			.totalAmount()).isEqualTo(body.length);
+		assertThat(this.meterRegistry.get("eureka.server.responses.gzip").tag("resource", "full").counter().count())
+			.isZero();
+		assertThat(this.filter.compressionRatio()).isNaN();
+	}
+
+	@Test
+	void recordsGzipResponsesAndCompressionRatio() throws Exception {
+		byte[] body = gzip(PAYLOAD);
+
+		serve("/eureka/apps/", body, "gzip");
+
+		assertThat(this.meterRegistry.get("eureka.server.responses.size")
+			.tag("resource", "full")
+			.tag("encoding", "gzip")
+			.summary()
+			.totalAmount()).isEqualTo(body.length);
+		assertThat(this.meterRegistry.get("eureka.server.responses.gzip")
+			.tag("resource", "full")
+			.counter()
+			.count()).isEqualTo(1);
+		assertThat(this.filter.compressionRatio()).isCloseTo((double) body.length / PAYLOAD.length(),
+				within(1e-9));
+	}
+
+	@Test
+	void recordsDeltaAndApplicationResponses() throws Exception {
+		serve("/eureka/apps/delta", gzip(PAYLOAD), "gzip");
+		serve("/eureka/apps/FOO", PAYLOAD.getBytes(StandardCharsets.UTF_8), null);
+
+		assertThat(this.meterRegistry.get("eureka.server.responses.gzip")
+			.tag("resource", "delta")
+			.counter()
+			.count()).isEqualTo(1);
+		assertThat(this.meterRegistry.get("eureka.server.responses.size")
+			.tag("resource", "application")
+			.tag("encoding", "identity")
+			.summary()
+			.count()).isEqualTo(1);
+		// only full registry responses make the ratio
+		assertThat(this.filter.compressionRatio()).isNaN();
+	}
+
+	@Test
+	void ignoresOtherRequests() throws Exception {
+		serve("/eureka/apps/FOO/foo:8080", PAYLOAD.getBytes(StandardCharsets.UTF_8), null);
+
+		assertThat(this.meterRegistry.find("eureka.server.responses.size").summaries())
+			.allSatisfy(summary -> assertThat(summary.count()).isZero());
+	}
+
+	private void serve(String uri, byte[] body, String encoding) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		request.setRequestURI(uri);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		this.filter.doFilter(request, response, (req, res) -> {
+			if (encoding != null) {
+				((HttpServletResponse) res).setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+			}
+			// written in two parts, so that the gzip trailer spans both
+			res.getOutputStream().write(body, 0, body.length - 2);
+			res.getOutputStream().write(body[body.length - 2]);
+			res.getOutputStream().write(body, body.length - 1, 1);
+		});
+	}
+
+	private static byte[] gzip(String payload) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			gzip.write(payload.getBytes(StandardCharsets.UTF_8));
+		}
+		return bytes.toByteArray();
+	}
+
+}